@@ -26,6 +26,7 @@ import io.confluent.kafka.serializers.GenericContainerWithVersion;
 import io.confluent.kafka.serializers.KafkaAvroDeserializerConfig;
 import io.confluent.kafka.serializers.KafkaAvroSerializerConfig;
 import io.confluent.kafka.serializers.NonRecordContainer;
+import io.confluent.kafka.serializers.SchemaTranslationCache;
 import org.apache.avro.generic.GenericContainer;
 import org.apache.avro.generic.IndexedRecord;
 import org.apache.kafka.common.config.ConfigException;
@@ -50,6 +51,9 @@ public class AvroConverter implements Converter {
 
   private boolean isKey;
   private AvroData avroData;
+  private boolean directDecoding;
+  private SchemaTranslationCache<ConnectDatumReader> connectDatumReaders;
+  private SchemaTranslationCache<ConversionPlan> conversionPlans;
 
   public AvroConverter() {
   }
@@ -63,8 +67,9 @@ public class AvroConverter implements Converter {
   public void configure(Map<String, ?> configs, boolean isKey) {
     this.isKey = isKey;
     AvroConverterConfig avroConverterConfig = new AvroConverterConfig(configs);
+    boolean createClient = schemaRegistry == null;
 
-    if (schemaRegistry == null) {
+    if (createClient) {
       schemaRegistry = SchemaRegistryClientFactory.newClient(
           avroConverterConfig.getSchemaRegistryUrls(),
           avroConverterConfig.getMaxSchemasPerSubject(),
@@ -76,7 +81,38 @@ public class AvroConverter implements Converter {
 
     serializer = new Serializer(configs, schemaRegistry);
     deserializer = new Deserializer(configs, schemaRegistry);
-    avroData = new AvroData(new AvroDataConfig(configs));
+    AvroDataConfig avroDataConfig = new AvroDataConfig(configs);
+    avroData = new AvroData(avroDataConfig);
+    directDecoding = avroDataConfig.isDirectDecoding();
+    releaseTranslationCaches();
+    if (deserializer.sharesSchemaIds()) {
+      // Only what the translations depend on, so that the scope holds no credentials
+      Map<String, ?> scope = avroDataConfig.values();
+      Object registryScope = SchemaTranslationCache.registryScope(
+          schemaRegistry, createClient, avroConverterConfig.getSchemaRegistryUrls());
+      connectDatumReaders = SchemaTranslationCache.shared(
+          getClass(), isKey, ConnectDatumReader.class, scope, registryScope);
+      conversionPlans = SchemaTranslationCache.shared(
+          getClass(), isKey, ConversionPlan.class, scope, registryScope);
+    }
+  }
+
+  /**
+   * Releases the translation caches that this converter shares with others.
+   */
+  public void close() {
+    releaseTranslationCaches();
+  }
+
+  private void releaseTranslationCaches() {
+    if (connectDatumReaders != null) {
+      connectDatumReaders.release();
+      connectDatumReaders = null;
+    }
+    if (conversionPlans != null) {
+      conversionPlans.release();
+      conversionPlans = null;
+    }
   }
 
   @Override
@@ -103,6 +139,13 @@ public class AvroConverter implements Converter {
   @Override
   public SchemaAndValue toConnectData(String topic, byte[] value) {
     try {
+      if (directDecoding) {
+        SchemaAndValue result = deserializer.deserializeToConnectData(
+            topic, isKey, value, avroData, connectDatumReaders);
+        if (result != null) {
+          return result;
+        }
+      }
       GenericContainerWithVersion containerWithVersion =
           deserializer.deserialize(topic, isKey, value);
       if (containerWithVersion == null) {
@@ -110,6 +153,10 @@ public class AvroConverter implements Converter {
       }
       GenericContainer deserialized = containerWithVersion.container();
       Integer version = containerWithVersion.version();
+      SchemaAndValue converted = toConnectDataWithPlan(value, deserialized, version);
+      if (converted != null) {
+        return converted;
+      }
       if (deserialized instanceof IndexedRecord) {
         return avroData.toConnectData(deserialized.getSchema(), deserialized, version);
       } else if (deserialized instanceof NonRecordContainer) {
@@ -131,6 +178,37 @@ public class AvroConverter implements Converter {
     }
   }
 
+  /**
+   * Converts the record with the compiled conversion for its schema, looked up by schema id and
+   * version.
+   *
+   * @return the Connect schema and value, or null if the record must be converted by
+   *     {@link AvroData}
+   */
+  private SchemaAndValue toConnectDataWithPlan(
+      byte[] payload, GenericContainer deserialized, Integer version) {
+    Object value;
+    if (deserialized instanceof IndexedRecord) {
+      value = deserialized;
+    } else if (deserialized instanceof NonRecordContainer) {
+      value = ((NonRecordContainer) deserialized).getValue();
+    } else {
+      return null;
+    }
+    if (conversionPlans == null || version == null || value == null) {
+      return null;
+    }
+    int id = SchemaTranslationCache.schemaId(payload);
+    ConversionPlan plan = conversionPlans.get(id, version);
+    if (plan == null) {
+      plan = avroData.toConnectPlan(deserialized.getSchema(), version);
+      if (plan == null) {
+        return null;
+      }
+      conversionPlans.put(id, version, plan);
+    }
+    return new SchemaAndValue(plan.connectSchema(), plan.convert(value));
+  }
 
   private static class Serializer extends AbstractKafkaAvroSerializer {
 
@@ -171,5 +249,46 @@ public class AvroConverter implements Converter {
     public GenericContainerWithVersion deserialize(String topic, boolean isKey, byte[] payload) {
       return deserializeWithSchemaAndVersion(topic, isKey, payload);
     }
+
+    public boolean sharesSchemaIds() {
+      return schemaIdsSharedAcrossTopics();
+    }
+
+    /**
+     * Decodes a record payload straight into Connect data.
+     *
+     * @param readers the readers by schema id and version, or null if they are not cached
+     * @return the Connect schema and value, or null if the payload must be deserialized into an
+     *     Avro object and converted instead
+     */
+    public SchemaAndValue deserializeToConnectData(
+        String topic, boolean isKey, byte[] payload, AvroData avroData,
+        SchemaTranslationCache<ConnectDatumReader> readers) {
+      if (useSpecificAvroReader
+          || useSchemaReflection
+          || avroUseLogicalTypeConverters
+          || isDeprecatedSubjectNameStrategy(isKey)) {
+        return null;
+      }
+      return deserializeWithSchemaAndVersion(topic, isKey, payload,
+          (writerSchema, readerSchema, version, decoder) -> {
+            if (writerSchema.getType() != org.apache.avro.Schema.Type.RECORD) {
+              return null;
+            }
+            boolean cached = readers != null && version != null;
+            int id = cached ? SchemaTranslationCache.schemaId(payload) : -1;
+            ConnectDatumReader reader = cached ? readers.get(id, version) : null;
+            if (reader == null) {
+              reader = avroData.getConnectDatumReader(writerSchema, readerSchema, version);
+              if (reader == null) {
+                return null;
+              }
+              if (cached) {
+                readers.put(id, version, reader);
+              }
+            }
+            return new SchemaAndValue(reader.schema(), reader.read(decoder));
+          });
+    }
   }
 }
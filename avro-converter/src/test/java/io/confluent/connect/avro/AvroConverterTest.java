@@ -16,6 +16,7 @@
 
 package io.confluent.connect.avro;
 
+import io.confluent.kafka.schemaregistry.ParsedSchema;
 import io.confluent.kafka.schemaregistry.avro.AvroSchema;
 import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
 import io.confluent.kafka.serializers.subject.RecordNameStrategy;
@@ -34,7 +35,9 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
@@ -47,7 +50,9 @@ import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
@@ -236,6 +241,97 @@ public class AvroConverterTest {
   }
 
 
+  @Test
+  public void testTranslationCachesSharedUntilClosed() {
+    SchemaRegistryClient schemaRegistry = new MockSchemaRegistryClient();
+    Map<String, Object> config = new HashMap<>();
+    config.put(AbstractKafkaSchemaSerDeConfig.SCHEMA_REGISTRY_URL_CONFIG, "http://fake-url");
+    config.put(AbstractKafkaSchemaSerDeConfig.USER_INFO_CONFIG, "user:secret");
+    AvroConverter converter1 = new AvroConverter(schemaRegistry);
+    converter1.configure(config, false);
+    // Credentials do not separate the caches
+    config.put(AbstractKafkaSchemaSerDeConfig.USER_INFO_CONFIG, "user:other");
+    AvroConverter converter2 = new AvroConverter(schemaRegistry);
+    converter2.configure(config, false);
+    Object plans = Whitebox.getInternalState(converter1, "conversionPlans");
+    assertNotNull(plans);
+    assertSame(plans, Whitebox.getInternalState(converter2, "conversionPlans"));
+
+    converter1.close();
+    assertNull(Whitebox.getInternalState(converter1, "conversionPlans"));
+    AvroConverter converter3 = new AvroConverter(schemaRegistry);
+    converter3.configure(config, false);
+    assertSame(plans, Whitebox.getInternalState(converter3, "conversionPlans"));
+
+    // Once every converter is closed, the cache is dropped
+    converter2.close();
+    converter3.close();
+    AvroConverter converter4 = new AvroConverter(schemaRegistry);
+    converter4.configure(config, false);
+    assertNotSame(plans, Whitebox.getInternalState(converter4, "conversionPlans"));
+    converter4.close();
+  }
+
+  @Test
+  public void testVersionCachedAcrossRecords() throws Exception {
+    AtomicInteger versionLookups = new AtomicInteger();
+    SchemaRegistryClient schemaRegistry = new MockSchemaRegistryClient() {
+      @Override
+      public int getVersion(String subject, ParsedSchema schema)
+          throws IOException, RestClientException {
+        versionLookups.incrementAndGet();
+        return super.getVersion(subject, schema);
+      }
+    };
+    AvroConverter avroConverter = new AvroConverter(schemaRegistry);
+    avroConverter.configure(SR_CONFIG, false);
+
+    org.apache.avro.Schema avroSchema = org.apache.avro.SchemaBuilder
+        .record("Foo").fields()
+        .requiredInt("key")
+        .endRecord();
+    schemaRegistry.register(TOPIC + "-value", new AvroSchema(avroSchema));
+    schemaRegistry.register("other-value", new AvroSchema(avroSchema));
+    KafkaAvroSerializer serializer = new KafkaAvroSerializer(schemaRegistry);
+    byte[] serializedRecord = serializer.serialize(TOPIC,
+        new org.apache.avro.generic.GenericRecordBuilder(avroSchema).set("key", 15).build());
+
+    SchemaAndValue converted1 = avroConverter.toConnectData(TOPIC, serializedRecord);
+    SchemaAndValue converted2 = avroConverter.toConnectData(TOPIC, serializedRecord);
+    assertEquals(1L, (long) converted1.schema().version());
+    assertEquals(converted1, converted2);
+    assertEquals(1, versionLookups.get());
+
+    // The version is resolved again for another topic
+    avroConverter.toConnectData("other", serializedRecord);
+    assertEquals(2, versionLookups.get());
+  }
+
+  @Test
+  public void testTranslationsSharedAcrossConverters() throws Exception {
+    SchemaRegistryClient schemaRegistry = new MockSchemaRegistryClient();
+    AvroConverter avroConverter1 = new AvroConverter(schemaRegistry);
+    avroConverter1.configure(SR_CONFIG, false);
+    AvroConverter avroConverter2 = new AvroConverter(schemaRegistry);
+    avroConverter2.configure(SR_CONFIG, false);
+
+    org.apache.avro.Schema avroSchema = org.apache.avro.SchemaBuilder
+        .record("Foo").fields()
+        .requiredInt("key")
+        .endRecord();
+    KafkaAvroSerializer serializer = new KafkaAvroSerializer(schemaRegistry,
+        ImmutableMap.of(AbstractKafkaSchemaSerDeConfig.SCHEMA_REGISTRY_URL_CONFIG, "localhost"));
+    byte[] serializedRecord = serializer.serialize(TOPIC,
+        new org.apache.avro.generic.GenericRecordBuilder(avroSchema).set("key", 15).build());
+
+    SchemaAndValue converted1 = avroConverter1.toConnectData(TOPIC, serializedRecord);
+    SchemaAndValue converted2 = avroConverter2.toConnectData(TOPIC, serializedRecord);
+    assertEquals(converted1, converted2);
+    // The second converter uses the Connect schema translated by the first one
+    assertTrue(converted1.schema() == converted2.schema());
+  }
+
+
   @Test
   public void testVersionMaintained() {
     // Version info provided from the Copycat schema should be maintained. This should be true
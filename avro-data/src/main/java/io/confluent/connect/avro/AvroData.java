@@ -24,7 +24,7 @@ import com.fasterxml.jackson.databind.node.NullNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.confluent.connect.schema.ConnectEnum;
 import io.confluent.connect.schema.ConnectUnion;
-import io.confluent.kafka.schemaregistry.utils.BoundedConcurrentHashMap;
+import io.confluent.kafka.schemaregistry.utils.BoundedCache;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.util.regex.Pattern;
@@ -64,6 +64,7 @@ import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 
 import io.confluent.kafka.schemaregistry.avro.AvroSchema;
@@ -331,6 +332,11 @@ public class AvroData {
 
   private Map<Schema, org.apache.avro.Schema> fromConnectSchemaCache;
   private Map<AvroSchema, Schema> toConnectSchemaCache;
+  private Map<Schema, Optional<ConversionPlan>> fromConnectPlanCache;
+  private Map<AvroSchema, Optional<ConversionPlan>> toConnectPlanCache;
+  private volatile ConversionPlan lastFromConnectPlan;
+  private volatile VersionedPlan lastToConnectPlan;
+  private Map<SchemaIdentityKey, Optional<ConnectDatumReader>> connectDatumReaderCache;
   private boolean connectMetaData;
   private boolean generalizedSumTypeSupport;
   private boolean enhancedSchemaSupport;
@@ -344,8 +350,11 @@ public class AvroData {
   }
 
   public AvroData(AvroDataConfig avroDataConfig) {
-    fromConnectSchemaCache = new BoundedConcurrentHashMap<>(avroDataConfig.getSchemasCacheSize());
-    toConnectSchemaCache = new BoundedConcurrentHashMap<>(avroDataConfig.getSchemasCacheSize());
+    fromConnectSchemaCache = BoundedCache.create(avroDataConfig.getSchemasCacheSize());
+    toConnectSchemaCache = BoundedCache.create(avroDataConfig.getSchemasCacheSize());
+    fromConnectPlanCache = BoundedCache.create(avroDataConfig.getSchemasCacheSize());
+    toConnectPlanCache = BoundedCache.create(avroDataConfig.getSchemasCacheSize());
+    connectDatumReaderCache = BoundedCache.create(avroDataConfig.getSchemasCacheSize());
     this.connectMetaData = avroDataConfig.isConnectMetaData();
     this.generalizedSumTypeSupport = avroDataConfig.isGeneralizedSumTypeSupport();
     this.enhancedSchemaSupport = avroDataConfig.isEnhancedAvroSchemaSupport();
@@ -362,9 +371,38 @@ public class AvroData {
   }
 
   protected Object fromConnectData(Schema schema, org.apache.avro.Schema avroSchema, Object value) {
+    ConversionPlan plan = fromConnectPlan(schema, avroSchema);
+    if (plan != null) {
+      return plan.convert(value);
+    }
     return fromConnectData(schema, avroSchema, value, true, false);
   }
 
+  /**
+   * Returns the compiled conversion for the given schemas, or null if they must be interpreted.
+   * Plans are cached by Connect schema, next to the Avro schemas in the schema cache. The most
+   * recent plan is also kept by identity, since hashing a large Connect schema is not free and
+   * most callers convert many values with the same schema instance.
+   */
+  private ConversionPlan fromConnectPlan(Schema schema, org.apache.avro.Schema avroSchema) {
+    if (schema == null) {
+      return null;
+    }
+    ConversionPlan last = lastFromConnectPlan;
+    if (last != null && last.connectSchema() == schema && last.avroSchema() == avroSchema) {
+      return last;
+    }
+    Optional<ConversionPlan> plan = fromConnectPlanCache.get(schema);
+    if (plan == null || (plan.isPresent() && plan.get().avroSchema() != avroSchema)) {
+      plan = Optional.ofNullable(ConversionPlan.fromConnect(this, schema, avroSchema));
+      fromConnectPlanCache.put(schema, plan);
+    }
+    if (plan.isPresent()) {
+      lastFromConnectPlan = plan.get();
+    }
+    return plan.orElse(null);
+  }
+
   /**
    * Convert from Connect data format to Avro. This version assumes the Avro schema has already
    * been converted and makes the use of NonRecordContainer optional
@@ -637,6 +675,35 @@ public class AvroData {
     }
   }
 
+  /**
+   * Returns the Avro schema of the given Connect schema, or of its non-null member if the
+   * Connect schema is optional.
+   */
+  org.apache.avro.Schema underlyingAvroSchema(Schema schema, org.apache.avro.Schema avroSchema) {
+    return avroSchemaForUnderlyingTypeIfOptional(schema, avroSchema, scrubInvalidNames);
+  }
+
+  /**
+   * Returns the Avro enum schema that values of the given Connect string schema are converted
+   * to, or null if they are converted to Avro strings.
+   */
+  org.apache.avro.Schema enumAvroSchema(Schema schema, org.apache.avro.Schema avroSchema) {
+    String enumSchemaName;
+    if (generalizedSumTypeSupport && ConnectEnum.isEnum(schema)) {
+      enumSchemaName = schema.parameters().get(GENERALIZED_TYPE_ENUM);
+    } else if (enhancedSchemaSupport && schema.parameters() != null
+        && schema.parameters().containsKey(AVRO_TYPE_ENUM)) {
+      enumSchemaName = schema.parameters().get(AVRO_TYPE_ENUM);
+    } else {
+      return null;
+    }
+    if (avroSchema.getType() == org.apache.avro.Schema.Type.UNION) {
+      int enumIndex = avroSchema.getIndexNamed(enumSchemaName);
+      return avroSchema.getTypes().get(enumIndex);
+    }
+    return avroSchema;
+  }
+
   private EnumSymbol enumSymbol(
       org.apache.avro.Schema avroSchema, Object value, String enumSchemaName) {
     org.apache.avro.Schema enumSchema;
@@ -653,7 +720,7 @@ public class AvroData {
    * MapEntry types in connect Schemas are represented as Arrays of record.
    * Return the array type from the union instead of the union itself.
    */
-  private static org.apache.avro.Schema avroSchemaForUnderlyingMapEntryType(
+  static org.apache.avro.Schema avroSchemaForUnderlyingMapEntryType(
       Schema schema,
       org.apache.avro.Schema avroSchema) {
 
@@ -1131,7 +1198,7 @@ public class AvroData {
     }
   }
 
-  private String scrubName(String name) {
+  String scrubName(String name) {
     return scrubName(name, scrubInvalidNames);
   }
 
@@ -1203,6 +1270,14 @@ public class AvroData {
     return value;
   }
 
+  static LogicalTypeConverter toConnectLogicalConverter(String name) {
+    return TO_CONNECT_LOGICAL_CONVERTERS.get(name);
+  }
+
+  static LogicalTypeConverter toAvroLogicalConverter(String name) {
+    return TO_AVRO_LOGICAL_CONVERTERS.get(name);
+  }
+
   private static Object toConnectLogical(Schema schema, Object value) {
     if (schema != null && schema.name() != null) {
       LogicalTypeConverter logicalConverter = TO_CONNECT_LOGICAL_CONVERTERS.get(schema.name());
@@ -1322,7 +1397,7 @@ public class AvroData {
     }
   }
 
-  private boolean isMapEntry(final org.apache.avro.Schema elemSchema) {
+  boolean isMapEntry(final org.apache.avro.Schema elemSchema) {
     if (!elemSchema.getType().equals(org.apache.avro.Schema.Type.RECORD)) {
       return false;
     }
@@ -1359,6 +1434,10 @@ public class AvroData {
     if (value == null) {
       return null;
     }
+    ConversionPlan plan = toConnectPlan(avroSchema, version);
+    if (plan != null) {
+      return new SchemaAndValue(plan.connectSchema(), plan.convert(value));
+    }
     ToConnectContext toConnectContext = new ToConnectContext();
     Schema schema = (avroSchema.equals(ANYTHING_SCHEMA))
                     ? null
@@ -1366,6 +1445,68 @@ public class AvroData {
     return new SchemaAndValue(schema, toConnectData(schema, value, toConnectContext));
   }
 
+  /**
+   * Returns the compiled conversion for the given schema, or null if it must be interpreted.
+   * Plans are cached by Avro schema and version, like the Connect schemas in the schema cache.
+   * The most recent plan is also kept by identity, since deserializers share the Avro schema
+   * across records.
+   *
+   * @param avroSchema the Avro schema
+   * @param version the version to set on the Connect schema if the avroSchema does not have a
+   *     property named "connect.version", may be null
+   * @return the plan, or null if the schema uses features the plan does not support
+   */
+  public ConversionPlan toConnectPlan(org.apache.avro.Schema avroSchema, Integer version) {
+    VersionedPlan last = lastToConnectPlan;
+    if (last != null && last.avroSchema == avroSchema && Objects.equals(last.version, version)) {
+      return last.plan;
+    }
+    AvroSchema key = new AvroSchema(avroSchema, version);
+    Optional<ConversionPlan> plan = toConnectPlanCache.get(key);
+    if (plan == null) {
+      Schema schema = avroSchema.equals(ANYTHING_SCHEMA)
+                      ? null
+                      : toConnectSchema(avroSchema, version, new ToConnectContext());
+      plan = Optional.ofNullable(ConversionPlan.toConnect(this, avroSchema, schema));
+      toConnectPlanCache.put(key, plan);
+    }
+    if (plan.isPresent()) {
+      lastToConnectPlan = new VersionedPlan(avroSchema, version, plan.get());
+    }
+    return plan.orElse(null);
+  }
+
+  /**
+   * Returns a reader that decodes Avro binary data written with the writer schema directly into
+   * Connect data for the reader schema. The reader produces the same Connect schema and value as
+   * reading a generic Avro object with the same schemas and passing it to
+   * {@link #toConnectData(org.apache.avro.Schema, Object, Integer)}.
+   *
+   * <p>Readers are cached by the identity of the given schemas, so callers should pass the same
+   * schema instances, such as those cached by the schema registry client, on every call.
+   *
+   * @param writerSchema the Avro schema the data was written with
+   * @param readerSchema the Avro schema to read the data as
+   * @param version the version to set on the Connect schema if the readerSchema does not have a
+   *     property named "connect.version", may be null
+   * @return the reader, or null if the schemas use features the reader does not support
+   */
+  public ConnectDatumReader getConnectDatumReader(org.apache.avro.Schema writerSchema,
+                                                  org.apache.avro.Schema readerSchema,
+                                                  Integer version) {
+    SchemaIdentityKey key = new SchemaIdentityKey(writerSchema, readerSchema, version);
+    Optional<ConnectDatumReader> reader = connectDatumReaderCache.get(key);
+    if (reader == null) {
+      Schema schema = readerSchema.equals(ANYTHING_SCHEMA)
+                      ? null
+                      : toConnectSchema(readerSchema, version, new ToConnectContext());
+      reader = Optional.ofNullable(
+          ConnectDatumReader.compile(this, writerSchema, readerSchema, schema));
+      connectDatumReaderCache.put(key, reader);
+    }
+    return reader.orElse(null);
+  }
+
   private Object toConnectData(Schema schema, Object value, ToConnectContext toConnectContext) {
     return toConnectData(schema, value, toConnectContext, true);
   }
@@ -2228,7 +2369,11 @@ public class AvroData {
     return CONNECT_TYPES_TO_AVRO_TYPES.get(schema.type()).getName();
   }
 
-  private static boolean isUnionSchema(Schema schema) {
+  static boolean isCyclicSchema(Schema schema) {
+    return schema instanceof CyclicSchemaWrapper;
+  }
+
+  static boolean isUnionSchema(Schema schema) {
     return AVRO_TYPE_UNION.equals(schema.name()) || ConnectUnion.isUnion(schema);
   }
 
@@ -2239,7 +2384,7 @@ public class AvroData {
                || schema.parameters().containsKey(AVRO_TYPE_ENUM));
   }
 
-  private static boolean isFixedSchema(Schema schema) {
+  static boolean isFixedSchema(Schema schema) {
     return schema.type() == Schema.Type.BYTES
             && schema.name() != null
             && schema.parameters() != null
@@ -2319,7 +2464,7 @@ public class AvroData {
     return result;
   }
 
-  private interface LogicalTypeConverter {
+  interface LogicalTypeConverter {
 
     Object convert(Schema schema, Object value);
   }
@@ -2578,6 +2723,59 @@ public class AvroData {
     }
   }
 
+  /**
+   * The most recent Avro to Connect {@link ConversionPlan}, with the Avro schema instance and the
+   * version it was looked up with.
+   */
+  private static final class VersionedPlan {
+    private final org.apache.avro.Schema avroSchema;
+    private final Integer version;
+    private final ConversionPlan plan;
+
+    private VersionedPlan(org.apache.avro.Schema avroSchema, Integer version, ConversionPlan plan) {
+      this.avroSchema = avroSchema;
+      this.version = version;
+      this.plan = plan;
+    }
+  }
+
+  /**
+   * Cache key for {@link ConnectDatumReader}s, which compares schemas by identity.
+   */
+  private static class SchemaIdentityKey {
+    private final org.apache.avro.Schema writerSchema;
+    private final org.apache.avro.Schema readerSchema;
+    private final Integer version;
+
+    private SchemaIdentityKey(org.apache.avro.Schema writerSchema,
+                           org.apache.avro.Schema readerSchema,
+                           Integer version) {
+      this.writerSchema = writerSchema;
+      this.readerSchema = readerSchema;
+      this.version = version;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      SchemaIdentityKey that = (SchemaIdentityKey) o;
+      return writerSchema == that.writerSchema
+          && readerSchema == that.readerSchema
+          && Objects.equals(version, that.version);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * (31 * System.identityHashCode(writerSchema)
+          + System.identityHashCode(readerSchema)) + Objects.hashCode(version);
+    }
+  }
+
   /**
    * Class that holds the context for performing {@code toConnectSchema}
    */
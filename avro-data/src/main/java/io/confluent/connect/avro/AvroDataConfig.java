@@ -60,6 +60,14 @@ public class AvroDataConfig extends AbstractConfig {
       "Only Avro field doc and default will be retained during conversion of Avro "
           + "and Connect schema.";
 
+  public static final String DIRECT_DECODING_CONFIG = "direct.decoding.enable";
+  public static final boolean DIRECT_DECODING_DEFAULT = false;
+  public static final String DIRECT_DECODING_DOC =
+      "Whether the converter decodes Avro records straight into Connect data, instead of first "
+      + "decoding them into generic Avro records. Schemas that are not supported by the direct "
+      + "decoder, such as those with general unions or recursive records, are always decoded "
+      + "into generic Avro records first.";
+
   public static ConfigDef baseConfigDef() {
     return new ConfigDef()
         .define(GENERALIZED_SUM_TYPE_SUPPORT_CONFIG,
@@ -82,7 +90,9 @@ public class AvroDataConfig extends AbstractConfig {
                 ConfigDef.Type.BOOLEAN,
                 DISCARD_TYPE_DOC_DEFAULT_DEFAULT,
                 ConfigDef.Importance.LOW,
-                DISCARD_TYPE_DOC_DEFAULT_DOC);
+                DISCARD_TYPE_DOC_DEFAULT_DOC)
+        .define(DIRECT_DECODING_CONFIG, ConfigDef.Type.BOOLEAN, DIRECT_DECODING_DEFAULT,
+                ConfigDef.Importance.LOW, DIRECT_DECODING_DOC);
   }
 
   public AvroDataConfig(Map<?, ?> props) {
@@ -113,6 +123,9 @@ public class AvroDataConfig extends AbstractConfig {
     return this.getBoolean(DISCARD_TYPE_DOC_DEFAULT_CONFIG);
   }
 
+  public boolean isDirectDecoding() {
+    return this.getBoolean(DIRECT_DECODING_CONFIG);
+  }
 
   public static class Builder {
 
@@ -0,0 +1,378 @@
+/*
+ * Copyright 2022 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.connect.avro;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.ResolvingDecoder;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+
+/**
+ * Decodes Avro binary data directly into Connect data, without first materializing a generic
+ * Avro record.
+ *
+ * <p>A reader is compiled once for a writer schema, a reader schema and the Connect schema that
+ * {@link AvroData} derives from the reader schema. The result is a tree of value readers that
+ * produce the same values as reading a generic record and passing it to
+ * {@link AvroData#toConnectData(org.apache.avro.Schema, Object, Integer)}, with the field
+ * positions, union branches and logical type converters resolved up front. Schemas that use
+ * features the reader does not handle, such as general unions, recursive records or
+ * schemaless data, are not compiled, and the caller should fall back to the generic path.
+ */
+public class ConnectDatumReader {
+
+  private final Schema connectSchema;
+  private final ValueReader valueReader;
+  private final ThreadLocal<ResolvingDecoder> resolvers;
+
+  private ConnectDatumReader(
+      org.apache.avro.Schema writerSchema,
+      org.apache.avro.Schema readerSchema,
+      Schema connectSchema,
+      ValueReader valueReader) {
+    this.connectSchema = connectSchema;
+    this.valueReader = valueReader;
+    if (writerSchema.equals(readerSchema)) {
+      this.resolvers = null;
+    } else {
+      org.apache.avro.Schema actual = org.apache.avro.Schema.applyAliases(
+          writerSchema, readerSchema);
+      this.resolvers = ThreadLocal.withInitial(() -> {
+        try {
+          return DecoderFactory.get().resolvingDecoder(actual, readerSchema, null);
+        } catch (IOException e) {
+          throw new IllegalStateException(e);
+        }
+      });
+    }
+  }
+
+  /**
+   * Compiles a reader for the given schemas.
+   *
+   * @return the reader, or null if the schemas are not supported
+   */
+  static ConnectDatumReader compile(
+      AvroData avroData,
+      org.apache.avro.Schema writerSchema,
+      org.apache.avro.Schema readerSchema,
+      Schema connectSchema) {
+    if (connectSchema == null) {
+      return null;
+    }
+    ValueReader valueReader = new Compiler(avroData).compile(readerSchema, connectSchema);
+    if (valueReader == null) {
+      return null;
+    }
+    return new ConnectDatumReader(writerSchema, readerSchema, connectSchema, valueReader);
+  }
+
+  /**
+   * Returns the Connect schema of the values returned by {@link #read(Decoder)}.
+   */
+  public Schema schema() {
+    return connectSchema;
+  }
+
+  /**
+   * Reads one value written with the writer schema, and returns it as Connect data.
+   */
+  public Object read(Decoder in) throws IOException {
+    if (resolvers == null) {
+      return valueReader.read(in);
+    }
+    ResolvingDecoder resolver = resolvers.get();
+    resolver.configure(in);
+    Object value = valueReader.read(resolver);
+    resolver.drain();
+    return value;
+  }
+
+  private interface ValueReader {
+    Object read(Decoder in) throws IOException;
+  }
+
+  private static class Compiler {
+    private final AvroData avroData;
+    private final Set<org.apache.avro.Schema> records =
+        Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private Compiler(AvroData avroData) {
+      this.avroData = avroData;
+    }
+
+    private ValueReader compile(org.apache.avro.Schema avroSchema, Schema connectSchema) {
+      if (avroSchema.getType() == org.apache.avro.Schema.Type.UNION) {
+        return compileOptional(avroSchema, connectSchema);
+      }
+      ValueReader reader = compileValue(avroSchema, connectSchema);
+      if (reader == null) {
+        return null;
+      }
+      AvroData.LogicalTypeConverter logicalConverter = connectSchema.name() != null
+          ? AvroData.toConnectLogicalConverter(connectSchema.name())
+          : null;
+      if (logicalConverter == null) {
+        return reader;
+      }
+      return in -> logicalConverter.convert(connectSchema, reader.read(in));
+    }
+
+    /**
+     * Compiles a union of null and one other type, which Connect represents as an optional
+     * schema. Other unions are represented as Connect structs and are not supported.
+     */
+    private ValueReader compileOptional(org.apache.avro.Schema avroSchema, Schema connectSchema) {
+      List<org.apache.avro.Schema> types = avroSchema.getTypes();
+      if (types.size() != 2
+          || !connectSchema.isOptional()
+          || AvroData.isUnionSchema(connectSchema)) {
+        return null;
+      }
+      int nullIndex;
+      if (types.get(0).getType() == org.apache.avro.Schema.Type.NULL) {
+        nullIndex = 0;
+      } else if (types.get(1).getType() == org.apache.avro.Schema.Type.NULL) {
+        nullIndex = 1;
+      } else {
+        return null;
+      }
+      ValueReader member = compile(types.get(1 - nullIndex), connectSchema);
+      if (member == null) {
+        return null;
+      }
+      return in -> {
+        if (in.readIndex() == nullIndex) {
+          in.readNull();
+          return null;
+        }
+        return member.read(in);
+      };
+    }
+
+    private ValueReader compileValue(org.apache.avro.Schema avroSchema, Schema connectSchema) {
+      org.apache.avro.Schema.Type avroType = avroSchema.getType();
+      switch (connectSchema.type()) {
+        case BOOLEAN:
+          return avroType == org.apache.avro.Schema.Type.BOOLEAN ? Decoder::readBoolean : null;
+        case INT8:
+          return avroType == org.apache.avro.Schema.Type.INT ? in -> (byte) in.readInt() : null;
+        case INT16:
+          return avroType == org.apache.avro.Schema.Type.INT ? in -> (short) in.readInt() : null;
+        case INT32:
+          return avroType == org.apache.avro.Schema.Type.INT ? Decoder::readInt : null;
+        case INT64:
+          return avroType == org.apache.avro.Schema.Type.LONG ? Decoder::readLong : null;
+        case FLOAT32:
+          return avroType == org.apache.avro.Schema.Type.FLOAT ? Decoder::readFloat : null;
+        case FLOAT64:
+          return avroType == org.apache.avro.Schema.Type.DOUBLE ? Decoder::readDouble : null;
+        case STRING:
+          return compileString(avroSchema);
+        case BYTES:
+          return compileBytes(avroSchema);
+        case ARRAY:
+          return compileArray(avroSchema, connectSchema);
+        case MAP:
+          return compileMap(avroSchema, connectSchema);
+        case STRUCT:
+          return compileStruct(avroSchema, connectSchema);
+        default:
+          return null;
+      }
+    }
+
+    private ValueReader compileString(org.apache.avro.Schema avroSchema) {
+      switch (avroSchema.getType()) {
+        case STRING:
+          return Decoder::readString;
+        case ENUM:
+          List<String> symbols = avroSchema.getEnumSymbols();
+          return in -> symbols.get(in.readEnum());
+        default:
+          return null;
+      }
+    }
+
+    private ValueReader compileBytes(org.apache.avro.Schema avroSchema) {
+      switch (avroSchema.getType()) {
+        case BYTES:
+          return in -> in.readBytes(null);
+        case FIXED:
+          int size = avroSchema.getFixedSize();
+          return in -> {
+            byte[] bytes = new byte[size];
+            in.readFixed(bytes);
+            return ByteBuffer.wrap(bytes);
+          };
+        default:
+          return null;
+      }
+    }
+
+    private ValueReader compileArray(org.apache.avro.Schema avroSchema, Schema connectSchema) {
+      if (avroSchema.getType() != org.apache.avro.Schema.Type.ARRAY
+          || avroData.isMapEntry(avroSchema.getElementType())) {
+        return null;
+      }
+      ValueReader elementReader = compile(avroSchema.getElementType(), connectSchema.valueSchema());
+      if (elementReader == null) {
+        return null;
+      }
+      return in -> {
+        long count = in.readArrayStart();
+        List<Object> result = new ArrayList<>((int) count);
+        while (count > 0) {
+          for (long i = 0; i < count; i++) {
+            result.add(elementReader.read(in));
+          }
+          count = in.arrayNext();
+        }
+        return result;
+      };
+    }
+
+    private ValueReader compileMap(org.apache.avro.Schema avroSchema, Schema connectSchema) {
+      Schema keySchema = connectSchema.keySchema();
+      if (keySchema != null
+          && keySchema.type() == Schema.Type.STRING
+          && !keySchema.isOptional()) {
+        // Non-optional string keys are encoded as an Avro map
+        if (avroSchema.getType() != org.apache.avro.Schema.Type.MAP) {
+          return null;
+        }
+        ValueReader valueReader = compile(avroSchema.getValueType(), connectSchema.valueSchema());
+        if (valueReader == null) {
+          return null;
+        }
+        return in -> {
+          long count = in.readMapStart();
+          Map<Object, Object> result = new HashMap<>();
+          while (count > 0) {
+            for (long i = 0; i < count; i++) {
+              String key = in.readString();
+              result.put(key, valueReader.read(in));
+            }
+            count = in.mapNext();
+          }
+          return result;
+        };
+      }
+
+      // Arbitrary keys are encoded as an array of key-value records
+      if (avroSchema.getType() != org.apache.avro.Schema.Type.ARRAY
+          || !avroData.isMapEntry(avroSchema.getElementType())) {
+        return null;
+      }
+      org.apache.avro.Schema entrySchema = avroSchema.getElementType();
+      org.apache.avro.Schema.Field keyField = entrySchema.getField(AvroData.KEY_FIELD);
+      org.apache.avro.Schema.Field valueField = entrySchema.getField(AvroData.VALUE_FIELD);
+      if (entrySchema.getFields().size() != 2 || keyField == null || valueField == null) {
+        return null;
+      }
+      ValueReader[] fieldReaders = new ValueReader[2];
+      fieldReaders[keyField.pos()] = compile(keyField.schema(), keySchema);
+      fieldReaders[valueField.pos()] = compile(valueField.schema(), connectSchema.valueSchema());
+      if (fieldReaders[0] == null || fieldReaders[1] == null) {
+        return null;
+      }
+      int keyPos = keyField.pos();
+      int valuePos = valueField.pos();
+      return in -> {
+        long count = in.readArrayStart();
+        Map<Object, Object> result = new HashMap<>();
+        Object[] entry = new Object[2];
+        while (count > 0) {
+          for (long i = 0; i < count; i++) {
+            readFields(in, fieldReaders, entry);
+            result.put(entry[keyPos], entry[valuePos]);
+          }
+          count = in.arrayNext();
+        }
+        return result;
+      };
+    }
+
+    private ValueReader compileStruct(org.apache.avro.Schema avroSchema, Schema connectSchema) {
+      if (avroSchema.getType() != org.apache.avro.Schema.Type.RECORD
+          || AvroData.isUnionSchema(connectSchema)
+          || !records.add(avroSchema)) {
+        // Recursive records are represented with cyclic Connect schemas, and are not supported
+        return null;
+      }
+      try {
+        List<org.apache.avro.Schema.Field> avroFields = avroSchema.getFields();
+        if (connectSchema.fields().size() != avroFields.size()) {
+          return null;
+        }
+        Field[] fields = new Field[avroFields.size()];
+        ValueReader[] fieldReaders = new ValueReader[avroFields.size()];
+        for (Field field : connectSchema.fields()) {
+          org.apache.avro.Schema.Field avroField =
+              avroSchema.getField(avroData.scrubName(field.name()));
+          if (avroField == null || fields[avroField.pos()] != null) {
+            return null;
+          }
+          ValueReader fieldReader = compile(avroField.schema(), field.schema());
+          if (fieldReader == null) {
+            return null;
+          }
+          fields[avroField.pos()] = field;
+          fieldReaders[avroField.pos()] = fieldReader;
+        }
+        return in -> {
+          Struct result = new Struct(connectSchema);
+          if (in instanceof ResolvingDecoder) {
+            for (org.apache.avro.Schema.Field f : ((ResolvingDecoder) in).readFieldOrder()) {
+              result.put(fields[f.pos()], fieldReaders[f.pos()].read(in));
+            }
+          } else {
+            for (int pos = 0; pos < fields.length; pos++) {
+              result.put(fields[pos], fieldReaders[pos].read(in));
+            }
+          }
+          return result;
+        };
+      } finally {
+        records.remove(avroSchema);
+      }
+    }
+
+    private static void readFields(Decoder in, ValueReader[] fieldReaders, Object[] values)
+        throws IOException {
+      if (in instanceof ResolvingDecoder) {
+        for (org.apache.avro.Schema.Field avroField : ((ResolvingDecoder) in).readFieldOrder()) {
+          values[avroField.pos()] = fieldReaders[avroField.pos()].read(in);
+        }
+      } else {
+        for (int pos = 0; pos < fieldReaders.length; pos++) {
+          values[pos] = fieldReaders[pos].read(in);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,572 @@
+/*
+ * Copyright 2022 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.connect.avro;
+
+import io.confluent.kafka.serializers.NonRecordContainer;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.JsonProperties;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericEnumSymbol;
+import org.apache.avro.generic.GenericFixed;
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.errors.DataException;
+
+/**
+ * A conversion between Connect data and Avro data that is compiled once for a pair of schemas.
+ *
+ * <p>{@link AvroData} converts values by interpreting the Connect schema for every value. A plan
+ * instead walks the schemas up front and builds a tree of converters with the Avro field
+ * positions, union branches, enum schemas and logical type converters already resolved, so that
+ * converting a value only runs the code for the types it contains. A plan produces the same values
+ * and errors as the interpreted conversion. Schemas that use features a plan does not handle, such
+ * as unions, cyclic schemas or schemaless data, are not compiled, and {@link AvroData} falls back
+ * to the interpreted conversion for them.
+ */
+public final class ConversionPlan {
+
+  private final Schema connectSchema;
+  private final org.apache.avro.Schema avroSchema;
+  private final ValueConverter converter;
+
+  private ConversionPlan(
+      Schema connectSchema, org.apache.avro.Schema avroSchema, ValueConverter converter) {
+    this.connectSchema = connectSchema;
+    this.avroSchema = avroSchema;
+    this.converter = converter;
+  }
+
+  /**
+   * Compiles a plan that converts Connect data into Avro data, in the same way as
+   * {@code AvroData.fromConnectData(schema, avroSchema, value)}.
+   *
+   * @return the plan, or null if the schemas are not supported
+   */
+  static ConversionPlan fromConnect(
+      AvroData avroData, Schema connectSchema, org.apache.avro.Schema avroSchema) {
+    if (connectSchema == null) {
+      return null;
+    }
+    ValueConverter converter;
+    try {
+      converter = new FromConnectCompiler(avroData).compile(connectSchema, avroSchema);
+    } catch (RuntimeException e) {
+      // The interpreted conversion reports the same problem for each value
+      return null;
+    }
+    if (converter == null) {
+      return null;
+    }
+    if (connectSchema.type() != Schema.Type.STRUCT) {
+      // Top-level values other than records are wrapped in a container
+      ValueConverter unwrapped = converter;
+      converter = value -> {
+        Object converted = unwrapped.convert(value);
+        return converted != null ? new NonRecordContainer(avroSchema, converted) : null;
+      };
+    }
+    return new ConversionPlan(connectSchema, avroSchema, converter);
+  }
+
+  /**
+   * Compiles a plan that converts Avro data into Connect data, in the same way as
+   * {@code AvroData.toConnectData(avroSchema, value, version)}.
+   *
+   * @param connectSchema the Connect schema that {@link AvroData} derives from the Avro schema
+   * @return the plan, or null if the schemas are not supported
+   */
+  static ConversionPlan toConnect(
+      AvroData avroData, org.apache.avro.Schema avroSchema, Schema connectSchema) {
+    if (connectSchema == null) {
+      return null;
+    }
+    ValueConverter converter;
+    try {
+      converter = new ToConnectCompiler(avroData).compile(connectSchema);
+    } catch (RuntimeException e) {
+      return null;
+    }
+    if (converter == null) {
+      return null;
+    }
+    return new ConversionPlan(connectSchema, avroSchema, converter);
+  }
+
+  public Schema connectSchema() {
+    return connectSchema;
+  }
+
+  org.apache.avro.Schema avroSchema() {
+    return avroSchema;
+  }
+
+  public Object convert(Object value) {
+    return converter.convert(value);
+  }
+
+  private interface ValueConverter {
+    Object convert(Object value);
+  }
+
+  private static class FromConnectCompiler {
+    private final AvroData avroData;
+    private final Set<Schema> structs = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private FromConnectCompiler(AvroData avroData) {
+      this.avroData = avroData;
+    }
+
+    private ValueConverter compile(Schema schema, org.apache.avro.Schema avroSchema) {
+      if (AvroData.isCyclicSchema(schema)) {
+        return null;
+      }
+      ValueConverter typed = compileValue(schema, avroSchema);
+      if (typed == null) {
+        return null;
+      }
+      boolean optional = schema.isOptional();
+      AvroData.LogicalTypeConverter logicalConverter = schema.name() != null
+          ? AvroData.toAvroLogicalConverter(schema.name())
+          : null;
+      return value -> {
+        if (value == null) {
+          if (!optional) {
+            throw new DataException("Found null value for non-optional schema");
+          }
+          return null;
+        }
+        Object converted = logicalConverter != null
+            ? logicalConverter.convert(schema, value)
+            : value;
+        try {
+          return typed.convert(converted);
+        } catch (ClassCastException e) {
+          throw new DataException(
+              "Invalid type for " + schema.type() + ": " + converted.getClass());
+        }
+      };
+    }
+
+    private ValueConverter compileValue(Schema schema, org.apache.avro.Schema avroSchema) {
+      switch (schema.type()) {
+        case INT8:
+          return value -> ((Byte) value).intValue();
+        case INT16:
+          return value -> ((Short) value).intValue();
+        case INT32:
+          return value -> (Integer) value;
+        case INT64:
+          return value -> (Long) value;
+        case FLOAT32:
+          return value -> (Float) value;
+        case FLOAT64:
+          return value -> (Double) value;
+        case BOOLEAN:
+          return value -> (Boolean) value;
+        case STRING:
+          return compileString(schema, avroSchema);
+        case BYTES:
+          return compileBytes(schema, avroSchema);
+        case ARRAY:
+          return compileArray(schema, avroSchema);
+        case MAP:
+          return compileMap(schema, avroSchema);
+        case STRUCT:
+          return compileStruct(schema, avroSchema);
+        default:
+          return null;
+      }
+    }
+
+    private ValueConverter compileString(Schema schema, org.apache.avro.Schema avroSchema) {
+      org.apache.avro.Schema enumSchema = avroData.enumAvroSchema(schema, avroSchema);
+      if (enumSchema == null) {
+        return value -> (String) value;
+      }
+      return value -> new GenericData.EnumSymbol(enumSchema, (String) value);
+    }
+
+    private ValueConverter compileBytes(Schema schema, org.apache.avro.Schema avroSchema) {
+      if (!AvroData.isFixedSchema(schema)) {
+        return ConversionPlan::toByteBuffer;
+      }
+      if (avroSchema.getType() != org.apache.avro.Schema.Type.FIXED) {
+        // Fixed members of unions are matched by name for each value
+        return null;
+      }
+      return value -> new GenericData.Fixed(avroSchema, toByteBuffer(value).array());
+    }
+
+    private ValueConverter compileArray(Schema schema, org.apache.avro.Schema avroSchema) {
+      org.apache.avro.Schema arraySchema = avroData.underlyingAvroSchema(schema, avroSchema);
+      ValueConverter element = compile(schema.valueSchema(), arraySchema.getElementType());
+      if (element == null) {
+        return null;
+      }
+      return value -> {
+        Collection<?> list = (Collection<?>) value;
+        List<Object> converted = new ArrayList<>(list.size());
+        for (Object elem : list) {
+          converted.add(element.convert(elem));
+        }
+        return converted;
+      };
+    }
+
+    private ValueConverter compileMap(Schema schema, org.apache.avro.Schema avroSchema) {
+      Schema keySchema = schema.keySchema();
+      if (keySchema.type() == Schema.Type.STRING && !keySchema.isOptional()) {
+        org.apache.avro.Schema mapSchema = avroData.underlyingAvroSchema(schema, avroSchema);
+        ValueConverter mapValue = compile(schema.valueSchema(), mapSchema.getValueType());
+        if (mapValue == null) {
+          return null;
+        }
+        return value -> {
+          Map<?, ?> map = (Map<?, ?>) value;
+          Map<String, Object> converted = new HashMap<>();
+          for (Map.Entry<?, ?> entry : map.entrySet()) {
+            converted.put((String) entry.getKey(), mapValue.convert(entry.getValue()));
+          }
+          return converted;
+        };
+      }
+
+      org.apache.avro.Schema entrySchema =
+          AvroData.avroSchemaForUnderlyingMapEntryType(schema, avroSchema).getElementType();
+      org.apache.avro.Schema.Field keyField = entrySchema.getField(AvroData.KEY_FIELD);
+      org.apache.avro.Schema.Field valueField = entrySchema.getField(AvroData.VALUE_FIELD);
+      ValueConverter mapKey = compile(keySchema, keyField.schema());
+      ValueConverter mapValue = compile(schema.valueSchema(), valueField.schema());
+      if (mapKey == null || mapValue == null) {
+        return null;
+      }
+      int keyPos = keyField.pos();
+      int valuePos = valueField.pos();
+      return value -> {
+        Map<?, ?> map = (Map<?, ?>) value;
+        List<Object> converted = new ArrayList<>(map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+          GenericData.Record record = new GenericData.Record(entrySchema);
+          record.put(keyPos, mapKey.convert(entry.getKey()));
+          record.put(valuePos, mapValue.convert(entry.getValue()));
+          converted.add(record);
+        }
+        return converted;
+      };
+    }
+
+    private ValueConverter compileStruct(Schema schema, org.apache.avro.Schema avroSchema) {
+      if (AvroData.isUnionSchema(schema) || !structs.add(schema)) {
+        return null;
+      }
+      org.apache.avro.Schema recordSchema = avroData.underlyingAvroSchema(schema, avroSchema);
+      List<Field> fields = schema.fields();
+      int size = fields.size();
+      Field[] connectFields = fields.toArray(new Field[size]);
+      org.apache.avro.Schema.Field[] avroFields = new org.apache.avro.Schema.Field[size];
+      boolean[] acceptsNull = new boolean[size];
+      ValueConverter[] converters = new ValueConverter[size];
+      for (int i = 0; i < size; i++) {
+        Field field = connectFields[i];
+        avroFields[i] = recordSchema.getField(avroData.scrubName(field.name()));
+        acceptsNull[i] = acceptsNull(avroFields[i]);
+        converters[i] = compile(field.schema(), avroFields[i].schema());
+        if (converters[i] == null) {
+          return null;
+        }
+      }
+      structs.remove(schema);
+      return value -> {
+        Struct struct = (Struct) value;
+        if (struct.schema() != schema && !struct.schema().equals(schema)) {
+          throw new DataException("Mismatching struct schema");
+        }
+        GenericData.Record record = new GenericData.Record(recordSchema);
+        for (int i = 0; i < size; i++) {
+          Object converted = converters[i].convert(struct.get(connectFields[i]));
+          if (converted == null && !acceptsNull[i]) {
+            throw new AvroRuntimeException(
+                "Field " + avroFields[i] + " does not accept null values");
+          }
+          record.put(avroFields[i].pos(), converted);
+        }
+        return record;
+      };
+    }
+
+    /**
+     * Mirrors the validation that {@code GenericRecordBuilder} applies to each field.
+     */
+    private static boolean acceptsNull(org.apache.avro.Schema.Field field) {
+      if (field.hasDefaultValue()) {
+        return true;
+      }
+      org.apache.avro.Schema schema = field.schema();
+      if (schema.getType() == org.apache.avro.Schema.Type.NULL) {
+        return true;
+      }
+      if (schema.getType() == org.apache.avro.Schema.Type.UNION) {
+        for (org.apache.avro.Schema member : schema.getTypes()) {
+          if (member.getType() == org.apache.avro.Schema.Type.NULL) {
+            return true;
+          }
+        }
+      }
+      return false;
+    }
+  }
+
+  private static class ToConnectCompiler {
+    private final AvroData avroData;
+    private final Set<Schema> structs = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private ToConnectCompiler(AvroData avroData) {
+      this.avroData = avroData;
+    }
+
+    private ValueConverter compile(Schema schema) {
+      if (AvroData.isCyclicSchema(schema)) {
+        return null;
+      }
+      ValueConverter typed = compileValue(schema);
+      if (typed == null) {
+        return null;
+      }
+      boolean optional = schema.isOptional();
+      AvroData.LogicalTypeConverter logicalConverter = schema.name() != null
+          ? AvroData.toConnectLogicalConverter(schema.name())
+          : null;
+      if (logicalConverter != null && schema.type() == Schema.Type.STRUCT) {
+        // Struct default values skip logical conversion
+        return null;
+      }
+      return value -> {
+        if (value == null) {
+          if (!optional) {
+            throw new DataException("Found null value for non-optional schema");
+          }
+          return null;
+        }
+        if (value == JsonProperties.NULL_VALUE) {
+          return null;
+        }
+        try {
+          Object converted = typed.convert(value);
+          return logicalConverter != null
+              ? logicalConverter.convert(schema, converted)
+              : converted;
+        } catch (ClassCastException e) {
+          throw new DataException("Invalid type for " + schema.type() + ": " + value.getClass());
+        }
+      };
+    }
+
+    private ValueConverter compileValue(Schema schema) {
+      switch (schema.type()) {
+        case INT8:
+          return value -> ((Integer) value).byteValue();
+        case INT16:
+          return value -> ((Integer) value).shortValue();
+        case INT32:
+          return value -> (Integer) value;
+        case INT64:
+          return value -> (Long) value;
+        case FLOAT32:
+          return value -> (Float) value;
+        case FLOAT64:
+          return value -> (Double) value;
+        case BOOLEAN:
+          return value -> (Boolean) value;
+        case STRING:
+          return ToConnectCompiler::toConnectString;
+        case BYTES:
+          return ToConnectCompiler::toConnectBytes;
+        case ARRAY:
+          return compileArray(schema);
+        case MAP:
+          return compileMap(schema);
+        case STRUCT:
+          return compileStruct(schema);
+        default:
+          return null;
+      }
+    }
+
+    private static Object toConnectString(Object value) {
+      if (value instanceof String) {
+        return value;
+      } else if (value instanceof CharSequence
+          || value instanceof GenericEnumSymbol
+          || value instanceof Enum) {
+        return value.toString();
+      }
+      throw new DataException("Invalid class for string type, expecting String or "
+          + "CharSequence but found " + value.getClass());
+    }
+
+    private static Object toConnectBytes(Object value) {
+      if (value instanceof byte[]) {
+        return ByteBuffer.wrap((byte[]) value);
+      } else if (value instanceof ByteBuffer) {
+        return value;
+      } else if (value instanceof GenericFixed) {
+        return ByteBuffer.wrap(((GenericFixed) value).bytes());
+      }
+      throw new DataException("Invalid class for bytes type, expecting byte[] or ByteBuffer "
+          + "but found " + value.getClass());
+    }
+
+    private ValueConverter compileArray(Schema schema) {
+      ValueConverter element = compile(schema.valueSchema());
+      if (element == null) {
+        return null;
+      }
+      return value -> {
+        Collection<?> original = (Collection<?>) value;
+        List<Object> result = new ArrayList<>(original.size());
+        for (Object elem : original) {
+          result.add(element.convert(elem));
+        }
+        return result;
+      };
+    }
+
+    private ValueConverter compileMap(Schema schema) {
+      Schema keySchema = schema.keySchema();
+      ValueConverter mapValue = compile(schema.valueSchema());
+      if (mapValue == null) {
+        return null;
+      }
+      if (keySchema.type() == Schema.Type.STRING && !keySchema.isOptional()) {
+        return value -> {
+          Map<?, ?> original = (Map<?, ?>) value;
+          Map<Object, Object> result = new HashMap<>(original.size());
+          for (Map.Entry<?, ?> entry : original.entrySet()) {
+            result.put(entry.getKey().toString(), mapValue.convert(entry.getValue()));
+          }
+          return result;
+        };
+      }
+
+      ValueConverter mapKey = compile(keySchema);
+      if (mapKey == null) {
+        return null;
+      }
+      FieldPositions entryPositions =
+          new FieldPositions(new String[] {AvroData.KEY_FIELD, AvroData.VALUE_FIELD});
+      return value -> {
+        @SuppressWarnings("unchecked")
+        Collection<IndexedRecord> original = (Collection<IndexedRecord>) value;
+        Map<Object, Object> result = new HashMap<>(original.size());
+        for (IndexedRecord entry : original) {
+          int[] positions = entryPositions.positions(entry.getSchema());
+          result.put(mapKey.convert(entry.get(positions[0])),
+                     mapValue.convert(entry.get(positions[1])));
+        }
+        return result;
+      };
+    }
+
+    private ValueConverter compileStruct(Schema schema) {
+      if (AvroData.isUnionSchema(schema) || !structs.add(schema)) {
+        return null;
+      }
+      List<Field> fields = schema.fields();
+      int size = fields.size();
+      Field[] connectFields = fields.toArray(new Field[size]);
+      String[] fieldNames = new String[size];
+      ValueConverter[] converters = new ValueConverter[size];
+      for (int i = 0; i < size; i++) {
+        fieldNames[i] = avroData.scrubName(connectFields[i].name());
+        converters[i] = compile(connectFields[i].schema());
+        if (converters[i] == null) {
+          return null;
+        }
+      }
+      structs.remove(schema);
+      FieldPositions fieldPositions = new FieldPositions(fieldNames);
+      return value -> {
+        Struct result = new Struct(schema);
+        if (value instanceof Map) {
+          // Default values from Avro are returned as Map
+          Map<?, ?> original = (Map<?, ?>) value;
+          for (int i = 0; i < size; i++) {
+            result.put(connectFields[i], converters[i].convert(original.get(fieldNames[i])));
+          }
+        } else {
+          IndexedRecord original = (IndexedRecord) value;
+          int[] positions = fieldPositions.positions(original.getSchema());
+          for (int i = 0; i < size; i++) {
+            result.put(connectFields[i], converters[i].convert(original.get(positions[i])));
+          }
+        }
+        return result;
+      };
+    }
+  }
+
+  /**
+   * The positions of a fixed list of fields in the most recently seen Avro record schema. Values
+   * of a given type almost always share one schema instance, so the positions are only looked up
+   * by name again when the schema changes.
+   */
+  private static class FieldPositions {
+    private final String[] names;
+    private volatile Positions last;
+
+    private FieldPositions(String[] names) {
+      this.names = names;
+    }
+
+    private int[] positions(org.apache.avro.Schema recordSchema) {
+      Positions positions = last;
+      if (positions == null || positions.recordSchema != recordSchema) {
+        int[] indexes = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+          indexes[i] = recordSchema.getField(names[i]).pos();
+        }
+        positions = new Positions(recordSchema, indexes);
+        last = positions;
+      }
+      return positions.indexes;
+    }
+  }
+
+  private static class Positions {
+    private final org.apache.avro.Schema recordSchema;
+    private final int[] indexes;
+
+    private Positions(org.apache.avro.Schema recordSchema, int[] indexes) {
+      this.recordSchema = recordSchema;
+      this.indexes = indexes;
+    }
+  }
+
+  private static ByteBuffer toByteBuffer(Object value) {
+    return value instanceof byte[] ? ByteBuffer.wrap((byte[]) value) : (ByteBuffer) value;
+  }
+}
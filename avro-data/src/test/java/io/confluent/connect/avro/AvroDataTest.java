@@ -3151,4 +3151,24 @@ public class AvroDataTest {
     assertEquals(sv, testAvroData.toConnectData(avroSchema, record, version));
     assertEquals(record, testAvroData.fromConnectData(sv.schema(), sv.value()));
   }
+
+  @Test
+  public void testToConnectPlanCachedByEqualSchemas() {
+    String schemaStr = "{\"type\":\"record\",\"name\":\"TestRecord\","
+        + "\"fields\":[{\"name\":\"field1\",\"type\":\"string\"}]}";
+    org.apache.avro.Schema avroSchema = new org.apache.avro.Schema.Parser().parse(schemaStr);
+    org.apache.avro.Schema equalSchema = new org.apache.avro.Schema.Parser().parse(schemaStr);
+
+    ConversionPlan plan = avroData.toConnectPlan(avroSchema, 1);
+    assertNotNull(plan);
+    // Equal schemas that were parsed again share the plan, unless the version differs
+    assertSame(plan, avroData.toConnectPlan(equalSchema, 1));
+    assertSame(plan, avroData.toConnectPlan(avroSchema, 1));
+    assertNotSame(plan, avroData.toConnectPlan(equalSchema, 2));
+
+    GenericRecord record = new GenericRecordBuilder(equalSchema).set("field1", "value1").build();
+    SchemaAndValue sv = avroData.toConnectData(equalSchema, record, 1);
+    assertSame(plan.connectSchema(), sv.schema());
+    assertEquals("value1", ((Struct) sv.value()).get("field1"));
+  }
 }
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2022 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.connect.avro;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.kafka.connect.data.SchemaAndValue;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class ConnectDatumReaderTest {
+
+  private static final String NESTED_SCHEMA = "{\"type\": \"record\", \"name\": \"Nested\", "
+      + "\"fields\": [{\"name\": \"id\", \"type\": \"int\"}]}";
+
+  private static final String ALL_TYPES_SCHEMA = "{\"type\": \"record\", \"name\": \"AllTypes\", "
+      + "\"namespace\": \"io.confluent.test\", \"fields\": ["
+      + "{\"name\": \"bool\", \"type\": \"boolean\"},"
+      + "{\"name\": \"int\", \"type\": \"int\"},"
+      + "{\"name\": \"long\", \"type\": \"long\"},"
+      + "{\"name\": \"float\", \"type\": \"float\"},"
+      + "{\"name\": \"double\", \"type\": \"double\"},"
+      + "{\"name\": \"string\", \"type\": \"string\"},"
+      + "{\"name\": \"bytes\", \"type\": \"bytes\"},"
+      + "{\"name\": \"int8\", \"type\": {\"type\": \"int\", \"connect.type\": \"int8\"}},"
+      + "{\"name\": \"int16\", \"type\": {\"type\": \"int\", \"connect.type\": \"int16\"}},"
+      + "{\"name\": \"enum\", \"type\": {\"type\": \"enum\", \"name\": \"Color\", "
+      + "\"symbols\": [\"RED\", \"GREEN\"]}},"
+      + "{\"name\": \"fixed\", \"type\": {\"type\": \"fixed\", \"name\": \"Four\", \"size\": 4}},"
+      + "{\"name\": \"decimal\", \"type\": {\"type\": \"bytes\", \"logicalType\": \"decimal\", "
+      + "\"precision\": 10, \"scale\": 2}},"
+      + "{\"name\": \"date\", \"type\": {\"type\": \"int\", \"logicalType\": \"date\"}},"
+      + "{\"name\": \"time\", \"type\": {\"type\": \"int\", \"logicalType\": \"time-millis\"}},"
+      + "{\"name\": \"timestamp\", \"type\": {\"type\": \"long\", "
+      + "\"logicalType\": \"timestamp-millis\"}},"
+      + "{\"name\": \"optional\", \"type\": [\"null\", \"string\"], \"default\": null},"
+      + "{\"name\": \"optionalLast\", \"type\": [\"string\", \"null\"], \"default\": \"x\"},"
+      + "{\"name\": \"array\", \"type\": {\"type\": \"array\", \"items\": \"string\"}},"
+      + "{\"name\": \"map\", \"type\": {\"type\": \"map\", \"values\": \"int\"}},"
+      + "{\"name\": \"intMap\", \"type\": {\"type\": \"array\", \"items\": {\"type\": \"record\", "
+      + "\"name\": \"MapEntry\", \"namespace\": \"io.confluent.connect.avro\", \"fields\": ["
+      + "{\"name\": \"key\", \"type\": \"int\"}, {\"name\": \"value\", \"type\": \"string\"}]}}},"
+      + "{\"name\": \"nested\", \"type\": " + NESTED_SCHEMA + "},"
+      + "{\"name\": \"optionalNested\", \"type\": [\"null\", \"Nested\"]},"
+      + "{\"name\": \"nestedArray\", \"type\": {\"type\": \"array\", \"items\": \"Nested\"}}"
+      + "]}";
+
+  private final AvroData avroData = new AvroData(10);
+
+  @Test
+  public void testAllTypes() throws IOException {
+    Schema schema = new Schema.Parser().parse(ALL_TYPES_SCHEMA);
+    GenericRecord record = allTypesRecord(schema);
+    assertSameAsGeneric(schema, schema, record, null);
+    assertSameAsGeneric(schema, schema, record, 3);
+
+    record.put("optional", "set");
+    record.put("optionalLast", null);
+    record.put("optionalNested", null);
+    record.put("array", Collections.emptyList());
+    record.put("map", Collections.emptyMap());
+    assertSameAsGeneric(schema, schema, record, 1);
+  }
+
+  @Test
+  public void testSchemaResolution() throws IOException {
+    Schema writerSchema = new Schema.Parser().parse("{\"type\": \"record\", \"name\": \"Evolved\", "
+        + "\"fields\": ["
+        + "{\"name\": \"removed\", \"type\": \"string\"},"
+        + "{\"name\": \"promoted\", \"type\": \"int\"},"
+        + "{\"name\": \"kept\", \"type\": [\"null\", \"string\"]},"
+        + "{\"name\": \"color\", \"type\": {\"type\": \"enum\", \"name\": \"Color\", "
+        + "\"symbols\": [\"RED\", \"GREEN\"]}}"
+        + "]}");
+    Schema readerSchema = new Schema.Parser().parse("{\"type\": \"record\", \"name\": \"Evolved\", "
+        + "\"fields\": ["
+        + "{\"name\": \"color\", \"type\": {\"type\": \"enum\", \"name\": \"Color\", "
+        + "\"symbols\": [\"BLUE\", \"GREEN\", \"RED\"]}},"
+        + "{\"name\": \"added\", \"type\": \"string\", \"default\": \"none\"},"
+        + "{\"name\": \"kept\", \"type\": [\"null\", \"string\"]},"
+        + "{\"name\": \"promoted\", \"type\": \"long\"}"
+        + "]}");
+    GenericRecord record = new GenericData.Record(writerSchema);
+    record.put("removed", "gone");
+    record.put("promoted", 42);
+    record.put("kept", "here");
+    record.put("color", new GenericData.EnumSymbol(writerSchema.getField("color").schema(), "RED"));
+    assertSameAsGeneric(writerSchema, readerSchema, record, 2);
+  }
+
+  @Test
+  public void testUnsupportedSchemas() {
+    Schema union = new Schema.Parser().parse("{\"type\": \"record\", \"name\": \"Union\", "
+        + "\"fields\": [{\"name\": \"value\", \"type\": [\"int\", \"string\"]}]}");
+    assertNull(avroData.getConnectDatumReader(union, union, null));
+
+    Schema recursive = new Schema.Parser().parse("{\"type\": \"record\", \"name\": \"Node\", "
+        + "\"fields\": [{\"name\": \"value\", \"type\": \"int\"}, "
+        + "{\"name\": \"next\", \"type\": [\"null\", \"Node\"]}]}");
+    assertNull(avroData.getConnectDatumReader(recursive, recursive, null));
+
+    assertNull(avroData.getConnectDatumReader(
+        AvroData.ANYTHING_SCHEMA, AvroData.ANYTHING_SCHEMA, null));
+  }
+
+  private void assertSameAsGeneric(
+      Schema writerSchema, Schema readerSchema, GenericRecord record, Integer version)
+      throws IOException {
+    byte[] bytes = serialize(writerSchema, record);
+
+    GenericRecord genericRecord = new GenericDatumReader<GenericRecord>(writerSchema, readerSchema)
+        .read(null, DecoderFactory.get().binaryDecoder(bytes, null));
+    SchemaAndValue expected = avroData.toConnectData(readerSchema, genericRecord, version);
+
+    ConnectDatumReader reader =
+        avroData.getConnectDatumReader(writerSchema, readerSchema, version);
+    assertNotNull(reader);
+    SchemaAndValue actual = new SchemaAndValue(
+        reader.schema(), reader.read(DecoderFactory.get().binaryDecoder(bytes, null)));
+
+    assertEquals(expected.schema(), actual.schema());
+    assertEquals(expected.value(), actual.value());
+  }
+
+  private static byte[] serialize(Schema schema, GenericRecord record) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(out, null);
+    new GenericDatumWriter<GenericRecord>(schema).write(record, encoder);
+    encoder.flush();
+    return out.toByteArray();
+  }
+
+  private static GenericRecord allTypesRecord(Schema schema) {
+    Schema nestedSchema = schema.getField("nested").schema();
+    Schema entrySchema = schema.getField("intMap").schema().getElementType();
+    GenericRecord nested = new GenericData.Record(nestedSchema);
+    nested.put("id", 7);
+    GenericRecord otherNested = new GenericData.Record(nestedSchema);
+    otherNested.put("id", 8);
+    GenericRecord entry = new GenericData.Record(entrySchema);
+    entry.put("key", 1);
+    entry.put("value", "one");
+    Map<String, Integer> map = new HashMap<>();
+    map.put("a", 1);
+    map.put("b", 2);
+
+    GenericRecord record = new GenericData.Record(schema);
+    record.put("bool", true);
+    record.put("int", 12);
+    record.put("long", 12L);
+    record.put("float", 1.5f);
+    record.put("double", 2.5d);
+    record.put("string", "string");
+    record.put("bytes", ByteBuffer.wrap(new byte[]{1, 2, 3}));
+    record.put("int8", 8);
+    record.put("int16", 16);
+    record.put("enum", new GenericData.EnumSymbol(schema.getField("enum").schema(), "GREEN"));
+    record.put("fixed", new GenericData.Fixed(schema.getField("fixed").schema(),
+        new byte[]{1, 2, 3, 4}));
+    record.put("decimal", ByteBuffer.wrap(new BigDecimal("1.56").unscaledValue().toByteArray()));
+    record.put("date", 18000);
+    record.put("time", 3600000);
+    record.put("timestamp", 1650000000000L);
+    record.put("optional", null);
+    record.put("optionalLast", "last");
+    record.put("array", Arrays.asList("a", "b"));
+    record.put("map", map);
+    record.put("intMap", Collections.singletonList(entry));
+    record.put("nested", nested);
+    record.put("optionalNested", otherNested);
+    record.put("nestedArray", Arrays.asList(nested, otherNested));
+    return record;
+  }
+}
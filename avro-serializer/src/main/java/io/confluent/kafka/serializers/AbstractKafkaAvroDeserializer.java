@@ -16,18 +16,21 @@
 
 package io.confluent.kafka.serializers;
 
-import com.google.common.collect.MapMaker;
+import io.confluent.kafka.schemaregistry.utils.BoundedCache;
+import io.confluent.kafka.schemaregistry.utils.CacheStats;
 import java.util.Properties;
 import org.apache.avro.Schema;
 import org.apache.avro.Schema.Type;
 import org.apache.avro.generic.GenericContainer;
 import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.io.BinaryDecoder;
 import org.apache.avro.io.DatumReader;
 import org.apache.avro.io.DecoderFactory;
 
 import org.apache.avro.specific.SpecificData;
 import org.apache.avro.specific.SpecificDatumReader;
 import org.apache.avro.specific.SpecificRecord;
+import org.apache.kafka.common.KafkaException;
 import org.apache.kafka.common.errors.InvalidConfigurationException;
 import org.apache.kafka.common.errors.SerializationException;
 import org.apache.avro.reflect.ReflectData;
@@ -42,15 +45,20 @@ import io.confluent.kafka.schemaregistry.avro.AvroSchema;
 import io.confluent.kafka.schemaregistry.avro.AvroSchemaProvider;
 import io.confluent.kafka.schemaregistry.avro.AvroSchemaUtils;
 import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import io.confluent.kafka.serializers.VersionedSchemaCache.VersionedSchema;
 
 public abstract class AbstractKafkaAvroDeserializer extends AbstractKafkaSchemaSerDe {
+  private static final int DATUM_READER_CACHE_CAPACITY = 1000;
+
   private final DecoderFactory decoderFactory = DecoderFactory.get();
   protected boolean useSpecificAvroReader = false;
   protected boolean avroReflectionAllowNull = false;
   protected boolean avroUseLogicalTypeConverters = false;
   private final Map<String, Schema> readerSchemaCache = new ConcurrentHashMap<>();
-  private final Map<Schema, Map<Schema, DatumReader<?>>> datumReaderCache =
-      new MapMaker().weakKeys().makeMap();  // use identity (==) comparison for keys
+  private final BoundedCache<DatumCacheKey, DatumReader<?>> datumReaderCache =
+      BoundedCache.create(DATUM_READER_CACHE_CAPACITY);
+  private final VersionedSchemaCache<AvroSchema> versionedSchemaCache =
+      new VersionedSchemaCache<>();
 
   /**
    * Sets properties for this deserializer without overriding the schema registry client itself.
@@ -64,6 +72,17 @@ public abstract class AbstractKafkaAvroDeserializer extends AbstractKafkaSchemaS
         .getBoolean(KafkaAvroDeserializerConfig.AVRO_REFLECTION_ALLOW_NULL_CONFIG);
     avroUseLogicalTypeConverters = config
             .getBoolean(KafkaAvroSerializerConfig.AVRO_USE_LOGICAL_TYPE_CONVERTERS_CONFIG);
+    if (serdeMetrics != null) {
+      serdeMetrics.registerCache("datum-reader-cache", datumReaderCache);
+    }
+  }
+
+  /**
+   * Returns the statistics of the cache of datum readers, one per pair of writer and reader
+   * schema.
+   */
+  public CacheStats datumReaderCacheStats() {
+    return datumReaderCache.stats();
   }
 
   protected KafkaAvroDeserializerConfig deserializerConfig(Map<String, ?> props) {
@@ -110,7 +129,10 @@ public abstract class AbstractKafkaAvroDeserializer extends AbstractKafkaSchemaS
     }
 
     DeserializationContext context = new DeserializationContext(topic, isKey, payload);
-    return context.read(context.schemaFromRegistry().rawSchema(), readerSchema);
+    long lookupStart = startMetricsTimer();
+    AvroSchema schema = context.schemaFromRegistry();
+    recordSchemaLookupMetrics(lookupStart);
+    return context.read(schema.rawSchema(), readerSchema);
   }
 
   private Integer schemaVersion(String topic,
@@ -125,9 +147,22 @@ public abstract class AbstractKafkaAvroDeserializer extends AbstractKafkaSchemaS
     }
     AvroSchema subjectSchema = (AvroSchema) schemaRegistry.getSchemaBySubjectAndId(subject, id);
     version = schemaRegistry.getVersion(subject, subjectSchema);
+    if (!isDeprecatedSubjectNameStrategy(isKey)) {
+      versionedSchemaCache.put(topic, isKey, id, schema, version);
+    }
     return version;
   }
 
+  /**
+   * Returns the schema and version that {@link #schemaVersion} resolved earlier for the schema
+   * id, or null if the schema must be resolved again.
+   */
+  private VersionedSchema<AvroSchema> cachedSchemaVersion(String topic, boolean isKey, int id) {
+    return isDeprecatedSubjectNameStrategy(isKey)
+        ? null
+        : versionedSchemaCache.get(topic, isKey, id);
+  }
+
   private String subjectName(String topic, boolean isKey, AvroSchema schemaFromRegistry) {
     return isDeprecatedSubjectNameStrategy(isKey)
         ? null
@@ -161,12 +196,16 @@ public abstract class AbstractKafkaAvroDeserializer extends AbstractKafkaSchemaS
     // schema registry's ordering (which is implicit by auto-registration time rather than
     // explicit from the Connector).
     DeserializationContext context = new DeserializationContext(topic, isKey, payload);
-    AvroSchema schema = context.schemaForDeserialize();
+    VersionedSchema<AvroSchema> cached =
+        cachedSchemaVersion(topic, isKey, context.getSchemaId());
+    AvroSchema schema = cached != null ? cached.schema() : context.schemaForDeserialize();
     Object result = context.read(schema.rawSchema(), null);
 
     try {
-      Integer version = schemaVersion(topic, isKey, context.getSchemaId(),
-          context.getSubject(), schema, result);
+      Integer version = cached != null
+          ? cached.version()
+          : schemaVersion(topic, isKey, context.getSchemaId(),
+              context.getSubject(), schema, result);
       if (schema.rawSchema().getType().equals(Schema.Type.RECORD)) {
         return new GenericContainerWithVersion((GenericContainer) result, version);
       } else {
@@ -187,14 +226,54 @@ public abstract class AbstractKafkaAvroDeserializer extends AbstractKafkaSchemaS
     }
   }
 
+  /**
+   * Like {@link #deserializeWithSchemaAndVersion(String, boolean, byte[])}, except that the
+   * encoded data is handed to the given reader, rather than being decoded into an Avro object.
+   * Since the schema version is looked up before the data is read, this must not be used with
+   * deprecated subject name strategies, which derive the subject from the decoded object.
+   *
+   * @return the result of the reader, or null if the payload is null
+   */
+  protected <T> T deserializeWithSchemaAndVersion(
+      String topic, boolean isKey, byte[] payload, PayloadReader<T> reader)
+      throws SerializationException, InvalidConfigurationException {
+    if (payload == null) {
+      return null;
+    }
+
+    DeserializationContext context = new DeserializationContext(topic, isKey, payload);
+    VersionedSchema<AvroSchema> cached =
+        cachedSchemaVersion(topic, isKey, context.getSchemaId());
+    AvroSchema schema = cached != null ? cached.schema() : context.schemaForDeserialize();
+    Integer version;
+    try {
+      version = cached != null
+          ? cached.version()
+          : schemaVersion(topic, isKey, context.getSchemaId(),
+              context.getSubject(), schema, null);
+    } catch (IOException e) {
+      throw new SerializationException("Error retrieving Avro "
+                                      + getSchemaType(isKey)
+                                      + " schema version for id "
+                                      + context.getSchemaId(), e);
+    } catch (RestClientException e) {
+      String errorMessage = "Error retrieving Avro "
+           + getSchemaType(isKey)
+           + " schema version for id "
+           + context.getSchemaId();
+      throw toKafkaException(e, errorMessage);
+    }
+    return context.read(schema.rawSchema(), version, reader);
+  }
+
   protected DatumReader<?> getDatumReader(Schema writerSchema, Schema readerSchema) {
     // normalize reader schema
     final Schema finalReaderSchema = getReaderSchema(writerSchema, readerSchema);
 
-    Map<Schema, DatumReader<?>> readers = datumReaderCache.computeIfAbsent(writerSchema,
-        schema -> new MapMaker().weakKeys().makeMap());  // use identity (==) comparison for keys
-
-    return readers.computeIfAbsent(finalReaderSchema, schema -> {
+    // The reader is built once per pair of schemas and shared, so that Avro resolves the writer
+    // schema against the reader schema once per thread, rather than for each record
+    DatumCacheKey key = new DatumCacheKey(writerSchema, finalReaderSchema);
+    return datumReaderCache.computeIfAbsent(key, k -> {
       boolean writerSchemaIsPrimitive =
               AvroSchemaUtils.getPrimitiveSchemas().values().contains(writerSchema);
       if (writerSchemaIsPrimitive) {
@@ -310,6 +389,23 @@ public abstract class AbstractKafkaAvroDeserializer extends AbstractKafkaSchemaS
     return reflectData.getSchema(readerClass);
   }
 
+  /**
+   * Reads the encoded data of a payload, in place of a {@link DatumReader}.
+   */
+  public interface PayloadReader<T> {
+
+    /**
+     * Reads the encoded data.
+     *
+     * @param writerSchema the schema the data was written with
+     * @param readerSchema the schema the data would be read as by a {@link DatumReader}
+     * @param version the version of the writer schema under the subject
+     * @param decoder the decoder positioned at the start of the encoded data
+     */
+    T read(Schema writerSchema, Schema readerSchema, Integer version, BinaryDecoder decoder)
+        throws IOException;
+  }
+
   class DeserializationContext {
     private final String topic;
     private final Boolean isKey;
@@ -383,6 +479,22 @@ public abstract class AbstractKafkaAvroDeserializer extends AbstractKafkaSchemaS
       return schemaId;
     }
 
+    <T> T read(Schema writerSchema, Integer version, PayloadReader<T> reader) {
+      Schema readerSchema = getReaderSchema(writerSchema, null);
+      int length = buffer.limit() - 1 - idSize;
+      int start = buffer.position() + buffer.arrayOffset();
+      try {
+        return reader.read(writerSchema, readerSchema, version,
+            decoderFactory.binaryDecoder(buffer.array(), start, length, null));
+      } catch (KafkaException e) {
+        throw e;
+      } catch (IOException | RuntimeException e) {
+        // avro deserialization may throw AvroRuntimeException, NullPointerException, etc
+        throw new SerializationException("Error deserializing Avro message for id "
+            + schemaId, e);
+      }
+    }
+
     Object read(Schema writerSchema) {
       return read(writerSchema, null);
     }
@@ -16,13 +16,18 @@
 
 package io.confluent.kafka.serializers;
 
-import com.google.common.collect.MapMaker;
 import io.confluent.kafka.schemaregistry.avro.AvroSchema;
 import io.confluent.kafka.schemaregistry.avro.AvroSchemaProvider;
+import io.confluent.kafka.schemaregistry.avro.AvroSchemaUtils;
 import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import io.confluent.kafka.schemaregistry.utils.BoundedCache;
+import io.confluent.kafka.schemaregistry.utils.CacheStats;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import org.apache.avro.Schema;
@@ -39,6 +44,9 @@ import org.apache.kafka.common.errors.SerializationException;
 
 public abstract class AbstractKafkaAvroSerializer extends AbstractKafkaSchemaSerDe {
 
+  private static final int BATCH_BUFFER_SIZE = 4096;
+  private static final int DATUM_WRITER_CACHE_CAPACITY = 1000;
+
   private final EncoderFactory encoderFactory = EncoderFactory.get();
   protected boolean normalizeSchema;
   protected boolean autoRegisterSchema;
@@ -49,8 +57,8 @@ public abstract class AbstractKafkaAvroSerializer extends AbstractKafkaSchemaSer
   protected boolean latestCompatStrict;
   protected boolean avroReflectionAllowNull = false;
   protected boolean avroUseLogicalTypeConverters = false;
-  private final Map<Schema, DatumWriter<Object>> datumWriterCache =
-      new MapMaker().weakKeys().makeMap();  // use identity (==) comparison for keys
+  private final BoundedCache<DatumCacheKey, DatumWriter<Object>> datumWriterCache =
+      BoundedCache.create(DATUM_WRITER_CACHE_CAPACITY);
 
   protected void configure(KafkaAvroSerializerConfig config) {
     configureClientProperties(config, new AvroSchemaProvider());
@@ -66,6 +74,16 @@ public abstract class AbstractKafkaAvroSerializer extends AbstractKafkaSchemaSer
         .getBoolean(KafkaAvroSerializerConfig.AVRO_REFLECTION_ALLOW_NULL_CONFIG);
     avroUseLogicalTypeConverters = config
             .getBoolean(KafkaAvroSerializerConfig.AVRO_USE_LOGICAL_TYPE_CONVERTERS_CONFIG);
+    if (serdeMetrics != null) {
+      serdeMetrics.registerCache("datum-writer-cache", datumWriterCache);
+    }
+  }
+
+  /**
+   * Returns the statistics of the cache of datum writers, one per schema.
+   */
+  public CacheStats datumWriterCacheStats() {
+    return datumWriterCache.stats();
   }
 
   protected KafkaAvroSerializerConfig serializerConfig(Map<String, ?> props) {
@@ -93,12 +111,7 @@ public abstract class AbstractKafkaAvroSerializer extends AbstractKafkaSchemaSer
   protected byte[] serializeImpl(
       String subject, Object object, AvroSchema schema)
       throws SerializationException, InvalidConfigurationException {
-    if (schemaRegistry == null) {
-      StringBuilder userFriendlyMsgBuilder = new StringBuilder();
-      userFriendlyMsgBuilder.append("You must configure() before serialize()");
-      userFriendlyMsgBuilder.append(" or use serializer constructor with SchemaRegistryClient");
-      throw new InvalidConfigurationException(userFriendlyMsgBuilder.toString());
-    }
+    checkConfigured();
     // null needs to treated specially since the client most likely just wants to send
     // an individual null value instead of making the subject a null type. Also, null in
     // Kafka has a special meaning for deletion in a topic with the compact retention policy.
@@ -107,9 +120,83 @@ public abstract class AbstractKafkaAvroSerializer extends AbstractKafkaSchemaSer
     if (object == null) {
       return null;
     }
+    ResolvedSchema resolved = resolveSchema(subject, schema);
+    try {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      out.write(MAGIC_BYTE);
+      out.write(ByteBuffer.allocate(idSize).putInt(resolved.id).array());
+      writeValue(out, object, resolved.schema.rawSchema());
+      byte[] bytes = out.toByteArray();
+      out.close();
+      return bytes;
+    } catch (IOException | RuntimeException e) {
+      // avro serialization can throw AvroRuntimeException, NullPointerException,
+      // ClassCastException, etc
+      throw new SerializationException("Error serializing Avro message", e);
+    }
+  }
+
+  /**
+   * Serializes a batch of objects for one topic into a single shared buffer.
+   *
+   * <p>The subject and schema ID are resolved once per distinct Avro schema in the batch,
+   * rather than once per object, unless a deprecated subject name strategy is configured, since
+   * those derive the subject from the object itself.
+   *
+   * @return one slice of the shared buffer per object, in order, or null for a null object
+   */
+  protected List<ByteBuffer> serializeBatchImpl(String topic, boolean isKey, List<?> objects)
+      throws SerializationException, InvalidConfigurationException {
+    checkConfigured();
+    boolean subjectPerObject = isDeprecatedSubjectNameStrategy(isKey);
+    Map<Schema, ResolvedSchema> resolvedSchemas = new IdentityHashMap<>();
+    BatchOutputStream out = new BatchOutputStream(BATCH_BUFFER_SIZE);
+    for (Object object : objects) {
+      if (object == null) {
+        out.nullRecord();
+        continue;
+      }
+      long start = startMetricsTimer();
+      Schema rawSchema = AvroSchemaUtils.getSchema(
+          object, useSchemaReflection, avroReflectionAllowNull, removeJavaProperties);
+      ResolvedSchema resolved = subjectPerObject ? null : resolvedSchemas.get(rawSchema);
+      if (resolved == null) {
+        AvroSchema schema = new AvroSchema(rawSchema);
+        resolved = resolveSchema(getSubjectName(topic, isKey, object, schema), schema);
+        if (!subjectPerObject) {
+          resolvedSchemas.put(rawSchema, resolved);
+        }
+      }
+      try {
+        int offset = out.size();
+        out.startRecord(resolved.id);
+        writeValue(out, object, resolved.schema.rawSchema());
+        out.endRecord();
+        recordSerializeMetrics(topic, isKey, start, out.size() - offset);
+      } catch (IOException | RuntimeException e) {
+        throw new SerializationException("Error serializing Avro message", e);
+      }
+    }
+    return out.records();
+  }
+
+  private void checkConfigured() {
+    if (schemaRegistry == null) {
+      StringBuilder userFriendlyMsgBuilder = new StringBuilder();
+      userFriendlyMsgBuilder.append("You must configure() before serialize()");
+      userFriendlyMsgBuilder.append(" or use serializer constructor with SchemaRegistryClient");
+      throw new InvalidConfigurationException(userFriendlyMsgBuilder.toString());
+    }
+  }
+
+  /**
+   * Looks up or registers the schema under the given subject, depending on the configuration.
+   */
+  private ResolvedSchema resolveSchema(String subject, AvroSchema schema) {
     String restClientErrorMsg = "";
     try {
       int id;
+      long lookupStart = startMetricsTimer();
       if (autoRegisterSchema) {
         restClientErrorMsg = "Error registering Avro schema";
         id = schemaRegistry.register(subject, schema, normalizeSchema);
@@ -126,46 +213,53 @@ public abstract class AbstractKafkaAvroSerializer extends AbstractKafkaSchemaSer
         restClientErrorMsg = "Error retrieving Avro schema";
         id = schemaRegistry.getId(subject, schema, normalizeSchema);
       }
-      ByteArrayOutputStream out = new ByteArrayOutputStream();
-      out.write(MAGIC_BYTE);
-      out.write(ByteBuffer.allocate(idSize).putInt(id).array());
-      Object value = object instanceof NonRecordContainer
-          ? ((NonRecordContainer) object).getValue()
-          : object;
-      Schema rawSchema = schema.rawSchema();
-      if (rawSchema.getType().equals(Type.BYTES)) {
-        if (value instanceof byte[]) {
-          out.write((byte[]) value);
-        } else if (value instanceof ByteBuffer) {
-          out.write(((ByteBuffer) value).array());
-        } else {
-          throw new SerializationException(
-              "Unrecognized bytes object of type: " + value.getClass().getName());
-        }
-      } else {
-        writeDatum(out, value, rawSchema);
-      }
-      byte[] bytes = out.toByteArray();
-      out.close();
-      return bytes;
+      recordSchemaLookupMetrics(lookupStart);
+      return new ResolvedSchema(id, schema);
     } catch (IOException | RuntimeException e) {
-      // avro serialization can throw AvroRuntimeException, NullPointerException,
-      // ClassCastException, etc
       throw new SerializationException("Error serializing Avro message", e);
     } catch (RestClientException e) {
       throw toKafkaException(e, restClientErrorMsg + schema);
     }
   }
 
-  private void writeDatum(ByteArrayOutputStream out, Object value, Schema rawSchema)
+  private void writeValue(OutputStream out, Object object, Schema rawSchema)
+      throws IOException {
+    Object value = object instanceof NonRecordContainer
+        ? ((NonRecordContainer) object).getValue()
+        : object;
+    if (rawSchema.getType().equals(Type.BYTES)) {
+      if (value instanceof byte[]) {
+        out.write((byte[]) value);
+      } else if (value instanceof ByteBuffer) {
+        out.write(((ByteBuffer) value).array());
+      } else {
+        throw new SerializationException(
+            "Unrecognized bytes object of type: " + value.getClass().getName());
+      }
+    } else {
+      writeDatum(out, value, rawSchema);
+    }
+  }
+
+  private void writeDatum(OutputStream out, Object value, Schema rawSchema)
           throws IOException {
     BinaryEncoder encoder = encoderFactory.directBinaryEncoder(out, null);
 
     DatumWriter<Object> writer;
-    writer = datumWriterCache.computeIfAbsent(rawSchema,
+    writer = datumWriterCache.computeIfAbsent(new DatumCacheKey(rawSchema, null),
       v -> (DatumWriter<Object>) getDatumWriter(value, rawSchema)
     );
     writer.write(value, encoder);
     encoder.flush();
   }
+
+  private static class ResolvedSchema {
+    private final int id;
+    private final AvroSchema schema;
+
+    private ResolvedSchema(int id, AvroSchema schema) {
+      this.id = id;
+      this.schema = schema;
+    }
+  }
 }
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2022 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.kafka.serializers;
+
+import org.apache.avro.Schema;
+
+/**
+ * Key of the datum reader and writer caches of the Avro serdes.
+ *
+ * <p>Schemas are compared by identity (==). The schema registry client returns the same writer
+ * schema instance for a schema id, so the identity of the writer schema stands in for its id,
+ * and comparing by identity avoids hashing and comparing the whole schema on each record.
+ */
+final class DatumCacheKey {
+
+  private final Schema writerSchema;
+  private final Schema readerSchema;
+  private final int hash;
+
+  DatumCacheKey(Schema writerSchema, Schema readerSchema) {
+    this.writerSchema = writerSchema;
+    this.readerSchema = readerSchema;
+    this.hash = 31 * System.identityHashCode(writerSchema)
+        + System.identityHashCode(readerSchema);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof DatumCacheKey)) {
+      return false;
+    }
+    DatumCacheKey that = (DatumCacheKey) o;
+    return writerSchema == that.writerSchema && readerSchema == that.readerSchema;
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+}
@@ -17,9 +17,13 @@
 package io.confluent.kafka.serializers;
 
 import org.apache.avro.Schema;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.common.serialization.Deserializer;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 
@@ -52,18 +56,64 @@ public class KafkaAvroDeserializer extends AbstractKafkaAvroDeserializer
 
   @Override
   public Object deserialize(String topic, byte[] bytes) {
-    return deserialize(topic, null, bytes, null);
+    return deserialize(topic, bytes, null);
   }
 
   /**
    * Pass a reader schema to get an Avro projection
    */
   public Object deserialize(String topic, byte[] bytes, Schema readerSchema) {
-    return deserialize(topic, null, bytes, readerSchema);
+    long start = startMetricsTimer();
+    Object result = deserialize(topic, null, bytes, readerSchema);
+    recordDeserializeMetrics(topic, isKey, start, bytes);
+    return result;
+  }
+
+  /**
+   * Deserializes a batch of payloads from the given topic in parallel, on the executor
+   * configured with {@code batch.deserialize.parallelism}.
+   *
+   * @return the deserialized objects, in the same order as the payloads
+   */
+  public List<Object> deserializeBatch(String topic, List<byte[]> payloads) {
+    return deserializeBatch(topic, payloads, null);
+  }
+
+  /**
+   * Deserializes a batch of payloads from the given topic in parallel, on the given executor,
+   * such as a {@link java.util.concurrent.ForkJoinPool} or a virtual-thread executor.
+   *
+   * @return the deserialized objects, in the same order as the payloads
+   */
+  public List<Object> deserializeBatch(String topic, List<byte[]> payloads, Executor executor) {
+    return deserializeBatch(
+        Collections.nCopies(payloads.size(), topic), payloads, isKey, this::deserialize,
+        executor);
+  }
+
+  /**
+   * Deserializes the keys or values of the given records in parallel, on the executor
+   * configured with {@code batch.deserialize.parallelism}.
+   *
+   * @return the deserialized objects, in the iteration order of the records
+   */
+  public List<Object> deserializeBatch(ConsumerRecords<byte[], byte[]> records) {
+    return deserializeBatch(records, null);
+  }
+
+  /**
+   * Deserializes the keys or values of the given records in parallel, on the given executor.
+   *
+   * @return the deserialized objects, in the iteration order of the records
+   */
+  public List<Object> deserializeBatch(
+      ConsumerRecords<byte[], byte[]> records, Executor executor) {
+    return deserializeBatch(records, isKey, this::deserialize, executor);
   }
 
   @Override
   public void close() {
-
+    closeBatchExecutor();
+    closeSerdeMetrics();
   }
 }
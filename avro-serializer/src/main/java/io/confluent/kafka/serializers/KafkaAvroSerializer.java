@@ -18,6 +18,8 @@ package io.confluent.kafka.serializers;
 
 import org.apache.kafka.common.serialization.Serializer;
 
+import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.Map;
 
 import io.confluent.kafka.schemaregistry.avro.AvroSchema;
@@ -55,15 +57,28 @@ public class KafkaAvroSerializer extends AbstractKafkaAvroSerializer implements
     if (record == null) {
       return null;
     }
+    long start = startMetricsTimer();
     AvroSchema schema = new AvroSchema(
         AvroSchemaUtils.getSchema(record, useSchemaReflection,
             avroReflectionAllowNull, removeJavaProperties));
-    return serializeImpl(getSubjectName(topic, isKey, record, schema),
+    byte[] bytes = serializeImpl(getSubjectName(topic, isKey, record, schema),
         record, schema);
+    recordSerializeMetrics(topic, isKey, start, bytes);
+    return bytes;
+  }
+
+  /**
+   * Serializes a batch of records for the given topic into a single shared buffer, resolving
+   * the subject and schema ID once per distinct schema.
+   *
+   * @return one slice of the shared buffer per record, in order, or null for a null record
+   */
+  public List<ByteBuffer> serializeBatch(String topic, List<?> records) {
+    return serializeBatchImpl(topic, isKey, records);
   }
 
   @Override
   public void close() {
-
+    closeSerdeMetrics();
   }
 }
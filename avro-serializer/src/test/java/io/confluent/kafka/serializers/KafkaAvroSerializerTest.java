@@ -23,11 +23,14 @@ import com.google.common.collect.ImmutableMap;
 import io.confluent.kafka.schemaregistry.client.rest.entities.SchemaReference;
 
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import org.apache.avro.*;
 import org.apache.avro.generic.GenericData;
@@ -40,9 +43,13 @@ import org.apache.kafka.common.errors.SerializationException;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ForkJoinPool;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
 import io.confluent.kafka.example.ExtendedUser;
 import io.confluent.kafka.example.User;
@@ -57,6 +64,7 @@ import kafka.utils.VerifiableProperties;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -269,6 +277,101 @@ public class KafkaAvroSerializerTest {
           + "\"name\": \"User\",\n"
           + "\"fields\": [{\"name\": \"name\", \"type\": \"string\"}]}}");
 
+  @Test
+  public void testKafkaAvroSerializerWithSerdeMetrics() throws Exception {
+    Map<String, Object> props = new HashMap<>();
+    props.put(KafkaAvroSerializerConfig.SCHEMA_REGISTRY_URL_CONFIG, "bogus");
+    props.put(KafkaAvroSerializerConfig.SERDE_METRICS_ENABLED, true);
+    props.put(KafkaAvroSerializerConfig.SERDE_METRICS_SAMPLE_RATE, 1.0);
+    props.put("client.id", "serde-metrics-test");
+    KafkaAvroSerializer serializer = new KafkaAvroSerializer(schemaRegistry);
+    serializer.configure(props, false);
+    KafkaAvroDeserializer deserializer = new KafkaAvroDeserializer(schemaRegistry);
+    deserializer.configure(props, false);
+
+    IndexedRecord avroRecord = createUserRecord();
+    byte[] bytes = serializer.serialize(topic, avroRecord);
+    assertEquals(avroRecord, deserializer.deserialize(topic, bytes));
+
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    ObjectName name = new ObjectName(SerdeMetrics.JMX_PREFIX + ":type="
+        + SerdeMetrics.METRIC_GROUP + ",client-id=serde-metrics-test,topic=" + topic
+        + ",is-key=false");
+    assertEquals(1.0 * bytes.length, server.getAttribute(name, "serialize-size-max"));
+    assertEquals(1.0 * bytes.length, server.getAttribute(name, "deserialize-size-max"));
+    assertTrue((Double) server.getAttribute(name, "serialize-latency-max") > 0.0);
+
+    ObjectName cacheName = new ObjectName(SerdeMetrics.JMX_PREFIX + ":type="
+        + SerdeMetrics.METRIC_GROUP + ",client-id=serde-metrics-test");
+    assertEquals(1.0, server.getAttribute(cacheName, "datum-writer-cache-size"));
+    assertEquals(1.0, server.getAttribute(cacheName, "datum-reader-cache-size"));
+    assertEquals(0.0, server.getAttribute(cacheName, "datum-reader-cache-eviction-total"));
+
+    // The shared metrics are closed with the last serde that uses them
+    serializer.close();
+    assertTrue(server.isRegistered(name));
+    deserializer.close();
+    assertFalse(server.isRegistered(name));
+  }
+
+  @Test
+  public void testDatumReaderAndWriterReused() {
+    IndexedRecord avroRecord = createUserRecord();
+    for (int i = 0; i < 3; i++) {
+      byte[] bytes = avroSerializer.serialize(topic, avroRecord);
+      assertEquals(avroRecord, avroDeserializer.deserialize(topic, bytes));
+    }
+    assertEquals(1, avroSerializer.datumWriterCacheStats().missCount());
+    assertEquals(2, avroSerializer.datumWriterCacheStats().hitCount());
+    assertEquals(1, avroDeserializer.datumReaderCacheStats().missCount());
+    assertEquals(2, avroDeserializer.datumReaderCacheStats().hitCount());
+  }
+
+  @Test
+  public void testKafkaAvroSerializeBatch() {
+    List<Object> records = Arrays.asList(
+        createUserRecord(), null, createExtendUserRecord(), createUserRecord());
+    List<ByteBuffer> batch = avroSerializer.serializeBatch(topic, records);
+    assertEquals(records.size(), batch.size());
+    for (int i = 0; i < records.size(); i++) {
+      byte[] expected = avroSerializer.serialize(topic, records.get(i));
+      if (expected == null) {
+        assertNull(batch.get(i));
+        continue;
+      }
+      byte[] actual = new byte[batch.get(i).remaining()];
+      batch.get(i).duplicate().get(actual);
+      assertArrayEquals(expected, actual);
+      assertEquals(records.get(i), avroDeserializer.deserialize(topic, actual));
+    }
+  }
+
+  @Test
+  public void testKafkaAvroDeserializeBatch() {
+    List<IndexedRecord> records = new ArrayList<>();
+    List<byte[]> payloads = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      IndexedRecord avroRecord = i % 2 == 0 ? createUserRecord() : createExtendUserRecord();
+      records.add(avroRecord);
+      payloads.add(avroSerializer.serialize(topic, avroRecord));
+    }
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      assertEquals(records, avroDeserializer.deserializeBatch(topic, payloads, pool));
+    } finally {
+      pool.shutdown();
+    }
+    assertEquals(records, avroDeserializer.deserializeBatch(topic, payloads));
+
+    payloads.set(50, new byte[]{1, 2, 3});
+    try {
+      avroDeserializer.deserializeBatch(topic, payloads);
+      fail("Should have thrown SerializationException");
+    } catch (SerializationException e) {
+      // expected
+    }
+  }
+
   @Test
   public void testKafkaAvroSerializer() {
     byte[] bytes;
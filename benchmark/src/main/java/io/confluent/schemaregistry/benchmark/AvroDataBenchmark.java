@@ -0,0 +1,202 @@
+/*
+ * Copyright 2022 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.schemaregistry.benchmark;
+
+import io.confluent.connect.avro.AvroData;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.connect.data.Decimal;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaAndValue;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.data.Timestamp;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ *  Runs JMH microbenchmarks against conversions between Connect data and Avro data.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(4)
+@Fork(3)
+public class AvroDataBenchmark {
+
+  static final int WIDE_FIELDS = 200;
+  static final int DEEP_LEVELS = 16;
+
+  @State(Scope.Benchmark)
+  public static class AvroDataState {
+
+    AvroData avroData;
+    Schema connectSchema;
+    Struct struct;
+    org.apache.avro.Schema avroSchema;
+    Object avroValue;
+
+    @Param({"WIDE", "DEEP"})
+    public String recordShape;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      avroData = new AvroData(100);
+      switch (recordShape) {
+        case "WIDE":
+          connectSchema = wideSchema();
+          struct = wideStruct(connectSchema);
+          break;
+        case "DEEP":
+          connectSchema = deepSchema(DEEP_LEVELS);
+          struct = deepStruct(connectSchema);
+          break;
+        default:
+          throw new RuntimeException("Invalid record shape: " + recordShape);
+      }
+      avroSchema = avroData.fromConnectSchema(connectSchema);
+      avroValue = avroData.fromConnectData(connectSchema, struct);
+    }
+  }
+
+  static Schema wideSchema() {
+    SchemaBuilder builder = SchemaBuilder.struct().name("Wide");
+    for (int i = 0; i < WIDE_FIELDS; i++) {
+      builder.field("f" + i, fieldSchema(i));
+    }
+    return builder.build();
+  }
+
+  private static Schema fieldSchema(int i) {
+    switch (i % 8) {
+      case 0:
+        return Schema.INT32_SCHEMA;
+      case 1:
+        return Schema.STRING_SCHEMA;
+      case 2:
+        return Schema.OPTIONAL_INT64_SCHEMA;
+      case 3:
+        return Schema.FLOAT64_SCHEMA;
+      case 4:
+        return Decimal.schema(2);
+      case 5:
+        return Timestamp.SCHEMA;
+      case 6:
+        return SchemaBuilder.array(Schema.STRING_SCHEMA).build();
+      default:
+        return SchemaBuilder.map(Schema.STRING_SCHEMA, Schema.INT32_SCHEMA).optional().build();
+    }
+  }
+
+  static Struct wideStruct(Schema schema) {
+    Struct struct = new Struct(schema);
+    for (int i = 0; i < WIDE_FIELDS; i++) {
+      struct.put("f" + i, fieldValue(i));
+    }
+    return struct;
+  }
+
+  private static Object fieldValue(int i) {
+    switch (i % 8) {
+      case 0:
+        return i;
+      case 1:
+        return "value" + i;
+      case 2:
+        return (long) i;
+      case 3:
+        return i / 2.0;
+      case 4:
+        return new BigDecimal("12.34");
+      case 5:
+        return new java.util.Date(1650000000000L + i);
+      case 6:
+        return Arrays.asList("a", "b", "c");
+      default:
+        return Collections.singletonMap("key", i);
+    }
+  }
+
+  static Schema deepSchema(int levels) {
+    Schema child = null;
+    for (int level = levels; level > 0; level--) {
+      SchemaBuilder builder = SchemaBuilder.struct().name("Level" + level)
+          .field("id", Schema.INT64_SCHEMA)
+          .field("name", Schema.STRING_SCHEMA)
+          .field("tags", SchemaBuilder.array(Schema.STRING_SCHEMA).build());
+      if (child != null) {
+        builder.field("child", child);
+      }
+      child = builder.build();
+    }
+    return child;
+  }
+
+  static Struct deepStruct(Schema schema) {
+    Struct struct = new Struct(schema)
+        .put("id", 42L)
+        .put("name", schema.name())
+        .put("tags", Arrays.asList("x", "y"));
+    if (schema.field("child") != null) {
+      struct.put("child", deepStruct(schema.field("child").schema()));
+    }
+    return struct;
+  }
+
+  @SuppressWarnings("MethodMayBeStatic") // Tests can not be static
+  @Benchmark
+  public Object fromConnectData(final AvroDataState state) {
+    return state.avroData.fromConnectData(state.connectSchema, state.struct);
+  }
+
+  @SuppressWarnings("MethodMayBeStatic") // Tests can not be static
+  @Benchmark
+  public SchemaAndValue toConnectData(final AvroDataState state) {
+    return state.avroData.toConnectData(state.avroSchema, state.avroValue);
+  }
+
+  public static void main(final String[] args) throws Exception {
+
+    final Options opt = args.length != 0
+        ? new CommandLineOptions(args)
+        : new OptionsBuilder()
+            .include(AvroDataBenchmark.class.getSimpleName())
+            .shouldFailOnError(true)
+            .build();
+
+    new Runner(opt).run();
+  }
+}
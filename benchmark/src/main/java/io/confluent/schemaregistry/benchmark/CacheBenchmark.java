@@ -0,0 +1,151 @@
+/*
+ * Copyright 2022 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.schemaregistry.benchmark;
+
+import io.confluent.kafka.schemaregistry.utils.BoundedCache;
+import io.confluent.kafka.schemaregistry.utils.BoundedConcurrentHashMap;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ *  Runs JMH microbenchmarks against the bounded caches with a mix of reads and writes from
+ *  several threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(8)
+@Fork(3)
+public class CacheBenchmark {
+
+  static final int CAPACITY = 1000;
+  static final int KEY_SPACE = 4 * CAPACITY;
+  static final int OPERATIONS = 1 << 16;
+
+  @State(Scope.Benchmark)
+  public static class CacheState {
+
+    Map<Integer, Integer> cache;
+    Integer[] keys;
+
+    @Param({"BoundedConcurrentHashMap", "BoundedCache"})
+    public String cacheType;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+      switch (cacheType) {
+        case "BoundedConcurrentHashMap":
+          cache = new BoundedConcurrentHashMap<>(CAPACITY);
+          break;
+        case "BoundedCache":
+          cache = BoundedCache.create(CAPACITY);
+          break;
+        default:
+          throw new RuntimeException("Invalid cache type: " + cacheType);
+      }
+      // A skewed distribution, where a few keys are used most of the time
+      Random random = new Random(42);
+      keys = new Integer[OPERATIONS];
+      for (int i = 0; i < OPERATIONS; i++) {
+        keys[i] = (int) (KEY_SPACE * Math.pow(random.nextDouble(), 3));
+      }
+      for (int i = 0; i < CAPACITY; i++) {
+        cache.put(keys[i], keys[i]);
+      }
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class OperationState {
+    int next = new Random().nextInt(OPERATIONS);
+
+    Integer nextKey(CacheState state) {
+      return state.keys[next++ & (OPERATIONS - 1)];
+    }
+  }
+
+  @SuppressWarnings("MethodMayBeStatic") // Tests can not be static
+  @Benchmark
+  public Integer read(final CacheState state, final OperationState operation) {
+    return state.cache.get(operation.nextKey(state));
+  }
+
+  @SuppressWarnings("MethodMayBeStatic") // Tests can not be static
+  @Benchmark
+  public Integer readThrough(final CacheState state, final OperationState operation) {
+    // How the serializer and converter caches are used: reads, and a write on each miss
+    return state.cache.computeIfAbsent(operation.nextKey(state), k -> k);
+  }
+
+  @SuppressWarnings("MethodMayBeStatic") // Tests can not be static
+  @Benchmark
+  public Integer write(final CacheState state, final OperationState operation) {
+    Integer key = operation.nextKey(state);
+    return state.cache.put(key, key);
+  }
+
+  @SuppressWarnings("MethodMayBeStatic") // Tests can not be static
+  @Benchmark
+  @Group("readWrite")
+  @GroupThreads(6)
+  public Integer readWhileWriting(final CacheState state, final OperationState operation) {
+    return state.cache.get(operation.nextKey(state));
+  }
+
+  @SuppressWarnings("MethodMayBeStatic") // Tests can not be static
+  @Benchmark
+  @Group("readWrite")
+  @GroupThreads(2)
+  public Integer writeWhileReading(final CacheState state, final OperationState operation) {
+    Integer key = operation.nextKey(state);
+    return state.cache.put(key, key);
+  }
+
+  public static void main(final String[] args) throws Exception {
+
+    final Options opt = args.length != 0
+        ? new CommandLineOptions(args)
+        : new OptionsBuilder()
+            .include(CacheBenchmark.class.getSimpleName())
+            .shouldFailOnError(true)
+            .build();
+
+    new Runner(opt).run();
+  }
+}
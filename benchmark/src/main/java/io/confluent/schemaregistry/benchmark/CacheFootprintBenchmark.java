@@ -0,0 +1,102 @@
+/*
+ * Copyright 2022 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.schemaregistry.benchmark;
+
+import io.confluent.kafka.schemaregistry.utils.BoundedCache;
+import io.confluent.kafka.schemaregistry.utils.BoundedConcurrentHashMap;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ *  Runs JMH microbenchmarks that create bounded caches and fill them with a few entries, like
+ *  the caches that the client keeps for each subject.
+ *
+ *  <p>Run with the GC profiler ({@code -prof gc}) to report the bytes taken by each cache, as
+ *  {@code gc.alloc.rate.norm}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(1)
+@Fork(3)
+public class CacheFootprintBenchmark {
+
+  static final int CAPACITY = 1000;
+
+  @State(Scope.Thread)
+  public static class FootprintState {
+
+    @Param({"BoundedConcurrentHashMap", "BoundedCache"})
+    public String cacheType;
+
+    @Param({"1", "10", "1000"})
+    public int entries;
+
+    Map<Integer, Integer> newCache() {
+      switch (cacheType) {
+        case "BoundedConcurrentHashMap":
+          return new BoundedConcurrentHashMap<>(CAPACITY);
+        case "BoundedCache":
+          return BoundedCache.create(CAPACITY);
+        default:
+          throw new RuntimeException("Invalid cache type: " + cacheType);
+      }
+    }
+  }
+
+  @SuppressWarnings("MethodMayBeStatic") // Tests can not be static
+  @Benchmark
+  public Map<Integer, Integer> createAndFill(final FootprintState state) {
+    Map<Integer, Integer> cache = state.newCache();
+    for (int i = 0; i < state.entries; i++) {
+      cache.put(i, i);
+      cache.get(i);
+    }
+    return cache;
+  }
+
+  public static void main(final String[] args) throws Exception {
+
+    final Options opt = args.length != 0
+        ? new CommandLineOptions(args)
+        : new OptionsBuilder()
+            .include(CacheFootprintBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .shouldFailOnError(true)
+            .build();
+
+    new Runner(opt).run();
+  }
+}
@@ -0,0 +1,342 @@
+/*
+ * Copyright 2022 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.schemaregistry.benchmark;
+
+import io.confluent.connect.avro.AvroConverter;
+import io.confluent.connect.json.JsonSchemaConverter;
+import io.confluent.connect.protobuf.ProtobufConverter;
+import io.confluent.connect.schema.ConnectUnion;
+import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.serializers.AbstractKafkaSchemaSerDeConfig;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ImmutableMap;
+import org.apache.kafka.connect.data.Date;
+import org.apache.kafka.connect.data.Decimal;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaAndValue;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.data.Time;
+import org.apache.kafka.connect.data.Timestamp;
+import org.apache.kafka.connect.storage.Converter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ *  Runs JMH microbenchmarks against the Connect converters, for records of several shapes.
+ *
+ *  <p>Run with the GC profiler ({@code -prof gc}) to also report the allocations per record, as
+ *  {@code gc.alloc.rate.norm}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(4)
+@Fork(3)
+public class ConverterBenchmark {
+
+  static final String TOPIC_NAME = "converter_benchmark";
+  static final int WIDE_FIELDS = 100;
+  static final int NESTED_LEVELS = 8;
+
+  @State(Scope.Benchmark)
+  public static class ConverterState {
+
+    Converter converter;
+    Schema schema;
+    Struct struct;
+    byte[] bytes;
+
+    @Param({"AVRO", "PROTOBUF", "JSON"})
+    public String serializationFormat;
+
+    @Param({"FLAT", "WIDE", "NESTED", "UNION", "MAP", "LOGICAL", "OPTIONAL"})
+    public String schemaShape;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      final SchemaRegistryClient schemaRegistryClient = new MockSchemaRegistryClient();
+      final Map<String, Object> configs = ImmutableMap.of(
+          AbstractKafkaSchemaSerDeConfig.AUTO_REGISTER_SCHEMAS, true,
+          AbstractKafkaSchemaSerDeConfig.SCHEMA_REGISTRY_URL_CONFIG, ""
+      );
+
+      switch (serializationFormat) {
+        case "AVRO":
+          converter = new AvroConverter(schemaRegistryClient);
+          break;
+        case "PROTOBUF":
+          converter = new ProtobufConverter(schemaRegistryClient);
+          break;
+        case "JSON":
+          converter = new JsonSchemaConverter(schemaRegistryClient);
+          break;
+        default:
+          throw new RuntimeException("Invalid format: " + serializationFormat);
+      }
+      converter.configure(configs, false);
+
+      switch (schemaShape) {
+        case "FLAT":
+          schema = flatSchema();
+          struct = flatStruct(schema);
+          break;
+        case "WIDE":
+          schema = wideSchema();
+          struct = wideStruct(schema);
+          break;
+        case "NESTED":
+          schema = nestedSchema(NESTED_LEVELS);
+          struct = nestedStruct(schema);
+          break;
+        case "UNION":
+          schema = unionSchema();
+          struct = unionStruct(schema);
+          break;
+        case "MAP":
+          schema = mapSchema();
+          struct = mapStruct(schema);
+          break;
+        case "LOGICAL":
+          schema = logicalSchema();
+          struct = logicalStruct(schema);
+          break;
+        case "OPTIONAL":
+          schema = optionalSchema();
+          struct = optionalStruct(schema);
+          break;
+        default:
+          throw new RuntimeException("Invalid schema shape: " + schemaShape);
+      }
+      bytes = converter.fromConnectData(TOPIC_NAME, schema, struct);
+    }
+  }
+
+  static Schema flatSchema() {
+    return SchemaBuilder.struct().name("Flat")
+        .field("id", Schema.INT64_SCHEMA)
+        .field("count", Schema.INT32_SCHEMA)
+        .field("name", Schema.STRING_SCHEMA)
+        .field("active", Schema.BOOLEAN_SCHEMA)
+        .field("score", Schema.FLOAT64_SCHEMA)
+        .field("payload", Schema.BYTES_SCHEMA)
+        .build();
+  }
+
+  static Struct flatStruct(Schema schema) {
+    return new Struct(schema)
+        .put("id", 42L)
+        .put("count", 7)
+        .put("name", "flat record")
+        .put("active", true)
+        .put("score", 0.75)
+        .put("payload", new byte[] {1, 2, 3, 4});
+  }
+
+  static Schema wideSchema() {
+    SchemaBuilder builder = SchemaBuilder.struct().name("Wide");
+    for (int i = 0; i < WIDE_FIELDS; i++) {
+      builder.field("f" + i, wideFieldSchema(i));
+    }
+    return builder.build();
+  }
+
+  private static Schema wideFieldSchema(int i) {
+    switch (i % 4) {
+      case 0:
+        return Schema.INT32_SCHEMA;
+      case 1:
+        return Schema.STRING_SCHEMA;
+      case 2:
+        return Schema.INT64_SCHEMA;
+      default:
+        return Schema.FLOAT64_SCHEMA;
+    }
+  }
+
+  static Struct wideStruct(Schema schema) {
+    Struct struct = new Struct(schema);
+    for (int i = 0; i < WIDE_FIELDS; i++) {
+      switch (i % 4) {
+        case 0:
+          struct.put("f" + i, i);
+          break;
+        case 1:
+          struct.put("f" + i, "value" + i);
+          break;
+        case 2:
+          struct.put("f" + i, (long) i);
+          break;
+        default:
+          struct.put("f" + i, i / 2.0);
+          break;
+      }
+    }
+    return struct;
+  }
+
+  static Schema nestedSchema(int levels) {
+    Schema child = null;
+    for (int level = levels; level > 0; level--) {
+      SchemaBuilder builder = SchemaBuilder.struct().name("Level" + level)
+          .field("id", Schema.INT64_SCHEMA)
+          .field("name", Schema.STRING_SCHEMA)
+          .field("tags", SchemaBuilder.array(Schema.STRING_SCHEMA).build());
+      if (child != null) {
+        builder.field("child", child);
+      }
+      child = builder.build();
+    }
+    return child;
+  }
+
+  static Struct nestedStruct(Schema schema) {
+    Struct struct = new Struct(schema)
+        .put("id", 42L)
+        .put("name", schema.name())
+        .put("tags", Arrays.asList("x", "y"));
+    if (schema.field("child") != null) {
+      struct.put("child", nestedStruct(schema.field("child").schema()));
+    }
+    return struct;
+  }
+
+  static Schema unionSchema() {
+    // A union of the generalized form, which each format maps to its own unions or oneofs
+    Schema choice = ConnectUnion.builder("Choice")
+        .field("int_value", Schema.OPTIONAL_INT32_SCHEMA)
+        .field("string_value", Schema.OPTIONAL_STRING_SCHEMA)
+        .optional()
+        .build();
+    return SchemaBuilder.struct().name("Union")
+        .field("id", Schema.INT64_SCHEMA)
+        .field("choice", choice)
+        .build();
+  }
+
+  static Struct unionStruct(Schema schema) {
+    Schema choice = schema.field("choice").schema();
+    return new Struct(schema)
+        .put("id", 42L)
+        .put("choice", new Struct(choice).put("string_value", "seven"));
+  }
+
+  static Schema mapSchema() {
+    return SchemaBuilder.struct().name("Maps")
+        .field("id", Schema.INT64_SCHEMA)
+        .field("counts", SchemaBuilder.map(Schema.STRING_SCHEMA, Schema.INT64_SCHEMA).build())
+        .field("labels", SchemaBuilder.map(Schema.STRING_SCHEMA, Schema.STRING_SCHEMA).build())
+        .build();
+  }
+
+  static Struct mapStruct(Schema schema) {
+    Map<String, Long> counts = new HashMap<>();
+    Map<String, String> labels = new HashMap<>();
+    for (int i = 0; i < 20; i++) {
+      counts.put("key" + i, (long) i);
+      labels.put("label" + i, "value" + i);
+    }
+    return new Struct(schema)
+        .put("id", 42L)
+        .put("counts", counts)
+        .put("labels", labels);
+  }
+
+  static Schema logicalSchema() {
+    return SchemaBuilder.struct().name("Logical")
+        .field("amount", Decimal.schema(2))
+        .field("created", Timestamp.SCHEMA)
+        .field("day", Date.SCHEMA)
+        .field("time", Time.SCHEMA)
+        .build();
+  }
+
+  static Struct logicalStruct(Schema schema) {
+    return new Struct(schema)
+        .put("amount", new BigDecimal("1234.56"))
+        .put("created", new java.util.Date(1650000000000L))
+        .put("day", new java.util.Date(TimeUnit.DAYS.toMillis(19000)))
+        .put("time", new java.util.Date(TimeUnit.HOURS.toMillis(13)));
+  }
+
+  static Schema optionalSchema() {
+    return SchemaBuilder.struct().name("Optional")
+        .field("id", Schema.INT64_SCHEMA)
+        .field("count", Schema.OPTIONAL_INT32_SCHEMA)
+        .field("name", Schema.OPTIONAL_STRING_SCHEMA)
+        .field("note", Schema.OPTIONAL_STRING_SCHEMA)
+        .field("score", Schema.OPTIONAL_FLOAT64_SCHEMA)
+        .field("total", Schema.OPTIONAL_INT64_SCHEMA)
+        .build();
+  }
+
+  static Struct optionalStruct(Schema schema) {
+    // Half of the optional fields are set
+    return new Struct(schema)
+        .put("id", 42L)
+        .put("count", 7)
+        .put("name", "optional record");
+  }
+
+  @SuppressWarnings("MethodMayBeStatic") // Tests can not be static
+  @Benchmark
+  public byte[] fromConnectData(final ConverterState state) {
+    return state.converter.fromConnectData(TOPIC_NAME, state.schema, state.struct);
+  }
+
+  @SuppressWarnings("MethodMayBeStatic") // Tests can not be static
+  @Benchmark
+  public SchemaAndValue toConnectData(final ConverterState state) {
+    return state.converter.toConnectData(TOPIC_NAME, state.bytes);
+  }
+
+  public static void main(final String[] args) throws Exception {
+
+    final Options opt = args.length != 0
+        ? new CommandLineOptions(args)
+        : new OptionsBuilder()
+            .include(ConverterBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .shouldFailOnError(true)
+            .build();
+
+    new Runner(opt).run();
+  }
+}
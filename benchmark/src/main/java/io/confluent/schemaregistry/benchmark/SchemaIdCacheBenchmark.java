@@ -0,0 +1,158 @@
+/*
+ * Copyright 2022 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.schemaregistry.benchmark;
+
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.client.CachedSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.rest.RestService;
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import io.confluent.kafka.schemaregistry.tools.SchemaRegistryPerformance;
+import io.confluent.kafka.schemaregistry.utils.BoundedConcurrentHashMap;
+import io.confluent.kafka.schemaregistry.utils.BoundedConcurrentIntMap;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ *  Runs JMH microbenchmarks against the schema id lookups on the deserializer hot path.
+ *
+ *  <p>Run with {@code -prof gc} to compare the allocations per lookup, reported as
+ *  {@code gc.alloc.rate.norm}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(4)
+@Fork(3)
+public class SchemaIdCacheBenchmark {
+
+  // Ids above the range of the Integer cache, so that boxing them allocates
+  static final int FIRST_ID = 100000;
+  static final int LOOKUPS = 1024;
+  // The subject that deserializers look up with the default TopicNameStrategy
+  static final String TOPIC_SUBJECT = "topic-value";
+
+  @State(Scope.Benchmark)
+  public static class SchemaIdCacheState {
+
+    Map<String, Map<Integer, ParsedSchema>> boxedCache;
+    BoundedConcurrentIntMap<ParsedSchema> intCache;
+    CachedSchemaRegistryClient client;
+    int[] ids;
+    int capacity = 1000;
+
+    @Param({"10", "1000"})
+    public int schemaCount;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, RestClientException {
+      ParsedSchema schema = SchemaRegistryPerformance.makeParsedSchema("AVRO", 1);
+      boxedCache = new BoundedConcurrentHashMap<>(capacity);
+      intCache = new BoundedConcurrentIntMap<>(capacity);
+      client = new CachedSchemaRegistryClient(new RestService("http://localhost"), capacity) {
+        @Override
+        protected ParsedSchema getSchemaByIdFromRegistry(int id, String subject) {
+          return schema;
+        }
+      };
+      Map<Integer, ParsedSchema> idSchemaMap = boxedCache.computeIfAbsent(
+          "", k -> new BoundedConcurrentHashMap<>(capacity));
+      for (int i = 0; i < schemaCount; i++) {
+        idSchemaMap.put(FIRST_ID + i, schema);
+        intCache.put(FIRST_ID + i, schema);
+        client.getSchemaBySubjectAndId(null, FIRST_ID + i);
+        client.getSchemaBySubjectAndId(TOPIC_SUBJECT, FIRST_ID + i);
+      }
+      Random random = new Random(42);
+      ids = new int[LOOKUPS];
+      for (int i = 0; i < LOOKUPS; i++) {
+        ids[i] = FIRST_ID + random.nextInt(schemaCount);
+      }
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class LookupState {
+    int next;
+
+    int nextId(SchemaIdCacheState state) {
+      return state.ids[next++ & (LOOKUPS - 1)];
+    }
+  }
+
+  @SuppressWarnings("MethodMayBeStatic") // Tests can not be static
+  @Benchmark
+  public ParsedSchema boxedLookup(final SchemaIdCacheState state, final LookupState lookup) {
+    // The lookup that the client used to do for each record
+    Map<Integer, ParsedSchema> idSchemaMap = state.boxedCache.computeIfAbsent(
+        "", k -> new BoundedConcurrentHashMap<>(state.capacity));
+    return idSchemaMap.get(lookup.nextId(state));
+  }
+
+  @SuppressWarnings("MethodMayBeStatic") // Tests can not be static
+  @Benchmark
+  public ParsedSchema intLookup(final SchemaIdCacheState state, final LookupState lookup) {
+    return state.intCache.get(lookup.nextId(state));
+  }
+
+  @SuppressWarnings("MethodMayBeStatic") // Tests can not be static
+  @Benchmark
+  public ParsedSchema clientLookup(final SchemaIdCacheState state, final LookupState lookup)
+      throws IOException, RestClientException {
+    return state.client.getSchemaBySubjectAndId(null, lookup.nextId(state));
+  }
+
+  @SuppressWarnings("MethodMayBeStatic") // Tests can not be static
+  @Benchmark
+  public ParsedSchema clientSubjectLookup(final SchemaIdCacheState state,
+      final LookupState lookup) throws IOException, RestClientException {
+    // Subject lookups go through the subject keyed map, even in the default context
+    return state.client.getSchemaBySubjectAndId(TOPIC_SUBJECT, lookup.nextId(state));
+  }
+
+  public static void main(final String[] args) throws Exception {
+
+    final Options opt = args.length != 0
+        ? new CommandLineOptions(args)
+        : new OptionsBuilder()
+            .include(SchemaIdCacheBenchmark.class.getSimpleName())
+            .shouldFailOnError(true)
+            .build();
+
+    new Runner(opt).run();
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2022 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.schemaregistry.benchmark;
+
+import io.confluent.kafka.schemaregistry.CompatibilityLevel;
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ *  Runs JMH microbenchmarks against the compatibility check of a registration, for subjects with
+ *  long histories.
+ *
+ *  <p>The history is parsed from the stored schema strings on each registration, as when the
+ *  versions are not in the schema cache of the registry. With {@code historyLoading=ALL} every
+ *  version is parsed and passed to the check, while with {@code historyLoading=LEVEL} only the
+ *  versions that the compatibility level checks against are.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(4)
+@Fork(3)
+public class SubjectHistoryBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class SubjectHistoryState {
+
+    CompatibilityLevel level;
+    List<String> history;
+    ParsedSchema newSchema;
+
+    @Param({"BACKWARD", "FULL", "BACKWARD_TRANSITIVE"})
+    public String compatibilityLevel;
+
+    @Param({"10", "100", "800"})
+    public int versions;
+
+    @Param({"ALL", "LEVEL"})
+    public String historyLoading;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      level = CompatibilityLevel.forName(compatibilityLevel);
+      history = new ArrayList<>(versions);
+      for (int version = 1; version <= versions; version++) {
+        history.add(schemaString(version));
+      }
+      newSchema = new AvroSchema(schemaString(versions + 1));
+    }
+  }
+
+  /**
+   * Returns a version of a record that adds a field with a default to the previous version, so
+   * that each version is fully compatible with all the previous ones.
+   */
+  static String schemaString(int version) {
+    StringBuilder fields = new StringBuilder();
+    for (int i = 0; i < version; i++) {
+      if (i > 0) {
+        fields.append(',');
+      }
+      fields.append("{\"name\":\"f").append(i).append("\",\"type\":\"string\",\"default\":\"\"}");
+    }
+    return "{\"type\":\"record\",\"name\":\"History\",\"fields\":[" + fields + "]}";
+  }
+
+  static List<ParsedSchema> previousSchemas(SubjectHistoryState state) {
+    List<String> checked = state.history;
+    if ("LEVEL".equals(state.historyLoading)) {
+      if (state.level == CompatibilityLevel.NONE) {
+        checked = Collections.emptyList();
+      } else if (!state.level.isTransitive()) {
+        checked = checked.subList(checked.size() - 1, checked.size());
+      }
+    }
+    List<ParsedSchema> previousSchemas = new ArrayList<>(checked.size());
+    for (String schema : checked) {
+      previousSchemas.add(new AvroSchema(schema));
+    }
+    return previousSchemas;
+  }
+
+  @SuppressWarnings("MethodMayBeStatic") // Tests can not be static
+  @Benchmark
+  public List<String> register(final SubjectHistoryState state) {
+    return state.newSchema.isCompatible(state.level, previousSchemas(state));
+  }
+
+  public static void main(final String[] args) throws Exception {
+
+    final Options opt = args.length != 0
+        ? new CommandLineOptions(args)
+        : new OptionsBuilder()
+            .include(SubjectHistoryBenchmark.class.getSimpleName())
+            .shouldFailOnError(true)
+            .build();
+
+    new Runner(opt).run();
+  }
+}
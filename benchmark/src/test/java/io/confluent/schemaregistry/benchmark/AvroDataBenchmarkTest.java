@@ -0,0 +1,65 @@
+/*
+ * Copyright 2022 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.schemaregistry.benchmark;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.schemaregistry.benchmark.AvroDataBenchmark.AvroDataState;
+import java.util.List;
+
+import org.apache.kafka.connect.data.SchemaAndValue;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+@RunWith(Parameterized.class)
+public class AvroDataBenchmarkTest {
+
+  private static final List<String> SHAPES = ImmutableList.of("WIDE", "DEEP");
+
+  private final String recordShape;
+
+  private AvroDataState state;
+
+  public AvroDataBenchmarkTest(final String recordShape) {
+    this.recordShape = recordShape;
+  }
+
+  @Parameterized.Parameters(name = "{0}")
+  public static Iterable<String> data() {
+    return SHAPES;
+  }
+
+  @Before
+  public void setUp() {
+    state = new AvroDataState();
+    state.recordShape = recordShape;
+    state.setUp();
+  }
+
+  @Test
+  public void shouldConvertRoundTrip() {
+    assertThat(state.avroData.fromConnectData(state.connectSchema, state.struct),
+        is(state.avroValue));
+    SchemaAndValue connectData = state.avroData.toConnectData(state.avroSchema, state.avroValue);
+    assertThat(connectData.schema().fields().size(), is(state.connectSchema.fields().size()));
+    ((Struct) connectData.value()).validate();
+  }
+}
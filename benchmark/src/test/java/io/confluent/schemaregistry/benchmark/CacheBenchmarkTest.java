@@ -0,0 +1,70 @@
+/*
+ * Copyright 2022 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.schemaregistry.benchmark;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.schemaregistry.benchmark.CacheBenchmark.CacheState;
+import io.confluent.schemaregistry.benchmark.CacheBenchmark.OperationState;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+@RunWith(Parameterized.class)
+public class CacheBenchmarkTest {
+
+  private static final List<String> CACHE_TYPES =
+      ImmutableList.of("BoundedConcurrentHashMap", "BoundedCache");
+
+  private final String cacheType;
+  private final CacheBenchmark benchmark = new CacheBenchmark();
+
+  private CacheState state;
+
+  public CacheBenchmarkTest(final String cacheType) {
+    this.cacheType = cacheType;
+  }
+
+  @Parameterized.Parameters(name = "{0}")
+  public static Iterable<String> data() {
+    return CACHE_TYPES;
+  }
+
+  @Before
+  public void setUp() {
+    state = new CacheState();
+    state.cacheType = cacheType;
+    state.setUp();
+  }
+
+  @Test
+  public void shouldReadWhatWasWritten() {
+    OperationState operation = new OperationState();
+    for (int i = 0; i < 10000; i++) {
+      operation.next = i;
+      Integer key = state.keys[i];
+      benchmark.write(state, operation);
+      operation.next = i;
+      assertThat(benchmark.readThrough(state, operation), is(key));
+    }
+    assertThat(state.cache.size() <= CacheBenchmark.CAPACITY, is(true));
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2022 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.schemaregistry.benchmark;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+import io.confluent.schemaregistry.benchmark.CacheFootprintBenchmark.FootprintState;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class CacheFootprintBenchmarkTest {
+
+  // A cache with a single entry, such as the cache of a subject with one schema
+  private static final long MAX_BYTES_PER_SMALL_CACHE = 4096;
+  private static final int CACHES = 100;
+
+  private final CacheFootprintBenchmark benchmark = new CacheFootprintBenchmark();
+
+  @Test
+  public void shouldFillCaches() {
+    FootprintState state = new FootprintState();
+    state.cacheType = "BoundedCache";
+    state.entries = 10;
+    Map<Integer, Integer> cache = benchmark.createAndFill(state);
+    assertThat(cache.size(), is(10));
+  }
+
+  @Test
+  public void shouldKeepSmallCachesSmall() {
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+    com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+    assumeTrue(allocations.isThreadAllocatedMemorySupported());
+    allocations.setThreadAllocatedMemoryEnabled(true);
+
+    FootprintState state = new FootprintState();
+    state.cacheType = "BoundedCache";
+    state.entries = 1;
+    Object[] caches = new Object[CACHES];
+    // Warm up, so that class loading is not counted
+    benchmark.createAndFill(state);
+
+    long threadId = Thread.currentThread().getId();
+    long before = allocations.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < CACHES; i++) {
+      caches[i] = benchmark.createAndFill(state);
+    }
+    long bytesPerCache = (allocations.getThreadAllocatedBytes(threadId) - before) / CACHES;
+    assertThat("Bytes per cache: " + bytesPerCache,
+        bytesPerCache <= MAX_BYTES_PER_SMALL_CACHE, is(true));
+    assertThat(caches[CACHES - 1] != null, is(true));
+  }
+}
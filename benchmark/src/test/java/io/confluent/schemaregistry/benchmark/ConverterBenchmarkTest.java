@@ -0,0 +1,80 @@
+/*
+ * Copyright 2022 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.schemaregistry.benchmark;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.schemaregistry.benchmark.ConverterBenchmark.ConverterState;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.kafka.connect.data.SchemaAndValue;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+@RunWith(Parameterized.class)
+public class ConverterBenchmarkTest {
+
+  private static final List<String> FORMATS = ImmutableList.of("AVRO", "PROTOBUF", "JSON");
+  private static final List<String> SHAPES = ImmutableList.of(
+      "FLAT", "WIDE", "NESTED", "UNION", "MAP", "LOGICAL", "OPTIONAL");
+
+  private final String serializationFormat;
+  private final String schemaShape;
+
+  private ConverterState state;
+
+  public ConverterBenchmarkTest(final String serializationFormat, final String schemaShape) {
+    this.serializationFormat = serializationFormat;
+    this.schemaShape = schemaShape;
+  }
+
+  @Parameterized.Parameters(name = "{0} {1}")
+  public static Iterable<Object[]> data() {
+    List<Object[]> data = new ArrayList<>();
+    for (String format : FORMATS) {
+      for (String shape : SHAPES) {
+        data.add(new Object[] {format, shape});
+      }
+    }
+    return data;
+  }
+
+  @Before
+  public void setUp() {
+    state = new ConverterState();
+    state.serializationFormat = serializationFormat;
+    state.schemaShape = schemaShape;
+    state.setUp();
+  }
+
+  @Test
+  public void shouldConvertRoundTrip() {
+    assertThat(state.bytes, notNullValue());
+    SchemaAndValue connectData = state.converter.toConnectData(
+        ConverterBenchmark.TOPIC_NAME, state.bytes);
+    assertThat(connectData.schema().fields().size(), is(state.schema.fields().size()));
+    ((Struct) connectData.value()).validate();
+    assertThat(state.converter.fromConnectData(
+        ConverterBenchmark.TOPIC_NAME, connectData.schema(), connectData.value()), notNullValue());
+  }
+}
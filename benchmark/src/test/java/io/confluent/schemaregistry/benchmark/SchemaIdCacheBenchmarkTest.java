@@ -0,0 +1,57 @@
+/*
+ * Copyright 2022 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.schemaregistry.benchmark;
+
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.schemaregistry.benchmark.SchemaIdCacheBenchmark.LookupState;
+import io.confluent.schemaregistry.benchmark.SchemaIdCacheBenchmark.SchemaIdCacheState;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class SchemaIdCacheBenchmarkTest {
+
+  private final SchemaIdCacheBenchmark benchmark = new SchemaIdCacheBenchmark();
+  private SchemaIdCacheState state;
+
+  @Before
+  public void setUp() throws Exception {
+    state = new SchemaIdCacheState();
+    state.schemaCount = 10;
+    state.setUp();
+  }
+
+  @Test
+  public void shouldLookUpSameSchema() throws Exception {
+    for (int i = 0; i < SchemaIdCacheBenchmark.LOOKUPS; i++) {
+      ParsedSchema boxed = benchmark.boxedLookup(state, lookupAt(i));
+      assertThat(boxed, notNullValue());
+      assertThat(benchmark.intLookup(state, lookupAt(i)), sameInstance(boxed));
+      assertThat(benchmark.clientLookup(state, lookupAt(i)), sameInstance(boxed));
+      assertThat(benchmark.clientSubjectLookup(state, lookupAt(i)), sameInstance(boxed));
+    }
+  }
+
+  private static LookupState lookupAt(int index) {
+    LookupState lookup = new LookupState();
+    lookup.next = index;
+    return lookup;
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2022 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.schemaregistry.benchmark;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.schemaregistry.benchmark.SubjectHistoryBenchmark.SubjectHistoryState;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+@RunWith(Parameterized.class)
+public class SubjectHistoryBenchmarkTest {
+
+  private static final List<String> LEVELS =
+      ImmutableList.of("BACKWARD", "FULL", "BACKWARD_TRANSITIVE");
+  private static final List<String> HISTORY_LOADINGS = ImmutableList.of("ALL", "LEVEL");
+
+  private final String compatibilityLevel;
+  private final String historyLoading;
+  private final SubjectHistoryBenchmark benchmark = new SubjectHistoryBenchmark();
+
+  private SubjectHistoryState state;
+
+  public SubjectHistoryBenchmarkTest(final String compatibilityLevel,
+                                     final String historyLoading) {
+    this.compatibilityLevel = compatibilityLevel;
+    this.historyLoading = historyLoading;
+  }
+
+  @Parameterized.Parameters(name = "{0} {1}")
+  public static Iterable<Object[]> data() {
+    List<Object[]> data = new ArrayList<>();
+    for (String level : LEVELS) {
+      for (String loading : HISTORY_LOADINGS) {
+        data.add(new Object[] {level, loading});
+      }
+    }
+    return data;
+  }
+
+  @Before
+  public void setUp() {
+    state = new SubjectHistoryState();
+    state.compatibilityLevel = compatibilityLevel;
+    state.versions = 10;
+    state.historyLoading = historyLoading;
+    state.setUp();
+  }
+
+  @Test
+  public void shouldBeCompatibleWithHistory() {
+    assertThat(benchmark.register(state), is(Collections.emptyList()));
+    int parsed = SubjectHistoryBenchmark.previousSchemas(state).size();
+    boolean levelAware = "LEVEL".equals(historyLoading);
+    assertThat(parsed, is(levelAware && !state.level.isTransitive() ? 1 : 10));
+  }
+}
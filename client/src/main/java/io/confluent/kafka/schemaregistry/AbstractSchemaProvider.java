@@ -21,6 +21,8 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import io.confluent.kafka.schemaregistry.client.ResolvedSchemaVersion;
+import io.confluent.kafka.schemaregistry.client.ResolvedSchemaVersionFetcher;
 import io.confluent.kafka.schemaregistry.client.SchemaVersionFetcher;
 import io.confluent.kafka.schemaregistry.client.rest.entities.Schema;
 import io.confluent.kafka.schemaregistry.client.rest.entities.SchemaReference;
@@ -56,7 +58,16 @@ public abstract class AbstractSchemaProvider implements SchemaProvider {
         throw new IllegalStateException("Invalid reference: " + reference);
       }
       String subject = reference.getSubject();
-      if (!schemas.containsKey(reference.getName())) {
+      if (schemas.containsKey(reference.getName())) {
+        continue;
+      }
+      if (schemaVersionFetcher() instanceof ResolvedSchemaVersionFetcher) {
+        // Reuse the resolution of the referenced schemas, which the fetcher may have cached
+        ResolvedSchemaVersion resolved = ResolvedSchemaVersion.resolveReference(
+            (ResolvedSchemaVersionFetcher) schemaVersionFetcher(), reference);
+        resolved.addReferencedSchemas(schemas);
+        schemas.put(reference.getName(), resolved.getSchema().getSchema());
+      } else {
         Schema schema = schemaVersionFetcher().getByVersion(subject, reference.getVersion(), true);
         if (schema == null) {
           throw new IllegalStateException("No schema reference found for subject \""
@@ -19,6 +19,7 @@ package io.confluent.kafka.schemaregistry;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 public class CompatibilityChecker {
 
@@ -85,6 +86,59 @@ public class CompatibilityChecker {
     return validator.validate(newSchema, previousSchemasCopy);
   }
 
+  /**
+   * Returns a checker for the level, which checks whether one schema can read another with the
+   * given check.
+   *
+   * @param canRead validates that its first schema can read data written with its second schema
+   */
+  public static CompatibilityChecker checker(CompatibilityLevel level,
+                                             SchemaValidationStrategy canRead) {
+    return checker(level, canRead, null, 1);
+  }
+
+  /**
+   * Returns a checker for the level, which checks whether one schema can read another with the
+   * given check. Transitive levels check against the previous schemas in parallel on the
+   * executor, unless it is null.
+   *
+   * @param canRead validates that its first schema can read data written with its second schema
+   * @param executor runs the checks against the previous schemas, or null to run them in turn
+   * @param parallelism the maximum number of tasks that a check runs on the executor at once
+   */
+  public static CompatibilityChecker checker(CompatibilityLevel level,
+                                             SchemaValidationStrategy canRead,
+                                             Executor executor,
+                                             int parallelism) {
+    SchemaValidatorBuilder builder = new SchemaValidatorBuilder(canRead);
+    switch (level) {
+      case NONE:
+        return CompatibilityChecker.NO_OP_CHECKER;
+      case BACKWARD:
+        return new CompatibilityChecker(builder.canReadStrategy().validateLatest());
+      case BACKWARD_TRANSITIVE:
+        return transitiveChecker(builder.canReadStrategy(), executor, parallelism);
+      case FORWARD:
+        return new CompatibilityChecker(builder.canBeReadStrategy().validateLatest());
+      case FORWARD_TRANSITIVE:
+        return transitiveChecker(builder.canBeReadStrategy(), executor, parallelism);
+      case FULL:
+        return new CompatibilityChecker(builder.mutualReadStrategy().validateLatest());
+      case FULL_TRANSITIVE:
+        return transitiveChecker(builder.mutualReadStrategy(), executor, parallelism);
+      default:
+        throw new IllegalArgumentException("Invalid level " + level);
+    }
+  }
+
+  private static CompatibilityChecker transitiveChecker(SchemaValidatorBuilder builder,
+                                                       Executor executor,
+                                                       int parallelism) {
+    return new CompatibilityChecker(executor != null && parallelism > 1
+        ? builder.validateAll(executor, parallelism)
+        : builder.validateAll());
+  }
+
   public static CompatibilityChecker checker(CompatibilityLevel level) {
     switch (level) {
       case NONE:
@@ -31,6 +31,14 @@ public enum CompatibilityLevel {
     this.name = name();
   }
 
+  /**
+   * Returns whether a new schema is checked against all previous versions of the subject, rather
+   * than only against the latest one.
+   */
+  public boolean isTransitive() {
+    return this == BACKWARD_TRANSITIVE || this == FORWARD_TRANSITIVE || this == FULL_TRANSITIVE;
+  }
+
   public static CompatibilityLevel forName(String name) {
     if (name == null) {
       return null;
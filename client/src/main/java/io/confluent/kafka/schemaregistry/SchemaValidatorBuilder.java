@@ -24,6 +24,11 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * <p>
@@ -31,14 +36,29 @@ import java.util.ArrayList;
  * </p>
  */
 public final class SchemaValidatorBuilder {
+  private final SchemaValidationStrategy canRead;
   private SchemaValidationStrategy strategy;
 
+  public SchemaValidatorBuilder() {
+    this((reader, writer) -> reader.isBackwardCompatible(writer));
+  }
+
+  /**
+   * Creates a builder whose strategies check whether one schema can read another with the given
+   * check, such as one that caches the results of {@link ParsedSchema#isBackwardCompatible}.
+   *
+   * @param canRead validates that its first schema can read data written with its second schema
+   */
+  public SchemaValidatorBuilder(SchemaValidationStrategy canRead) {
+    this.canRead = canRead;
+  }
+
   /**
    * Use a strategy that validates that a schema can be used to read existing
    * schema(s) according to the JSON default schema resolution.
    */
   public SchemaValidatorBuilder canReadStrategy() {
-    this.strategy = (toValidate, existing) -> toValidate.isBackwardCompatible(existing);
+    this.strategy = (toValidate, existing) -> canRead.validate(toValidate, existing);
     return this;
   }
 
@@ -47,7 +67,7 @@ public final class SchemaValidatorBuilder {
    * schema(s) according to the JSON default schema resolution.
    */
   public SchemaValidatorBuilder canBeReadStrategy() {
-    this.strategy = (toValidate, existing) -> existing.isBackwardCompatible(toValidate);
+    this.strategy = (toValidate, existing) -> canRead.validate(existing, toValidate);
     return this;
   }
 
@@ -59,8 +79,8 @@ public final class SchemaValidatorBuilder {
 
     this.strategy = (toValidate, existing) -> {
       List<String> result = new ArrayList<>();
-      result.addAll(existing.isBackwardCompatible(toValidate));
-      result.addAll(toValidate.isBackwardCompatible(existing));
+      result.addAll(canRead.validate(existing, toValidate));
+      result.addAll(canRead.validate(toValidate, existing));
       return result;
     };
     return this;
@@ -91,6 +111,90 @@ public final class SchemaValidatorBuilder {
     };
   }
 
+  /**
+   * Like {@link #validateAll()}, but validates against the existing schemas in parallel on the
+   * executor, in at most {@code parallelism} tasks that each validate a run of consecutive
+   * schemas. The result is the same as that of {@link #validateAll()}: the errors of the most
+   * recent schema that fails validation. Once a schema fails, the validations against older
+   * schemas are cancelled.
+   *
+   * @param parallelism the maximum number of tasks per validation, such as the number of threads
+   *     of the executor
+   */
+  public SchemaValidator validateAll(Executor executor, int parallelism) {
+    valid();
+    return (toValidate, schemasInOrder) -> {
+      List<ParsedSchema> schemas = new ArrayList<>();
+      schemasInOrder.forEach(schemas::add);
+      int tasks = Math.max(1, Math.min(parallelism, schemas.size()));
+      if (tasks == 1) {
+        return validateRange(
+            toValidate, schemas, 0, schemas.size(), new AtomicInteger(schemas.size()));
+      }
+      int runLength = (schemas.size() + tasks - 1) / tasks;
+      int runs = (schemas.size() + runLength - 1) / runLength;
+      // The index of the most recent schema known to fail validation
+      AtomicInteger firstFailure = new AtomicInteger(schemas.size());
+      AtomicReferenceArray<CompletableFuture<List<String>>> results =
+          new AtomicReferenceArray<>(runs);
+      for (int i = 0; i < runs; i++) {
+        int run = i;
+        int from = run * runLength;
+        int to = Math.min(from + runLength, schemas.size());
+        results.set(run, CompletableFuture.supplyAsync(() -> {
+          List<String> errorMessages = validateRange(toValidate, schemas, from, to, firstFailure);
+          if (!errorMessages.isEmpty()) {
+            // Older schemas can not change the result, so skip the runs that have not started
+            for (int older = run + 1; older < runs; older++) {
+              CompletableFuture<List<String>> result = results.get(older);
+              if (result != null) {
+                result.cancel(false);
+              }
+            }
+          }
+          return errorMessages;
+        }, executor));
+      }
+      // A cancelled run is older than a failed one, which is returned before reaching it
+      for (int i = 0; i < runs; i++) {
+        List<String> errorMessages;
+        try {
+          errorMessages = results.get(i).join();
+        } catch (CompletionException e) {
+          if (e.getCause() instanceof RuntimeException) {
+            throw (RuntimeException) e.getCause();
+          }
+          throw e;
+        }
+        if (!errorMessages.isEmpty()) {
+          return errorMessages;
+        }
+      }
+      return Collections.emptyList();
+    };
+  }
+
+  /**
+   * Validates against the existing schemas in the range in turn, until one fails or the range
+   * reaches schemas older than the most recent one known to fail.
+   *
+   * @param firstFailure the index of the most recent schema known to fail validation
+   */
+  private List<String> validateRange(ParsedSchema toValidate, List<ParsedSchema> schemas,
+                                     int from, int to, AtomicInteger firstFailure) {
+    for (int index = from; index < to; index++) {
+      if (index > firstFailure.get()) {
+        break;
+      }
+      List<String> errorMessages = strategy.validate(toValidate, schemas.get(index));
+      if (!errorMessages.isEmpty()) {
+        firstFailure.accumulateAndGet(index, Math::min);
+        return errorMessages;
+      }
+    }
+    return Collections.emptyList();
+  }
+
   private void valid() {
     if (null == strategy) {
       throw new RuntimeException("SchemaValidationStrategy not specified in builder");
@@ -48,6 +48,8 @@ public class AvroSchema implements ParsedSchema {
   private final Map<String, String> resolvedReferences;
   private final boolean isNew;
 
+  private transient AvroSchema normalizedSchema;
+
   private transient int hashCode = NO_HASHCODE;
 
   private static final int NO_HASHCODE = Integer.MIN_VALUE;
@@ -178,14 +180,17 @@ public class AvroSchema implements ParsedSchema {
 
   @Override
   public AvroSchema normalize() {
-    String normalized = AvroSchemaUtils.toNormalizedString(this);
-    return new AvroSchema(
-        normalized,
-        this.references.stream().sorted().distinct().collect(Collectors.toList()),
-        this.resolvedReferences,
-        this.version,
-        this.isNew
-    );
+    if (normalizedSchema == null) {
+      String normalized = AvroSchemaUtils.toNormalizedString(this);
+      normalizedSchema = new AvroSchema(
+          normalized,
+          this.references.stream().sorted().distinct().collect(Collectors.toList()),
+          this.resolvedReferences,
+          this.version,
+          this.isNew
+      );
+    }
+    return normalizedSchema;
   }
 
   @Override
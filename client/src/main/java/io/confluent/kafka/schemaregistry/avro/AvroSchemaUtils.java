@@ -24,7 +24,7 @@ import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.databind.util.TokenBuffer;
-import io.confluent.kafka.schemaregistry.utils.BoundedConcurrentHashMap;
+import io.confluent.kafka.schemaregistry.utils.BoundedCache;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
@@ -84,7 +84,7 @@ public class AvroSchemaUtils {
   private static int DEFAULT_CACHE_CAPACITY = 1000;
   private static final Map<String, Schema> primitiveSchemas;
   private static final Map<Schema, Schema> transformedSchemas =
-      new BoundedConcurrentHashMap<>(DEFAULT_CACHE_CAPACITY);
+      BoundedCache.create(DEFAULT_CACHE_CAPACITY);
 
   static {
     primitiveSchemas = new HashMap<>();
@@ -25,9 +25,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -46,12 +48,15 @@ import io.confluent.kafka.schemaregistry.client.rest.entities.Schema;
 import io.confluent.kafka.schemaregistry.client.rest.entities.SchemaReference;
 import io.confluent.kafka.schemaregistry.client.rest.entities.SchemaString;
 import io.confluent.kafka.schemaregistry.client.rest.entities.SubjectVersion;
+import io.confluent.kafka.schemaregistry.client.rest.entities.requests.CompatibilityCheckBatchRequest;
+import io.confluent.kafka.schemaregistry.client.rest.entities.requests.CompatibilityCheckResponse;
 import io.confluent.kafka.schemaregistry.client.rest.entities.requests.ConfigUpdateRequest;
 import io.confluent.kafka.schemaregistry.client.rest.entities.Mode;
 import io.confluent.kafka.schemaregistry.client.rest.entities.requests.ModeUpdateRequest;
 import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
 import io.confluent.kafka.schemaregistry.client.security.SslFactory;
-import io.confluent.kafka.schemaregistry.utils.BoundedConcurrentHashMap;
+import io.confluent.kafka.schemaregistry.utils.BoundedCache;
+import io.confluent.kafka.schemaregistry.utils.BoundedConcurrentIntMap;
 
 import javax.net.ssl.HostnameVerifier;
 
@@ -66,10 +71,13 @@ public class CachedSchemaRegistryClient implements SchemaRegistryClient {
   private final RestService restService;
   private final int cacheCapacity;
   private final Map<String, Map<ParsedSchema, Integer>> schemaCache;
-  private final Map<String, Map<Integer, ParsedSchema>> idCache;
+  private final Map<String, BoundedConcurrentIntMap<ParsedSchema>> idCache;
+  private final BoundedConcurrentIntMap<ParsedSchema> defaultContextIdCache;
   private final Map<String, Map<ParsedSchema, Integer>> versionCache;
   private final Cache<SubjectAndSchema, Long> missingSchemaCache;
   private final Cache<SubjectAndId, Long> missingIdCache;
+  // Whether the registry predates the batch compatibility check
+  private volatile boolean batchCompatibilityUnsupported;
   private final Map<String, SchemaProvider> providers;
 
   private static final String NO_SUBJECT = "";
@@ -182,9 +190,10 @@ public class CachedSchemaRegistryClient implements SchemaRegistryClient {
       Map<String, String> httpHeaders,
       Ticker ticker) {
     this.cacheCapacity = cacheCapacity;
-    this.schemaCache = new BoundedConcurrentHashMap<>(cacheCapacity);
-    this.idCache = new BoundedConcurrentHashMap<>(cacheCapacity);
-    this.versionCache = new BoundedConcurrentHashMap<>(cacheCapacity);
+    this.schemaCache = BoundedCache.create(cacheCapacity);
+    this.idCache = BoundedCache.create(cacheCapacity);
+    this.defaultContextIdCache = new BoundedConcurrentIntMap<>(cacheCapacity);
+    this.versionCache = BoundedCache.create(cacheCapacity);
     this.restService = restService;
 
     long missingIdTTL = SchemaRegistryClientConfig.getMissingIdTTL(configs);
@@ -363,7 +372,7 @@ public class CachedSchemaRegistryClient implements SchemaRegistryClient {
   private int register(String subject, ParsedSchema schema, int version, int id, boolean normalize)
       throws IOException, RestClientException {
     final Map<ParsedSchema, Integer> schemaIdMap = schemaCache.computeIfAbsent(
-        subject, k -> new BoundedConcurrentHashMap<>(cacheCapacity));
+        subject, k -> BoundedCache.create(cacheCapacity));
 
     Integer cachedId = schemaIdMap.get(schema);
     if (cachedId != null) {
@@ -383,9 +392,7 @@ public class CachedSchemaRegistryClient implements SchemaRegistryClient {
           : registerAndGetId(subject, schema, normalize);
       schemaIdMap.put(schema, retrievedId);
       String context = toQualifiedContext(subject);
-      final Map<Integer, ParsedSchema> idSchemaMap = idCache.computeIfAbsent(
-          context, k -> new BoundedConcurrentHashMap<>(cacheCapacity));
-      idSchemaMap.put(retrievedId, schema);
+      idSchemaMap(context).put(retrievedId, schema);
       return retrievedId;
     }
   }
@@ -409,8 +416,7 @@ public class CachedSchemaRegistryClient implements SchemaRegistryClient {
       subject = NO_SUBJECT;
     }
 
-    final Map<Integer, ParsedSchema> idSchemaMap = idCache.computeIfAbsent(
-        subject, k -> new BoundedConcurrentHashMap<>(cacheCapacity));
+    final BoundedConcurrentIntMap<ParsedSchema> idSchemaMap = idSchemaMap(subject);
 
     ParsedSchema cachedSchema = idSchemaMap.get(id);
     if (cachedSchema != null) {
@@ -517,7 +523,7 @@ public class CachedSchemaRegistryClient implements SchemaRegistryClient {
   public int getVersion(String subject, ParsedSchema schema, boolean normalize)
       throws IOException, RestClientException {
     final Map<ParsedSchema, Integer> schemaVersionMap = versionCache.computeIfAbsent(
-        subject, k -> new BoundedConcurrentHashMap<>(cacheCapacity));
+        subject, k -> BoundedCache.create(cacheCapacity));
 
     Integer cachedVersion = schemaVersionMap.get(schema);
     if (cachedVersion != null) {
@@ -559,7 +565,7 @@ public class CachedSchemaRegistryClient implements SchemaRegistryClient {
   public int getId(String subject, ParsedSchema schema, boolean normalize)
       throws IOException, RestClientException {
     final Map<ParsedSchema, Integer> schemaIdMap = schemaCache.computeIfAbsent(
-        subject, k -> new BoundedConcurrentHashMap<>(cacheCapacity));
+        subject, k -> BoundedCache.create(cacheCapacity));
 
     Integer cachedId = schemaIdMap.get(schema);
     if (cachedId != null) {
@@ -575,9 +581,7 @@ public class CachedSchemaRegistryClient implements SchemaRegistryClient {
       final int retrievedId = getIdFromRegistry(subject, schema, normalize);
       schemaIdMap.put(schema, retrievedId);
       String context = toQualifiedContext(subject);
-      final Map<Integer, ParsedSchema> idSchemaMap = idCache.computeIfAbsent(
-          context, k -> new BoundedConcurrentHashMap<>(cacheCapacity));
-      idSchemaMap.put(retrievedId, schema);
+      idSchemaMap(context).put(retrievedId, schema);
       return retrievedId;
     }
   }
@@ -633,6 +637,46 @@ public class CachedSchemaRegistryClient implements SchemaRegistryClient {
             schema.references(), subject, "latest", true);
   }
 
+  /**
+   * Checks all the schemas with one request, against the versions of their subjects as
+   * registering them would, which the registry checks concurrently. Registries without the batch
+   * check, which respond with a 404, get a request for each schema instead.
+   */
+  @Override
+  public Map<String, List<String>> testCompatibilityVerbose(Map<String, ParsedSchema> schemas)
+          throws IOException, RestClientException {
+    if (!batchCompatibilityUnsupported) {
+      try {
+        return testCompatibilityBatch(schemas);
+      } catch (RestClientException rce) {
+        if (rce.getStatus() != HTTP_NOT_FOUND) {
+          throw rce;
+        }
+        batchCompatibilityUnsupported = true;
+      }
+    }
+    return SchemaRegistryClient.super.testCompatibilityVerbose(schemas);
+  }
+
+  private Map<String, List<String>> testCompatibilityBatch(Map<String, ParsedSchema> schemas)
+          throws IOException, RestClientException {
+    List<Schema> candidates = new ArrayList<>(schemas.size());
+    for (Map.Entry<String, ParsedSchema> entry : schemas.entrySet()) {
+      ParsedSchema schema = entry.getValue();
+      candidates.add(new Schema(entry.getKey(), null, null, schema.schemaType(),
+          schema.references(), schema.canonicalString()));
+    }
+    List<CompatibilityCheckResponse> results =
+        restService.testCompatibilityBatch(new CompatibilityCheckBatchRequest(candidates));
+    Map<String, List<String>> errorMessages = new LinkedHashMap<>();
+    for (int i = 0; i < candidates.size(); i++) {
+      List<String> messages = results.get(i).getMessages();
+      errorMessages.put(candidates.get(i).getSubject(),
+          messages != null ? messages : Collections.emptyList());
+    }
+    return errorMessages;
+  }
+
   @Override
   public String updateCompatibility(String subject, String compatibility)
       throws IOException, RestClientException {
@@ -703,6 +747,7 @@ public class CachedSchemaRegistryClient implements SchemaRegistryClient {
   public synchronized void reset() {
     schemaCache.clear();
     idCache.clear();
+    defaultContextIdCache.clear();
     versionCache.clear();
     missingSchemaCache.invalidateAll();
     missingIdCache.invalidateAll();
@@ -721,6 +766,24 @@ public class CachedSchemaRegistryClient implements SchemaRegistryClient {
     return rce.getStatus() == HTTP_NOT_FOUND && rce.getErrorCode() == SCHEMA_NOT_FOUND_ERROR_CODE;
   }
 
+  /**
+   * Returns the schemas by id for the given subject or context.
+   */
+  private BoundedConcurrentIntMap<ParsedSchema> idSchemaMap(String subject) {
+    if (subject.isEmpty()) {
+      // Ids looked up without a subject, or registered in the default context. Lookups under
+      // a subject keep their own map even in the default context, since the registry falls
+      // back to other contexts for ids that the default context does not have
+      return defaultContextIdCache;
+    }
+    BoundedConcurrentIntMap<ParsedSchema> idSchemaMap = idCache.get(subject);
+    if (idSchemaMap == null) {
+      idSchemaMap = idCache.computeIfAbsent(
+          subject, k -> new BoundedConcurrentIntMap<>(cacheCapacity));
+    }
+    return idSchemaMap;
+  }
+
   private static String toQualifiedContext(String subject) {
     QualifiedSubject qualifiedSubject =
         QualifiedSubject.create(QualifiedSubject.DEFAULT_TENANT, subject);
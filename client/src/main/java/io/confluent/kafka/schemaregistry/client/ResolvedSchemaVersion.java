@@ -0,0 +1,115 @@
+/*
+ * Copyright 2022 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.confluent.kafka.schemaregistry.client;
+
+import io.confluent.kafka.schemaregistry.client.rest.entities.Schema;
+import io.confluent.kafka.schemaregistry.client.rest.entities.SchemaReference;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A schema version together with the schema versions that it references, resolved transitively.
+ *
+ * <p>A resolved version does not change, so the resolution of a commonly referenced schema can
+ * be shared by all the schemas that reference it, instead of fetching its references again.
+ */
+public final class ResolvedSchemaVersion {
+
+  private final Schema schema;
+  private final List<Map.Entry<String, ResolvedSchemaVersion>> references;
+
+  private ResolvedSchemaVersion(
+      Schema schema, List<Map.Entry<String, ResolvedSchemaVersion>> references) {
+    this.schema = schema;
+    this.references = references;
+  }
+
+  /**
+   * Resolves the references of a schema version, using the fetcher for the referenced versions.
+   */
+  public static ResolvedSchemaVersion resolve(ResolvedSchemaVersionFetcher fetcher, Schema schema) {
+    List<SchemaReference> schemaReferences = schema.getReferences();
+    if (schemaReferences == null || schemaReferences.isEmpty()) {
+      return new ResolvedSchemaVersion(schema, Collections.emptyList());
+    }
+    List<Map.Entry<String, ResolvedSchemaVersion>> references =
+        new ArrayList<>(schemaReferences.size());
+    for (SchemaReference reference : schemaReferences) {
+      if (reference.getName() == null
+          || reference.getSubject() == null
+          || reference.getVersion() == null) {
+        throw new IllegalStateException("Invalid reference: " + reference);
+      }
+      references.add(new SimpleImmutableEntry<>(
+          reference.getName(), resolveReference(fetcher, reference)));
+    }
+    return new ResolvedSchemaVersion(schema, Collections.unmodifiableList(references));
+  }
+
+  /**
+   * Returns the resolved schema version that a reference refers to, and updates a reference to
+   * the latest version with the version that it refers to.
+   */
+  public static ResolvedSchemaVersion resolveReference(
+      ResolvedSchemaVersionFetcher fetcher, SchemaReference reference) {
+    String subject = reference.getSubject();
+    ResolvedSchemaVersion resolved = fetcher.getResolvedByVersion(subject, reference.getVersion());
+    if (resolved == null) {
+      throw new IllegalStateException("No schema reference found for subject \""
+          + subject
+          + "\" and version "
+          + reference.getVersion());
+    }
+    if (reference.getVersion() == -1) {
+      // Update the version with the latest
+      reference.setVersion(resolved.getSchema().getVersion());
+    }
+    return resolved;
+  }
+
+  public Schema getSchema() {
+    return schema;
+  }
+
+  /**
+   * Returns the schema versions that this version references directly.
+   */
+  public List<ResolvedSchemaVersion> getReferencedVersions() {
+    List<ResolvedSchemaVersion> result = new ArrayList<>(references.size());
+    for (Map.Entry<String, ResolvedSchemaVersion> reference : references) {
+      result.add(reference.getValue());
+    }
+    return result;
+  }
+
+  /**
+   * Adds the schemas that this version references to the given schemas by reference name, with
+   * the schemas that a schema references before it. Names that are already present are skipped,
+   * together with the schemas that they reference.
+   */
+  public void addReferencedSchemas(Map<String, String> schemas) {
+    for (Map.Entry<String, ResolvedSchemaVersion> reference : references) {
+      if (!schemas.containsKey(reference.getKey())) {
+        ResolvedSchemaVersion resolved = reference.getValue();
+        resolved.addReferencedSchemas(schemas);
+        schemas.put(reference.getKey(), resolved.getSchema().getSchema());
+      }
+    }
+  }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2022 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.confluent.kafka.schemaregistry.client;
+
+/**
+ * A {@link SchemaVersionFetcher} that also resolves the references of schema versions, so that
+ * it can cache the resolution of schemas that many other schemas reference.
+ */
+public interface ResolvedSchemaVersionFetcher extends SchemaVersionFetcher {
+
+  /**
+   * Returns the schema version with its references resolved, including deleted versions.
+   *
+   * @param subject the subject
+   * @param version the version, or -1 for the latest version
+   * @return the resolved schema version, or null if there is none
+   */
+  ResolvedSchemaVersion getResolvedByVersion(String subject, int version);
+}
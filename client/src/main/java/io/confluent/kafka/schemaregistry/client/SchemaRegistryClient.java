@@ -18,6 +18,7 @@ package io.confluent.kafka.schemaregistry.client;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -176,6 +177,21 @@ public interface SchemaRegistryClient extends SchemaVersionFetcher {
     throw new UnsupportedOperationException();
   }
 
+  /**
+   * Checks each schema against its subject, and returns the error messages of each subject,
+   * which are empty for compatible schemas.
+   *
+   * @param schemas the schemas to check by subject
+   */
+  default Map<String, List<String>> testCompatibilityVerbose(Map<String, ParsedSchema> schemas)
+          throws IOException, RestClientException {
+    Map<String, List<String>> errorMessages = new LinkedHashMap<>();
+    for (Map.Entry<String, ParsedSchema> entry : schemas.entrySet()) {
+      errorMessages.put(entry.getKey(), testCompatibilityVerbose(entry.getKey(), entry.getValue()));
+    }
+    return errorMessages;
+  }
+
   public String updateCompatibility(String subject, String compatibility)
       throws IOException, RestClientException;
 
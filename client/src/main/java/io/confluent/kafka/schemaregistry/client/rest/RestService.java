@@ -55,6 +55,8 @@ import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.SSLSocketFactory;
 
+import io.confluent.kafka.schemaregistry.client.rest.entities.requests.CompatibilityCheckBatchRequest;
+import io.confluent.kafka.schemaregistry.client.rest.entities.requests.CompatibilityCheckBatchResponse;
 import io.confluent.kafka.schemaregistry.client.rest.entities.requests.CompatibilityCheckResponse;
 import io.confluent.kafka.schemaregistry.client.rest.entities.requests.ConfigUpdateRequest;
 import io.confluent.kafka.schemaregistry.client.rest.entities.Mode;
@@ -116,6 +118,10 @@ public class RestService implements Configurable {
       COMPATIBILITY_CHECK_RESPONSE_TYPE_REFERENCE =
       new TypeReference<CompatibilityCheckResponse>() {
       };
+  private static final TypeReference<CompatibilityCheckBatchResponse>
+      COMPATIBILITY_CHECK_BATCH_RESPONSE_TYPE_REFERENCE =
+      new TypeReference<CompatibilityCheckBatchResponse>() {
+      };
   private static final TypeReference<Schema>
       SUBJECT_SCHEMA_VERSION_RESPONSE_TYPE_REFERENCE =
       new TypeReference<Schema>() {
@@ -617,6 +623,29 @@ public class RestService implements Configurable {
     }
   }
 
+  public List<CompatibilityCheckResponse> testCompatibilityBatch(
+      CompatibilityCheckBatchRequest request)
+      throws IOException, RestClientException {
+    return testCompatibilityBatch(DEFAULT_REQUEST_PROPERTIES, request);
+  }
+
+  /**
+   * Checks each schema of the request against the versions of its subject, as registering it
+   * would, without registering it.
+   *
+   * @return the results with error messages, in the order of the schemas of the request
+   */
+  public List<CompatibilityCheckResponse> testCompatibilityBatch(
+      Map<String, String> requestProperties,
+      CompatibilityCheckBatchRequest request)
+      throws IOException, RestClientException {
+    CompatibilityCheckBatchResponse response =
+        httpRequest("/compatibility/subjects", "POST",
+                    request.toJson().getBytes(StandardCharsets.UTF_8),
+                    requestProperties, COMPATIBILITY_CHECK_BATCH_RESPONSE_TYPE_REFERENCE);
+    return response.getResults();
+  }
+
   public ConfigUpdateRequest updateCompatibility(String compatibility, String subject)
       throws IOException, RestClientException {
     ConfigUpdateRequest request = new ConfigUpdateRequest();
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2022 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.kafka.schemaregistry.client.rest.entities.requests;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import io.confluent.kafka.schemaregistry.client.rest.entities.Schema;
+import io.confluent.kafka.schemaregistry.utils.JacksonMapper;
+
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+@JsonIgnoreProperties(ignoreUnknown = true)
+@io.swagger.v3.oas.annotations.media.Schema(description = "Batch compatibility check request")
+public class CompatibilityCheckBatchRequest {
+
+  private List<Schema> schemas = Collections.emptyList();
+
+  public CompatibilityCheckBatchRequest() {
+  }
+
+  public CompatibilityCheckBatchRequest(List<Schema> schemas) {
+    this.schemas = schemas;
+  }
+
+  public static CompatibilityCheckBatchRequest fromJson(String json) throws IOException {
+    return JacksonMapper.INSTANCE.readValue(json, CompatibilityCheckBatchRequest.class);
+  }
+
+  @io.swagger.v3.oas.annotations.media.Schema(description = "Schemas to check against the "
+      + "versions of their subjects, each with its subject, schema type, references and schema")
+  @JsonProperty("schemas")
+  public List<Schema> getSchemas() {
+    return schemas;
+  }
+
+  @JsonProperty("schemas")
+  public void setSchemas(List<Schema> schemas) {
+    this.schemas = schemas != null ? schemas : Collections.emptyList();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    CompatibilityCheckBatchRequest that = (CompatibilityCheckBatchRequest) o;
+    return Objects.equals(schemas, that.schemas);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(schemas);
+  }
+
+  public String toJson() throws IOException {
+    return JacksonMapper.INSTANCE.writeValueAsString(this);
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2022 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.kafka.schemaregistry.client.rest.entities.requests;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import io.confluent.kafka.schemaregistry.utils.JacksonMapper;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+@Schema(description = "Batch compatibility check response")
+public class CompatibilityCheckBatchResponse {
+
+  private List<CompatibilityCheckResponse> results = Collections.emptyList();
+
+  public CompatibilityCheckBatchResponse() {
+  }
+
+  public CompatibilityCheckBatchResponse(List<CompatibilityCheckResponse> results) {
+    this.results = results;
+  }
+
+  public static CompatibilityCheckBatchResponse fromJson(String json) throws IOException {
+    return JacksonMapper.INSTANCE.readValue(json, CompatibilityCheckBatchResponse.class);
+  }
+
+  @Schema(description = "Compatibility check results with error messages, in the order of the "
+      + "schemas of the request")
+  @JsonProperty("results")
+  public List<CompatibilityCheckResponse> getResults() {
+    return results;
+  }
+
+  @JsonProperty("results")
+  public void setResults(List<CompatibilityCheckResponse> results) {
+    this.results = results;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    CompatibilityCheckBatchResponse that = (CompatibilityCheckBatchResponse) o;
+    return Objects.equals(results, that.results);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(results);
+  }
+
+  public String toJson() throws IOException {
+    return JacksonMapper.INSTANCE.writeValueAsString(this);
+  }
+}
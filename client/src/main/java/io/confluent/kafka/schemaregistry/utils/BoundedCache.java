@@ -0,0 +1,54 @@
+/*
+ * Copyright 2022 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.kafka.schemaregistry.utils;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A concurrent map that holds a bounded number of entries, used by the client, serializer and
+ * converter caches.
+ *
+ * <p>Caches should be created through the factory methods of this interface, so that they can
+ * all switch to another implementation. Like {@link java.util.Hashtable}, caches do not allow
+ * null keys or values.
+ */
+public interface BoundedCache<K, V> extends ConcurrentMap<K, V> {
+
+  /**
+   * Returns a snapshot of the statistics of this cache.
+   */
+  CacheStats stats();
+
+  /**
+   * Creates a cache that holds at most the given number of entries.
+   */
+  static <K, V> BoundedCache<K, V> create(int capacity) {
+    return new TinyLfuCache<>(capacity, 0, System::nanoTime);
+  }
+
+  /**
+   * Creates a cache that holds at most the given number of entries, each of which expires once
+   * the given duration has passed since it was written.
+   */
+  static <K, V> BoundedCache<K, V> create(int capacity, Duration expireAfterWrite) {
+    if (expireAfterWrite.isNegative() || expireAfterWrite.isZero()) {
+      throw new IllegalArgumentException("Expiry must be positive: " + expireAfterWrite);
+    }
+    return new TinyLfuCache<>(capacity, expireAfterWrite.toNanos(), System::nanoTime);
+  }
+}
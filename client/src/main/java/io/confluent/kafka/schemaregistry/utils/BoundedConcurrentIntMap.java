@@ -0,0 +1,350 @@
+/*
+ * Copyright 2022 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.kafka.schemaregistry.utils;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded concurrent map from primitive int keys to values, such as schema ids to schemas.
+ *
+ * <p>Unlike a {@link BoundedConcurrentHashMap} with {@link Integer} keys, lookups neither box the
+ * key nor allocate, and are not blocked by updates. The map is partitioned into segments, each
+ * of which is an open addressing hash table with linear probing that is only modified under the
+ * segment lock. When a segment is full, an entry is evicted using the CLOCK approximation of
+ * LRU: each lookup marks the entry it finds as referenced, and eviction sweeps the segment,
+ * clearing the marks, until it finds an entry that was not referenced since the last sweep.
+ *
+ * <p>Null values are not allowed.
+ *
+ * @param <V> the type of mapped values
+ */
+public class BoundedConcurrentIntMap<V> {
+
+  private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+  private static final int MAX_SEGMENTS = 1 << 16;
+  private static final int MIN_TABLE_SIZE = 8;
+  @SuppressWarnings("rawtypes")
+  private static final Entry REMOVED = new Entry<>(0, null);
+
+  private final Segment<V>[] segments;
+  private final int segmentShift;
+  private final int segmentMask;
+
+  /**
+   * Creates a map that holds at most the given number of entries.
+   */
+  public BoundedConcurrentIntMap(int capacity) {
+    this(capacity, DEFAULT_CONCURRENCY_LEVEL);
+  }
+
+  /**
+   * Creates a map that holds at most the given number of entries, partitioned to permit the given
+   * number of concurrent updates.
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public BoundedConcurrentIntMap(int capacity, int concurrencyLevel) {
+    if (capacity <= 0 || concurrencyLevel <= 0) {
+      throw new IllegalArgumentException();
+    }
+    int segmentBits = 0;
+    int segmentCount = 1;
+    // Each segment should hold a few entries, so that eviction stays close to LRU
+    while (segmentCount < concurrencyLevel
+        && segmentCount < MAX_SEGMENTS
+        && segmentCount * 2 <= capacity / 2) {
+      segmentBits++;
+      segmentCount <<= 1;
+    }
+    this.segmentShift = 32 - segmentBits;
+    this.segmentMask = segmentCount - 1;
+    this.segments = new Segment[segmentCount];
+    for (int i = 0; i < segmentCount; i++) {
+      int segmentCapacity = capacity / segmentCount + (i < capacity % segmentCount ? 1 : 0);
+      segments[i] = new Segment<>(segmentCapacity);
+    }
+  }
+
+  /**
+   * Returns the value to which the key is mapped, or null if there is none.
+   */
+  public V get(int key) {
+    int hash = hash(key);
+    return segmentFor(hash).get(key, hash);
+  }
+
+  /**
+   * Maps the key to the value, evicting another entry if the map is full.
+   *
+   * @return the previous value, or null if there was none
+   */
+  public V put(int key, V value) {
+    Objects.requireNonNull(value, "value");
+    int hash = hash(key);
+    return segmentFor(hash).put(key, hash, value, false);
+  }
+
+  /**
+   * Maps the key to the value, unless the key is already mapped, evicting another entry if the
+   * map is full.
+   *
+   * @return the current value, or null if there was none
+   */
+  public V putIfAbsent(int key, V value) {
+    Objects.requireNonNull(value, "value");
+    int hash = hash(key);
+    return segmentFor(hash).put(key, hash, value, true);
+  }
+
+  /**
+   * Removes the mapping for the key.
+   *
+   * @return the previous value, or null if there was none
+   */
+  public V remove(int key) {
+    int hash = hash(key);
+    return segmentFor(hash).remove(key, hash);
+  }
+
+  public void clear() {
+    for (Segment<V> segment : segments) {
+      segment.clear();
+    }
+  }
+
+  public int size() {
+    long size = 0;
+    for (Segment<V> segment : segments) {
+      size += segment.count;
+    }
+    return (int) Math.min(size, Integer.MAX_VALUE);
+  }
+
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  private Segment<V> segmentFor(int hash) {
+    // The segment is chosen by the high bits, and the slot within the segment by the low bits
+    return segments[(hash >>> segmentShift) & segmentMask];
+  }
+
+  private static int hash(int key) {
+    // Schema ids are mostly sequential, so spread them over the whole table
+    int h = key * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  private static final class Entry<V> {
+    final int key;
+    final V value;
+    // Not volatile, as a lost update only makes eviction less accurate
+    boolean referenced;
+
+    Entry(int key, V value) {
+      this.key = key;
+      this.value = value;
+    }
+  }
+
+  private static final class Segment<V> extends ReentrantLock {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int capacity;
+    private final int maxTableSize;
+    private volatile AtomicReferenceArray<Entry<V>> table;
+    // The number of live entries
+    private volatile int count;
+    // The number of live and removed entries, guarded by the lock
+    private int used;
+    // The position of the eviction sweep, guarded by the lock
+    private int hand;
+
+    Segment(int capacity) {
+      this.capacity = capacity;
+      this.maxTableSize = tableSizeFor(capacity);
+      this.table = new AtomicReferenceArray<>(Math.min(MIN_TABLE_SIZE, maxTableSize));
+    }
+
+    V get(int key, int hash) {
+      AtomicReferenceArray<Entry<V>> tab = table;
+      int mask = tab.length() - 1;
+      for (int i = hash & mask, probes = 0; probes <= mask; i = (i + 1) & mask, probes++) {
+        Entry<V> e = tab.get(i);
+        if (e == null) {
+          return null;
+        }
+        if (e != REMOVED && e.key == key) {
+          if (!e.referenced) {
+            e.referenced = true;
+          }
+          return e.value;
+        }
+      }
+      return null;
+    }
+
+    V put(int key, int hash, V value, boolean onlyIfAbsent) {
+      lock();
+      try {
+        AtomicReferenceArray<Entry<V>> tab = table;
+        int index = indexOf(tab, key, hash);
+        if (index >= 0) {
+          Entry<V> e = tab.get(index);
+          if (!onlyIfAbsent) {
+            Entry<V> replacement = new Entry<>(key, value);
+            replacement.referenced = true;
+            tab.set(index, replacement);
+          }
+          return e.value;
+        }
+        if (count >= capacity) {
+          evict();
+        }
+        if ((used + 1) * 4 > table.length() * 3) {
+          rehash();
+        }
+        if (insert(table, new Entry<>(key, value), hash)) {
+          used++;
+        }
+        count++;
+        return null;
+      } finally {
+        unlock();
+      }
+    }
+
+    V remove(int key, int hash) {
+      lock();
+      try {
+        AtomicReferenceArray<Entry<V>> tab = table;
+        int index = indexOf(tab, key, hash);
+        if (index < 0) {
+          return null;
+        }
+        Entry<V> e = tab.get(index);
+        tab.set(index, removed());
+        count--;
+        return e.value;
+      } finally {
+        unlock();
+      }
+    }
+
+    void clear() {
+      lock();
+      try {
+        table = new AtomicReferenceArray<>(Math.min(MIN_TABLE_SIZE, maxTableSize));
+        count = 0;
+        used = 0;
+        hand = 0;
+      } finally {
+        unlock();
+      }
+    }
+
+    private int indexOf(AtomicReferenceArray<Entry<V>> tab, int key, int hash) {
+      int mask = tab.length() - 1;
+      for (int i = hash & mask, probes = 0; probes <= mask; i = (i + 1) & mask, probes++) {
+        Entry<V> e = tab.get(i);
+        if (e == null) {
+          return -1;
+        }
+        if (e != REMOVED && e.key == key) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    private void evict() {
+      AtomicReferenceArray<Entry<V>> tab = table;
+      int mask = tab.length() - 1;
+      // Terminates within two sweeps, since the first one clears all the marks
+      while (true) {
+        int i = hand;
+        hand = (hand + 1) & mask;
+        Entry<V> e = tab.get(i);
+        if (e == null || e == REMOVED) {
+          continue;
+        }
+        if (e.referenced) {
+          e.referenced = false;
+        } else {
+          tab.set(i, removed());
+          count--;
+          return;
+        }
+      }
+    }
+
+    private void rehash() {
+      // Grows the table if needed, and drops the removed entries. Readers that still see the
+      // old table find the entries that were live when it was replaced.
+      AtomicReferenceArray<Entry<V>> oldTable = table;
+      int size = MIN_TABLE_SIZE;
+      while (size < maxTableSize && (count + 1) * 2 > size) {
+        size <<= 1;
+      }
+      AtomicReferenceArray<Entry<V>> newTable = new AtomicReferenceArray<>(size);
+      for (int i = 0; i < oldTable.length(); i++) {
+        Entry<V> e = oldTable.get(i);
+        if (e != null && e != REMOVED) {
+          insert(newTable, e, hash(e.key));
+        }
+      }
+      table = newTable;
+      used = count;
+      hand = 0;
+    }
+
+    /**
+     * Inserts the entry into the first free slot.
+     *
+     * @return whether the slot was never used before
+     */
+    private static <V> boolean insert(
+        AtomicReferenceArray<Entry<V>> tab, Entry<V> entry, int hash) {
+      int mask = tab.length() - 1;
+      int i = hash & mask;
+      while (true) {
+        Entry<V> e = tab.get(i);
+        if (e == null || e == REMOVED) {
+          tab.set(i, entry);
+          return e == null;
+        }
+        i = (i + 1) & mask;
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> Entry<V> removed() {
+      return (Entry<V>) REMOVED;
+    }
+
+    private static int tableSizeFor(int capacity) {
+      // Keeps the load factor of a full segment at or below one half
+      int size = MIN_TABLE_SIZE;
+      while (size < (1 << 30) && size < capacity * 2L) {
+        size <<= 1;
+      }
+      return size;
+    }
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2022 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.kafka.schemaregistry.utils;
+
+/**
+ * A count-min sketch that estimates how often keys were used recently, as the TinyLFU admission
+ * policy of {@link TinyLfuCache}.
+ *
+ * <p>Each key has four 4-bit counters, which are packed in a single long of the table, so that
+ * an estimate reads at most four longs. The counters are halved once the sketch has counted ten
+ * times as many uses as the cache holds entries, so that keys which are no longer used age out.
+ *
+ * <p>The table is not allocated until the cache holds an entry, and then grows with the number
+ * of entries, so that the many caches which never fill up stay small. A count-min sketch can not
+ * be rehashed, so the counts start over when it grows; it is sized for the maximum size of the
+ * cache once the cache is half full, so that it has counted uses by the time entries are evicted.
+ *
+ * <p>This class is not thread-safe.
+ */
+final class FrequencySketch {
+
+  private static final long[] SEEDS = {
+      0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+  };
+  private static final long RESET_MASK = 0x7777777777777777L;
+  private static final long ONE_MASK = 0x1111111111111111L;
+  private static final int MAX_COUNT = 15;
+
+  private static final long[] EMPTY = new long[0];
+  private static final int MIN_TABLE_SIZE = 8;
+  private static final int MAX_TABLE_SIZE = 1 << 30;
+
+  private final int maximum;
+  private long[] table = EMPTY;
+  private int tableMask;
+  private int sampleSize;
+  private int size;
+
+  FrequencySketch(int maximum) {
+    this.maximum = maximum;
+  }
+
+  /**
+   * Grows the table, if needed, for the given number of entries in the cache.
+   */
+  void ensureCapacity(int entries) {
+    int capacity = entries >= (maximum >>> 1) ? maximum : entries;
+    capacity = Math.max(capacity, 1);
+    if (table.length >= Math.min(capacity, MAX_TABLE_SIZE)) {
+      return;
+    }
+    int tableSize = MIN_TABLE_SIZE;
+    while (tableSize < capacity && tableSize < MAX_TABLE_SIZE) {
+      tableSize <<= 1;
+    }
+    table = new long[tableSize];
+    tableMask = tableSize - 1;
+    sampleSize = (int) Math.min(10L * Math.max(Math.min(tableSize, maximum), 1),
+        Integer.MAX_VALUE);
+    size = 0;
+  }
+
+  /**
+   * Returns the estimated number of recent uses of the key, at most 15.
+   */
+  int frequency(Object key) {
+    if (table.length == 0) {
+      return 0;
+    }
+    int hash = spread(key.hashCode());
+    int start = (hash & 3) << 2;
+    int frequency = MAX_COUNT;
+    for (int i = 0; i < 4; i++) {
+      int index = indexOf(hash, i);
+      int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+      frequency = Math.min(frequency, count);
+    }
+    return frequency;
+  }
+
+  /**
+   * Counts a use of the key.
+   */
+  void increment(Object key) {
+    if (table.length == 0) {
+      return;
+    }
+    int hash = spread(key.hashCode());
+    int start = (hash & 3) << 2;
+    boolean added = false;
+    for (int i = 0; i < 4; i++) {
+      added |= incrementAt(indexOf(hash, i), start + i);
+    }
+    if (added && ++size >= sampleSize) {
+      reset();
+    }
+  }
+
+  private boolean incrementAt(int index, int counter) {
+    int offset = counter << 2;
+    long mask = 0xfL << offset;
+    if ((table[index] & mask) != mask) {
+      table[index] += 1L << offset;
+      return true;
+    }
+    return false;
+  }
+
+  private void reset() {
+    int odd = 0;
+    for (int i = 0; i < table.length; i++) {
+      odd += Long.bitCount(table[i] & ONE_MASK);
+      table[i] = (table[i] >>> 1) & RESET_MASK;
+    }
+    // Each odd counter loses half a use to rounding
+    size = (size - (odd >>> 2)) >>> 1;
+  }
+
+  private int indexOf(int hash, int i) {
+    long h = (hash + SEEDS[i]) * SEEDS[i];
+    h += h >>> 32;
+    return ((int) h) & tableMask;
+  }
+
+  private static int spread(int x) {
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    return (x >>> 16) ^ x;
+  }
+}
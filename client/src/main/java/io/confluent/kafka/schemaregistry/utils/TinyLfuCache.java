@@ -0,0 +1,618 @@
+/*
+ * Copyright 2022 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.kafka.schemaregistry.utils;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * A {@link BoundedCache} with W-TinyLFU eviction.
+ *
+ * <p>Entries are held in a {@link ConcurrentHashMap}, so reads do not lock. The eviction policy
+ * is only updated under a lock: writes take it, and reads record the entry they find in a lossy
+ * striped buffer that is drained whenever one of its stripes fills up and the lock is free.
+ * The stripes are created as threads first read from the cache, and the frequency sketch grows
+ * with the number of entries, since many caches, such as those of each subject, stay small.
+ *
+ * <p>New entries enter a small LRU window. Entries that leave the window are admitted to the
+ * main space, a segmented LRU with probation and protected segments, only if a
+ * {@link FrequencySketch} estimates that they were used more often than the entry that they
+ * would evict. This keeps frequently used entries cached through bursts of entries that are
+ * used once, such as the schemas of a scan over many subjects.
+ *
+ * <p>Entries are never updated in place; a write replaces the node of the key, so that the value
+ * and the write time of a node never change.
+ */
+final class TinyLfuCache<K, V> extends AbstractMap<K, V> implements BoundedCache<K, V> {
+
+  private static final int READ_BUFFER_SIZE = 32;
+  private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+  private static final int READ_BUFFERS = readBufferCount();
+
+  private static final int NEW = 0;
+  private static final int WINDOW = 1;
+  private static final int PROBATION = 2;
+  private static final int PROTECTED = 3;
+  private static final int DEAD = 4;
+
+  private final ConcurrentHashMap<K, Node<K, V>> data = new ConcurrentHashMap<>();
+  private final long expireAfterWriteNanos;
+  private final LongSupplier ticker;
+  // Created on the first read
+  private volatile AtomicReferenceArray<ReadBuffer<K, V>> readBuffers;
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder missCount = new LongAdder();
+  private final LongAdder evictionCount = new LongAdder();
+
+  // The eviction policy, guarded by the lock
+  private final ReentrantLock evictionLock = new ReentrantLock();
+  private final int maximum;
+  private final int windowMaximum;
+  private final int protectedMaximum;
+  private final FrequencySketch sketch;
+  private final AccessOrderDeque<K, V> window = new AccessOrderDeque<>();
+  private final AccessOrderDeque<K, V> probation = new AccessOrderDeque<>();
+  private final AccessOrderDeque<K, V> protectedSegment = new AccessOrderDeque<>();
+
+  private Set<Map.Entry<K, V>> entrySet;
+
+  /**
+   * @param maximum the maximum number of entries
+   * @param expireAfterWriteNanos how long entries live after they were written, or 0 to keep
+   *     them until they are evicted
+   * @param ticker the source of time, in nanoseconds
+   */
+  TinyLfuCache(int maximum, long expireAfterWriteNanos, LongSupplier ticker) {
+    if (maximum < 0) {
+      throw new IllegalArgumentException("Capacity must not be negative: " + maximum);
+    }
+    this.maximum = maximum;
+    this.windowMaximum = Math.min(maximum, Math.max(1, maximum / 100));
+    this.protectedMaximum = (int) ((maximum - windowMaximum) * 0.8);
+    this.sketch = new FrequencySketch(maximum);
+    this.expireAfterWriteNanos = expireAfterWriteNanos;
+    this.ticker = ticker;
+  }
+
+  @Override
+  public CacheStats stats() {
+    return new CacheStats(hitCount.sum(), missCount.sum(), evictionCount.sum());
+  }
+
+  @Override
+  public int size() {
+    return data.size();
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    Node<K, V> node = data.get(key);
+    return node != null && !isExpired(node, now());
+  }
+
+  @Override
+  public V get(Object key) {
+    Node<K, V> node = data.get(key);
+    if (node == null) {
+      missCount.increment();
+      return null;
+    }
+    if (isExpired(node, now())) {
+      missCount.increment();
+      if (data.remove(node.key, node)) {
+        evictionCount.increment();
+        afterRemove(node);
+      }
+      return null;
+    }
+    hitCount.increment();
+    afterRead(node);
+    return node.value;
+  }
+
+  @Override
+  public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+    // Like the default implementation, but not atomic, so that the function may use the cache
+    V value = get(key);
+    if (value != null) {
+      return value;
+    }
+    value = mappingFunction.apply(key);
+    if (value == null) {
+      return null;
+    }
+    V prior = putIfAbsent(key, value);
+    return prior != null ? prior : value;
+  }
+
+  @Override
+  public V put(K key, V value) {
+    return put(key, value, false);
+  }
+
+  @Override
+  public V putIfAbsent(K key, V value) {
+    return put(key, value, true);
+  }
+
+  private V put(K key, V value, boolean onlyIfAbsent) {
+    Objects.requireNonNull(key, "key");
+    Objects.requireNonNull(value, "value");
+    Node<K, V> node = new Node<>(key, value, now());
+    while (true) {
+      Node<K, V> prior = data.putIfAbsent(key, node);
+      if (prior == null) {
+        afterWrite(node);
+        return null;
+      }
+      boolean expired = isExpired(prior, node.writeTime);
+      if (onlyIfAbsent && !expired) {
+        afterRead(prior);
+        return prior.value;
+      }
+      if (data.replace(key, prior, node)) {
+        afterReplace(prior, node);
+        return expired ? null : prior.value;
+      }
+    }
+  }
+
+  @Override
+  public V replace(K key, V value) {
+    Objects.requireNonNull(value, "value");
+    Node<K, V> node = new Node<>(key, value, now());
+    while (true) {
+      Node<K, V> prior = data.get(key);
+      if (prior == null || isExpired(prior, node.writeTime)) {
+        return null;
+      }
+      if (data.replace(key, prior, node)) {
+        afterReplace(prior, node);
+        return prior.value;
+      }
+    }
+  }
+
+  @Override
+  public boolean replace(K key, V oldValue, V newValue) {
+    Objects.requireNonNull(oldValue, "oldValue");
+    Objects.requireNonNull(newValue, "newValue");
+    Node<K, V> node = new Node<>(key, newValue, now());
+    while (true) {
+      Node<K, V> prior = data.get(key);
+      if (prior == null || isExpired(prior, node.writeTime) || !prior.value.equals(oldValue)) {
+        return false;
+      }
+      if (data.replace(key, prior, node)) {
+        afterReplace(prior, node);
+        return true;
+      }
+    }
+  }
+
+  @Override
+  public V remove(Object key) {
+    Node<K, V> node = data.remove(key);
+    if (node == null) {
+      return null;
+    }
+    afterRemove(node);
+    return isExpired(node, now()) ? null : node.value;
+  }
+
+  @Override
+  public boolean remove(Object key, Object value) {
+    while (true) {
+      Node<K, V> node = data.get(key);
+      if (node == null || isExpired(node, now()) || !node.value.equals(value)) {
+        return false;
+      }
+      if (data.remove(key, node)) {
+        afterRemove(node);
+        return true;
+      }
+    }
+  }
+
+  @Override
+  public void clear() {
+    evictionLock.lock();
+    try {
+      drainReadBuffers(false);
+      for (Node<K, V> node : data.values()) {
+        if (data.remove(node.key, node)) {
+          removeFromPolicy(node);
+        }
+      }
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  @Override
+  public Set<Map.Entry<K, V>> entrySet() {
+    Set<Map.Entry<K, V>> es = entrySet;
+    return es != null ? es : (entrySet = new EntrySet());
+  }
+
+  private long now() {
+    return expireAfterWriteNanos > 0 ? ticker.getAsLong() : 0L;
+  }
+
+  private boolean isExpired(Node<K, V> node, long now) {
+    return expireAfterWriteNanos > 0 && now - node.writeTime >= expireAfterWriteNanos;
+  }
+
+  private void afterRead(Node<K, V> node) {
+    if (readBuffer().record(node) && evictionLock.tryLock()) {
+      try {
+        drainReadBuffers(true);
+      } finally {
+        evictionLock.unlock();
+      }
+    }
+  }
+
+  private void afterWrite(Node<K, V> node) {
+    evictionLock.lock();
+    try {
+      drainReadBuffers(true);
+      if (node.queue == NEW) {
+        node.queue = WINDOW;
+        window.addLast(node);
+        sketch.ensureCapacity(policySize());
+        sketch.increment(node.key);
+        evict();
+      }
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  private void afterReplace(Node<K, V> prior, Node<K, V> node) {
+    evictionLock.lock();
+    try {
+      drainReadBuffers(true);
+      if (node.queue == NEW && prior.queue != NEW && prior.queue != DEAD) {
+        // The new node takes the place of the old one
+        node.queue = prior.queue;
+        queueOf(prior).replace(prior, node);
+        prior.queue = DEAD;
+        sketch.increment(node.key);
+      } else {
+        removeFromPolicy(prior);
+        if (node.queue == NEW) {
+          node.queue = WINDOW;
+          window.addLast(node);
+          sketch.ensureCapacity(policySize());
+          sketch.increment(node.key);
+        }
+      }
+      evict();
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  private void afterRemove(Node<K, V> node) {
+    evictionLock.lock();
+    try {
+      removeFromPolicy(node);
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  private void removeFromPolicy(Node<K, V> node) {
+    if (node.queue != NEW && node.queue != DEAD) {
+      queueOf(node).remove(node);
+    }
+    node.queue = DEAD;
+  }
+
+  /**
+   * Returns the read buffer of the current thread, creating it on its first read.
+   */
+  private ReadBuffer<K, V> readBuffer() {
+    AtomicReferenceArray<ReadBuffer<K, V>> buffers = readBuffers;
+    if (buffers == null) {
+      // Reads are recorded on a best-effort basis, so a race here only loses a few of them
+      buffers = new AtomicReferenceArray<>(READ_BUFFERS);
+      readBuffers = buffers;
+    }
+    int index = (int) mix(Thread.currentThread().getId()) & (READ_BUFFERS - 1);
+    ReadBuffer<K, V> buffer = buffers.get(index);
+    if (buffer == null) {
+      buffer = new ReadBuffer<>();
+      if (!buffers.compareAndSet(index, null, buffer)) {
+        buffer = buffers.get(index);
+      }
+    }
+    return buffer;
+  }
+
+  private void drainReadBuffers(boolean apply) {
+    AtomicReferenceArray<ReadBuffer<K, V>> buffers = readBuffers;
+    if (buffers == null) {
+      return;
+    }
+    for (int i = 0; i < buffers.length(); i++) {
+      ReadBuffer<K, V> buffer = buffers.get(i);
+      if (buffer != null) {
+        buffer.drain(this, apply);
+      }
+    }
+  }
+
+  private int policySize() {
+    return window.size() + probation.size() + protectedSegment.size();
+  }
+
+  private void onAccess(Node<K, V> node) {
+    switch (node.queue) {
+      case WINDOW:
+        sketch.increment(node.key);
+        window.moveToLast(node);
+        break;
+      case PROBATION:
+        sketch.increment(node.key);
+        probation.remove(node);
+        node.queue = PROTECTED;
+        protectedSegment.addLast(node);
+        while (protectedSegment.size() > protectedMaximum) {
+          Node<K, V> demoted = protectedSegment.pollFirst();
+          demoted.queue = PROBATION;
+          probation.addLast(demoted);
+        }
+        break;
+      case PROTECTED:
+        sketch.increment(node.key);
+        protectedSegment.moveToLast(node);
+        break;
+      default:
+        // Not linked yet, or no longer cached
+        break;
+    }
+  }
+
+  private void evict() {
+    Node<K, V> candidate = null;
+    while (window.size() > windowMaximum) {
+      candidate = window.pollFirst();
+      candidate.queue = PROBATION;
+      probation.addLast(candidate);
+    }
+    while (policySize() > maximum) {
+      Node<K, V> victim = probation.peekFirst();
+      if (victim == null) {
+        victim = protectedSegment.peekFirst();
+      }
+      if (victim == null) {
+        victim = window.peekFirst();
+      }
+      if (candidate != null && candidate != victim && candidate.queue == PROBATION
+          && sketch.frequency(candidate.key) <= sketch.frequency(victim.key)) {
+        // The candidate from the window is not admitted, since it is not used more often
+        victim = candidate;
+      }
+      if (victim == candidate) {
+        candidate = null;
+      }
+      removeFromPolicy(victim);
+      if (data.remove(victim.key, victim)) {
+        evictionCount.increment();
+      }
+    }
+  }
+
+  private AccessOrderDeque<K, V> queueOf(Node<K, V> node) {
+    switch (node.queue) {
+      case WINDOW:
+        return window;
+      case PROBATION:
+        return probation;
+      case PROTECTED:
+        return protectedSegment;
+      default:
+        throw new IllegalStateException("Node is not linked");
+    }
+  }
+
+  private static long mix(long x) {
+    x = (x ^ (x >>> 33)) * 0xff51afd7ed558ccdL;
+    return x ^ (x >>> 33);
+  }
+
+  private static int readBufferCount() {
+    int count = 1;
+    int target = 4 * Runtime.getRuntime().availableProcessors();
+    while (count < target && count < 256) {
+      count <<= 1;
+    }
+    return count;
+  }
+
+  static final class Node<K, V> {
+    final K key;
+    final V value;
+    final long writeTime;
+    // Guarded by the eviction lock
+    int queue;
+    Node<K, V> prev;
+    Node<K, V> next;
+
+    Node(K key, V value, long writeTime) {
+      this.key = key;
+      this.value = value;
+      this.writeTime = writeTime;
+    }
+  }
+
+  /**
+   * A doubly-linked list of nodes in access order, from least to most recently used.
+   */
+  static final class AccessOrderDeque<K, V> {
+    private final Node<K, V> head = new Node<>(null, null, 0L);
+    private int size;
+
+    AccessOrderDeque() {
+      head.prev = head;
+      head.next = head;
+    }
+
+    int size() {
+      return size;
+    }
+
+    Node<K, V> peekFirst() {
+      return head.next != head ? head.next : null;
+    }
+
+    Node<K, V> pollFirst() {
+      Node<K, V> first = peekFirst();
+      if (first != null) {
+        remove(first);
+      }
+      return first;
+    }
+
+    void addLast(Node<K, V> node) {
+      node.prev = head.prev;
+      node.next = head;
+      head.prev.next = node;
+      head.prev = node;
+      size++;
+    }
+
+    void remove(Node<K, V> node) {
+      node.prev.next = node.next;
+      node.next.prev = node.prev;
+      node.prev = null;
+      node.next = null;
+      size--;
+    }
+
+    void moveToLast(Node<K, V> node) {
+      remove(node);
+      addLast(node);
+    }
+
+    void replace(Node<K, V> prior, Node<K, V> node) {
+      node.prev = prior.prev;
+      node.next = prior.next;
+      prior.prev.next = node;
+      prior.next.prev = node;
+      prior.prev = null;
+      prior.next = null;
+    }
+  }
+
+  /**
+   * A lossy buffer of the nodes that were read. Each thread records its reads in one of several
+   * buffers, and a read that is recorded while the buffer is full overwrites an older one.
+   */
+  static final class ReadBuffer<K, V> {
+    private final AtomicLong writeCount = new AtomicLong();
+    private final AtomicReferenceArray<Node<K, V>> nodes =
+        new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+
+    /**
+     * Records a read.
+     *
+     * @return whether the buffer should be drained
+     */
+    boolean record(Node<K, V> node) {
+      long index = writeCount.getAndIncrement();
+      nodes.lazySet((int) index & READ_BUFFER_MASK, node);
+      return (index & READ_BUFFER_MASK) == READ_BUFFER_MASK;
+    }
+
+    void drain(TinyLfuCache<K, V> cache, boolean apply) {
+      for (int i = 0; i < READ_BUFFER_SIZE; i++) {
+        Node<K, V> node = nodes.getAndSet(i, null);
+        if (node != null && apply) {
+          cache.onAccess(node);
+        }
+      }
+    }
+  }
+
+  private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+    @Override
+    public int size() {
+      return TinyLfuCache.this.size();
+    }
+
+    @Override
+    public void clear() {
+      TinyLfuCache.this.clear();
+    }
+
+    @Override
+    public Iterator<Map.Entry<K, V>> iterator() {
+      Iterator<Node<K, V>> nodes = data.values().iterator();
+      return new Iterator<Map.Entry<K, V>>() {
+        private Node<K, V> next;
+        private Node<K, V> current;
+
+        @Override
+        public boolean hasNext() {
+          long now = now();
+          while (next == null && nodes.hasNext()) {
+            Node<K, V> node = nodes.next();
+            if (!isExpired(node, now)) {
+              next = node;
+            }
+          }
+          return next != null;
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          current = next;
+          next = null;
+          return new SimpleImmutableEntry<>(current.key, current.value);
+        }
+
+        @Override
+        public void remove() {
+          if (current == null) {
+            throw new IllegalStateException();
+          }
+          TinyLfuCache.this.remove(current.key, current.value);
+          current = null;
+        }
+      };
+    }
+  }
+}
@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -36,6 +37,8 @@ import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientExcept
 import io.confluent.kafka.schemaregistry.client.rest.entities.Schema;
 import io.confluent.kafka.schemaregistry.client.rest.entities.SchemaString;
 import io.confluent.kafka.schemaregistry.client.rest.entities.Mode;
+import io.confluent.kafka.schemaregistry.client.rest.entities.requests.CompatibilityCheckBatchRequest;
+import io.confluent.kafka.schemaregistry.client.rest.entities.requests.CompatibilityCheckResponse;
 import io.confluent.kafka.schemaregistry.client.rest.entities.requests.ModeUpdateRequest;
 import io.confluent.kafka.schemaregistry.client.rest.RestService;
 import io.confluent.kafka.schemaregistry.ParsedSchema;
@@ -195,6 +198,86 @@ public class CachedSchemaRegistryClientTest {
     verify(restService);
   }
 
+  @Test
+  public void testTopicSubjectIdCache() throws Exception {
+    String topicSubject = "topic-value";
+
+    // Ids are cached separately for the subject and the default context, since the registry
+    // may resolve an id under a subject in another context
+    expect(restService.getId(ID_25, topicSubject))
+        .andReturn(new SchemaString(SCHEMA_STR_0));
+    expect(restService.getId(ID_25, ""))
+        .andReturn(new SchemaString(SCHEMA_STR_0));
+
+    replay(restService);
+
+    assertEquals(
+        AVRO_SCHEMA_0.rawSchema(),
+        ((AvroSchema) client.getSchemaBySubjectAndId(topicSubject, ID_25)).rawSchema()
+    );
+    assertEquals(
+        AVRO_SCHEMA_0.rawSchema(),
+        ((AvroSchema) client.getSchemaBySubjectAndId(topicSubject, ID_25)).rawSchema()
+    ); // hit the cache
+    assertEquals(AVRO_SCHEMA_0.rawSchema(), ((AvroSchema) client.getSchemaById(ID_25)).rawSchema());
+    assertEquals(
+        AVRO_SCHEMA_0.rawSchema(),
+        ((AvroSchema) client.getSchemaBySubjectAndId(topicSubject, ID_25)).rawSchema()
+    ); // still hit the cache
+
+    verify(restService);
+  }
+
+  @Test
+  public void testCompatibilityBatch() throws Exception {
+    CompatibilityCheckResponse compatible = new CompatibilityCheckResponse();
+    compatible.setIsCompatible(true);
+    CompatibilityCheckResponse incompatible = new CompatibilityCheckResponse();
+    incompatible.setIsCompatible(false);
+    incompatible.setMessages(Collections.singletonList("incompatible"));
+
+    // One request checks all the schemas
+    expect(restService.testCompatibilityBatch(anyObject(CompatibilityCheckBatchRequest.class)))
+        .andReturn(Arrays.asList(compatible, incompatible))
+        .once();
+
+    replay(restService);
+
+    Map<String, ParsedSchema> schemas = new LinkedHashMap<>();
+    schemas.put(SUBJECT_0, AVRO_SCHEMA_0);
+    schemas.put("bar", avroSchema(1));
+    Map<String, List<String>> errorMessages = client.testCompatibilityVerbose(schemas);
+    assertEquals(Arrays.asList(SUBJECT_0, "bar"),
+        errorMessages.keySet().stream().collect(Collectors.toList()));
+    assertEquals(Collections.emptyList(), errorMessages.get(SUBJECT_0));
+    assertEquals(Collections.singletonList("incompatible"), errorMessages.get("bar"));
+
+    verify(restService);
+  }
+
+  @Test
+  public void testCompatibilityBatchFallsBackWithoutBatchEndpoint() throws Exception {
+    // Registries without the batch endpoint respond with a 404 once
+    expect(restService.testCompatibilityBatch(anyObject(CompatibilityCheckBatchRequest.class)))
+        .andThrow(new RestClientException("HTTP 404 Not Found", 404, 404))
+        .once();
+    expect(restService.testCompatibility(anyString(), anyString(), anyObject(List.class),
+        eq(SUBJECT_0), eq("latest"), eq(true)))
+        .andReturn(Collections.singletonList("incompatible"))
+        .times(2);
+
+    replay(restService);
+
+    Map<String, ParsedSchema> schemas = Collections.singletonMap(SUBJECT_0, AVRO_SCHEMA_0);
+    Map<String, List<String>> expected =
+        Collections.singletonMap(SUBJECT_0, Collections.singletonList("incompatible"));
+    assertEquals(expected, client.testCompatibilityVerbose(schemas));
+    // Later checks go straight to the request for each schema
+    assertEquals(expected, client.testCompatibilityVerbose(schemas));
+
+    verify(restService);
+  }
+
   @Test
   public void testVersionCache() throws Exception {
     int version = 7;
@@ -0,0 +1,78 @@
+package io.confluent.kafka.schemaregistry.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class BoundedConcurrentIntMapTest {
+
+  @Test
+  public void testPutGetRemove() {
+    BoundedConcurrentIntMap<String> map = new BoundedConcurrentIntMap<>(100);
+    assertNull(map.get(1));
+    assertNull(map.put(1, "one"));
+    assertNull(map.put(-1, "minus one"));
+    assertEquals("one", map.get(1));
+    assertEquals("minus one", map.get(-1));
+    assertEquals("one", map.put(1, "uno"));
+    assertEquals("uno", map.putIfAbsent(1, "ein"));
+    assertEquals("uno", map.get(1));
+    assertEquals(2, map.size());
+
+    assertEquals("uno", map.remove(1));
+    assertNull(map.remove(1));
+    assertNull(map.get(1));
+    assertEquals(1, map.size());
+
+    map.clear();
+    assertNull(map.get(-1));
+    assertTrue(map.isEmpty());
+  }
+
+  @Test
+  public void testBounded() {
+    BoundedConcurrentIntMap<Integer> map = new BoundedConcurrentIntMap<>(64);
+    for (int i = 0; i < 10000; i++) {
+      map.put(i, i);
+      assertEquals(Integer.valueOf(i), map.get(i));
+      assertTrue(map.size() <= 64);
+    }
+  }
+
+  @Test
+  public void testEvictsUnreferencedEntry() {
+    BoundedConcurrentIntMap<Integer> map = new BoundedConcurrentIntMap<>(8, 1);
+    for (int i = 0; i < 8; i++) {
+      map.put(i, i);
+    }
+    for (int i = 0; i < 4; i++) {
+      map.get(i);
+    }
+    map.put(8, 8);
+    assertEquals(8, map.size());
+    for (int i = 0; i < 4; i++) {
+      assertEquals(Integer.valueOf(i), map.get(i));
+    }
+    int evicted = 0;
+    for (int i = 4; i < 8; i++) {
+      if (map.get(i) == null) {
+        evicted++;
+      }
+    }
+    assertEquals(1, evicted);
+  }
+
+  @Test
+  public void testRemovedEntriesAreReclaimed() {
+    BoundedConcurrentIntMap<Integer> map = new BoundedConcurrentIntMap<>(1000);
+    for (int i = 0; i < 100000; i++) {
+      map.put(i, i);
+      assertEquals(Integer.valueOf(i), map.remove(i));
+    }
+    map.put(7, 7);
+    assertEquals(Integer.valueOf(7), map.get(7));
+    assertEquals(1, map.size());
+  }
+}
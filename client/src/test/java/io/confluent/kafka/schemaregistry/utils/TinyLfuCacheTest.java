@@ -0,0 +1,247 @@
+package io.confluent.kafka.schemaregistry.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.junit.Test;
+
+public class TinyLfuCacheTest {
+
+  @Test
+  public void testMapOperations() {
+    BoundedCache<String, String> cache = BoundedCache.create(100);
+    assertNull(cache.put("a", "1"));
+    assertEquals("1", cache.put("a", "2"));
+    assertEquals("2", cache.putIfAbsent("a", "3"));
+    assertEquals("2", cache.get("a"));
+    assertTrue(cache.replace("a", "2", "4"));
+    assertFalse(cache.remove("a", "2"));
+    assertTrue(cache.remove("a", "4"));
+    assertNull(cache.get("a"));
+
+    assertEquals("b", cache.computeIfAbsent("b", k -> k));
+    assertEquals("b", cache.computeIfAbsent("b", k -> "other"));
+    assertNull(cache.computeIfAbsent("c", k -> null));
+    assertEquals(1, cache.size());
+    assertEquals("b", cache.entrySet().iterator().next().getValue());
+
+    cache.clear();
+    assertTrue(cache.isEmpty());
+  }
+
+  @Test
+  public void testStats() {
+    BoundedCache<String, String> cache = BoundedCache.create(100);
+    cache.get("a");
+    cache.put("a", "1");
+    cache.get("a");
+    cache.computeIfAbsent("a", k -> k);
+    CacheStats stats = cache.stats();
+    assertEquals(2, stats.hitCount());
+    assertEquals(1, stats.missCount());
+    assertEquals(2.0 / 3, stats.hitRate(), 0.0001);
+  }
+
+  @Test
+  public void testBounded() {
+    BoundedCache<Integer, Integer> cache = BoundedCache.create(64);
+    for (int i = 0; i < 10000; i++) {
+      cache.put(i, i);
+      // The latest entry is always in the window
+      assertEquals(Integer.valueOf(i), cache.get(i));
+      assertTrue(cache.size() <= 64);
+    }
+    assertEquals(10000 - 64, cache.stats().evictionCount());
+  }
+
+  @Test
+  public void testFrequentEntriesSurviveScan() {
+    BoundedCache<Integer, Integer> cache = BoundedCache.create(100);
+    for (int round = 0; round < 20; round++) {
+      for (int i = 0; i < 50; i++) {
+        cache.computeIfAbsent(i, k -> k);
+      }
+    }
+    for (int i = 1000; i < 11000; i++) {
+      cache.computeIfAbsent(i, k -> k);
+    }
+    int retained = 0;
+    for (int i = 0; i < 50; i++) {
+      if (cache.get(i) != null) {
+        retained++;
+      }
+    }
+    assertTrue("Retained " + retained, retained >= 45);
+  }
+
+  @Test
+  public void testZeroCapacity() {
+    BoundedCache<Integer, Integer> cache = BoundedCache.create(0);
+    cache.put(1, 1);
+    assertNull(cache.get(1));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testExpireAfterWrite() {
+    AtomicLong ticker = new AtomicLong();
+    BoundedCache<String, String> cache = new TinyLfuCache<>(10, 100, ticker::get);
+    cache.put("a", "1");
+    ticker.set(99);
+    assertEquals("1", cache.get("a"));
+    ticker.set(100);
+    assertFalse(cache.containsKey("a"));
+    assertNull(cache.get("a"));
+    assertEquals(0, cache.size());
+
+    cache.put("b", "2");
+    ticker.set(200);
+    assertNull(cache.putIfAbsent("b", "3"));
+    assertEquals("3", cache.get("b"));
+    assertEquals(1, cache.stats().evictionCount());
+  }
+
+  private static final int THREADS = 8;
+
+  @Test
+  public void testConcurrentPutIfAbsent() throws Exception {
+    BoundedCache<Integer, String> cache = BoundedCache.create(10000);
+    AtomicIntegerArray winners = new AtomicIntegerArray(1000);
+    AtomicReferenceArray<String> values = new AtomicReferenceArray<>(1000);
+    runConcurrently(thread -> {
+      for (int i = 0; i < 1000; i++) {
+        String value = "thread-" + thread;
+        String prior = cache.putIfAbsent(i, value);
+        if (prior == null) {
+          winners.incrementAndGet(i);
+          values.set(i, value);
+        } else {
+          assertTrue(prior.startsWith("thread-"));
+        }
+      }
+    });
+    for (int i = 0; i < 1000; i++) {
+      // Exactly one thread inserted each key, and later threads saw its value
+      assertEquals(1, winners.get(i));
+      assertEquals(values.get(i), cache.get(i));
+    }
+    assertEquals(1000, cache.size());
+    assertEquals(0, cache.stats().evictionCount());
+  }
+
+  @Test
+  public void testConcurrentComputeIfAbsent() throws Exception {
+    BoundedCache<Integer, Object> cache = BoundedCache.create(10000);
+    Object[][] results = new Object[THREADS][1000];
+    runConcurrently(thread -> {
+      for (int i = 0; i < 1000; i++) {
+        results[thread][i] = cache.computeIfAbsent(i, k -> new Object());
+      }
+    });
+    for (int i = 0; i < 1000; i++) {
+      // The function may run more than once, but all threads get the value that was cached
+      Object cached = cache.get(i);
+      assertNotNull(cached);
+      for (int thread = 0; thread < THREADS; thread++) {
+        assertSame(cached, results[thread][i]);
+      }
+    }
+    assertEquals(1000, cache.size());
+  }
+
+  @Test
+  public void testConcurrentBounded() throws Exception {
+    BoundedCache<Integer, Integer> cache = BoundedCache.create(64);
+    runConcurrently(thread -> {
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      for (int i = 0; i < 100000; i++) {
+        // Skew the keys, so that some of them are read often enough to be protected
+        Integer key = random.nextBoolean() ? random.nextInt(32) : random.nextInt(10000);
+        switch (random.nextInt(5)) {
+          case 0:
+            cache.put(key, key);
+            break;
+          case 1:
+            assertEquals(key, cache.computeIfAbsent(key, k -> k));
+            break;
+          case 2:
+            Integer prior = cache.putIfAbsent(key, key);
+            assertTrue(prior == null || prior.equals(key));
+            break;
+          case 3:
+            cache.remove(key);
+            break;
+          default:
+            Integer value = cache.get(key);
+            assertTrue(value == null || value.equals(key));
+            break;
+        }
+      }
+    });
+    assertConsistent(cache, 64);
+    assertTrue(cache.stats().evictionCount() > 0);
+
+    // Entries that the policy lost track of would never be evicted
+    for (int i = 20000; i < 21000; i++) {
+      cache.put(i, i);
+    }
+    assertConsistent(cache, 64);
+    assertEquals(Integer.valueOf(20999), cache.get(20999));
+  }
+
+  private static void assertConsistent(BoundedCache<Integer, Integer> cache, int maximum) {
+    assertTrue("Size " + cache.size(), cache.size() <= maximum);
+    Set<Integer> keys = new HashSet<>();
+    for (Map.Entry<Integer, Integer> entry : cache.entrySet()) {
+      assertTrue("Duplicate " + entry.getKey(), keys.add(entry.getKey()));
+      assertEquals(entry.getKey(), entry.getValue());
+    }
+    assertEquals(cache.size(), keys.size());
+  }
+
+  private static void runConcurrently(ThreadTask task) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    try {
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<Void>> futures = new ArrayList<>();
+      for (int i = 0; i < THREADS; i++) {
+        final int thread = i;
+        futures.add(executor.submit((Callable<Void>) () -> {
+          start.await();
+          task.run(thread);
+          return null;
+        }));
+      }
+      start.countDown();
+      for (Future<Void> future : futures) {
+        // Rethrows the assertion errors of the threads
+        future.get(60, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private interface ThreadTask {
+    void run(int thread);
+  }
+}
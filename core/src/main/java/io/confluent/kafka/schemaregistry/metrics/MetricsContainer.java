@@ -15,6 +15,8 @@
 
 package io.confluent.kafka.schemaregistry.metrics;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheStats;
 import io.confluent.kafka.schemaregistry.avro.AvroSchema;
 import io.confluent.kafka.schemaregistry.json.JsonSchema;
 import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
@@ -25,6 +27,7 @@ import io.confluent.rest.RestConfig;
 import org.apache.kafka.clients.CommonClientConfigs;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Gauge;
 import org.apache.kafka.common.metrics.JmxReporter;
 import org.apache.kafka.common.metrics.KafkaMetricsContext;
 import org.apache.kafka.common.metrics.MetricConfig;
@@ -37,6 +40,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
 
 public class MetricsContainer {
 
@@ -139,6 +143,27 @@ public class MetricsContainer {
     return metricsContext;
   }
 
+  /**
+   * Adds metrics for the hits, loads and load time of the cache of parsed schemas.
+   */
+  public void addSchemaCacheMetrics(Cache<?, ?> schemaCache) {
+    addCacheMetric(schemaCache, "schema-cache-hit-count",
+        "Number of parsed schemas found in the schema cache", CacheStats::hitCount);
+    addCacheMetric(schemaCache, "schema-cache-load-count",
+        "Number of schemas parsed on a miss of the schema cache", CacheStats::loadCount);
+    addCacheMetric(schemaCache, "schema-cache-load-time-ms",
+        "Total time in milliseconds spent parsing schemas on a miss of the schema cache",
+        stats -> TimeUnit.NANOSECONDS.toMillis(stats.totalLoadTime()));
+    addCacheMetric(schemaCache, "schema-cache-eviction-count",
+        "Number of parsed schemas evicted from the schema cache", CacheStats::evictionCount);
+  }
+
+  private void addCacheMetric(Cache<?, ?> cache, String name, String metricDescription,
+                              ToLongFunction<CacheStats> stat) {
+    MetricName mn = new MetricName(name, name, metricDescription, configuredTags);
+    metrics.addMetric(mn, (Gauge<Long>) (config, now) -> stat.applyAsLong(cache.stats()));
+  }
+
   private static MetricsReporter getJmxReporter(SchemaRegistryConfig config) {
     MetricsReporter reporter = new JmxReporter();
     reporter.configure(config.originals());
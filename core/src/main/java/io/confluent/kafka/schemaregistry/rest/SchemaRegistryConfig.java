@@ -113,6 +113,12 @@ public class SchemaRegistryConfig extends RestConfig {
   public static final String MASTER_ELIGIBILITY = "master.eligibility";
   public static final String LEADER_ELIGIBILITY = "leader.eligibility";
   public static final boolean DEFAULT_LEADER_ELIGIBILITY = true;
+  /**
+   * <code>follower.lookup.max.staleness.ms</code>
+   */
+  public static final String FOLLOWER_LOOKUP_MAX_STALENESS_MS_CONFIG =
+      "follower.lookup.max.staleness.ms";
+  public static final long FOLLOWER_LOOKUP_MAX_STALENESS_MS_DEFAULT = 30000;
   /**
    * <code>mode.mutability</code>*
    */
@@ -144,6 +150,27 @@ public class SchemaRegistryConfig extends RestConfig {
   public static final String SCHEMA_CACHE_EXPIRY_SECS_CONFIG = "schema.cache.expiry.secs";
   public static final int SCHEMA_CACHE_EXPIRY_SECS_DEFAULT = 300;
 
+  /**
+   * <code>schema.compatibility.cache.size</code>
+   */
+  public static final String SCHEMA_COMPATIBILITY_CACHE_SIZE_CONFIG =
+      "schema.compatibility.cache.size";
+  public static final int SCHEMA_COMPATIBILITY_CACHE_SIZE_DEFAULT = 10000;
+
+  /**
+   * <code>schema.compatibility.check.threads</code>
+   */
+  public static final String SCHEMA_COMPATIBILITY_CHECK_THREADS_CONFIG =
+      "schema.compatibility.check.threads";
+  public static final int SCHEMA_COMPATIBILITY_CHECK_THREADS_DEFAULT = 1;
+
+  /**
+   * <code>schema.compatibility.batch.threads</code>
+   */
+  public static final String SCHEMA_COMPATIBILITY_BATCH_THREADS_CONFIG =
+      "schema.compatibility.batch.threads";
+  public static final int SCHEMA_COMPATIBILITY_BATCH_THREADS_DEFAULT = 4;
+
   /**
    * <code>schema.canonicalize.on.consume</code>
    */
@@ -268,14 +295,28 @@ public class SchemaRegistryConfig extends RestConfig {
       + "full_transitive (new schema is backward and forward compatible with all previous "
       + "versions)";
   protected static final String SCHEMA_CACHE_SIZE_DOC =
-      "The maximum size of the schema cache.";
+      "The maximum size of the schema cache. Schemas count once for each started 8 KB of their "
+      + "text, so that a few large schemas do not evict many small ones.";
   protected static final String SCHEMA_CACHE_EXPIRY_SECS_DOC =
       "The expiration in seconds for entries accessed in the cache.";
+  protected static final String SCHEMA_COMPATIBILITY_CACHE_SIZE_DOC =
+      "The maximum number of compatibility verdicts between pairs of schemas to cache.";
+  protected static final String SCHEMA_COMPATIBILITY_CHECK_THREADS_DOC =
+      "The number of threads that check a schema against the versions of a subject in parallel, "
+      + "for transitive compatibility levels. With one thread, the versions are checked in the "
+      + "calling thread one after another.";
+  protected static final String SCHEMA_COMPATIBILITY_BATCH_THREADS_DOC =
+      "The number of threads that check the schemas of a batch compatibility request "
+      + "concurrently.";
   protected static final String SCHEMA_CANONICALIZE_ON_CONSUME_DOC =
       "A list of schema types to canonicalize on consume, to be used if canonicalization changes.";
   protected static final String LEADER_ELIGIBILITY_DOC =
       "If true, this node can participate in leader election. In a multi-colo setup, turn this off "
       + "for clusters in the follower data center.";
+  protected static final String FOLLOWER_LOOKUP_MAX_STALENESS_MS_DOC =
+      "The maximum time since a follower last read all the updates of the store, for the "
+      + "follower to answer the registration of an already registered schema itself, rather than "
+      + "forward it to the leader. A negative value lets followers answer regardless of the time.";
   protected static final String MODE_MUTABILITY_DOC =
       "If true, this node will allow mode changes if it is the leader.";
   protected static final String KAFKASTORE_SECURITY_PROTOCOL_DOC =
@@ -433,6 +474,18 @@ public class SchemaRegistryConfig extends RestConfig {
     .define(SCHEMA_CACHE_EXPIRY_SECS_CONFIG, ConfigDef.Type.INT, SCHEMA_CACHE_EXPIRY_SECS_DEFAULT,
         ConfigDef.Importance.LOW, SCHEMA_CACHE_EXPIRY_SECS_DOC
     )
+    .define(SCHEMA_COMPATIBILITY_CACHE_SIZE_CONFIG, ConfigDef.Type.INT,
+        SCHEMA_COMPATIBILITY_CACHE_SIZE_DEFAULT, ConfigDef.Importance.LOW,
+        SCHEMA_COMPATIBILITY_CACHE_SIZE_DOC
+    )
+    .define(SCHEMA_COMPATIBILITY_CHECK_THREADS_CONFIG, ConfigDef.Type.INT,
+        SCHEMA_COMPATIBILITY_CHECK_THREADS_DEFAULT, atLeast(1), ConfigDef.Importance.LOW,
+        SCHEMA_COMPATIBILITY_CHECK_THREADS_DOC
+    )
+    .define(SCHEMA_COMPATIBILITY_BATCH_THREADS_CONFIG, ConfigDef.Type.INT,
+        SCHEMA_COMPATIBILITY_BATCH_THREADS_DEFAULT, atLeast(1), ConfigDef.Importance.LOW,
+        SCHEMA_COMPATIBILITY_BATCH_THREADS_DOC
+    )
     .define(SCHEMA_CANONICALIZE_ON_CONSUME_CONFIG, ConfigDef.Type.LIST, "",
         ConfigDef.Importance.LOW, SCHEMA_CANONICALIZE_ON_CONSUME_DOC
     )
@@ -442,6 +495,10 @@ public class SchemaRegistryConfig extends RestConfig {
     .define(LEADER_ELIGIBILITY, ConfigDef.Type.BOOLEAN, DEFAULT_LEADER_ELIGIBILITY,
         ConfigDef.Importance.MEDIUM, LEADER_ELIGIBILITY_DOC
     )
+    .define(FOLLOWER_LOOKUP_MAX_STALENESS_MS_CONFIG, ConfigDef.Type.LONG,
+        FOLLOWER_LOOKUP_MAX_STALENESS_MS_DEFAULT, ConfigDef.Importance.LOW,
+        FOLLOWER_LOOKUP_MAX_STALENESS_MS_DOC
+    )
     .define(MODE_MUTABILITY, ConfigDef.Type.BOOLEAN, DEFAULT_MODE_MUTABILITY,
         ConfigDef.Importance.LOW, MODE_MUTABILITY_DOC
     )
@@ -18,6 +18,8 @@ package io.confluent.kafka.schemaregistry.rest.resources;
 import io.confluent.kafka.schemaregistry.avro.AvroSchema;
 import io.confluent.kafka.schemaregistry.client.rest.Versions;
 import io.confluent.kafka.schemaregistry.client.rest.entities.Schema;
+import io.confluent.kafka.schemaregistry.client.rest.entities.requests.CompatibilityCheckBatchRequest;
+import io.confluent.kafka.schemaregistry.client.rest.entities.requests.CompatibilityCheckBatchResponse;
 import io.confluent.kafka.schemaregistry.client.rest.entities.requests.CompatibilityCheckResponse;
 import io.confluent.kafka.schemaregistry.client.rest.entities.requests.RegisterSchemaRequest;
 import io.confluent.kafka.schemaregistry.exceptions.InvalidSchemaException;
@@ -238,6 +240,62 @@ public class CompatibilityResource {
     asyncResponse.resume(compatibilityCheckResponse);
   }
 
+  @POST
+  @Path("/subjects")
+  @Operation(summary = "Test the compatibility of schemas against all schemas under their subjects",
+      description =
+          "Test each input schema against the schemas of its subject for compatibility, "
+              + "based on the configured compatibility level of the subject, like "
+              + "(http:post:: /compatibility/subjects/(string: subject)/versions) does. "
+              + "The schemas are tested concurrently, and the results are returned with "
+              + "detailed error messages in the order of the input schemas.",
+      responses = {
+          @ApiResponse(responseCode = "200", description = "Compatibility check results",
+            content = @Content(schema = @io.swagger.v3.oas.annotations.media.Schema(implementation =
+              CompatibilityCheckBatchResponse.class))),
+          @ApiResponse(responseCode = "422", description =
+              "Error code 42208 -- Invalid subject"),
+          @ApiResponse(responseCode = "500", description = "Error code 50001 -- Error in the "
+              + "backend data store")
+      })
+  @PerformanceMetric("compatibility.subjects.verify")
+  public void testCompatibilityForSubjects(
+      final @Suspended AsyncResponse asyncResponse,
+      @Parameter(description = "Schemas with their subjects", required = true)
+      @NotNull CompatibilityCheckBatchRequest request) {
+    log.info("Testing compatibility of {} schemas with their subjects",
+        request.getSchemas().size());
+
+    List<Schema> schemas = new ArrayList<>(request.getSchemas().size());
+    for (Schema schema : request.getSchemas()) {
+      if (schema.getSubject() == null) {
+        throw Errors.invalidSubjectException(null);
+      }
+      schemas.add(new Schema(
+          QualifiedSubject.normalize(schemaRegistry.tenant(), schema.getSubject()),
+          0,
+          -1,
+          schema.getSchemaType(),
+          schema.getReferences(),
+          schema.getSchema()
+      ));
+    }
+    List<List<String>> errorMessages;
+    try {
+      errorMessages = schemaRegistry.isCompatible(schemas);
+    } catch (SchemaRegistryStoreException e) {
+      throw Errors.storeException("Error while testing the compatibility of schemas", e);
+    } catch (SchemaRegistryException e) {
+      throw Errors.schemaRegistryException("Error while testing the compatibility of schemas", e);
+    }
+
+    List<CompatibilityCheckResponse> results = new ArrayList<>(errorMessages.size());
+    for (List<String> messages : errorMessages) {
+      results.add(createCompatiblityCheckResponse(messages, true));
+    }
+    asyncResponse.resume(new CompatibilityCheckBatchResponse(results));
+  }
+
   private static CompatibilityCheckResponse createCompatiblityCheckResponse(
           List<String> errorMessages,
           boolean verbose) {
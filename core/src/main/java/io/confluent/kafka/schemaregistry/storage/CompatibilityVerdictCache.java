@@ -0,0 +1,155 @@
+/*
+ * Copyright 2022 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafka.schemaregistry.storage;
+
+import com.google.common.collect.MapMaker;
+import io.confluent.kafka.schemaregistry.CompatibilityChecker;
+import io.confluent.kafka.schemaregistry.CompatibilityLevel;
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.utils.BoundedCache;
+import io.confluent.kafka.schemaregistry.utils.CacheStats;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+/**
+ * Caches whether one schema can read data written with another, so that repeated and transitive
+ * compatibility checks cost a lookup per pair of schemas, rather than a comparison of the schemas.
+ *
+ * <p>The verdicts are keyed by the fingerprints of the reader and the writer schemas. The order of
+ * the pair gives the direction of the check: a backward check asks whether the new schema can
+ * read a previous one, a forward check whether a previous schema can read the new one, and a full
+ * check asks both.
+ */
+public class CompatibilityVerdictCache {
+
+  // Whether a schema class checks its compatibility with the default implementation
+  private static final ClassValue<Boolean> DEFAULT_COMPATIBILITY_CHECK = new ClassValue<Boolean>() {
+    @Override
+    protected Boolean computeValue(Class<?> type) {
+      try {
+        return type.getMethod("isCompatible", CompatibilityLevel.class, List.class).isDefault();
+      } catch (NoSuchMethodException e) {
+        return false;
+      }
+    }
+  };
+
+  private final BoundedCache<VerdictKey, List<String>> verdicts;
+  // Weak keys are compared by identity, and parsed schemas are shared by the schema cache
+  private final Map<ParsedSchema, MD5> fingerprints = new MapMaker().weakKeys().makeMap();
+  private final Map<CompatibilityLevel, CompatibilityChecker> checkers =
+      new EnumMap<>(CompatibilityLevel.class);
+
+  public CompatibilityVerdictCache(int capacity) {
+    this(capacity, null, 1);
+  }
+
+  /**
+   * Creates a cache whose transitive checks compare the schema with the previous schemas in
+   * parallel on the executor, unless it is null, in at most {@code parallelism} tasks per check.
+   */
+  public CompatibilityVerdictCache(int capacity, Executor executor, int parallelism) {
+    this.verdicts = BoundedCache.create(capacity);
+    for (CompatibilityLevel level : CompatibilityLevel.values()) {
+      checkers.put(level,
+          CompatibilityChecker.checker(level, this::canRead, executor, parallelism));
+    }
+  }
+
+  /**
+   * Checks the compatibility between the schema and the previous schemas, like
+   * {@link ParsedSchema#isCompatible(CompatibilityLevel, List)}. Schemas whose provider customizes
+   * the check, which may modify the schema, are checked without the cache.
+   *
+   * @param previousSchemas full schema history in chronological order
+   */
+  public List<String> isCompatible(ParsedSchema schema,
+                                   CompatibilityLevel level,
+                                   List<? extends ParsedSchema> previousSchemas) {
+    if (!DEFAULT_COMPATIBILITY_CHECK.get(schema.getClass())) {
+      return schema.isCompatible(level, previousSchemas);
+    }
+    if (level != CompatibilityLevel.NONE) {
+      for (ParsedSchema previousSchema : previousSchemas) {
+        if (!schema.schemaType().equals(previousSchema.schemaType())) {
+          return Collections.singletonList("Incompatible because of different schema type");
+        }
+      }
+    }
+    return checkers.get(level).isCompatible(schema, previousSchemas);
+  }
+
+  public CacheStats stats() {
+    return verdicts.stats();
+  }
+
+  public void clear() {
+    verdicts.clear();
+  }
+
+  private List<String> canRead(ParsedSchema reader, ParsedSchema writer) {
+    VerdictKey key = new VerdictKey(fingerprint(reader), fingerprint(writer));
+    List<String> verdict = verdicts.get(key);
+    if (verdict == null) {
+      List<String> errorMessages = reader.isBackwardCompatible(writer);
+      verdict = errorMessages.isEmpty()
+          ? Collections.emptyList()
+          : Collections.unmodifiableList(new ArrayList<>(errorMessages));
+      verdicts.put(key, verdict);
+    }
+    return verdict;
+  }
+
+  private MD5 fingerprint(ParsedSchema schema) {
+    return fingerprints.computeIfAbsent(schema, s -> MD5.ofString(
+        s.schemaType() + " " + s.canonicalString(),
+        s.references().stream()
+            .map(ref -> new SchemaReference(ref.getName(), ref.getSubject(), ref.getVersion()))
+            .collect(Collectors.toList())));
+  }
+
+  private static final class VerdictKey {
+    private final MD5 reader;
+    private final MD5 writer;
+
+    private VerdictKey(MD5 reader, MD5 writer) {
+      this.reader = reader;
+      this.writer = writer;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof VerdictKey)) {
+        return false;
+      }
+      VerdictKey that = (VerdictKey) o;
+      return reader.equals(that.reader) && writer.equals(that.writer);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * reader.hashCode() + writer.hashCode();
+    }
+  }
+}
@@ -17,6 +17,7 @@ package io.confluent.kafka.schemaregistry.storage;
 
 import io.confluent.kafka.schemaregistry.CompatibilityLevel;
 import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.confluent.kafka.schemaregistry.client.ResolvedSchemaVersion;
 import io.confluent.kafka.schemaregistry.client.rest.entities.Schema;
 import io.confluent.kafka.schemaregistry.storage.exceptions.StoreException;
 import io.confluent.kafka.schemaregistry.storage.exceptions.StoreInitializationException;
@@ -49,12 +50,17 @@ public class InMemoryCache<K, V> implements LookupCache<K, V> {
   private final Map<String, Map<String, Map<Integer, Map<String, Integer>>>> guidToSubjectVersions;
   private final Map<String, Map<String, Map<MD5, Integer>>> hashToGuid;
   private final Map<String, Map<String, Map<SchemaKey, Set<Integer>>>> referencedBy;
+  private final Map<SchemaKey, ResolvedSchemaVersion> resolvedSchemaVersions;
+  // The cached resolved versions that directly reference each schema version
+  private final Map<SchemaKey, Set<SchemaKey>> resolvedDependents;
 
   public InMemoryCache(Serializer<K, V> serializer) {
     this.store = new ConcurrentSkipListMap<>(new SubjectKeyComparator<>(this));
     this.guidToSubjectVersions = new ConcurrentHashMap<>();
     this.hashToGuid = new ConcurrentHashMap<>();
     this.referencedBy = new ConcurrentHashMap<>();
+    this.resolvedSchemaVersions = new ConcurrentHashMap<>();
+    this.resolvedDependents = new ConcurrentHashMap<>();
   }
 
   @Override
@@ -102,6 +108,8 @@ public class InMemoryCache<K, V> implements LookupCache<K, V> {
   @Override
   public void close() throws StoreException {
     store.clear();
+    resolvedSchemaVersions.clear();
+    resolvedDependents.clear();
   }
 
   @Override
@@ -160,6 +168,7 @@ public class InMemoryCache<K, V> implements LookupCache<K, V> {
   @Override
   public void schemaDeleted(
       SchemaKey schemaKey, SchemaValue schemaValue, SchemaValue oldSchemaValue) {
+    invalidateResolvedSchemaVersion(schemaKey);
     String ctx = QualifiedSubject.contextFor(tenant(), schemaKey.getSubject());
     Map<String, Map<Integer, Map<String, Integer>>> ctxGuids =
         guidToSubjectVersions.computeIfAbsent(tenant(), k -> new ConcurrentHashMap<>());
@@ -190,6 +199,7 @@ public class InMemoryCache<K, V> implements LookupCache<K, V> {
 
   @Override
   public void schemaTombstoned(SchemaKey schemaKey, SchemaValue schemaValue) {
+    invalidateResolvedSchemaVersion(schemaKey);
     if (schemaValue == null) {
       return;
     }
@@ -211,6 +221,7 @@ public class InMemoryCache<K, V> implements LookupCache<K, V> {
   @Override
   public void schemaRegistered(
       SchemaKey schemaKey, SchemaValue schemaValue, SchemaValue oldSchemaValue) {
+    invalidateResolvedSchemaVersion(schemaKey);
     String ctx = QualifiedSubject.contextFor(tenant(), schemaKey.getSubject());
     Map<String, Map<Integer, Map<String, Integer>>> ctxGuids =
         guidToSubjectVersions.computeIfAbsent(tenant(), k -> new ConcurrentHashMap<>());
@@ -232,9 +243,46 @@ public class InMemoryCache<K, V> implements LookupCache<K, V> {
     }
   }
 
+  @Override
+  public ResolvedSchemaVersion resolvedSchemaVersion(SchemaKey schemaKey) {
+    return resolvedSchemaVersions.get(schemaKey);
+  }
+
+  @Override
+  public void cacheResolvedSchemaVersion(
+      SchemaKey schemaKey, ResolvedSchemaVersion resolvedSchemaVersion) {
+    List<ResolvedSchemaVersion> references = resolvedSchemaVersion.getReferencedVersions();
+    for (ResolvedSchemaVersion reference : references) {
+      resolvedDependents.computeIfAbsent(resolvedSchemaKey(reference),
+          k -> Collections.newSetFromMap(new ConcurrentHashMap<>())).add(schemaKey);
+    }
+    resolvedSchemaVersions.put(schemaKey, resolvedSchemaVersion);
+    // The version, or one that it references, may have been invalidated while it was resolved
+    boolean stale = !store.containsKey(schemaKey) || references.stream()
+        .anyMatch(r -> resolvedSchemaVersions.get(resolvedSchemaKey(r)) != r);
+    if (stale) {
+      invalidateResolvedSchemaVersion(schemaKey);
+    }
+  }
+
+  private static SchemaKey resolvedSchemaKey(ResolvedSchemaVersion resolvedSchemaVersion) {
+    Schema schema = resolvedSchemaVersion.getSchema();
+    return new SchemaKey(schema.getSubject(), schema.getVersion());
+  }
+
+  private void invalidateResolvedSchemaVersion(SchemaKey schemaKey) {
+    resolvedSchemaVersions.remove(schemaKey);
+    Set<SchemaKey> dependents = resolvedDependents.remove(schemaKey);
+    if (dependents != null) {
+      for (SchemaKey dependent : dependents) {
+        invalidateResolvedSchemaVersion(dependent);
+      }
+    }
+  }
+
   private void addToSchemaHashToGuid(SchemaKey schemaKey, SchemaValue schemaValue) {
     String ctx = QualifiedSubject.contextFor(tenant(), schemaKey.getSubject());
-    MD5 md5 = MD5.ofString(schemaValue.getSchema(), schemaValue.getReferences());
+    MD5 md5 = schemaValue.getMd5();
     Map<String, Map<MD5, Integer>> ctxHashes =
         hashToGuid.computeIfAbsent(tenant(), k -> new ConcurrentHashMap<>());
     Map<MD5, Integer> hashes = ctxHashes.computeIfAbsent(ctx, k -> new ConcurrentHashMap<>());
@@ -365,6 +413,7 @@ public class InMemoryCache<K, V> implements LookupCache<K, V> {
         SchemaValue value = (SchemaValue) e.getValue();
         boolean isMatch = match.test(key.getSubject()) && value.isDeleted();
         if (isMatch) {
+          invalidateResolvedSchemaVersion(key);
           String schemaType = value.getSchemaType();
           if (schemaType == null) {
             schemaType = AvroSchema.TYPE;
@@ -15,14 +15,16 @@
 
 package io.confluent.kafka.schemaregistry.storage;
 
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.confluent.kafka.schemaregistry.CompatibilityLevel;
 import io.confluent.kafka.schemaregistry.ParsedSchema;
 import io.confluent.kafka.schemaregistry.SchemaProvider;
 import io.confluent.kafka.schemaregistry.avro.AvroSchema;
 import io.confluent.kafka.schemaregistry.avro.AvroSchemaProvider;
+import io.confluent.kafka.schemaregistry.client.ResolvedSchemaVersion;
+import io.confluent.kafka.schemaregistry.client.ResolvedSchemaVersionFetcher;
 import io.confluent.kafka.schemaregistry.client.rest.RestService;
 import io.confluent.kafka.schemaregistry.client.rest.entities.Schema;
 import io.confluent.kafka.schemaregistry.client.rest.entities.SchemaString;
@@ -61,6 +63,7 @@ import io.confluent.kafka.schemaregistry.storage.exceptions.StoreException;
 import io.confluent.kafka.schemaregistry.storage.exceptions.StoreInitializationException;
 import io.confluent.kafka.schemaregistry.storage.exceptions.StoreTimeoutException;
 import io.confluent.kafka.schemaregistry.storage.serialization.Serializer;
+import io.confluent.kafka.schemaregistry.utils.BoundedCache;
 import io.confluent.kafka.schemaregistry.utils.QualifiedSubject;
 import io.confluent.rest.Application;
 import io.confluent.rest.RestConfig;
@@ -88,7 +91,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
@@ -98,7 +106,8 @@ import static io.confluent.kafka.schemaregistry.utils.QualifiedSubject.CONTEXT_P
 import static io.confluent.kafka.schemaregistry.utils.QualifiedSubject.CONTEXT_WILDCARD;
 import static io.confluent.kafka.schemaregistry.utils.QualifiedSubject.DEFAULT_CONTEXT;
 
-public class KafkaSchemaRegistry implements SchemaRegistry, LeaderAwareSchemaRegistry {
+public class KafkaSchemaRegistry implements SchemaRegistry, LeaderAwareSchemaRegistry,
+    ResolvedSchemaVersionFetcher {
 
   /**
    * Schema versions under a particular subject are indexed from MIN_VERSION.
@@ -108,10 +117,19 @@ public class KafkaSchemaRegistry implements SchemaRegistry, LeaderAwareSchemaReg
   public static final String GLOBAL_RESOURCE_NAME = "__GLOBAL";
   public static final int MAX_VERSION = Integer.MAX_VALUE;
   private static final Logger log = LoggerFactory.getLogger(KafkaSchemaRegistry.class);
+  // The length of schema text that weighs one in the schema cache
+  private static final int SCHEMA_CACHE_WEIGHT_UNIT = 8 * 1024;
 
   private final SchemaRegistryConfig config;
   private final Map<String, Object> props;
-  private final LoadingCache<RawSchema, ParsedSchema> schemaCache;
+  private final Cache<SchemaCacheKey, ParsedSchema> schemaCache;
+  private final CompatibilityVerdictCache compatibilityCache;
+  // Checks against the versions of a subject in parallel, or null to check them in turn
+  private final ExecutorService compatibilityExecutor;
+  // Checks the schemas of batch compatibility requests concurrently
+  private final ExecutorService compatibilityBatchExecutor;
+  // Canonical schemas by the MD5 of the submitted schema text, type and references
+  private final Map<MD5, Schema> canonicalSchemas;
   private final LookupCache<SchemaRegistryKey, SchemaRegistryValue> lookupCache;
   // visible for testing
   final KafkaStore<SchemaRegistryKey, SchemaRegistryValue> kafkaStore;
@@ -122,6 +140,7 @@ public class KafkaSchemaRegistry implements SchemaRegistry, LeaderAwareSchemaReg
   private final int kafkaStoreTimeoutMs;
   private final int initTimeout;
   private final int kafkaStoreMaxRetries;
+  private final long followerLookupMaxStalenessMs;
   private final boolean isEligibleForLeaderElector;
   private final boolean allowModeChanges;
   private SchemaRegistryIdentity leaderIdentity;
@@ -163,6 +182,8 @@ public class KafkaSchemaRegistry implements SchemaRegistry, LeaderAwareSchemaReg
     this.initTimeout = config.getInt(SchemaRegistryConfig.KAFKASTORE_INIT_TIMEOUT_CONFIG);
     this.kafkaStoreMaxRetries =
         config.getInt(SchemaRegistryConfig.KAFKASTORE_WRITE_MAX_RETRIES_CONFIG);
+    this.followerLookupMaxStalenessMs =
+        config.getLong(SchemaRegistryConfig.FOLLOWER_LOOKUP_MAX_STALENESS_MS_CONFIG);
     this.serializer = serializer;
     this.defaultCompatibilityLevel = config.compatibilityType();
     this.defaultMode = Mode.READWRITE;
@@ -171,15 +192,33 @@ public class KafkaSchemaRegistry implements SchemaRegistry, LeaderAwareSchemaReg
     this.metricsContainer = new MetricsContainer(config, this.kafkaClusterId);
     this.providers = initProviders(config);
     this.schemaCache = CacheBuilder.newBuilder()
-        .maximumSize(config.getInt(SchemaRegistryConfig.SCHEMA_CACHE_SIZE_CONFIG))
+        .maximumWeight(config.getInt(SchemaRegistryConfig.SCHEMA_CACHE_SIZE_CONFIG))
+        .weigher((SchemaCacheKey k, ParsedSchema v) -> k.getWeight())
         .expireAfterAccess(
             config.getInt(SchemaRegistryConfig.SCHEMA_CACHE_EXPIRY_SECS_CONFIG), TimeUnit.SECONDS)
-        .build(new CacheLoader<RawSchema, ParsedSchema>() {
-          @Override
-          public ParsedSchema load(RawSchema s) throws Exception {
-            return loadSchema(s.getSchemaType(), s.getSchema(), s.getReferences(), s.isNew());
-          }
-        });
+        .recordStats()
+        .build();
+    metricsContainer.addSchemaCacheMetrics(schemaCache);
+    this.canonicalSchemas = BoundedCache.create(
+        config.getInt(SchemaRegistryConfig.SCHEMA_CACHE_SIZE_CONFIG));
+    int compatibilityCheckThreads =
+        config.getInt(SchemaRegistryConfig.SCHEMA_COMPATIBILITY_CHECK_THREADS_CONFIG);
+    this.compatibilityExecutor = compatibilityCheckThreads > 1
+        ? Executors.newFixedThreadPool(compatibilityCheckThreads, new ThreadFactoryBuilder()
+            .setNameFormat("schema-compatibility-check-%d")
+            .setDaemon(true)
+            .build())
+        : null;
+    this.compatibilityBatchExecutor = Executors.newFixedThreadPool(
+        config.getInt(SchemaRegistryConfig.SCHEMA_COMPATIBILITY_BATCH_THREADS_CONFIG),
+        new ThreadFactoryBuilder()
+            .setNameFormat("schema-compatibility-batch-%d")
+            .setDaemon(true)
+            .build());
+    this.compatibilityCache = new CompatibilityVerdictCache(
+        config.getInt(SchemaRegistryConfig.SCHEMA_COMPATIBILITY_CACHE_SIZE_CONFIG),
+        compatibilityExecutor,
+        compatibilityCheckThreads);
     this.lookupCache = lookupCache();
     this.idGenerator = identityGenerator(config);
     this.kafkaStore = kafkaStore(config);
@@ -447,6 +486,11 @@ public class KafkaSchemaRegistry implements SchemaRegistry, LeaderAwareSchemaReg
       kafkaStore.waitUntilKafkaReaderReachesLastOffset(subject, kafkaStoreTimeoutMs);
 
       int schemaId = schema.getId();
+      Schema registeredSchema = lookUpSchemaText(subject, schema, normalize, false);
+      if (registeredSchema != null && (schemaId < 0 || schemaId == registeredSchema.getId())) {
+        return registeredSchema.getId();
+      }
+
       ParsedSchema parsedSchema = canonicalizeSchema(schema, schemaId < 0, normalize);
 
       // see if the schema to be registered already exists
@@ -470,26 +514,27 @@ public class KafkaSchemaRegistry implements SchemaRegistry, LeaderAwareSchemaReg
       Collections.reverse(allVersions);
 
       List<SchemaValue> deletedVersions = new ArrayList<>();
-      List<ParsedSchema> undeletedVersions = new ArrayList<>();
+      List<SchemaValue> undeletedVersions = new ArrayList<>();
       int newVersion = MIN_VERSION;
       for (SchemaValue schemaValue : allVersions) {
         newVersion = Math.max(newVersion, schemaValue.getVersion() + 1);
         if (schemaValue.isDeleted()) {
           deletedVersions.add(schemaValue);
         } else {
-          ParsedSchema undeletedSchema = parseSchema(getSchemaEntityFromSchemaValue(schemaValue));
           if (parsedSchema.references().isEmpty()
-              && !undeletedSchema.references().isEmpty()
-              && parsedSchema.deepEquals(undeletedSchema)) {
-            // This handles the case where a schema is sent with all references resolved
-            return schemaValue.getId();
+              && !schemaValue.getReferences().isEmpty()) {
+            ParsedSchema undeletedSchema = parseSchema(schemaValue);
+            if (parsedSchema.deepEquals(undeletedSchema)) {
+              // This handles the case where a schema is sent with all references resolved
+              return schemaValue.getId();
+            }
           }
-          undeletedVersions.add(undeletedSchema);
+          undeletedVersions.add(schemaValue);
         }
       }
       Collections.reverse(undeletedVersions);
 
-      final List<String> compatibilityErrorLogs = isCompatibleWithPrevious(
+      final List<String> compatibilityErrorLogs = isCompatibleWithVersions(
               subject, parsedSchema, undeletedVersions);
       final boolean isCompatible = compatibilityErrorLogs.isEmpty();
 
@@ -593,8 +638,10 @@ public class KafkaSchemaRegistry implements SchemaRegistry, LeaderAwareSchemaReg
                                boolean normalize,
                                Map<String, String> headerProperties)
       throws SchemaRegistryException {
+    // Followers answer for already registered schemas if they are recent enough, so that only
+    // new registrations are forwarded to the leader
     Schema existingSchema = lookUpSchemaUnderSubject(subject, schema, normalize, false);
-    if (existingSchema != null) {
+    if (existingSchema != null && (isLeader() || isFollowerLookupFresh())) {
       if (schema.getId() != null
           && schema.getId() >= 0
           && !schema.getId().equals(existingSchema.getId())
@@ -622,6 +669,11 @@ public class KafkaSchemaRegistry implements SchemaRegistry, LeaderAwareSchemaReg
     }
   }
 
+  private boolean isFollowerLookupFresh() {
+    return followerLookupMaxStalenessMs < 0
+        || kafkaStore.readerStalenessMs() <= followerLookupMaxStalenessMs;
+  }
+
   @Override
   public void deleteSchemaVersion(String subject,
                                   Schema schema,
@@ -809,20 +861,15 @@ public class KafkaSchemaRegistry implements SchemaRegistry, LeaderAwareSchemaReg
       String subject, Schema schema, boolean normalize, boolean lookupDeletedSchema)
       throws SchemaRegistryException {
     try {
+      Schema matchingSchema = lookUpSchemaText(subject, schema, normalize, lookupDeletedSchema);
+      if (matchingSchema != null) {
+        return matchingSchema;
+      }
+
       ParsedSchema parsedSchema = canonicalizeSchema(schema, false, normalize);
-      SchemaIdAndSubjects schemaIdAndSubjects = this.lookupCache.schemaIdAndSubjects(schema);
-      if (schemaIdAndSubjects != null) {
-        if (schemaIdAndSubjects.hasSubject(subject)
-            && (lookupDeletedSchema || !isSubjectVersionDeleted(subject, schemaIdAndSubjects
-            .getVersion(subject)))) {
-          Schema matchingSchema = new Schema(subject,
-                                             schemaIdAndSubjects.getVersion(subject),
-                                             schemaIdAndSubjects.getSchemaId(),
-                                             schema.getSchemaType(),
-                                             schema.getReferences(),
-                                             schema.getSchema());
-          return matchingSchema;
-        }
+      matchingSchema = lookUpCanonicalSchema(subject, schema, lookupDeletedSchema);
+      if (matchingSchema != null) {
+        return matchingSchema;
       }
 
       List<SchemaValue> allVersions = getAllSchemaValues(subject);
@@ -832,11 +879,10 @@ public class KafkaSchemaRegistry implements SchemaRegistry, LeaderAwareSchemaReg
         if ((lookupDeletedSchema || !schemaValue.isDeleted())
             && parsedSchema.references().isEmpty()
             && !schemaValue.getReferences().isEmpty()) {
-          Schema prev = getSchemaEntityFromSchemaValue(schemaValue);
-          ParsedSchema prevSchema = parseSchema(prev);
+          ParsedSchema prevSchema = parseSchema(schemaValue);
           if (parsedSchema.deepEquals(prevSchema)) {
             // This handles the case where a schema is sent with all references resolved
-            return prev;
+            return getSchemaEntityFromSchemaValue(schemaValue);
           }
         }
       }
@@ -848,6 +894,73 @@ public class KafkaSchemaRegistry implements SchemaRegistry, LeaderAwareSchemaReg
     }
   }
 
+  /**
+   * Looks up the schema under the subject by the text that was submitted, if the same text was
+   * canonicalized before, so that registering or looking up a known schema does not parse it.
+   *
+   * @return the matching schema, or null if the text is not known or not registered under the
+   *     subject
+   */
+  private Schema lookUpSchemaText(
+      String subject, Schema schema, boolean normalize, boolean lookupDeletedSchema)
+      throws SchemaRegistryException, StoreException {
+    if (schema == null || schema.getSchema() == null
+        || hasLatestReference(schema.getReferences())) {
+      return null;
+    }
+    Schema canonicalSchema = canonicalSchemas.get(rawSchemaKey(schema, normalize));
+    if (canonicalSchema == null) {
+      return null;
+    }
+    Schema lookupSchema = new Schema(subject, null, null, canonicalSchema.getSchemaType(),
+        canonicalSchema.getReferences(), canonicalSchema.getSchema());
+    return lookUpCanonicalSchema(subject, lookupSchema, lookupDeletedSchema);
+  }
+
+  private Schema lookUpCanonicalSchema(
+      String subject, Schema schema, boolean lookupDeletedSchema)
+      throws SchemaRegistryException, StoreException {
+    SchemaIdAndSubjects schemaIdAndSubjects = this.lookupCache.schemaIdAndSubjects(schema);
+    if (schemaIdAndSubjects != null) {
+      if (schemaIdAndSubjects.hasSubject(subject)
+          && (lookupDeletedSchema || !isSubjectVersionDeleted(subject, schemaIdAndSubjects
+          .getVersion(subject)))) {
+        return new Schema(subject,
+                          schemaIdAndSubjects.getVersion(subject),
+                          schemaIdAndSubjects.getSchemaId(),
+                          schema.getSchemaType(),
+                          schema.getReferences(),
+                          schema.getSchema());
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns whether the references include the latest version of a subject, which may have
+   * changed since the same schema was last parsed or canonicalized.
+   */
+  private static boolean hasLatestReference(
+      List<io.confluent.kafka.schemaregistry.client.rest.entities.SchemaReference> refs) {
+    if (refs != null) {
+      for (io.confluent.kafka.schemaregistry.client.rest.entities.SchemaReference ref : refs) {
+        if (ref.getVersion() != null && ref.getVersion() == -1) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private static MD5 rawSchemaKey(Schema schema, boolean normalize) {
+    List<io.confluent.kafka.schemaregistry.client.rest.entities.SchemaReference> refs =
+        schema.getReferences();
+    return MD5.ofString(schema.getSchemaType() + (normalize ? " normalized " : " ")
+        + schema.getSchema(), refs == null ? null : refs.stream()
+        .map(ref -> new SchemaReference(ref.getName(), ref.getSubject(), ref.getVersion()))
+        .collect(Collectors.toList()));
+  }
+
   public void checkIfSchemaWithIdExist(int id, Schema schema)
       throws SchemaRegistryException, StoreException {
     SchemaKey existingKey = this.lookupCache.schemaKeyById(id, schema.getSubject());
@@ -1024,6 +1137,10 @@ public class KafkaSchemaRegistry implements SchemaRegistry, LeaderAwareSchemaReg
       log.error("Empty schema");
       throw new InvalidSchemaException("Empty schema");
     }
+    // Parsing resolves references to the latest versions, so those are not remembered
+    MD5 rawSchemaKey = hasLatestReference(schema.getReferences())
+        ? null
+        : rawSchemaKey(schema, normalize);
     ParsedSchema parsedSchema = parseSchema(schema, isNew);
     try {
       parsedSchema.validate();
@@ -1037,6 +1154,10 @@ public class KafkaSchemaRegistry implements SchemaRegistry, LeaderAwareSchemaReg
     }
     schema.setSchema(parsedSchema.canonicalString());
     schema.setReferences(parsedSchema.references());
+    if (rawSchemaKey != null) {
+      canonicalSchemas.put(rawSchemaKey, new Schema(null, null, null, schema.getSchemaType(),
+          schema.getReferences(), schema.getSchema()));
+    }
     return parsedSchema;
   }
 
@@ -1061,8 +1182,34 @@ public class KafkaSchemaRegistry implements SchemaRegistry, LeaderAwareSchemaReg
           String schema,
           List<io.confluent.kafka.schemaregistry.client.rest.entities.SchemaReference> references,
           boolean isNew) throws InvalidSchemaException {
+    if (schema == null || hasLatestReference(references)) {
+      // The cached schema would keep the versions that were latest when it was parsed
+      return loadSchema(schemaType, schema, references, isNew);
+    }
+    MD5 md5 = MD5.ofString(schema, references == null ? null : references.stream()
+        .map(ref -> new SchemaReference(ref.getName(), ref.getSubject(), ref.getVersion()))
+        .collect(Collectors.toList()));
+    return parseSchema(new SchemaCacheKey(schemaType, md5, isNew, schema.length()),
+        () -> loadSchema(schemaType, schema, references, isNew));
+  }
+
+  /**
+   * Parses a stored schema, which is looked up in the schema cache by the fingerprint kept with
+   * the schema value, so the schema text is neither hashed nor compared again.
+   */
+  private ParsedSchema parseSchema(SchemaValue schemaValue) throws InvalidSchemaException {
+    SchemaCacheKey key = new SchemaCacheKey(schemaValue.getSchemaType(), schemaValue.getMd5(),
+        false, schemaValue.getSchema().length());
+    return parseSchema(key, () -> {
+      Schema schema = getSchemaEntityFromSchemaValue(schemaValue);
+      return loadSchema(schema.getSchemaType(), schema.getSchema(), schema.getReferences(), false);
+    });
+  }
+
+  private ParsedSchema parseSchema(SchemaCacheKey key, Callable<ParsedSchema> loader)
+      throws InvalidSchemaException {
     try {
-      return schemaCache.get(new RawSchema(schemaType, references, schema, isNew));
+      return schemaCache.get(key, loader);
     } catch (ExecutionException e) {
       Throwable cause = e.getCause();
       if (cause instanceof InvalidSchemaException) {
@@ -1156,6 +1303,38 @@ public class KafkaSchemaRegistry implements SchemaRegistry, LeaderAwareSchemaReg
     }
   }
 
+  /**
+   * Returns the schema version with its references resolved, as the schema providers need it to
+   * parse a schema that references it. Resolved versions are cached in the lookup cache, so the
+   * references of a schema that many schemas reference are resolved once.
+   */
+  @Override
+  public ResolvedSchemaVersion getResolvedByVersion(String subject, int version) {
+    try {
+      int resolvedVersion = version;
+      if (new VersionId(version).isLatest()) {
+        Schema latest = getLatestVersion(subject);
+        if (latest == null) {
+          return null;
+        }
+        resolvedVersion = latest.getVersion();
+      }
+      SchemaKey key = new SchemaKey(subject, resolvedVersion);
+      ResolvedSchemaVersion resolved = lookupCache.resolvedSchemaVersion(key);
+      if (resolved == null) {
+        Schema schema = get(subject, resolvedVersion, true);
+        if (schema == null) {
+          return null;
+        }
+        resolved = ResolvedSchemaVersion.resolve(this, schema);
+        lookupCache.cacheResolvedSchemaVersion(key, resolved);
+      }
+      return resolved;
+    } catch (SchemaRegistryException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
   @Override
   public SchemaString get(int id, String subject) throws SchemaRegistryException {
     return get(id, subject, null, false);
@@ -1195,8 +1374,7 @@ public class KafkaSchemaRegistry implements SchemaRegistry, LeaderAwareSchemaReg
         : null;
     schemaString.setReferences(refs);
     if (format != null && !format.trim().isEmpty()) {
-      ParsedSchema parsedSchema =
-              parseSchema(schema.getSchemaType(), schema.getSchema(), refs, false);
+      ParsedSchema parsedSchema = parseSchema(schema);
       schemaString.setSchemaString(parsedSchema.formattedString(format));
     } else {
       schemaString.setSchemaString(schema.getSchema());
@@ -1485,6 +1663,10 @@ public class KafkaSchemaRegistry implements SchemaRegistry, LeaderAwareSchemaReg
     if (leaderElector != null) {
       leaderElector.close();
     }
+    if (compatibilityExecutor != null) {
+      compatibilityExecutor.shutdownNow();
+    }
+    compatibilityBatchExecutor.shutdownNow();
   }
 
   public void updateCompatibilityLevel(String subject, CompatibilityLevel newCompatibilityLevel)
@@ -1640,13 +1822,124 @@ public class KafkaSchemaRegistry implements SchemaRegistry, LeaderAwareSchemaReg
     return isCompatibleWithPrevious(subject, parsedSchema, prevParsedSchemas);
   }
 
+  /**
+   * Checks each schema against the live versions of its subject, as registering it would, without
+   * registering it. The schemas are checked concurrently. References to the latest version of a
+   * subject are resolved once for the batch, so that schemas sharing references share their
+   * parsed schemas too.
+   *
+   * @param schemas the schemas to check, each with its subject
+   * @return the error messages of each schema in the order of the schemas, which include why a
+   *     schema is invalid
+   */
+  public List<List<String>> isCompatible(List<Schema> schemas) throws SchemaRegistryException {
+    Map<String, Integer> latestVersions = new HashMap<>();
+    List<CompletableFuture<List<String>>> results = new ArrayList<>(schemas.size());
+    for (Schema schema : schemas) {
+      Schema candidate = withLatestReferences(schema, latestVersions);
+      results.add(CompletableFuture.supplyAsync(() -> {
+        try {
+          return isCompatibleWithSubject(candidate);
+        } catch (SchemaRegistryException e) {
+          throw new CompletionException(e);
+        }
+      }, compatibilityBatchExecutor));
+    }
+    List<List<String>> errorMessages = new ArrayList<>(results.size());
+    for (CompletableFuture<List<String>> result : results) {
+      try {
+        errorMessages.add(result.join());
+      } catch (CompletionException e) {
+        if (e.getCause() instanceof SchemaRegistryException) {
+          throw (SchemaRegistryException) e.getCause();
+        } else if (e.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) e.getCause();
+        }
+        throw e;
+      }
+    }
+    return errorMessages;
+  }
+
+  private Schema withLatestReferences(Schema schema, Map<String, Integer> latestVersions)
+      throws SchemaRegistryException {
+    List<io.confluent.kafka.schemaregistry.client.rest.entities.SchemaReference> references =
+        new ArrayList<>();
+    if (schema.getReferences() != null) {
+      for (io.confluent.kafka.schemaregistry.client.rest.entities.SchemaReference ref
+          : schema.getReferences()) {
+        Integer version = ref.getVersion();
+        if (version != null && version == -1) {
+          version = latestVersions.get(ref.getSubject());
+          if (version == null) {
+            Schema latest = getLatestVersion(ref.getSubject());
+            // A missing subject is reported when the schema is parsed
+            version = latest != null ? latest.getVersion() : -1;
+            latestVersions.put(ref.getSubject(), version);
+          }
+        }
+        references.add(new io.confluent.kafka.schemaregistry.client.rest.entities.SchemaReference(
+            ref.getName(), ref.getSubject(), version));
+      }
+    }
+    return new Schema(schema.getSubject(), 0, -1,
+        schema.getSchemaType() != null ? schema.getSchemaType() : AvroSchema.TYPE,
+        references, schema.getSchema());
+  }
+
+  private List<String> isCompatibleWithSubject(Schema schema) throws SchemaRegistryException {
+    ParsedSchema parsedSchema;
+    try {
+      parsedSchema = canonicalizeSchema(schema, true, false);
+    } catch (InvalidSchemaException e) {
+      return Collections.singletonList(e.getMessage());
+    }
+    List<SchemaValue> undeletedVersions = new ArrayList<>();
+    for (SchemaValue schemaValue : getAllSchemaValues(schema.getSubject())) {
+      if (!schemaValue.isDeleted()) {
+        undeletedVersions.add(schemaValue);
+      }
+    }
+    return isCompatibleWithVersions(schema.getSubject(), parsedSchema, undeletedVersions);
+  }
+
   private List<String> isCompatibleWithPrevious(String subject,
                                                 ParsedSchema parsedSchema,
                                                 List<ParsedSchema> previousSchemas)
       throws SchemaRegistryException {
 
     CompatibilityLevel compatibility = getCompatibilityLevelInScope(subject);
-    return parsedSchema.isCompatible(compatibility, previousSchemas);
+    return compatibilityCache.isCompatible(parsedSchema, compatibility, previousSchemas);
+  }
+
+  /**
+   * Checks the schema against the live versions of the subject, which are only parsed if the
+   * compatibility level checks against them. Non-transitive levels only check against the latest
+   * version, so the rest of the history of the subject is not parsed.
+   *
+   * @param undeletedVersions the live versions of the subject in chronological order
+   */
+  private List<String> isCompatibleWithVersions(String subject,
+                                                ParsedSchema parsedSchema,
+                                                List<SchemaValue> undeletedVersions)
+      throws SchemaRegistryException {
+
+    CompatibilityLevel compatibility = getCompatibilityLevelInScope(subject);
+    List<SchemaValue> checkedVersions;
+    if (compatibility == CompatibilityLevel.NONE) {
+      checkedVersions = Collections.emptyList();
+    } else if (compatibility.isTransitive() || undeletedVersions.isEmpty()) {
+      checkedVersions = undeletedVersions;
+    } else {
+      checkedVersions = undeletedVersions.subList(
+          undeletedVersions.size() - 1, undeletedVersions.size());
+    }
+
+    List<ParsedSchema> previousSchemas = new ArrayList<>(checkedVersions.size());
+    for (SchemaValue schemaValue : checkedVersions) {
+      previousSchemas.add(parseSchema(schemaValue));
+    }
+    return compatibilityCache.isCompatible(parsedSchema, compatibility, previousSchemas);
   }
 
   private void deleteMode(String subject) throws StoreException {
@@ -1880,38 +2173,27 @@ public class KafkaSchemaRegistry implements SchemaRegistry, LeaderAwareSchemaReg
                     + " not supported");
   }
 
-  private static class RawSchema {
-    private String schemaType;
-    private List<io.confluent.kafka.schemaregistry.client.rest.entities.SchemaReference> references;
-    private String schema;
-    private boolean isNew;
-
-    public RawSchema(
-        String schemaType,
-        List<io.confluent.kafka.schemaregistry.client.rest.entities.SchemaReference> references,
-        String schema,
-        boolean isNew) {
-      this.schemaType = schemaType;
-      this.references = references;
-      this.schema = schema;
+  /**
+   * Key of the schema cache, which identifies a schema by its type and the fingerprint of its
+   * text and references, so that looking up a large schema does not compare its whole text.
+   */
+  private static class SchemaCacheKey {
+    private final String schemaType;
+    private final MD5 md5;
+    private final boolean isNew;
+    private final int weight;
+
+    public SchemaCacheKey(String schemaType, MD5 md5, boolean isNew, int length) {
+      this.schemaType = schemaType != null ? schemaType : AvroSchema.TYPE;
+      this.md5 = md5;
       this.isNew = isNew;
+      // A schema weighs one for each started unit of its text, so that a few large schemas
+      // do not evict many small ones
+      this.weight = Math.max(1, (length + SCHEMA_CACHE_WEIGHT_UNIT - 1) / SCHEMA_CACHE_WEIGHT_UNIT);
     }
 
-    public String getSchemaType() {
-      return schemaType;
-    }
-
-    public List<io.confluent.kafka.schemaregistry.client.rest.entities.SchemaReference>
-        getReferences() {
-      return references;
-    }
-
-    public String getSchema() {
-      return schema;
-    }
-
-    public boolean isNew() {
-      return isNew;
+    public int getWeight() {
+      return weight;
     }
 
     @Override
@@ -1922,16 +2204,15 @@ public class KafkaSchemaRegistry implements SchemaRegistry, LeaderAwareSchemaReg
       if (o == null || getClass() != o.getClass()) {
         return false;
       }
-      RawSchema that = (RawSchema) o;
+      SchemaCacheKey that = (SchemaCacheKey) o;
       return isNew == that.isNew
           && Objects.equals(schemaType, that.schemaType)
-          && Objects.equals(references, that.references)
-          && Objects.equals(schema, that.schema);
+          && md5.equals(that.md5);
     }
 
     @Override
     public int hashCode() {
-      return Objects.hash(schemaType, references, schema, isNew);
+      return Objects.hash(schemaType, md5, isNew);
     }
   }
 
@@ -318,6 +318,15 @@ public class KafkaStore<K, V> implements Store<K, V> {
     log.info("Reached offset at {}", offset);
   }
 
+  /**
+   * Returns how long ago the reader was last seen to have consumed all the records of the topic,
+   * or {@link Long#MAX_VALUE} if it has not caught up yet.
+   */
+  public long readerStalenessMs() {
+    long caughtUpTimeMs = kafkaTopicReader.caughtUpTimeMs();
+    return caughtUpTimeMs >= 0 ? System.currentTimeMillis() - caughtUpTimeMs : Long.MAX_VALUE;
+  }
+
   public void markLastWrittenOffsetInvalid() {
     lastWrittenOffset = -1L;
   }
@@ -19,6 +19,7 @@ import io.confluent.kafka.schemaregistry.rest.SchemaRegistryConfig;
 
 import io.confluent.kafka.schemaregistry.storage.StoreUpdateHandler.ValidationStatus;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -63,6 +64,11 @@ import kafka.utils.ShutdownableThread;
 public class KafkaStoreReaderThread<K, V> extends ShutdownableThread {
 
   private static final Logger log = LoggerFactory.getLogger(KafkaStoreReaderThread.class);
+  // Bounds how long the reader waits for records, so that it notices when it is caught up
+  private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+  // How often the reader asks the brokers for the end of the topic, and how long it waits
+  private static final long CAUGHT_UP_CHECK_INTERVAL_MS = 1000;
+  private static final Duration END_OFFSETS_TIMEOUT = Duration.ofSeconds(1);
 
   private final String topic;
   private final TopicPartition topicPartition;
@@ -75,6 +81,9 @@ public class KafkaStoreReaderThread<K, V> extends ShutdownableThread {
   private Consumer<byte[], byte[]> consumer;
   private final Producer<byte[], byte[]> producer;
   private long offsetInSchemasTopic = -1L;
+  // The last time the reader was seen to have consumed up to the end of the topic
+  private volatile long caughtUpTimeMs = -1L;
+  private long lastCaughtUpCheckMs = -1L;
   private OffsetCheckpoint checkpointFile;
   private Map<TopicPartition, Long> checkpointFileCache = new HashMap<>();
   // Noop key is only used to help reliably determine last offset; reader thread ignores
@@ -194,7 +203,11 @@ public class KafkaStoreReaderThread<K, V> extends ShutdownableThread {
   @Override
   public void doWork() {
     try {
-      ConsumerRecords<byte[], byte[]> records = consumer.poll(Long.MAX_VALUE);
+      ConsumerRecords<byte[], byte[]> records = consumer.poll(POLL_TIMEOUT);
+      if (records.isEmpty()) {
+        updateCaughtUpTime();
+        return;
+      }
       storeUpdateHandler.startBatch(records.count());
       for (ConsumerRecord<byte[], byte[]> record : records) {
         K messageKey = null;
@@ -291,6 +304,7 @@ public class KafkaStoreReaderThread<K, V> extends ShutdownableThread {
         }
       }
       storeUpdateHandler.endBatch(records.count());
+      updateCaughtUpTime();
     } catch (WakeupException we) {
       // do nothing because the thread is closing -- see shutdown()
     } catch (RecordTooLargeException rtle) {
@@ -303,6 +317,37 @@ public class KafkaStoreReaderThread<K, V> extends ShutdownableThread {
     }
   }
 
+  private void updateCaughtUpTime() {
+    long now = System.currentTimeMillis();
+    if (lastCaughtUpCheckMs >= 0 && now - lastCaughtUpCheckMs < CAUGHT_UP_CHECK_INTERVAL_MS) {
+      return;
+    }
+    lastCaughtUpCheckMs = now;
+    // Confirm the end of the topic with the brokers, rather than trust the lag that the consumer
+    // last fetched, which does not change while the brokers can not be reached
+    try {
+      Long endOffset = consumer.endOffsets(
+          Collections.singleton(topicPartition), END_OFFSETS_TIMEOUT).get(topicPartition);
+      if (endOffset != null
+          && consumer.position(topicPartition, END_OFFSETS_TIMEOUT) >= endOffset) {
+        caughtUpTimeMs = now;
+      }
+    } catch (WakeupException we) {
+      throw we;
+    } catch (KafkaException e) {
+      // Leave the caught up time as it is, so that the reader looks more stale as time goes on
+      log.debug("Failed to check whether the reader is caught up with the topic {}", topic, e);
+    }
+  }
+
+  /**
+   * Returns the last time the reader was seen to have consumed all the records of the topic, or
+   * -1 if it has not caught up yet.
+   */
+  public long caughtUpTimeMs() {
+    return caughtUpTimeMs;
+  }
+
   private void checkpointOffsets(Map<TopicPartition, Long> offsets) {
     Map<TopicPartition, Long> newOffsets = offsets != null
         ? offsets
@@ -21,6 +21,7 @@ import java.util.Map;
 import java.util.Set;
 
 import io.confluent.kafka.schemaregistry.CompatibilityLevel;
+import io.confluent.kafka.schemaregistry.client.ResolvedSchemaVersion;
 import io.confluent.kafka.schemaregistry.client.rest.entities.Schema;
 import io.confluent.kafka.schemaregistry.storage.exceptions.StoreException;
 
@@ -99,6 +100,27 @@ public interface LookupCache<K,V> extends Store<K,V> {
    */
   void schemaTombstoned(SchemaKey schemaKey, SchemaValue schemaValue);
 
+  /**
+   * Returns the cached resolution of the references of a schema version.
+   *
+   * @param schemaKey the SchemaKey of the schema version; never {@code null}
+   * @return the resolved schema version if cached, otherwise null
+   */
+  default ResolvedSchemaVersion resolvedSchemaVersion(SchemaKey schemaKey) {
+    return null;
+  }
+
+  /**
+   * Caches the resolution of the references of a schema version, until the version or one that
+   * it references, directly or transitively, is registered, deleted or tombstoned.
+   *
+   * @param schemaKey the SchemaKey of the schema version; never {@code null}
+   * @param resolvedSchemaVersion the resolved schema version; never {@code null}
+   */
+  default void cacheResolvedSchemaVersion(
+      SchemaKey schemaKey, ResolvedSchemaVersion resolvedSchemaVersion) {
+  }
+
   /**
    * Retrieves the config for a subject.
    *
@@ -16,6 +16,7 @@
 package io.confluent.kafka.schemaregistry.storage;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -45,6 +46,8 @@ public class SchemaValue extends SubjectValue implements Comparable<SchemaValue>
   private List<SchemaReference> references = Collections.emptyList();
   @NotEmpty
   private boolean deleted;
+  // The fingerprint of the schema text and references, computed once per value
+  private MD5 md5;
 
   @VisibleForTesting
   public SchemaValue(@JsonProperty("subject") String subject,
@@ -129,6 +132,7 @@ public class SchemaValue extends SubjectValue implements Comparable<SchemaValue>
   @JsonProperty("references")
   public void setReferences(List<SchemaReference> references) {
     this.references = references;
+    this.md5 = null;
   }
 
   @JsonProperty("schema")
@@ -139,6 +143,21 @@ public class SchemaValue extends SubjectValue implements Comparable<SchemaValue>
   @JsonProperty("schema")
   public void setSchema(String schema) {
     this.schema = schema;
+    this.md5 = null;
+  }
+
+  /**
+   * Returns the MD5 fingerprint of the schema text and references, which identifies the content
+   * of the schema without hashing or comparing the text again.
+   */
+  @JsonIgnore
+  public MD5 getMd5() {
+    MD5 md5 = this.md5;
+    if (md5 == null) {
+      md5 = MD5.ofString(schema, references);
+      this.md5 = md5;
+    }
+    return md5;
   }
 
   @JsonProperty("deleted")
@@ -37,6 +37,7 @@ import io.confluent.kafka.schemaregistry.rest.SchemaRegistryConfig;
 import io.confluent.kafka.schemaregistry.storage.Mode;
 import io.confluent.kafka.schemaregistry.utils.TestUtils;
 import io.confluent.kafka.schemaregistry.storage.SchemaRegistryIdentity;
+import kafka.server.KafkaServer;
 
 import static io.confluent.kafka.schemaregistry.CompatibilityLevel.FORWARD;
 import static io.confluent.kafka.schemaregistry.CompatibilityLevel.NONE;
@@ -448,11 +449,76 @@ public class LeaderElectorTest extends ClusterTestHarness {
       fail("Should be possible to fetch registered schemas even with no leaders present.");
     }
 
+    // Try re-registering a registered schema through a follower - should succeed locally
+    try {
+      int id = aFollower.restClient.registerSchema(schemas.get(0), subject);
+      assertEquals("Re-registering a schema should return its id.", (int) ids.get(0), id);
+    } catch (RestClientException e) {
+      fail("Should be possible to re-register a schema even with no leaders present.");
+    }
+
     for (RestApp follower : followerApps) {
       follower.stop();
     }
   }
 
+  @Test
+  /**
+   * Test that a follower that can not reach the brokers stops answering re-registrations of
+   * registered schemas from its own store, once the store may be stale, and forwards them to the
+   * leader instead.
+   */
+  public void testStaleFollowerForwardsRegistrationsToLeader() throws Exception {
+    String subject = "testSubject";
+    String schema = TestUtils.getRandomCanonicalAvroString(1).get(0);
+    Properties props = new Properties();
+    props.setProperty(SchemaRegistryConfig.FOLLOWER_LOOKUP_MAX_STALENESS_MS_CONFIG, "3000");
+
+    RestApp leader = new RestApp(choosePort(),
+                                 zkConnect(), bootstrapServers(), KAFKASTORE_TOPIC,
+                                 CompatibilityLevel.NONE.name, true, props);
+    leader.start();
+    RestApp follower = new RestApp(choosePort(),
+                                   zkConnect(), bootstrapServers(), KAFKASTORE_TOPIC,
+                                   CompatibilityLevel.NONE.name, false, props);
+    follower.start();
+
+    int id = leader.restClient.registerSchema(schema, subject);
+    waitUntilIdExists(follower.restClient, id,
+                      String.format("Should be possible to fetch id %d from this follower.", id));
+    assertEquals("Re-registering a schema through a follower should return its id.",
+                 id, follower.restClient.registerSchema(schema, subject));
+
+    // Stop the brokers, so that the follower can no longer confirm that its store is up to date
+    for (KafkaServer server : servers) {
+      server.shutdown();
+    }
+
+    // Without a leader to forward to, re-registrations fail once the follower's store is stale
+    follower.setLeader(null);
+    Callable<Boolean> followerRefuses = new Callable<Boolean>() {
+      @Override
+      public Boolean call() throws Exception {
+        try {
+          follower.restClient.registerSchema(schema, subject);
+          return false;
+        } catch (RestClientException e) {
+          return true;
+        }
+      }
+    };
+    TestUtils.waitUntilTrue(followerRefuses, 15000,
+        "A follower that can not reach the brokers should stop answering from its store.");
+
+    // With a leader, the follower forwards the re-registration, which the leader answers
+    follower.setLeader(leader.myIdentity());
+    assertEquals("Re-registering a schema through a stale follower should return its id.",
+                 id, follower.restClient.registerSchema(schema, subject));
+
+    follower.stop();
+    leader.stop();
+  }
+
   @Test
   /**
    * Test import mode and registration of schemas with version and id when a 'leader cluster' and
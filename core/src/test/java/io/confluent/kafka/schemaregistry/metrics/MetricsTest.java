@@ -28,6 +28,7 @@ import java.lang.management.ManagementFactory;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class MetricsTest extends ClusterTestHarness {
@@ -114,4 +115,27 @@ public class MetricsTest extends ClusterTestHarness {
       assertEquals(1, container.getApiCallsFailure().get());
     }
   }
+
+  @Test
+  public void testSchemaCacheMetrics() throws Exception {
+    String subject = "testTopic1";
+    List<String> schemas = TestUtils.getRandomCanonicalAvroString(2);
+    TestUtils.registerAndVerifySchema(restApp.restClient, schemas.get(0), 1, subject);
+
+    // The second check finds the parsed schema in the schema cache
+    restApp.restClient.testCompatibility(schemas.get(1), subject, "latest");
+    long loads = schemaCacheMetric("schema-cache-load-count");
+    long hits = schemaCacheMetric("schema-cache-hit-count");
+    restApp.restClient.testCompatibility(schemas.get(1), subject, "latest");
+
+    assertTrue(loads > 0);
+    assertEquals(loads, schemaCacheMetric("schema-cache-load-count"));
+    assertTrue(schemaCacheMetric("schema-cache-hit-count") > hits);
+  }
+
+  private static long schemaCacheMetric(String name) throws Exception {
+    MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+    ObjectName metricName = new ObjectName("kafka.schema.registry:type=" + name);
+    return ((Number) mBeanServer.getAttribute(metricName, name)).longValue();
+  }
 }
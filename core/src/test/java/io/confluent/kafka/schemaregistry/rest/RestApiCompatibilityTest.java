@@ -16,14 +16,21 @@ package io.confluent.kafka.schemaregistry.rest;
 
 import io.confluent.kafka.schemaregistry.ClusterTestHarness;
 import io.confluent.kafka.schemaregistry.CompatibilityLevel;
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
 import io.confluent.kafka.schemaregistry.avro.AvroUtils;
+import io.confluent.kafka.schemaregistry.client.rest.entities.Schema;
+import io.confluent.kafka.schemaregistry.client.rest.entities.requests.CompatibilityCheckBatchRequest;
+import io.confluent.kafka.schemaregistry.client.rest.entities.requests.CompatibilityCheckResponse;
 import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
 import io.confluent.kafka.schemaregistry.rest.exceptions.RestIncompatibleSchemaException;
 import io.confluent.kafka.schemaregistry.rest.exceptions.RestInvalidSchemaException;
+import java.util.Arrays;
+import java.util.List;
 import org.junit.Test;
 
 import static org.apache.avro.SchemaCompatibility.SchemaIncompatibilityType.READER_FIELD_MISSING_DEFAULT_VALUE;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -89,6 +96,44 @@ public class RestApiCompatibilityTest extends ClusterTestHarness {
                  restApp.restClient.registerSchema(schemaString2, subject));
   }
 
+  @Test
+  public void testBatchCompatibility() throws Exception {
+    String schemaString1 = AvroUtils.parseSchema("{\"type\":\"record\","
+        + "\"name\":\"myrecord\","
+        + "\"fields\":"
+        + "[{\"type\":\"string\",\"name\":\"f1\"}]}").canonicalString();
+    restApp.restClient.registerSchema(schemaString1, "subject1");
+    restApp.restClient.registerSchema(schemaString1, "subject2");
+
+    String incompatibleSchemaString = AvroUtils.parseSchema("{\"type\":\"record\","
+        + "\"name\":\"myrecord\","
+        + "\"fields\":"
+        + "[{\"type\":\"string\",\"name\":\"f1\"},"
+        + " {\"type\":\"string\",\"name\":\"f2\"}]}").canonicalString();
+    String compatibleSchemaString = AvroUtils.parseSchema("{\"type\":\"record\","
+        + "\"name\":\"myrecord\","
+        + "\"fields\":"
+        + "[{\"type\":\"string\",\"name\":\"f1\"},"
+        + " {\"type\":\"string\",\"name\":\"f2\", \"default\": \"foo\"}]}").canonicalString();
+    List<CompatibilityCheckResponse> results = restApp.restClient.testCompatibilityBatch(
+        new CompatibilityCheckBatchRequest(Arrays.asList(
+            new Schema("subject1", null, null, AvroSchema.TYPE, null, incompatibleSchemaString),
+            new Schema("subject2", null, null, AvroSchema.TYPE, null, compatibleSchemaString),
+            new Schema("subject3", null, null, AvroSchema.TYPE, null, incompatibleSchemaString),
+            new Schema("subject2", null, null, AvroSchema.TYPE, null, "non-avro schema string")
+        )));
+
+    assertEquals(4, results.size());
+    assertFalse(results.get(0).getIsCompatible());
+    assertTrue("Verifying error message verbosity", results.get(0).getMessages().toString()
+        .contains(READER_FIELD_MISSING_DEFAULT_VALUE.toString()));
+    assertTrue(results.get(1).getIsCompatible());
+    // A subject without versions accepts any schema
+    assertTrue(results.get(2).getIsCompatible());
+    assertFalse(results.get(3).getIsCompatible());
+    assertFalse(results.get(3).getMessages().isEmpty());
+  }
+
   @Test
   public void testCompatibilityLevelChangeToNone() throws Exception {
     String subject = "testSubject";
@@ -788,6 +788,39 @@ public class RestApiTest extends ClusterTestHarness {
             (RestService.DEFAULT_REQUEST_PROPERTIES, "reference", "1"));
   }
 
+  @Test
+  public void testSchemaReferencesToLatestVersion() throws Exception {
+    List<String> schemas = TestUtils.getAvroSchemaWithReferences();
+    TestUtils.registerAndVerifySchema(restApp.restClient, schemas.get(0), 1, "reference");
+
+    RegisterSchemaRequest request = new RegisterSchemaRequest();
+    request.setSchema(schemas.get(1));
+    request.setReferences(Collections.singletonList(
+        new SchemaReference("otherns.Subrecord", "reference", -1)));
+    int registeredId = restApp.restClient.registerSchema(request, "referrer", false);
+    assertEquals("Registering a new schema should succeed", 2, registeredId);
+    assertEquals("Latest version of the reference should be used",
+        Collections.singletonList(new SchemaReference("otherns.Subrecord", "reference", 1)),
+        restApp.restClient.getId(registeredId).getReferences());
+
+    String reference2 = "{\"type\":\"record\","
+        + "\"name\":\"Subrecord\","
+        + "\"namespace\":\"otherns\","
+        + "\"fields\":"
+        + "[{\"name\":\"field2\",\"type\":\"string\"},"
+        + "{\"name\":\"field3\",\"type\":\"string\",\"default\":\"\"}]}";
+    TestUtils.registerAndVerifySchema(restApp.restClient, reference2, 3, "reference");
+
+    // The same text registered again refers to the new latest version
+    request.setReferences(Collections.singletonList(
+        new SchemaReference("otherns.Subrecord", "reference", -1)));
+    registeredId = restApp.restClient.registerSchema(request, "referrer", false);
+    assertEquals("Registering against the new latest version should succeed", 4, registeredId);
+    assertEquals("New latest version of the reference should be used",
+        Collections.singletonList(new SchemaReference("otherns.Subrecord", "reference", 2)),
+        restApp.restClient.getId(registeredId).getReferences());
+  }
+
   @Test
   public void testSchemaReferencesMultipleLevels() throws Exception {
     String root = "[\"myavro.BudgetDecreased\",\"myavro.BudgetUpdated\"]";
@@ -1476,6 +1509,27 @@ public class RestApiTest extends ClusterTestHarness {
     assertEquals("Lookup Version Match", (Integer) 3, schema.getVersion());
   }
 
+  @Test
+  public void testReRegisterSchemaTextAfterDelete() throws Exception {
+    String subject = "test";
+    // Not in canonical form, so the text of the schema differs from the stored one
+    String schemaString = "{\"type\": \"record\", \"name\": \"myrecord\", "
+        + "\"fields\": [{\"type\": \"string\", \"name\": \"f1\"}]}";
+
+    assertEquals("Registering should succeed",
+        1, restApp.restClient.registerSchema(schemaString, subject));
+    assertEquals("Re-registering the same text should return the same id",
+        1, restApp.restClient.registerSchema(schemaString, subject));
+    assertEquals("Lookup Version Match", (Integer) 1,
+        restApp.restClient.lookUpSubjectVersion(schemaString, subject).getVersion());
+
+    restApp.restClient.deleteSchemaVersion(RestService.DEFAULT_REQUEST_PROPERTIES, subject, "1");
+    assertEquals("Re-registering after the delete should create a version",
+        1, restApp.restClient.registerSchema(schemaString, subject));
+    assertEquals("Lookup Version Match", (Integer) 2,
+        restApp.restClient.lookUpSubjectVersion(schemaString, subject).getVersion());
+  }
+
   @Test
   public void testIncompatibleSchemaLookupBySubjectAfterDelete() throws Exception {
     String subject = "testSubject";
@@ -95,4 +95,37 @@ public class RestApiTransitiveCompatibilityTest extends ClusterTestHarness {
                  expectedIdSchema2,
                  restApp.restClient.registerSchema(baseSchemaWithColumnNoDefault, subject));
   }
+
+  /* Confirm that a non-transitive level only checks against the latest version. */
+  @Test
+  public void testNonTransitiveLevelChecksLatestVersion() throws Exception {
+    String subject = "testSubject";
+    restApp.restClient.updateCompatibility(CompatibilityLevel.BACKWARD.name, subject);
+
+    assertEquals("Registering should succeed",
+            1,
+            restApp.restClient.registerSchema(baseSchema, subject));
+    assertEquals("Registering a compatible schema should succeed",
+            2,
+            restApp.restClient.registerSchema(baseSchemaWithColumnWithDefault, subject));
+    assertEquals("Registering a schema compatible with the latest version should succeed",
+            3,
+            restApp.restClient.registerSchema(baseSchemaWithColumnNoDefault, subject));
+
+    String schemaWithNewColumn = AvroUtils.parseSchema("{\"type\":\"record\","
+        + "\"name\":\"myrecord\","
+        + "\"fields\":"
+        + "[{\"type\":\"string\",\"name\":\"f1\"},"
+        + " {\"type\":\"string\",\"name\":\"f2\"},"
+        + " {\"type\":\"string\",\"name\":\"f3\", \"default\": \"bar\"}]}").canonicalString();
+    restApp.restClient.updateCompatibility(CompatibilityLevel.BACKWARD_TRANSITIVE.name, subject);
+    try {
+      restApp.restClient.registerSchema(schemaWithNewColumn, subject);
+      fail("Registering a schema incompatible with an earlier version should fail");
+    } catch (RestClientException e) {
+      assertEquals("Should get a conflict status",
+                   RestIncompatibleSchemaException.DEFAULT_ERROR_CODE,
+                   e.getStatus());
+    }
+  }
 }
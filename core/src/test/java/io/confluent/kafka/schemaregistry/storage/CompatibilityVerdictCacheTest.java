@@ -0,0 +1,144 @@
+/*
+ * Copyright 2022 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafka.schemaregistry.storage;
+
+import io.confluent.kafka.schemaregistry.CompatibilityLevel;
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CompatibilityVerdictCacheTest {
+
+  private static final String SCHEMA1 = "{\"type\":\"record\",\"name\":\"myrecord\","
+      + "\"fields\":[{\"type\":\"string\",\"name\":\"f1\"}]}";
+  private static final String SCHEMA2 = "{\"type\":\"record\",\"name\":\"myrecord\","
+      + "\"fields\":[{\"type\":\"string\",\"name\":\"f1\"},"
+      + "{\"type\":\"string\",\"name\":\"f2\",\"default\":\"foo\"}]}";
+  private static final String SCHEMA3 = "{\"type\":\"record\",\"name\":\"myrecord\","
+      + "\"fields\":[{\"type\":\"string\",\"name\":\"f1\"},"
+      + "{\"type\":\"string\",\"name\":\"f2\"}]}";
+  private static final String SCHEMA4 = "{\"type\":\"record\",\"name\":\"myrecord\","
+      + "\"fields\":[{\"type\":\"string\",\"name\":\"f1\"},"
+      + "{\"type\":\"string\",\"name\":\"f2\",\"default\":\"foo\"},"
+      + "{\"type\":\"string\",\"name\":\"f3\",\"default\":\"bar\"}]}";
+  private static final String SCHEMA5 = "{\"type\":\"record\",\"name\":\"myrecord\","
+      + "\"fields\":[{\"type\":\"string\",\"name\":\"g\"}]}";
+
+  @Test
+  public void testTransitiveChecksReuseVerdicts() {
+    CompatibilityVerdictCache cache = new CompatibilityVerdictCache(100);
+    List<ParsedSchema> history = Arrays.asList(new AvroSchema(SCHEMA1), new AvroSchema(SCHEMA2));
+    ParsedSchema schema = new AvroSchema(SCHEMA4);
+
+    assertTrue(cache.isCompatible(schema, CompatibilityLevel.FULL_TRANSITIVE, history).isEmpty());
+    assertEquals(0, cache.stats().hitCount());
+    assertEquals(4, cache.stats().missCount());
+
+    // Equal schemas that were parsed again share the verdicts
+    List<ParsedSchema> reparsed = Arrays.asList(new AvroSchema(SCHEMA1), new AvroSchema(SCHEMA2));
+    assertTrue(cache.isCompatible(schema, CompatibilityLevel.FULL_TRANSITIVE, reparsed).isEmpty());
+    assertTrue(cache.isCompatible(schema, CompatibilityLevel.BACKWARD, reparsed).isEmpty());
+    assertEquals(5, cache.stats().hitCount());
+    assertEquals(4, cache.stats().missCount());
+  }
+
+  @Test
+  public void testIncompatibleVerdictsAreCached() {
+    CompatibilityVerdictCache cache = new CompatibilityVerdictCache(100);
+    List<ParsedSchema> history = Arrays.asList(new AvroSchema(SCHEMA1), new AvroSchema(SCHEMA2));
+    ParsedSchema schema = new AvroSchema(SCHEMA3);
+
+    List<String> errors = schema.isCompatible(CompatibilityLevel.BACKWARD_TRANSITIVE, history);
+    assertFalse(errors.isEmpty());
+    assertEquals(errors,
+        cache.isCompatible(schema, CompatibilityLevel.BACKWARD_TRANSITIVE, history));
+    assertEquals(errors,
+        cache.isCompatible(schema, CompatibilityLevel.BACKWARD_TRANSITIVE, history));
+    assertEquals(2, cache.stats().hitCount());
+
+    // The direction of the check is part of the key
+    assertTrue(cache.isCompatible(schema, CompatibilityLevel.FORWARD_TRANSITIVE, history)
+        .isEmpty());
+  }
+
+  @Test
+  public void testParallelChecksMatchSequentialChecks() {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<ParsedSchema> history = Arrays.asList(new AvroSchema(SCHEMA1), new AvroSchema(SCHEMA2),
+          new AvroSchema(SCHEMA1), new AvroSchema(SCHEMA2), new AvroSchema(SCHEMA3));
+      for (String newSchema : Arrays.asList(SCHEMA2, SCHEMA3, SCHEMA4)) {
+        ParsedSchema schema = new AvroSchema(newSchema);
+        for (CompatibilityLevel level : CompatibilityLevel.values()) {
+          // The errors are those of the most recent incompatible version, as when checked in turn
+          CompatibilityVerdictCache cache = new CompatibilityVerdictCache(100, executor, 2);
+          assertEquals(schema.isCompatible(level, history),
+              cache.isCompatible(schema, level, history));
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testParallelChecksSubmitAtMostParallelismTasks() {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      AtomicInteger submitted = new AtomicInteger();
+      Executor counting = command -> {
+        submitted.incrementAndGet();
+        executor.execute(command);
+      };
+      List<ParsedSchema> history = new ArrayList<>();
+      for (int i = 0; i < 20; i++) {
+        history.add(new AvroSchema("{\"type\":\"record\",\"name\":\"myrecord\","
+            + "\"fields\":[{\"type\":\"string\",\"name\":\"f1\"},"
+            + "{\"type\":\"string\",\"name\":\"g" + i + "\",\"default\":\"foo\"}]}"));
+      }
+      ParsedSchema schema = new AvroSchema(SCHEMA1);
+
+      CompatibilityVerdictCache cache = new CompatibilityVerdictCache(100, counting, 4);
+      assertTrue(cache.isCompatible(schema, CompatibilityLevel.BACKWARD_TRANSITIVE, history)
+          .isEmpty());
+      assertEquals(4, submitted.get());
+      assertEquals(20, cache.stats().missCount());
+
+      // The most recent version fails, and the errors are still those of that version
+      submitted.set(0);
+      history.add(new AvroSchema(SCHEMA5));
+      cache = new CompatibilityVerdictCache(100, counting, 4);
+      List<String> errors = schema.isCompatible(CompatibilityLevel.BACKWARD_TRANSITIVE, history);
+      assertFalse(errors.isEmpty());
+      assertEquals(errors,
+          cache.isCompatible(schema, CompatibilityLevel.BACKWARD_TRANSITIVE, history));
+      assertTrue(submitted.get() <= 4);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
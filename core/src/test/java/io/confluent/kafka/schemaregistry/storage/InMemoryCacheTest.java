@@ -0,0 +1,124 @@
+/*
+ * Copyright 2022 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafka.schemaregistry.storage;
+
+import io.confluent.kafka.schemaregistry.client.ResolvedSchemaVersion;
+import io.confluent.kafka.schemaregistry.client.ResolvedSchemaVersionFetcher;
+import io.confluent.kafka.schemaregistry.client.rest.entities.Schema;
+import io.confluent.kafka.schemaregistry.storage.exceptions.StoreException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class InMemoryCacheTest {
+
+  private static final String COMMON = "syntax = \"proto3\";\nmessage Common {}\n";
+  private static final String FIRST = "syntax = \"proto3\";\nimport \"common.proto\";\n"
+      + "message First { Common common = 1; }\n";
+  private static final String SECOND = "syntax = \"proto3\";\nimport \"common.proto\";\n"
+      + "message Second { Common common = 1; }\n";
+
+  private InMemoryCache<SchemaRegistryKey, SchemaRegistryValue> cache;
+  private AtomicInteger fetches;
+  private ResolvedSchemaVersionFetcher fetcher;
+
+  @Before
+  public void setUp() throws Exception {
+    cache = new InMemoryCache<>(null);
+    fetches = new AtomicInteger();
+    fetcher = new ResolvedSchemaVersionFetcher() {
+      @Override
+      public Schema getByVersion(String subject, int version, boolean lookupDeletedSchema) {
+        fetches.incrementAndGet();
+        try {
+          SchemaValue value = (SchemaValue) cache.get(new SchemaKey(subject, version));
+          return value == null ? null : new Schema(value.getSubject(), value.getVersion(),
+              value.getId(), value.getSchemaType(), value.getReferences().stream()
+              .map(ref -> new io.confluent.kafka.schemaregistry.client.rest.entities
+                  .SchemaReference(ref.getName(), ref.getSubject(), ref.getVersion()))
+              .collect(Collectors.toList()), value.getSchema());
+        } catch (StoreException e) {
+          throw new RuntimeException(e);
+        }
+      }
+
+      @Override
+      public ResolvedSchemaVersion getResolvedByVersion(String subject, int version) {
+        SchemaKey key = new SchemaKey(subject, version);
+        ResolvedSchemaVersion resolved = cache.resolvedSchemaVersion(key);
+        if (resolved == null) {
+          Schema schema = getByVersion(subject, version, true);
+          if (schema == null) {
+            return null;
+          }
+          resolved = ResolvedSchemaVersion.resolve(this, schema);
+          cache.cacheResolvedSchemaVersion(key, resolved);
+        }
+        return resolved;
+      }
+    };
+    register("common", 1, COMMON);
+    register("first", 2, FIRST, new SchemaReference("common.proto", "common", 1));
+    register("second", 3, SECOND, new SchemaReference("common.proto", "common", 1));
+  }
+
+  @Test
+  public void testResolvedReferencesAreShared() {
+    ResolvedSchemaVersion first = fetcher.getResolvedByVersion("first", 1);
+    ResolvedSchemaVersion second = fetcher.getResolvedByVersion("second", 1);
+    assertEquals(3, fetches.get());
+    assertSame(first.getReferencedVersions().get(0), second.getReferencedVersions().get(0));
+    assertSame(first, fetcher.getResolvedByVersion("first", 1));
+    assertEquals(3, fetches.get());
+
+    Map<String, String> schemas = new LinkedHashMap<>();
+    first.addReferencedSchemas(schemas);
+    assertEquals(Collections.singletonMap("common.proto", COMMON), schemas);
+  }
+
+  @Test
+  public void testReferencingVersionsAreInvalidated() throws Exception {
+    fetcher.getResolvedByVersion("first", 1);
+    fetcher.getResolvedByVersion("second", 1);
+    register("other", 4, COMMON);
+    assertNotNull(cache.resolvedSchemaVersion(new SchemaKey("first", 1)));
+
+    SchemaKey commonKey = new SchemaKey("common", 1);
+    cache.schemaTombstoned(commonKey, (SchemaValue) cache.get(commonKey));
+    assertNull(cache.resolvedSchemaVersion(commonKey));
+    assertNull(cache.resolvedSchemaVersion(new SchemaKey("first", 1)));
+    assertNull(cache.resolvedSchemaVersion(new SchemaKey("second", 1)));
+  }
+
+  private void register(String subject, int id, String schema, SchemaReference... references)
+      throws StoreException {
+    SchemaKey key = new SchemaKey(subject, 1);
+    SchemaValue value = new SchemaValue(subject, 1, id, "PROTOBUF",
+        Arrays.asList(references), schema, false);
+    cache.put(key, value);
+    cache.schemaRegistered(key, value, null);
+  }
+}
@@ -0,0 +1,323 @@
+/*
+ * Copyright 2022 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.connect.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.kafka.connect.data.Date;
+import org.apache.kafka.connect.data.Decimal;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.data.Time;
+import org.apache.kafka.connect.data.Timestamp;
+
+/**
+ * Decodes a JSON token stream directly into Connect data, without first materializing a
+ * {@link JsonNode} tree.
+ *
+ * <p>A reader is compiled once for the Connect schema that {@link JsonSchemaData} derives from a
+ * JSON schema. The result is a tree of value readers that produce the same values as reading the
+ * JSON into a tree and passing it to {@link JsonSchemaData#toConnectData(Schema, JsonNode)}.
+ * Values that the readers do not handle directly, such as unions, decimals, bytes, maps with
+ * non-string keys, and values whose JSON type does not match the schema, are read into a tree
+ * and converted by {@link JsonSchemaData}, so that they convert, or fail, exactly as before.
+ * Recursive schemas are not compiled, and the caller should fall back to the tree path.
+ */
+public class ConnectJsonReader {
+
+  private final Schema connectSchema;
+  private final ValueReader valueReader;
+
+  private ConnectJsonReader(Schema connectSchema, ValueReader valueReader) {
+    this.connectSchema = connectSchema;
+    this.valueReader = valueReader;
+  }
+
+  /**
+   * Compiles a reader for the given schema.
+   *
+   * @return the reader, or null if the schema is not supported
+   */
+  static ConnectJsonReader compile(Schema connectSchema) {
+    if (connectSchema == null) {
+      return null;
+    }
+    ValueReader valueReader;
+    try {
+      valueReader = new Compiler().compile(connectSchema);
+    } catch (RuntimeException e) {
+      // Let the tree path report the problem
+      return null;
+    }
+    return valueReader != null ? new ConnectJsonReader(connectSchema, valueReader) : null;
+  }
+
+  /**
+   * Returns the Connect schema of the values produced by this reader.
+   */
+  public Schema schema() {
+    return connectSchema;
+  }
+
+  /**
+   * Reads the value at the current token of the parser. When this returns, the parser is
+   * positioned at the last token of the value.
+   *
+   * @param parser the parser, positioned at the first token of the value
+   * @return the Connect value
+   */
+  public Object read(JsonParser parser) throws IOException {
+    return valueReader.read(parser);
+  }
+
+  private static Object readTree(Schema schema, JsonParser parser) throws IOException {
+    JsonNode node = parser.currentToken() == JsonToken.VALUE_NULL
+                    ? NullNode.getInstance()
+                    : parser.readValueAsTree();
+    return JsonSchemaData.toConnectData(schema, node);
+  }
+
+  private static boolean isIntegral(JsonParser parser) throws IOException {
+    if (parser.currentToken() != JsonToken.VALUE_NUMBER_INT) {
+      return false;
+    }
+    JsonParser.NumberType numberType = parser.getNumberType();
+    return numberType == JsonParser.NumberType.INT || numberType == JsonParser.NumberType.LONG;
+  }
+
+  private static boolean isDecimal(JsonParser parser) throws IOException {
+    // Floating point values are read as exact decimals, except for NaN and infinities
+    return parser.currentToken() == JsonToken.VALUE_NUMBER_FLOAT && !parser.isNaN();
+  }
+
+  private interface ValueReader {
+    Object read(JsonParser parser) throws IOException;
+  }
+
+  private static class Compiler {
+    private final Set<Schema> visiting = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    ValueReader compile(Schema schema) {
+      if (schema instanceof JsonSchemaData.SchemaWrapper || !visiting.add(schema)) {
+        return null;
+      }
+      try {
+        ValueReader reader = compileNonNull(schema);
+        if (reader == null) {
+          return null;
+        }
+        return parser -> parser.currentToken() == JsonToken.VALUE_NULL
+                         ? readTree(schema, parser)
+                         : reader.read(parser);
+      } finally {
+        visiting.remove(schema);
+      }
+    }
+
+    private ValueReader compileNonNull(Schema schema) {
+      ValueReader logicalReader = compileLogical(schema);
+      if (logicalReader != null) {
+        return logicalReader;
+      }
+
+      switch (schema.type()) {
+        case BOOLEAN:
+          return parser -> {
+            switch (parser.currentToken()) {
+              case VALUE_TRUE:
+                return Boolean.TRUE;
+              case VALUE_FALSE:
+                return Boolean.FALSE;
+              default:
+                return readTree(schema, parser);
+            }
+          };
+        case INT8:
+          return parser -> isIntegral(parser)
+                           ? (byte) parser.getLongValue()
+                           : readTree(schema, parser);
+        case INT16:
+          return parser -> isIntegral(parser)
+                           ? (short) parser.getLongValue()
+                           : readTree(schema, parser);
+        case INT32:
+          return parser -> isIntegral(parser)
+                           ? (int) parser.getLongValue()
+                           : readTree(schema, parser);
+        case INT64:
+          return parser -> isIntegral(parser)
+                           ? parser.getLongValue()
+                           : readTree(schema, parser);
+        case FLOAT32:
+          return parser -> {
+            if (isDecimal(parser)) {
+              return parser.getDecimalValue().floatValue();
+            }
+            return isIntegral(parser)
+                   ? (float) parser.getLongValue()
+                   : readTree(schema, parser);
+          };
+        case FLOAT64:
+          return parser -> {
+            if (isDecimal(parser)) {
+              return parser.getDecimalValue().doubleValue();
+            }
+            return isIntegral(parser)
+                   ? (double) parser.getLongValue()
+                   : readTree(schema, parser);
+          };
+        case STRING:
+          return parser -> parser.currentToken() == JsonToken.VALUE_STRING
+                           ? parser.getText()
+                           : readTree(schema, parser);
+        case BYTES:
+          return parser -> readTree(schema, parser);
+        case ARRAY:
+          return compileArray(schema);
+        case MAP:
+          return compileMap(schema);
+        case STRUCT:
+          return compileStruct(schema);
+        default:
+          return null;
+      }
+    }
+
+    private ValueReader compileLogical(Schema schema) {
+      String name = schema.name();
+      if (Decimal.LOGICAL_NAME.equals(name)) {
+        return parser -> readTree(schema, parser);
+      } else if (Date.LOGICAL_NAME.equals(name)) {
+        return parser -> isInt(parser)
+                         ? Date.toLogical(schema, parser.getIntValue())
+                         : readTree(schema, parser);
+      } else if (Time.LOGICAL_NAME.equals(name)) {
+        return parser -> isInt(parser)
+                         ? Time.toLogical(schema, parser.getIntValue())
+                         : readTree(schema, parser);
+      } else if (Timestamp.LOGICAL_NAME.equals(name)) {
+        return parser -> isIntegral(parser)
+                         ? Timestamp.toLogical(schema, parser.getLongValue())
+                         : readTree(schema, parser);
+      }
+      return null;
+    }
+
+    private ValueReader compileArray(Schema schema) {
+      ValueReader elementReader = compile(schema.valueSchema());
+      if (elementReader == null) {
+        return null;
+      }
+      return parser -> {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+          return readTree(schema, parser);
+        }
+        List<Object> result = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+          result.add(elementReader.read(parser));
+        }
+        return result;
+      };
+    }
+
+    private ValueReader compileMap(Schema schema) {
+      Schema keySchema = schema.keySchema();
+      if (keySchema.type() != Schema.Type.STRING || keySchema.isOptional()) {
+        // Maps with other keys are encoded as arrays of entries
+        return parser -> readTree(schema, parser);
+      }
+      ValueReader valueReader = compile(schema.valueSchema());
+      if (valueReader == null) {
+        return null;
+      }
+      return parser -> {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+          return readTree(schema, parser);
+        }
+        Map<Object, Object> result = new HashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          String key = parser.getCurrentName();
+          parser.nextToken();
+          result.put(key, valueReader.read(parser));
+        }
+        return result;
+      };
+    }
+
+    private ValueReader compileStruct(Schema schema) {
+      if (JsonSchemaData.isUnionSchema(schema)) {
+        // Matching a union branch needs the whole value
+        return parser -> readTree(schema, parser);
+      }
+      Schema structSchema = schema.schema();
+      List<Field> fields = schema.fields();
+      Field[] structFields = new Field[fields.size()];
+      ValueReader[] fieldReaders = new ValueReader[fields.size()];
+      Object[] missingValues = new Object[fields.size()];
+      Map<String, Integer> positions = new HashMap<>();
+      for (int i = 0; i < fields.size(); i++) {
+        Field field = fields.get(i);
+        ValueReader fieldReader = compile(field.schema());
+        if (fieldReader == null) {
+          return null;
+        }
+        structFields[i] = field;
+        fieldReaders[i] = fieldReader;
+        // A missing field takes the default value, even if it is required
+        missingValues[i] = field.schema().defaultValue();
+        positions.put(field.name(), i);
+      }
+      return parser -> {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+          return readTree(schema, parser);
+        }
+        Object[] values = missingValues.clone();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          Integer position = positions.get(parser.getCurrentName());
+          parser.nextToken();
+          if (position != null) {
+            values[position] = fieldReaders[position].read(parser);
+          } else {
+            parser.skipChildren();
+          }
+        }
+        Struct result = new Struct(structSchema);
+        for (int i = 0; i < values.length; i++) {
+          if (values[i] != null) {
+            result.put(structFields[i], values[i]);
+          }
+        }
+        return result;
+      };
+    }
+
+    private static boolean isInt(JsonParser parser) throws IOException {
+      return parser.currentToken() == JsonToken.VALUE_NUMBER_INT
+          && parser.getNumberType() == JsonParser.NumberType.INT;
+    }
+  }
+}
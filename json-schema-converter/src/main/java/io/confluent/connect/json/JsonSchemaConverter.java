@@ -33,6 +33,7 @@ import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.kafka.schemaregistry.json.JsonSchema;
 import io.confluent.kafka.schemaregistry.json.JsonSchemaProvider;
 import io.confluent.kafka.serializers.AbstractKafkaSchemaSerDe;
+import io.confluent.kafka.serializers.SchemaTranslationCache;
 import io.confluent.kafka.serializers.json.AbstractKafkaJsonSchemaDeserializer;
 import io.confluent.kafka.serializers.json.AbstractKafkaJsonSchemaSerializer;
 import io.confluent.kafka.serializers.json.JsonSchemaAndValue;
@@ -50,6 +51,9 @@ public class JsonSchemaConverter extends AbstractKafkaSchemaSerDe implements Con
 
   private boolean isKey;
   private JsonSchemaData jsonSchemaData;
+  private boolean directDecoding;
+  private SchemaTranslationCache<ConnectJsonReader> connectJsonReaders;
+  private SchemaTranslationCache<Schema> connectSchemas;
 
   public JsonSchemaConverter() {
   }
@@ -63,8 +67,9 @@ public class JsonSchemaConverter extends AbstractKafkaSchemaSerDe implements Con
   public void configure(Map<String, ?> configs, boolean isKey) {
     this.isKey = isKey;
     JsonSchemaConverterConfig jsonSchemaConverterConfig = new JsonSchemaConverterConfig(configs);
+    boolean createClient = schemaRegistry == null;
 
-    if (schemaRegistry == null) {
+    if (createClient) {
       schemaRegistry = SchemaRegistryClientFactory.newClient(
           jsonSchemaConverterConfig.getSchemaRegistryUrls(),
           jsonSchemaConverterConfig.getMaxSchemasPerSubject(),
@@ -76,7 +81,38 @@ public class JsonSchemaConverter extends AbstractKafkaSchemaSerDe implements Con
 
     serializer = new Serializer(configs, schemaRegistry);
     deserializer = new Deserializer(configs, schemaRegistry);
-    jsonSchemaData = new JsonSchemaData(new JsonSchemaDataConfig(configs));
+    JsonSchemaDataConfig jsonSchemaDataConfig = new JsonSchemaDataConfig(configs);
+    jsonSchemaData = new JsonSchemaData(jsonSchemaDataConfig);
+    directDecoding = jsonSchemaDataConfig.isDirectDecoding();
+    releaseTranslationCaches();
+    if (deserializer.sharesSchemaIds()) {
+      // Only what the translations depend on, so that the scope holds no credentials
+      Map<String, ?> scope = jsonSchemaDataConfig.values();
+      Object registryScope = SchemaTranslationCache.registryScope(
+          schemaRegistry, createClient, jsonSchemaConverterConfig.getSchemaRegistryUrls());
+      connectJsonReaders = SchemaTranslationCache.shared(
+          getClass(), isKey, ConnectJsonReader.class, scope, registryScope);
+      connectSchemas = SchemaTranslationCache.shared(
+          getClass(), isKey, Schema.class, scope, registryScope);
+    }
+  }
+
+  /**
+   * Releases the translation caches that this converter shares with others.
+   */
+  public void close() {
+    releaseTranslationCaches();
+  }
+
+  private void releaseTranslationCaches() {
+    if (connectJsonReaders != null) {
+      connectJsonReaders.release();
+      connectJsonReaders = null;
+    }
+    if (connectSchemas != null) {
+      connectSchemas.release();
+      connectSchemas = null;
+    }
   }
 
   @Override
@@ -105,6 +141,13 @@ public class JsonSchemaConverter extends AbstractKafkaSchemaSerDe implements Con
   @Override
   public SchemaAndValue toConnectData(String topic, byte[] value) {
     try {
+      if (directDecoding) {
+        SchemaAndValue result = deserializer.deserializeToConnectData(
+            topic, isKey, value, jsonSchemaData, connectJsonReaders);
+        if (result != null) {
+          return result;
+        }
+      }
       JsonSchemaAndValue deserialized = deserializer.deserialize(topic, isKey, value);
 
       if (deserialized == null || deserialized.getValue() == null) {
@@ -112,7 +155,7 @@ public class JsonSchemaConverter extends AbstractKafkaSchemaSerDe implements Con
       }
 
       JsonSchema jsonSchema = deserialized.getSchema();
-      Schema schema = jsonSchemaData.toConnectSchema(jsonSchema);
+      Schema schema = toConnectSchema(value, jsonSchema);
       return new SchemaAndValue(schema, jsonSchemaData.toConnectData(schema,
           (JsonNode) deserialized.getValue()));
     } catch (SerializationException e) {
@@ -129,6 +172,23 @@ public class JsonSchemaConverter extends AbstractKafkaSchemaSerDe implements Con
     }
   }
 
+  /**
+   * Returns the Connect schema for the schema of the document, looked up by schema id and
+   * version.
+   */
+  private Schema toConnectSchema(byte[] payload, JsonSchema jsonSchema) {
+    if (connectSchemas == null || jsonSchema.version() == null) {
+      return jsonSchemaData.toConnectSchema(jsonSchema);
+    }
+    int id = SchemaTranslationCache.schemaId(payload);
+    Schema schema = connectSchemas.get(id, jsonSchema.version());
+    if (schema == null) {
+      schema = jsonSchemaData.toConnectSchema(jsonSchema);
+      connectSchemas.put(id, jsonSchema.version(), schema);
+    }
+    return schema;
+  }
+
   private static class Serializer extends AbstractKafkaJsonSchemaSerializer {
 
     public Serializer(SchemaRegistryClient client, boolean autoRegisterSchema) {
@@ -164,5 +224,42 @@ public class JsonSchemaConverter extends AbstractKafkaSchemaSerDe implements Con
     public JsonSchemaAndValue deserialize(String topic, boolean isKey, byte[] payload) {
       return deserializeWithSchemaAndVersion(topic, isKey, payload);
     }
+
+    public boolean sharesSchemaIds() {
+      return schemaIdsSharedAcrossTopics();
+    }
+
+    /**
+     * Decodes a document payload straight into Connect data.
+     *
+     * @param readers the readers by schema id and version, or null if they are not cached
+     * @return the Connect schema and value, or null if the payload must be read into a JSON tree
+     *     and converted instead
+     */
+    public SchemaAndValue deserializeToConnectData(
+        String topic, boolean isKey, byte[] payload, JsonSchemaData jsonSchemaData,
+        SchemaTranslationCache<ConnectJsonReader> readers) {
+      if (isDeprecatedSubjectNameStrategy(isKey)) {
+        return null;
+      }
+      return deserializeWithSchemaAndVersion(topic, isKey, payload, (schema, parser) -> {
+        if (schema.getString(typeProperty) != null || parser.nextToken() == null) {
+          return null;
+        }
+        boolean cached = readers != null && schema.version() != null;
+        int id = cached ? SchemaTranslationCache.schemaId(payload) : -1;
+        ConnectJsonReader reader = cached ? readers.get(id, schema.version()) : null;
+        if (reader == null) {
+          reader = jsonSchemaData.getConnectJsonReader(schema);
+          if (reader == null) {
+            return null;
+          }
+          if (cached) {
+            readers.put(id, schema.version(), reader);
+          }
+        }
+        return new SchemaAndValue(reader.schema(), reader.read(parser));
+      });
+    }
   }
 }
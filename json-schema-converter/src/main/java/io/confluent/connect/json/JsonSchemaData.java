@@ -24,7 +24,7 @@ import com.google.common.annotations.VisibleForTesting;
 import io.confluent.connect.schema.ConnectEnum;
 import io.confluent.connect.schema.ConnectUnion;
 import io.confluent.kafka.schemaregistry.json.jackson.Jackson;
-import io.confluent.kafka.schemaregistry.utils.BoundedConcurrentHashMap;
+import io.confluent.kafka.schemaregistry.utils.BoundedCache;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
@@ -63,6 +63,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.stream.Collectors;
@@ -373,6 +374,7 @@ public class JsonSchemaData {
   private final JsonSchemaDataConfig config;
   private final Map<Schema, JsonSchema> fromConnectSchemaCache;
   private final Map<JsonSchema, Schema> toConnectSchemaCache;
+  private final Map<JsonSchema, Optional<ConnectJsonReader>> connectJsonReaderCache;
   private final boolean generalizedSumTypeSupport;
 
   public JsonSchemaData() {
@@ -384,8 +386,9 @@ public class JsonSchemaData {
 
   public JsonSchemaData(JsonSchemaDataConfig jsonSchemaDataConfig) {
     this.config = jsonSchemaDataConfig;
-    fromConnectSchemaCache = new BoundedConcurrentHashMap<>(jsonSchemaDataConfig.schemaCacheSize());
-    toConnectSchemaCache = new BoundedConcurrentHashMap<>(jsonSchemaDataConfig.schemaCacheSize());
+    fromConnectSchemaCache = BoundedCache.create(jsonSchemaDataConfig.schemaCacheSize());
+    toConnectSchemaCache = BoundedCache.create(jsonSchemaDataConfig.schemaCacheSize());
+    connectJsonReaderCache = BoundedCache.create(jsonSchemaDataConfig.schemaCacheSize());
     generalizedSumTypeSupport = jsonSchemaDataConfig.isGeneralizedSumTypeSupport();
   }
 
@@ -876,6 +879,27 @@ public class JsonSchemaData {
     return resultSchema;
   }
 
+  /**
+   * Returns a reader that decodes JSON documents with the given schema straight into Connect
+   * data, producing the same values as reading the document into a tree and passing it to
+   * {@link #toConnectData(Schema, JsonNode)} with the schema returned by
+   * {@link #toConnectSchema(JsonSchema)}.
+   *
+   * @param schema the JSON schema of the documents
+   * @return the reader, or null if the schema uses features the reader does not support
+   */
+  public ConnectJsonReader getConnectJsonReader(JsonSchema schema) {
+    if (schema == null) {
+      return null;
+    }
+    Optional<ConnectJsonReader> reader = connectJsonReaderCache.get(schema);
+    if (reader == null) {
+      reader = Optional.ofNullable(ConnectJsonReader.compile(toConnectSchema(schema)));
+      connectJsonReaderCache.put(schema, reader);
+    }
+    return reader.orElse(null);
+  }
+
   @VisibleForTesting
   protected Schema toConnectSchema(org.everit.json.schema.Schema jsonSchema) {
     ToConnectContext ctx = new ToConnectContext();
@@ -1187,7 +1211,7 @@ public class JsonSchemaData {
     }
   }
 
-  private static boolean isUnionSchema(Schema schema) {
+  static boolean isUnionSchema(Schema schema) {
     return JSON_TYPE_ONE_OF.equals(schema.name()) || ConnectUnion.isUnion(schema);
   }
 
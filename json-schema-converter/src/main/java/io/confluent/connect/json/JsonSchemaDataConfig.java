@@ -58,6 +58,13 @@ public class JsonSchemaDataConfig extends AbstractConfig {
       "Controls which format this converter will serialize decimals in."
       + " This value is case insensitive and can be either 'BASE64' (default) or 'NUMERIC'";
 
+  public static final String DIRECT_DECODING_CONFIG = "direct.decoding.enable";
+  public static final boolean DIRECT_DECODING_DEFAULT = false;
+  public static final String DIRECT_DECODING_DOC =
+      "Whether the converter decodes JSON documents straight into Connect data, instead of first "
+      + "reading them into a JSON tree. When JSON Schema validation is enabled, each document is "
+      + "read into a tree once to be validated, and then decoded from that tree.";
+
   public static ConfigDef baseConfigDef() {
     return new ConfigDef().define(
         GENERALIZED_SUM_TYPE_SUPPORT_CONFIG,
@@ -91,7 +98,13 @@ public class JsonSchemaDataConfig extends AbstractConfig {
             DecimalFormat.BASE64.name(),
             DecimalFormat.NUMERIC.name()),
         ConfigDef.Importance.LOW,
-        DECIMAL_FORMAT_DOC);
+        DECIMAL_FORMAT_DOC
+    ).define(
+        DIRECT_DECODING_CONFIG,
+        ConfigDef.Type.BOOLEAN,
+        DIRECT_DECODING_DEFAULT,
+        ConfigDef.Importance.LOW,
+        DIRECT_DECODING_DOC);
   }
 
   public JsonSchemaDataConfig(Map<?, ?> props) {
@@ -114,6 +127,10 @@ public class JsonSchemaDataConfig extends AbstractConfig {
     return Math.max(1, this.getInt(SCHEMAS_CACHE_SIZE_CONFIG));
   }
 
+  public boolean isDirectDecoding() {
+    return getBoolean(DIRECT_DECODING_CONFIG);
+  }
+
   /**
    * Get the serialization format for decimal types.
    *
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2022 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.connect.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.confluent.kafka.schemaregistry.json.JsonSchema;
+import io.confluent.kafka.schemaregistry.json.jackson.Jackson;
+import java.io.IOException;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.errors.DataException;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class ConnectJsonReaderTest {
+
+  private static final String ALL_TYPES_SCHEMA = "{\"type\": \"object\", \"properties\": {"
+      + "\"int8\": {\"type\": \"integer\", \"connect.type\": \"int8\"},"
+      + "\"int16\": {\"type\": \"integer\", \"connect.type\": \"int16\"},"
+      + "\"int32\": {\"type\": \"integer\", \"connect.type\": \"int32\"},"
+      + "\"long\": {\"type\": \"integer\"},"
+      + "\"float\": {\"type\": \"number\", \"connect.type\": \"float32\"},"
+      + "\"double\": {\"type\": \"number\"},"
+      + "\"bool\": {\"type\": \"boolean\"},"
+      + "\"string\": {\"type\": \"string\"},"
+      + "\"defaulted\": {\"type\": \"string\", \"default\": \"none\"},"
+      + "\"bytes\": {\"type\": \"string\", \"connect.type\": \"bytes\"},"
+      + "\"date\": {\"type\": \"integer\", \"connect.type\": \"int32\", "
+      + "\"title\": \"org.apache.kafka.connect.data.Date\"},"
+      + "\"timestamp\": {\"type\": \"integer\", "
+      + "\"title\": \"org.apache.kafka.connect.data.Timestamp\"},"
+      + "\"optional\": {\"oneOf\": [{\"type\": \"null\"}, {\"type\": \"string\"}]},"
+      + "\"union\": {\"oneOf\": [{\"type\": \"integer\"}, {\"type\": \"string\"}]},"
+      + "\"array\": {\"type\": \"array\", \"items\": {\"type\": \"string\"}},"
+      + "\"map\": {\"type\": \"object\", \"connect.type\": \"map\", "
+      + "\"additionalProperties\": {\"type\": \"integer\"}},"
+      + "\"intMap\": {\"type\": \"array\", \"connect.type\": \"map\", \"items\": {"
+      + "\"type\": \"object\", \"properties\": {\"key\": {\"type\": \"integer\"}, "
+      + "\"value\": {\"type\": \"string\"}}}},"
+      + "\"nested\": {\"type\": \"object\", \"properties\": {\"id\": {\"type\": \"integer\"}}},"
+      + "\"nestedArray\": {\"type\": \"array\", \"items\": {\"type\": \"object\", "
+      + "\"properties\": {\"id\": {\"type\": \"integer\"}}}}"
+      + "}}";
+
+  private final ObjectMapper objectMapper = Jackson.newObjectMapper();
+  private final JsonSchemaData jsonSchemaData = new JsonSchemaData();
+
+  @Test
+  public void testAllTypes() throws IOException {
+    JsonSchema schema = new JsonSchema(ALL_TYPES_SCHEMA);
+    assertSameAsTree(schema, "{\"int8\": 8, \"int16\": 16, \"int32\": 32, \"long\": 12345678901,"
+        + "\"float\": 1.5, \"double\": 2.25, \"bool\": true, \"string\": \"string\","
+        + "\"defaulted\": \"set\", \"bytes\": \"AQID\", \"date\": 18000,"
+        + "\"timestamp\": 1650000000000, \"optional\": \"set\", \"union\": 5,"
+        + "\"array\": [\"a\", \"b\"], \"map\": {\"a\": 1, \"b\": 2},"
+        + "\"intMap\": [{\"key\": 1, \"value\": \"one\"}], \"nested\": {\"id\": 7},"
+        + "\"nestedArray\": [{\"id\": 7}, {\"id\": 8, \"unknown\": [1, {\"a\": 2}]}],"
+        + "\"unknown\": {\"a\": [1, 2]}}");
+  }
+
+  @Test
+  public void testMissingAndNullFields() throws IOException {
+    JsonSchema schema = new JsonSchema(ALL_TYPES_SCHEMA);
+    assertSameAsTree(schema, "{}");
+    assertSameAsTree(schema, "{\"optional\": null, \"defaulted\": null, \"array\": [],"
+        + "\"map\": {}, \"nested\": {}}");
+  }
+
+  @Test
+  public void testMismatchedTypes() throws IOException {
+    JsonSchema schema = new JsonSchema(ALL_TYPES_SCHEMA);
+    assertSameAsTree(schema, "{\"int8\": 1000, \"int32\": 1.9, \"long\": 123456789012345678901,"
+        + "\"float\": 3, \"double\": 12345678901, \"bool\": 1, \"string\": 5,"
+        + "\"array\": \"a\"}");
+    assertSameAsTree(schema, "{\"double\": NaN}");
+    assertSameAsTree(schema, "{\"date\": 12345678901}");
+    assertSameAsTree(schema, "{\"timestamp\": 1.5}");
+    assertSameAsTree(schema, "{\"map\": [1, 2]}");
+    assertSameAsTree(schema, "{\"nested\": 7}");
+    assertSameAsTree(schema, "{\"string\": null}");
+  }
+
+  @Test
+  public void testPrimitive() throws IOException {
+    JsonSchema schema = new JsonSchema("{\"type\": \"string\"}");
+    assertSameAsTree(schema, "\"value\"");
+    assertSameAsTree(schema, "null");
+  }
+
+  @Test
+  public void testRecursiveSchema() {
+    JsonSchema schema = new JsonSchema("{\"type\": \"object\", \"title\": \"Node\", "
+        + "\"id\": \"#id1\", \"properties\": {\"value\": {\"type\": \"integer\"}, "
+        + "\"next\": {\"$ref\": \"#id1\"}}}");
+    assertNull(jsonSchemaData.getConnectJsonReader(schema));
+  }
+
+  private void assertSameAsTree(JsonSchema schema, String json) throws IOException {
+    Schema connectSchema = jsonSchemaData.toConnectSchema(schema);
+    Object expected;
+    try {
+      expected = JsonSchemaData.toConnectData(connectSchema, objectMapper.readTree(json));
+    } catch (DataException e) {
+      expected = e.getMessage();
+    }
+
+    ConnectJsonReader reader = jsonSchemaData.getConnectJsonReader(schema);
+    assertNotNull(reader);
+    assertEquals(connectSchema, reader.schema());
+    Object actual;
+    try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+      parser.nextToken();
+      actual = reader.read(parser);
+    } catch (DataException e) {
+      actual = e.getMessage();
+    }
+    assertEquals(expected, actual);
+  }
+}
@@ -30,6 +30,7 @@ import org.apache.kafka.connect.data.SchemaBuilder;
 import org.apache.kafka.connect.data.Struct;
 import org.apache.kafka.connect.data.Time;
 import org.apache.kafka.connect.data.Timestamp;
+import org.apache.kafka.connect.errors.DataException;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -45,9 +46,11 @@ import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientExcept
 import io.confluent.kafka.schemaregistry.json.JsonSchema;
 import io.confluent.kafka.schemaregistry.json.JsonSchemaUtils;
 import io.confluent.kafka.serializers.AbstractKafkaSchemaSerDeConfig;
+import io.confluent.kafka.serializers.json.KafkaJsonSchemaDeserializerConfig;
 import io.confluent.kafka.serializers.json.KafkaJsonSchemaSerializer;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 public class JsonSchemaConverterTest {
 
@@ -130,6 +133,68 @@ public class JsonSchemaConverterTest {
     assertEquals(expected, schemaAndValue.value());
   }
 
+  @Test
+  public void testComplexWithDirectDecoding() {
+    Schema schema = SchemaBuilder.struct()
+        .field("int32", Schema.INT32_SCHEMA)
+        .field("float64", Schema.FLOAT64_SCHEMA)
+        .field("string", Schema.OPTIONAL_STRING_SCHEMA)
+        .field("bytes", Schema.BYTES_SCHEMA)
+        .field("ts", Timestamp.SCHEMA)
+        .field("array", SchemaBuilder.array(Schema.STRING_SCHEMA).build())
+        .field("map", SchemaBuilder.map(Schema.STRING_SCHEMA, Schema.INT32_SCHEMA).build())
+        .build();
+    Struct original = new Struct(schema).put("int32", 12)
+        .put("float64", 12.2)
+        .put("bytes", "foo".getBytes())
+        .put("ts", Timestamp.toLogical(Timestamp.SCHEMA, 1650000000000L))
+        .put("array", Arrays.asList("a", "b", "c"))
+        .put("map", Collections.singletonMap("field", 1));
+
+    JsonSchemaConverter directConverter = new JsonSchemaConverter(schemaRegistry);
+    Map<String, String> config = new HashMap<>();
+    config.put("schema.registry.url", "http://fake-url");
+    config.put(JsonSchemaDataConfig.DIRECT_DECODING_CONFIG, "true");
+    directConverter.configure(config, false);
+
+    byte[] converted = converter.fromConnectData(TOPIC, original.schema(), original);
+    SchemaAndValue expected = converter.toConnectData(TOPIC, converted);
+    assertEquals(expected, directConverter.toConnectData(TOPIC, converted));
+    assertEquals(SchemaAndValue.NULL, directConverter.toConnectData(TOPIC, null));
+  }
+
+  @Test
+  public void testDirectDecodingWithValidation() {
+    Schema schema = SchemaBuilder.struct()
+        .field("int32", Schema.INT32_SCHEMA)
+        .field("string", Schema.OPTIONAL_STRING_SCHEMA)
+        .build();
+    Struct original = new Struct(schema).put("int32", 12).put("string", "foo");
+
+    JsonSchemaConverter directConverter = new JsonSchemaConverter(schemaRegistry);
+    Map<String, String> config = new HashMap<>();
+    config.put("schema.registry.url", "http://fake-url");
+    config.put(JsonSchemaDataConfig.DIRECT_DECODING_CONFIG, "true");
+    config.put(KafkaJsonSchemaDeserializerConfig.FAIL_INVALID_SCHEMA, "true");
+    directConverter.configure(config, false);
+
+    byte[] converted = converter.fromConnectData(TOPIC, original.schema(), original);
+    SchemaAndValue expected = converter.toConnectData(TOPIC, converted);
+    assertEquals(expected, directConverter.toConnectData(TOPIC, converted));
+
+    // Keep the magic byte and schema id, but write a document that does not match the schema
+    byte[] document = "{\"int32\":\"twelve\",\"string\":\"foo\"}".getBytes();
+    byte[] invalid = new byte[5 + document.length];
+    System.arraycopy(converted, 0, invalid, 0, 5);
+    System.arraycopy(document, 0, invalid, 5, document.length);
+    try {
+      directConverter.toConnectData(TOPIC, invalid);
+      fail("Expected the document to fail validation");
+    } catch (DataException e) {
+      // expected
+    }
+  }
+
   @Test
   public void testComplexWithDefaults() {
     int dateDefVal = 100;
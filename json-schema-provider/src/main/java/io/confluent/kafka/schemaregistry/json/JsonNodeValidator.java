@@ -0,0 +1,644 @@
+/*
+ * Copyright 2022 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafka.schemaregistry.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import org.everit.json.schema.ArraySchema;
+import org.everit.json.schema.BooleanSchema;
+import org.everit.json.schema.CombinedSchema;
+import org.everit.json.schema.ConditionalSchema;
+import org.everit.json.schema.ConstSchema;
+import org.everit.json.schema.EmptySchema;
+import org.everit.json.schema.EnumSchema;
+import org.everit.json.schema.FalseSchema;
+import org.everit.json.schema.FormatValidator;
+import org.everit.json.schema.NotSchema;
+import org.everit.json.schema.NullSchema;
+import org.everit.json.schema.NumberSchema;
+import org.everit.json.schema.ObjectSchema;
+import org.everit.json.schema.ReferenceSchema;
+import org.everit.json.schema.Schema;
+import org.everit.json.schema.StringSchema;
+import org.everit.json.schema.ValidationException;
+import org.json.JSONObject;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import io.confluent.kafka.schemaregistry.json.jackson.Jackson;
+
+/**
+ * A validator that checks Jackson {@link JsonNode} trees directly against a compiled
+ * everit {@link Schema}, without first converting the value to {@code org.json} objects.
+ *
+ * <p>The everit schema tree is compiled once into a tree of checks. Schemas that use
+ * constructs this validator does not understand cannot be compiled, in which case
+ * {@link #compile(Schema)} returns {@code null} and callers should fall back to
+ * {@link Schema#validate(Object)}. Unlike everit, validation stops at the first violation.
+ */
+public final class JsonNodeValidator {
+
+  private static final ObjectMapper objectMapper = Jackson.newObjectMapper();
+
+  private final Check root;
+
+  private JsonNodeValidator(Check root) {
+    this.root = root;
+  }
+
+  /**
+   * Compiles the given schema.
+   *
+   * @param schema the everit schema
+   * @return the compiled validator, or {@code null} if the schema is not supported
+   */
+  public static JsonNodeValidator compile(Schema schema) {
+    if (schema == null) {
+      return null;
+    }
+    Compiler compiler = new Compiler();
+    Check root = compiler.compile(schema);
+    return compiler.supported ? new JsonNodeValidator(root) : null;
+  }
+
+  /**
+   * Validates the given value.
+   *
+   * @param value the value to validate; a Java {@code null} is treated as a JSON null
+   * @throws ValidationException if the value does not conform to the schema
+   */
+  public void validate(JsonNode value) throws ValidationException {
+    root.validate(value != null ? value : NullNode.getInstance());
+  }
+
+  interface Check {
+    void validate(JsonNode node);
+  }
+
+  static class Compiler {
+    private final Map<Schema, Check> compiled = new IdentityHashMap<>();
+    private boolean supported = true;
+
+    Check compile(Schema schema) {
+      Check check = compiled.get(schema);
+      if (check != null) {
+        return check;
+      }
+      if (schema instanceof ReferenceSchema) {
+        // Register the reference before compiling its target to allow recursive schemas
+        ReferenceCheck ref = new ReferenceCheck();
+        compiled.put(schema, ref);
+        Schema referred = ((ReferenceSchema) schema).getReferredSchema();
+        if (referred == null) {
+          supported = false;
+          return ref;
+        }
+        ref.target = compile(referred);
+        return ref;
+      }
+      check = compileNonReference(schema);
+      compiled.put(schema, check);
+      return check;
+    }
+
+    private Check compileNonReference(Schema schema) {
+      if (schema instanceof FalseSchema) {
+        return node -> fail(schema, "false schema always fails", "false");
+      } else if (schema instanceof EmptySchema) {
+        return node -> { };
+      } else if (schema instanceof NullSchema) {
+        return node -> checkType(schema, node.isNull(), "null", node);
+      } else if (schema instanceof BooleanSchema) {
+        return node -> checkType(schema, node.isBoolean(), "boolean", node);
+      } else if (schema instanceof StringSchema) {
+        return new StringCheck((StringSchema) schema);
+      } else if (schema instanceof NumberSchema) {
+        return new NumberCheck((NumberSchema) schema);
+      } else if (schema instanceof ObjectSchema) {
+        return new ObjectCheck((ObjectSchema) schema, this);
+      } else if (schema instanceof ArraySchema) {
+        return new ArrayCheck((ArraySchema) schema, this);
+      } else if (schema instanceof CombinedSchema) {
+        return new CombinedCheck((CombinedSchema) schema, this);
+      } else if (schema instanceof NotSchema) {
+        Check mustNotMatch = compile(((NotSchema) schema).getMustNotMatch());
+        return node -> {
+          if (matches(mustNotMatch, node)) {
+            fail(schema, "subject must not be valid against schema " + schema, "not");
+          }
+        };
+      } else if (schema instanceof ConditionalSchema) {
+        return new ConditionalCheck((ConditionalSchema) schema, this);
+      } else if (schema instanceof EnumSchema) {
+        List<JsonNode> possibleValues = new ArrayList<>();
+        for (Object value : ((EnumSchema) schema).getPossibleValues()) {
+          possibleValues.add(toJsonNode(value));
+        }
+        return node -> {
+          for (JsonNode possibleValue : possibleValues) {
+            if (deepEquals(possibleValue, node)) {
+              return;
+            }
+          }
+          fail(schema, node + " is not a valid enum value", "enum");
+        };
+      } else if (schema instanceof ConstSchema) {
+        JsonNode permittedValue = toJsonNode(((ConstSchema) schema).getPermittedValue());
+        return node -> {
+          if (!deepEquals(permittedValue, node)) {
+            fail(schema, node + " does not match the const value " + permittedValue, "const");
+          }
+        };
+      } else {
+        supported = false;
+        return node -> { };
+      }
+    }
+
+    private Check compileOptional(Schema schema) {
+      return schema != null ? compile(schema) : null;
+    }
+
+    private Check compileOptional(Optional<Schema> schema) {
+      return schema.isPresent() ? compile(schema.get()) : null;
+    }
+  }
+
+  static class ReferenceCheck implements Check {
+    private Check target;
+
+    @Override
+    public void validate(JsonNode node) {
+      target.validate(node);
+    }
+  }
+
+  static class StringCheck implements Check {
+    private final StringSchema schema;
+    private final Integer minLength;
+    private final Integer maxLength;
+    private final Pattern pattern;
+    private final FormatValidator formatValidator;
+
+    StringCheck(StringSchema schema) {
+      this.schema = schema;
+      this.minLength = schema.getMinLength();
+      this.maxLength = schema.getMaxLength();
+      this.pattern = schema.getPattern();
+      FormatValidator validator = schema.getFormatValidator();
+      this.formatValidator = validator != FormatValidator.NONE ? validator : null;
+    }
+
+    @Override
+    public void validate(JsonNode node) {
+      if (!node.isTextual()) {
+        if (schema.requireString()) {
+          failType(schema, "String", node);
+        }
+        return;
+      }
+      String value = node.textValue();
+      if (minLength != null || maxLength != null) {
+        int length = value.codePointCount(0, value.length());
+        if (minLength != null && length < minLength) {
+          fail(schema, "expected minLength: " + minLength + ", actual: " + length, "minLength");
+        }
+        if (maxLength != null && length > maxLength) {
+          fail(schema, "expected maxLength: " + maxLength + ", actual: " + length, "maxLength");
+        }
+      }
+      if (pattern != null && !pattern.matcher(value).find()) {
+        fail(schema, "string [" + value + "] does not match pattern " + pattern.pattern(),
+            "pattern");
+      }
+      if (formatValidator != null) {
+        Optional<String> failure = formatValidator.validate(value);
+        if (failure.isPresent()) {
+          fail(schema, failure.get(), "format");
+        }
+      }
+    }
+  }
+
+  static class NumberCheck implements Check {
+    private final NumberSchema schema;
+    private final BigDecimal minimum;
+    private final BigDecimal maximum;
+    private final BigDecimal exclusiveMinimum;
+    private final BigDecimal exclusiveMaximum;
+    private final BigDecimal multipleOf;
+
+    NumberCheck(NumberSchema schema) {
+      this.schema = schema;
+      BigDecimal min = toBigDecimal(schema.getMinimum());
+      BigDecimal max = toBigDecimal(schema.getMaximum());
+      // Draft 4 expresses exclusive limits as boolean flags on minimum and maximum
+      this.minimum = schema.isExclusiveMinimum() ? null : min;
+      this.maximum = schema.isExclusiveMaximum() ? null : max;
+      this.exclusiveMinimum = schema.isExclusiveMinimum()
+          ? min : toBigDecimal(schema.getExclusiveMinimumLimit());
+      this.exclusiveMaximum = schema.isExclusiveMaximum()
+          ? max : toBigDecimal(schema.getExclusiveMaximumLimit());
+      this.multipleOf = toBigDecimal(schema.getMultipleOf());
+    }
+
+    @Override
+    public void validate(JsonNode node) {
+      if (!node.isNumber()) {
+        if (schema.isRequiresNumber()) {
+          failType(schema, "Number", node);
+        }
+        return;
+      }
+      if (schema.requiresInteger() && !node.isIntegralNumber()) {
+        failType(schema, "Integer", node);
+      }
+      BigDecimal value = node.decimalValue();
+      if (minimum != null && value.compareTo(minimum) < 0) {
+        fail(schema, node + " is not greater or equal to " + minimum, "minimum");
+      }
+      if (maximum != null && value.compareTo(maximum) > 0) {
+        fail(schema, node + " is not less or equal to " + maximum, "maximum");
+      }
+      if (exclusiveMinimum != null && value.compareTo(exclusiveMinimum) <= 0) {
+        fail(schema, node + " is not greater than " + exclusiveMinimum, "exclusiveMinimum");
+      }
+      if (exclusiveMaximum != null && value.compareTo(exclusiveMaximum) >= 0) {
+        fail(schema, node + " is not less than " + exclusiveMaximum, "exclusiveMaximum");
+      }
+      if (multipleOf != null && value.remainder(multipleOf).compareTo(BigDecimal.ZERO) != 0) {
+        fail(schema, node + " is not a multiple of " + multipleOf, "multipleOf");
+      }
+    }
+
+    private static BigDecimal toBigDecimal(Number number) {
+      if (number == null) {
+        return null;
+      } else if (number instanceof BigDecimal) {
+        return (BigDecimal) number;
+      } else {
+        return new BigDecimal(number.toString());
+      }
+    }
+  }
+
+  static class ObjectCheck implements Check {
+    private final ObjectSchema schema;
+    private final List<String> requiredProperties;
+    private final Integer minProperties;
+    private final Integer maxProperties;
+    private final Map<String, Check> propertyChecks = new HashMap<>();
+    private final Map<Pattern, Check> patternChecks = new LinkedHashMap<>();
+    private final boolean permitsAdditionalProperties;
+    private final Check additionalPropertiesCheck;
+    private final Map<String, Set<String>> propertyDependencies;
+    private final Map<String, Check> schemaDependencies = new HashMap<>();
+    private final Check propertyNameCheck;
+
+    ObjectCheck(ObjectSchema schema, Compiler compiler) {
+      this.schema = schema;
+      this.requiredProperties = schema.getRequiredProperties();
+      this.minProperties = schema.getMinProperties();
+      this.maxProperties = schema.getMaxProperties();
+      for (Map.Entry<String, Schema> entry : schema.getPropertySchemas().entrySet()) {
+        propertyChecks.put(entry.getKey(), compiler.compile(entry.getValue()));
+      }
+      for (Map.Entry<Pattern, Schema> entry : schema.getPatternProperties().entrySet()) {
+        patternChecks.put(entry.getKey(), compiler.compile(entry.getValue()));
+      }
+      this.permitsAdditionalProperties = schema.permitsAdditionalProperties();
+      this.additionalPropertiesCheck =
+          compiler.compileOptional(schema.getSchemaOfAdditionalProperties());
+      this.propertyDependencies = schema.getPropertyDependencies();
+      for (Map.Entry<String, Schema> entry : schema.getSchemaDependencies().entrySet()) {
+        schemaDependencies.put(entry.getKey(), compiler.compile(entry.getValue()));
+      }
+      this.propertyNameCheck = compiler.compileOptional(schema.getPropertyNameSchema());
+    }
+
+    @Override
+    public void validate(JsonNode node) {
+      if (!node.isObject()) {
+        if (schema.requiresObject()) {
+          failType(schema, "JSONObject", node);
+        }
+        return;
+      }
+      int size = node.size();
+      if (minProperties != null && size < minProperties) {
+        fail(schema, "minimum size: [" + minProperties + "], found: [" + size + "]",
+            "minProperties");
+      }
+      if (maxProperties != null && size > maxProperties) {
+        fail(schema, "maximum size: [" + maxProperties + "], found: [" + size + "]",
+            "maxProperties");
+      }
+      for (String required : requiredProperties) {
+        if (!node.has(required)) {
+          fail(schema, "required key [" + required + "] not found", "required");
+        }
+      }
+      Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+      while (fields.hasNext()) {
+        Map.Entry<String, JsonNode> field = fields.next();
+        String name = field.getKey();
+        try {
+          validateField(node, name, field.getValue());
+        } catch (ValidationException e) {
+          throw e.prepend(name);
+        }
+      }
+    }
+
+    private void validateField(JsonNode node, String name, JsonNode value) {
+      if (propertyNameCheck != null) {
+        propertyNameCheck.validate(TextNode.valueOf(name));
+      }
+      boolean matched = false;
+      Check propertyCheck = propertyChecks.get(name);
+      if (propertyCheck != null) {
+        matched = true;
+        propertyCheck.validate(value);
+      }
+      for (Map.Entry<Pattern, Check> entry : patternChecks.entrySet()) {
+        if (entry.getKey().matcher(name).find()) {
+          matched = true;
+          entry.getValue().validate(value);
+        }
+      }
+      if (!matched) {
+        if (!permitsAdditionalProperties) {
+          fail(schema, "extraneous key [" + name + "] is not permitted", "additionalProperties");
+        }
+        if (additionalPropertiesCheck != null) {
+          additionalPropertiesCheck.validate(value);
+        }
+      }
+      Set<String> dependencies = propertyDependencies.get(name);
+      if (dependencies != null) {
+        for (String dependency : dependencies) {
+          if (!node.has(dependency)) {
+            fail(schema, "property [" + dependency + "] is required", "dependencies");
+          }
+        }
+      }
+      Check schemaDependency = schemaDependencies.get(name);
+      if (schemaDependency != null) {
+        schemaDependency.validate(node);
+      }
+    }
+  }
+
+  static class ArrayCheck implements Check {
+    private final ArraySchema schema;
+    private final Integer minItems;
+    private final Integer maxItems;
+    private final boolean uniqueItems;
+    private final Check allItemCheck;
+    private final List<Check> itemChecks;
+    private final boolean permitsAdditionalItems;
+    private final Check additionalItemsCheck;
+    private final Check containsCheck;
+
+    ArrayCheck(ArraySchema schema, Compiler compiler) {
+      this.schema = schema;
+      this.minItems = schema.getMinItems();
+      this.maxItems = schema.getMaxItems();
+      this.uniqueItems = schema.needsUniqueItems();
+      this.allItemCheck = compiler.compileOptional(schema.getAllItemSchema());
+      List<Check> checks = null;
+      if (schema.getItemSchemas() != null) {
+        checks = new ArrayList<>();
+        for (Schema itemSchema : schema.getItemSchemas()) {
+          checks.add(compiler.compile(itemSchema));
+        }
+      }
+      this.itemChecks = checks;
+      this.permitsAdditionalItems = schema.permitsAdditionalItems();
+      this.additionalItemsCheck = compiler.compileOptional(schema.getSchemaOfAdditionalItems());
+      this.containsCheck = compiler.compileOptional(schema.getContainedItemSchema());
+    }
+
+    @Override
+    public void validate(JsonNode node) {
+      if (!node.isArray()) {
+        if (schema.requiresArray()) {
+          failType(schema, "JSONArray", node);
+        }
+        return;
+      }
+      int size = node.size();
+      if (minItems != null && size < minItems) {
+        fail(schema, "expected minimum item count: " + minItems + ", found: " + size,
+            "minItems");
+      }
+      if (maxItems != null && size > maxItems) {
+        fail(schema, "expected maximum item count: " + maxItems + ", found: " + size,
+            "maxItems");
+      }
+      if (uniqueItems) {
+        validateUniqueItems(node);
+      }
+      for (int i = 0; i < size; i++) {
+        try {
+          validateItem(i, node.get(i));
+        } catch (ValidationException e) {
+          throw e.prepend(String.valueOf(i));
+        }
+      }
+      if (containsCheck != null) {
+        for (JsonNode item : node) {
+          if (matches(containsCheck, item)) {
+            return;
+          }
+        }
+        fail(schema, "expected at least one array item to match 'contains' schema", "contains");
+      }
+    }
+
+    private void validateItem(int index, JsonNode item) {
+      if (allItemCheck != null) {
+        allItemCheck.validate(item);
+      }
+      if (itemChecks != null) {
+        if (index < itemChecks.size()) {
+          itemChecks.get(index).validate(item);
+        } else if (!permitsAdditionalItems) {
+          fail(schema, "expected: [" + itemChecks.size() + "] array items, found: ["
+              + (index + 1) + "]", "items");
+        } else if (additionalItemsCheck != null) {
+          additionalItemsCheck.validate(item);
+        }
+      }
+    }
+
+    private void validateUniqueItems(JsonNode node) {
+      int size = node.size();
+      for (int i = 0; i < size; i++) {
+        for (int j = i + 1; j < size; j++) {
+          if (deepEquals(node.get(i), node.get(j))) {
+            fail(schema, "array items are not unique", "uniqueItems");
+          }
+        }
+      }
+    }
+  }
+
+  static class CombinedCheck implements Check {
+    private final CombinedSchema schema;
+    private final List<Check> subchecks = new ArrayList<>();
+
+    CombinedCheck(CombinedSchema schema, Compiler compiler) {
+      this.schema = schema;
+      for (Schema subschema : schema.getSubschemas()) {
+        subchecks.add(compiler.compile(subschema));
+      }
+    }
+
+    @Override
+    public void validate(JsonNode node) {
+      CombinedSchema.ValidationCriterion criterion = schema.getCriterion();
+      if (criterion == CombinedSchema.ALL_CRITERION) {
+        for (Check subcheck : subchecks) {
+          subcheck.validate(node);
+        }
+        return;
+      }
+      int matching = 0;
+      for (Check subcheck : subchecks) {
+        if (matches(subcheck, node)) {
+          matching++;
+          if (criterion == CombinedSchema.ANY_CRITERION) {
+            return;
+          }
+        }
+      }
+      if (criterion == CombinedSchema.ANY_CRITERION) {
+        fail(schema, "no subschema matched out of the total " + subchecks.size()
+            + " subschemas", "anyOf");
+      } else if (matching != 1) {
+        fail(schema, matching + " subschemas matched instead of one", "oneOf");
+      }
+    }
+  }
+
+  static class ConditionalCheck implements Check {
+    private final Check ifCheck;
+    private final Check thenCheck;
+    private final Check elseCheck;
+
+    ConditionalCheck(ConditionalSchema schema, Compiler compiler) {
+      this.ifCheck = compiler.compileOptional(schema.getIfSchema());
+      this.thenCheck = compiler.compileOptional(schema.getThenSchema());
+      this.elseCheck = compiler.compileOptional(schema.getElseSchema());
+    }
+
+    @Override
+    public void validate(JsonNode node) {
+      if (ifCheck == null) {
+        return;
+      }
+      if (matches(ifCheck, node)) {
+        if (thenCheck != null) {
+          thenCheck.validate(node);
+        }
+      } else if (elseCheck != null) {
+        elseCheck.validate(node);
+      }
+    }
+  }
+
+  private static boolean matches(Check check, JsonNode node) {
+    try {
+      check.validate(node);
+      return true;
+    } catch (ValidationException e) {
+      return false;
+    }
+  }
+
+  private static void checkType(Schema schema, boolean matches, String expected, JsonNode node) {
+    if (!matches) {
+      failType(schema, expected, node);
+    }
+  }
+
+  private static void failType(Schema schema, String expected, JsonNode node) {
+    fail(schema, "expected type: " + expected + ", found: " + node.getNodeType(), "type");
+  }
+
+  private static void fail(Schema schema, String message, String keyword) {
+    throw new ValidationException(schema, message, keyword, schema.getSchemaLocation());
+  }
+
+  private static JsonNode toJsonNode(Object value) {
+    if (value == null || JSONObject.NULL.equals(value)) {
+      return NullNode.getInstance();
+    }
+    return objectMapper.valueToTree(value);
+  }
+
+  /**
+   * Compares two nodes for JSON equality, treating numbers with the same value as equal
+   * regardless of their representation.
+   */
+  static boolean deepEquals(JsonNode first, JsonNode second) {
+    if (first.isNumber() && second.isNumber()) {
+      return first.decimalValue().compareTo(second.decimalValue()) == 0;
+    }
+    if (first.getNodeType() != second.getNodeType()) {
+      return false;
+    }
+    if (first.isArray()) {
+      if (first.size() != second.size()) {
+        return false;
+      }
+      for (int i = 0; i < first.size(); i++) {
+        if (!deepEquals(first.get(i), second.get(i))) {
+          return false;
+        }
+      }
+      return true;
+    }
+    if (first.isObject()) {
+      if (first.size() != second.size()) {
+        return false;
+      }
+      Iterator<Map.Entry<String, JsonNode>> fields = first.fields();
+      while (fields.hasNext()) {
+        Map.Entry<String, JsonNode> field = fields.next();
+        JsonNode other = second.get(field.getKey());
+        if (other == null || !deepEquals(field.getValue(), other)) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return first.equals(second);
+  }
+}
@@ -37,10 +37,15 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 import java.util.ArrayList;
 
@@ -49,6 +54,7 @@ import io.confluent.kafka.schemaregistry.client.rest.entities.SchemaReference;
 import io.confluent.kafka.schemaregistry.json.diff.Difference;
 import io.confluent.kafka.schemaregistry.json.diff.SchemaDiff;
 import io.confluent.kafka.schemaregistry.json.jackson.Jackson;
+import io.confluent.kafka.schemaregistry.utils.BoundedCache;
 
 public class JsonSchema implements ParsedSchema {
 
@@ -64,6 +70,8 @@ public class JsonSchema implements ParsedSchema {
 
   private transient Schema schemaObj;
 
+  private transient CompiledSchema compiledSchema;
+
   private final Integer version;
 
   private final List<SchemaReference> references;
@@ -72,6 +80,8 @@ public class JsonSchema implements ParsedSchema {
 
   private transient String canonicalString;
 
+  private transient JsonSchema normalizedSchema;
+
   private transient int hashCode = NO_HASHCODE;
 
   private static final int NO_HASHCODE = Integer.MIN_VALUE;
@@ -79,6 +89,13 @@ public class JsonSchema implements ParsedSchema {
   private static final ObjectMapper objectMapper = Jackson.newObjectMapper();
   private static final ObjectMapper objectMapperWithOrderedProps = Jackson.newObjectMapper(true);
 
+  private static final int DEFAULT_CACHE_CAPACITY = 1000;
+
+  // Compiled schemas shared by all instances with the same content, such as copies and
+  // the per-subject instances held by the schema registry client
+  private static final Map<Fingerprint, CompiledSchema> compiledSchemaCache =
+      BoundedCache.create(DEFAULT_CACHE_CAPACITY);
+
   public JsonSchema(JsonNode jsonNode) {
     this(jsonNode, Collections.emptyList(), Collections.emptyMap(), null);
   }
@@ -137,7 +154,8 @@ public class JsonSchema implements ParsedSchema {
       Integer version,
       List<SchemaReference> references,
       Map<String, String> resolvedReferences,
-      String canonicalString
+      String canonicalString,
+      CompiledSchema compiledSchema
   ) {
     this.jsonNode = jsonNode;
     this.schemaObj = schemaObj;
@@ -145,6 +163,7 @@ public class JsonSchema implements ParsedSchema {
     this.references = references;
     this.resolvedReferences = resolvedReferences;
     this.canonicalString = canonicalString;
+    this.compiledSchema = compiledSchema;
   }
 
   public JsonSchema copy() {
@@ -154,7 +173,8 @@ public class JsonSchema implements ParsedSchema {
         this.version,
         this.references,
         this.resolvedReferences,
-        this.canonicalString
+        this.canonicalString,
+        this.compiledSchema
     );
   }
 
@@ -165,7 +185,8 @@ public class JsonSchema implements ParsedSchema {
         version,
         this.references,
         this.resolvedReferences,
-        this.canonicalString
+        this.canonicalString,
+        this.compiledSchema
     );
   }
 
@@ -179,39 +200,65 @@ public class JsonSchema implements ParsedSchema {
       return null;
     }
     if (schemaObj == null) {
-      try {
-        // Extract the $schema to use for determining the id keyword
-        SpecificationVersion spec = SpecificationVersion.DRAFT_7;
-        if (jsonNode.has(SCHEMA_KEYWORD)) {
-          String schema = jsonNode.get(SCHEMA_KEYWORD).asText();
-          if (schema != null) {
-            spec = SpecificationVersion.lookupByMetaSchemaUrl(schema)
-                    .orElse(SpecificationVersion.DRAFT_7);
-          }
-        }
-        // Extract the $id to use for resolving relative $ref URIs
-        URI idUri = null;
-        if (jsonNode.has(spec.idKeyword())) {
-          String id = jsonNode.get(spec.idKeyword()).asText();
-          if (id != null) {
-            idUri = ReferenceResolver.resolve((URI) null, id);
-          }
+      CompiledSchema compiled = compiledSchemaCache.computeIfAbsent(
+          fingerprint(), k -> new CompiledSchema(loadSchema()));
+      compiledSchema = compiled;
+      schemaObj = compiled.schemaObj;
+    }
+    return schemaObj;
+  }
+
+  private Schema loadSchema() {
+    try {
+      // Extract the $schema to use for determining the id keyword
+      SpecificationVersion spec = SpecificationVersion.DRAFT_7;
+      if (jsonNode.has(SCHEMA_KEYWORD)) {
+        String schema = jsonNode.get(SCHEMA_KEYWORD).asText();
+        if (schema != null) {
+          spec = SpecificationVersion.lookupByMetaSchemaUrl(schema)
+                  .orElse(SpecificationVersion.DRAFT_7);
         }
-        SchemaLoader.SchemaLoaderBuilder builder = SchemaLoader.builder()
-            .useDefaults(true).draftV7Support();
-        for (Map.Entry<String, String> dep : resolvedReferences.entrySet()) {
-          URI child = ReferenceResolver.resolve(idUri, dep.getKey());
-          builder.registerSchemaByURI(child, new JSONObject(dep.getValue()));
+      }
+      // Extract the $id to use for resolving relative $ref URIs
+      URI idUri = null;
+      if (jsonNode.has(spec.idKeyword())) {
+        String id = jsonNode.get(spec.idKeyword()).asText();
+        if (id != null) {
+          idUri = ReferenceResolver.resolve((URI) null, id);
         }
-        JSONObject jsonObject = objectMapper.treeToValue(jsonNode, JSONObject.class);
-        builder.schemaJson(jsonObject);
-        SchemaLoader loader = builder.build();
-        schemaObj = loader.load().build();
-      } catch (IOException e) {
-        throw new IllegalArgumentException("Invalid JSON", e);
       }
+      SchemaLoader.SchemaLoaderBuilder builder = SchemaLoader.builder()
+          .useDefaults(true).draftV7Support();
+      for (Map.Entry<String, String> dep : resolvedReferences.entrySet()) {
+        URI child = ReferenceResolver.resolve(idUri, dep.getKey());
+        builder.registerSchemaByURI(child, new JSONObject(dep.getValue()));
+      }
+      JSONObject jsonObject = objectMapper.treeToValue(jsonNode, JSONObject.class);
+      builder.schemaJson(jsonObject);
+      SchemaLoader loader = builder.build();
+      return loader.load().build();
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Invalid JSON", e);
+    }
+  }
+
+  /**
+   * Computes a fingerprint of the canonical schema and its resolved references.
+   */
+  private Fingerprint fingerprint() {
+    try {
+      MessageDigest md = MessageDigest.getInstance("MD5");
+      md.update(canonicalString().getBytes(StandardCharsets.UTF_8));
+      for (Map.Entry<String, String> dep : new TreeMap<>(resolvedReferences).entrySet()) {
+        md.update((byte) 0);
+        md.update(dep.getKey().getBytes(StandardCharsets.UTF_8));
+        md.update((byte) 0);
+        md.update(dep.getValue().getBytes(StandardCharsets.UTF_8));
+      }
+      return new Fingerprint(md.digest());
+    } catch (NoSuchAlgorithmException e) {
+      throw new RuntimeException(e);
     }
-    return schemaObj;
   }
 
   @Override
@@ -262,14 +309,18 @@ public class JsonSchema implements ParsedSchema {
     if (canonical == null) {
       return this;
     }
+    if (normalizedSchema != null) {
+      return normalizedSchema;
+    }
     try {
       JsonNode jsonNode = objectMapperWithOrderedProps.readTree(canonical);
-      return new JsonSchema(
+      normalizedSchema = new JsonSchema(
           jsonNode,
           this.references.stream().sorted().distinct().collect(Collectors.toList()),
           this.resolvedReferences,
           this.version
       );
+      return normalizedSchema;
     } catch (IOException e) {
       throw new IllegalArgumentException("Invalid JSON", e);
     }
@@ -282,6 +333,15 @@ public class JsonSchema implements ParsedSchema {
   }
 
   public void validate(Object value) throws JsonProcessingException, ValidationException {
+    JsonNodeValidator validator = validator();
+    if (validator != null) {
+      // Validate the Jackson tree directly, without converting it to org.json objects
+      JsonNode jsonNode = value instanceof JsonNode
+          ? (JsonNode) value
+          : objectMapper.valueToTree(value);
+      validator.validate(jsonNode);
+      return;
+    }
     Object primitiveValue = NONE_MARKER;
     if (isPrimitive(value)) {
       primitiveValue = value;
@@ -313,6 +373,21 @@ public class JsonSchema implements ParsedSchema {
     }
   }
 
+  /**
+   * Returns a validator that checks Jackson trees directly against this schema, or null if
+   * the schema uses constructs that are only supported by the everit validator.
+   */
+  private JsonNodeValidator validator() {
+    Schema schema = rawSchema();
+    CompiledSchema compiled = compiledSchema;
+    if (compiled == null) {
+      // The raw schema was passed in directly rather than loaded through the cache
+      compiled = new CompiledSchema(schema);
+      compiledSchema = compiled;
+    }
+    return compiled.validator();
+  }
+
   private static boolean isPrimitive(Object value) {
     return value == null
         || value instanceof Boolean
@@ -379,4 +454,49 @@ public class JsonSchema implements ParsedSchema {
   public String toString() {
     return canonicalString();
   }
+
+  /**
+   * An everit schema together with its lazily compiled {@link JsonNodeValidator}.
+   */
+  static class CompiledSchema {
+    private final Schema schemaObj;
+    private volatile JsonNodeValidator validator;
+    private volatile boolean validatorCompiled;
+
+    CompiledSchema(Schema schemaObj) {
+      this.schemaObj = schemaObj;
+    }
+
+    JsonNodeValidator validator() {
+      if (!validatorCompiled) {
+        validator = JsonNodeValidator.compile(schemaObj);
+        validatorCompiled = true;
+      }
+      return validator;
+    }
+  }
+
+  static class Fingerprint {
+    private final byte[] digest;
+
+    Fingerprint(byte[] digest) {
+      this.digest = digest;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      return Arrays.equals(digest, ((Fingerprint) o).digest);
+    }
+
+    @Override
+    public int hashCode() {
+      return Arrays.hashCode(digest);
+    }
+  }
 }
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2022 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.kafka.schemaregistry.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.confluent.kafka.schemaregistry.json.jackson.Jackson;
+import org.everit.json.schema.ValidationException;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+public class JsonNodeValidatorTest {
+
+  private static final ObjectMapper objectMapper = Jackson.newObjectMapper();
+
+  private static final String SCHEMA = "{\n"
+      + "  \"type\": \"object\",\n"
+      + "  \"properties\": {\n"
+      + "    \"name\": {\"type\": \"string\", \"minLength\": 2, \"pattern\": \"^[a-z]+$\"},\n"
+      + "    \"age\": {\"type\": \"integer\", \"minimum\": 0, \"exclusiveMaximum\": 150},\n"
+      + "    \"score\": {\"type\": \"number\", \"multipleOf\": 0.5},\n"
+      + "    \"color\": {\"enum\": [\"red\", \"green\", null, 1]},\n"
+      + "    \"kind\": {\"const\": \"person\"},\n"
+      + "    \"tags\": {\"type\": \"array\", \"items\": {\"type\": \"string\"},"
+      + " \"uniqueItems\": true, \"maxItems\": 3},\n"
+      + "    \"pair\": {\"type\": \"array\", \"items\": [{\"type\": \"string\"},"
+      + " {\"type\": \"number\"}], \"additionalItems\": false},\n"
+      + "    \"choice\": {\"oneOf\": [{\"type\": \"string\"}, {\"type\": \"integer\"}]},\n"
+      + "    \"nullable\": {\"type\": [\"null\", \"boolean\"]},\n"
+      + "    \"nested\": {\"$ref\": \"#/definitions/node\"},\n"
+      + "    \"cond\": {\"if\": {\"type\": \"string\"}, \"then\": {\"maxLength\": 3},"
+      + " \"else\": {\"type\": \"number\"}},\n"
+      + "    \"notNull\": {\"not\": {\"type\": \"null\"}}\n"
+      + "  },\n"
+      + "  \"patternProperties\": {\"^x-\": {\"type\": \"string\"}},\n"
+      + "  \"required\": [\"name\"],\n"
+      + "  \"dependencies\": {\"age\": [\"score\"]},\n"
+      + "  \"additionalProperties\": false,\n"
+      + "  \"definitions\": {\n"
+      + "    \"node\": {\"type\": \"object\", \"properties\": {\n"
+      + "      \"value\": {\"type\": \"integer\"},\n"
+      + "      \"next\": {\"$ref\": \"#/definitions/node\"}\n"
+      + "    }}\n"
+      + "  }\n"
+      + "}";
+
+  private static final String[] VALUES = {
+      "{\"name\": \"bob\"}",
+      "{\"name\": \"b\"}",
+      "{\"name\": \"Bob\"}",
+      "{}",
+      "{\"name\": \"bob\", \"age\": 10, \"score\": 1.5}",
+      "{\"name\": \"bob\", \"age\": 10}",
+      "{\"name\": \"bob\", \"age\": -1, \"score\": 1}",
+      "{\"name\": \"bob\", \"age\": 150, \"score\": 1}",
+      "{\"name\": \"bob\", \"age\": 1.5, \"score\": 1}",
+      "{\"name\": \"bob\", \"age\": 3, \"score\": 1.25}",
+      "{\"name\": \"bob\", \"color\": \"red\"}",
+      "{\"name\": \"bob\", \"color\": null}",
+      "{\"name\": \"bob\", \"color\": \"blue\"}",
+      "{\"name\": \"bob\", \"kind\": \"person\"}",
+      "{\"name\": \"bob\", \"kind\": \"animal\"}",
+      "{\"name\": \"bob\", \"tags\": [\"a\", \"b\"]}",
+      "{\"name\": \"bob\", \"tags\": [\"a\", \"a\"]}",
+      "{\"name\": \"bob\", \"tags\": [\"a\", \"b\", \"c\", \"d\"]}",
+      "{\"name\": \"bob\", \"tags\": [\"a\", 1]}",
+      "{\"name\": \"bob\", \"pair\": [\"a\", 1]}",
+      "{\"name\": \"bob\", \"pair\": [\"a\", 1, 2]}",
+      "{\"name\": \"bob\", \"pair\": [1, 1]}",
+      "{\"name\": \"bob\", \"choice\": \"a\"}",
+      "{\"name\": \"bob\", \"choice\": 1}",
+      "{\"name\": \"bob\", \"choice\": true}",
+      "{\"name\": \"bob\", \"nullable\": null}",
+      "{\"name\": \"bob\", \"nullable\": false}",
+      "{\"name\": \"bob\", \"nullable\": \"x\"}",
+      "{\"name\": \"bob\", \"nested\": {\"value\": 1, \"next\": {\"value\": 2}}}",
+      "{\"name\": \"bob\", \"nested\": {\"value\": 1, \"next\": {\"value\": \"two\"}}}",
+      "{\"name\": \"bob\", \"cond\": \"abc\"}",
+      "{\"name\": \"bob\", \"cond\": \"abcd\"}",
+      "{\"name\": \"bob\", \"cond\": 4}",
+      "{\"name\": \"bob\", \"cond\": true}",
+      "{\"name\": \"bob\", \"notNull\": 1}",
+      "{\"name\": \"bob\", \"notNull\": null}",
+      "{\"name\": \"bob\", \"x-extra\": \"a\"}",
+      "{\"name\": \"bob\", \"x-extra\": 1}",
+      "{\"name\": \"bob\", \"extra\": \"a\"}",
+      "[\"name\"]",
+      "\"name\""
+  };
+
+  @Test
+  public void testMatchesEveritValidation() throws Exception {
+    JsonSchema schema = new JsonSchema(SCHEMA);
+    JsonNodeValidator validator = JsonNodeValidator.compile(schema.rawSchema());
+    assertNotNull(validator);
+    for (String value : VALUES) {
+      JsonNode jsonNode = objectMapper.readTree(value);
+      assertEquals(value, isValidWithEverit(schema, jsonNode), isValid(validator, jsonNode));
+    }
+  }
+
+  @Test
+  public void testPrimitiveSchema() throws Exception {
+    JsonSchema schema = new JsonSchema("{\"type\": \"string\", \"maxLength\": 3}");
+    JsonNodeValidator validator = JsonNodeValidator.compile(schema.rawSchema());
+    assertNotNull(validator);
+    assertEquals(true, isValid(validator, objectMapper.readTree("\"abc\"")));
+    assertEquals(false, isValid(validator, objectMapper.readTree("\"abcd\"")));
+    assertEquals(false, isValid(validator, objectMapper.readTree("1")));
+    assertEquals(false, isValid(validator, null));
+  }
+
+  private static boolean isValid(JsonNodeValidator validator, JsonNode jsonNode) {
+    try {
+      validator.validate(jsonNode);
+      return true;
+    } catch (ValidationException e) {
+      return false;
+    }
+  }
+
+  private static boolean isValidWithEverit(JsonSchema schema, JsonNode jsonNode)
+      throws Exception {
+    Object value;
+    if (jsonNode.isObject()) {
+      value = objectMapper.treeToValue(jsonNode, JSONObject.class);
+    } else if (jsonNode.isArray()) {
+      value = objectMapper.treeToValue(jsonNode, JSONArray.class);
+    } else {
+      value = jsonNode.textValue();
+    }
+    try {
+      schema.rawSchema().validate(value);
+      return true;
+    } catch (ValidationException e) {
+      return false;
+    }
+  }
+}
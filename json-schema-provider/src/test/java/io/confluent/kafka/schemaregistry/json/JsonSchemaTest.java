@@ -44,6 +44,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -362,6 +363,15 @@ public class JsonSchemaTest {
     assertFalse(parsedSchema.isPresent());
   }
 
+  @Test
+  public void testCompiledSchemaSharedAcrossInstances() {
+    JsonSchema schema1 = new JsonSchema(recordSchemaString);
+    JsonSchema schema2 = new JsonSchema(recordSchemaString, Collections.emptyList(),
+        Collections.emptyMap(), 2);
+    assertSame(schema1.rawSchema(), schema2.rawSchema());
+    assertSame(schema1.rawSchema(), schema1.copy(3).rawSchema());
+  }
+
   @Test
   public void testSchemasDifferentFieldOrder() {
     String schema1 = "{\n"
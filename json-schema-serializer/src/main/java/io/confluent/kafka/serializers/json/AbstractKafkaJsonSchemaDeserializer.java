@@ -16,11 +16,13 @@
 
 package io.confluent.kafka.serializers.json;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.Properties;
+import org.apache.kafka.common.KafkaException;
 import org.apache.kafka.common.config.ConfigException;
 import org.apache.kafka.common.errors.InvalidConfigurationException;
 import org.apache.kafka.common.errors.SerializationException;
@@ -115,7 +117,9 @@ public abstract class AbstractKafkaJsonSchemaDeserializer<T> extends AbstractKaf
       id = buffer.getInt();
       String subject = isKey == null || strategyUsesSchema(isKey)
           ? getContextName(topic) : subjectName(topic, isKey, null);
+      long lookupStart = startMetricsTimer();
       JsonSchema schema = ((JsonSchema) schemaRegistry.getSchemaBySubjectAndId(subject, id));
+      recordSchemaLookupMetrics(lookupStart);
       if (includeSchemaAndVersion) {
         subject = subjectName(topic, isKey, schema);
         schema = schemaForDeserialize(id, schema, subject, isKey);
@@ -233,4 +237,85 @@ public abstract class AbstractKafkaJsonSchemaDeserializer<T> extends AbstractKaf
   ) throws SerializationException {
     return (JsonSchemaAndValue) deserialize(true, topic, isKey, payload);
   }
+
+  /**
+   * Like {@link #deserializeWithSchemaAndVersion(String, boolean, byte[])}, except that the
+   * encoded document is handed to the given reader as a token stream, rather than being read
+   * into a JSON tree or object. If validation is enabled, the document is read into a tree once,
+   * validated, and the reader is handed a token stream over that tree. Since the schema version
+   * is looked up before the document is read, this must not be used with deprecated subject name
+   * strategies, which derive the subject from the deserialized object.
+   *
+   * @return the result of the reader, or null if the payload is null
+   */
+  protected <R> R deserializeWithSchemaAndVersion(
+      String topic, boolean isKey, byte[] payload, PayloadReader<R> reader
+  ) throws SerializationException, InvalidConfigurationException {
+    if (schemaRegistry == null) {
+      throw new InvalidConfigurationException(
+          "SchemaRegistryClient not found. You need to configure the deserializer "
+              + "or use deserializer constructor with SchemaRegistryClient.");
+    }
+    if (payload == null) {
+      return null;
+    }
+
+    int id = -1;
+    try {
+      ByteBuffer buffer = getByteBuffer(payload);
+      id = buffer.getInt();
+      String subject = strategyUsesSchema(isKey)
+          ? getContextName(topic) : subjectName(topic, isKey, null);
+      long lookupStart = startMetricsTimer();
+      JsonSchema schema = ((JsonSchema) schemaRegistry.getSchemaBySubjectAndId(subject, id));
+      recordSchemaLookupMetrics(lookupStart);
+      subject = subjectName(topic, isKey, schema);
+      schema = schemaForDeserialize(id, schema, subject, isKey);
+      // See deserialize for why the schema is annotated with the version
+      Integer version = schemaVersion(topic, isKey, id, subject, schema, null);
+
+      int length = buffer.limit() - 1 - idSize;
+      int start = buffer.position() + buffer.arrayOffset();
+      if (validate) {
+        JsonNode jsonNode = null;
+        try {
+          jsonNode = objectMapper.readValue(buffer.array(), start, length, JsonNode.class);
+          schema.validate(jsonNode);
+        } catch (JsonProcessingException | ValidationException e) {
+          throw new SerializationException("JSON "
+              + jsonNode
+              + " does not match schema "
+              + schema.canonicalString(), e);
+        }
+        try (JsonParser parser = jsonNode.traverse(objectMapper)) {
+          return reader.read(schema.copy(version), parser);
+        }
+      }
+      try (JsonParser parser = objectMapper.getFactory()
+          .createParser(buffer.array(), start, length)) {
+        return reader.read(schema.copy(version), parser);
+      }
+    } catch (KafkaException e) {
+      throw e;
+    } catch (IOException | RuntimeException e) {
+      throw new SerializationException("Error deserializing JSON message for id " + id, e);
+    } catch (RestClientException e) {
+      throw toKafkaException(e, "Error retrieving JSON schema for id " + id);
+    }
+  }
+
+  /**
+   * Reads an encoded document, in place of the {@link ObjectMapper}.
+   */
+  public interface PayloadReader<R> {
+
+    /**
+     * Reads the encoded document.
+     *
+     * @param schema the schema the document was written with, annotated with its version under
+     *     the subject
+     * @param parser the parser over the document, positioned before its first token
+     */
+    R read(JsonSchema schema, JsonParser parser) throws IOException;
+  }
 }
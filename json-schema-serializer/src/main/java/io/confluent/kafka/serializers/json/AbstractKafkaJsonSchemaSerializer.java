@@ -27,17 +27,24 @@ import org.everit.json.schema.ValidationException;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
 import io.confluent.kafka.schemaregistry.json.JsonSchema;
 import io.confluent.kafka.schemaregistry.json.JsonSchemaProvider;
+import io.confluent.kafka.schemaregistry.json.JsonSchemaUtils;
 import io.confluent.kafka.schemaregistry.json.jackson.Jackson;
 import io.confluent.kafka.serializers.AbstractKafkaSchemaSerDe;
+import io.confluent.kafka.serializers.BatchOutputStream;
 
 public abstract class AbstractKafkaJsonSchemaSerializer<T> extends AbstractKafkaSchemaSerDe {
 
+  private static final int BATCH_BUFFER_SIZE = 4096;
+
   protected boolean normalizeSchema;
   protected boolean autoRegisterSchema;
   protected int useSchemaId = -1;
@@ -89,11 +96,7 @@ public abstract class AbstractKafkaJsonSchemaSerializer<T> extends AbstractKafka
       T object,
       JsonSchema schema
   ) throws SerializationException, InvalidConfigurationException {
-    if (schemaRegistry == null) {
-      throw new InvalidConfigurationException(
-          "SchemaRegistryClient not found. You need to configure the serializer "
-              + "or use serializer constructor with SchemaRegistryClient.");
-    }
+    checkConfigured();
     // null needs to treated specially since the client most likely just wants to send
     // an individual null value instead of making the subject a null type. Also, null in
     // Kafka has a special meaning for deletion in a topic with the compact retention policy.
@@ -102,9 +105,106 @@ public abstract class AbstractKafkaJsonSchemaSerializer<T> extends AbstractKafka
     if (object == null) {
       return null;
     }
+    ResolvedSchema resolved = resolveSchema(subject, schema);
+    try {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      out.write(MAGIC_BYTE);
+      out.write(ByteBuffer.allocate(idSize).putInt(resolved.id).array());
+      writeValue(out, object, resolved.schema);
+      byte[] bytes = out.toByteArray();
+      out.close();
+      return bytes;
+    } catch (IOException | RuntimeException e) {
+      throw new SerializationException("Error serializing JSON message", e);
+    }
+  }
+
+  /**
+   * Serializes a batch of objects for one topic into a single shared buffer.
+   *
+   * <p>The schema, subject and schema ID are resolved once per distinct object class in the
+   * batch, or once per distinct schema for envelopes, rather than once per object, unless a
+   * deprecated subject name strategy is configured, since those derive the subject from the
+   * object itself.
+   *
+   * @return one slice of the shared buffer per object, in order, or null for a null object
+   */
+  protected List<ByteBuffer> serializeBatchImpl(
+      String topic, boolean isKey, List<? extends T> objects)
+      throws SerializationException, InvalidConfigurationException {
+    checkConfigured();
+    boolean subjectPerObject = isDeprecatedSubjectNameStrategy(isKey);
+    Map<Object, ResolvedSchema> resolvedSchemas = new HashMap<>();
+    BatchOutputStream out = new BatchOutputStream(BATCH_BUFFER_SIZE);
+    for (T object : objects) {
+      if (object == null) {
+        out.nullRecord();
+        continue;
+      }
+      long start = startMetricsTimer();
+      Object value = JsonSchemaUtils.getValue(object);
+      JsonSchema schema = null;
+      Object key = object.getClass();
+      if (JsonSchemaUtils.isEnvelope(object)) {
+        schema = getSchema(object);
+        key = schema;
+      }
+      ResolvedSchema resolved = subjectPerObject ? null : resolvedSchemas.get(key);
+      if (resolved == null) {
+        if (schema == null) {
+          schema = schemaFor(object);
+        }
+        resolved = resolveSchema(getSubjectName(topic, isKey, value, schema), schema);
+        if (!subjectPerObject) {
+          resolvedSchemas.put(key, resolved);
+        }
+      }
+      try {
+        int offset = out.size();
+        out.startRecord(resolved.id);
+        writeValue(out, value, resolved.schema);
+        out.endRecord();
+        recordSerializeMetrics(topic, isKey, start, out.size() - offset);
+      } catch (IOException | RuntimeException e) {
+        throw new SerializationException("Error serializing JSON message", e);
+      }
+    }
+    return out.records();
+  }
+
+  /**
+   * Returns the schema of an object for the batch path. Serializers that cache schemas by class
+   * override this, so that batches reuse the schemas of single records.
+   */
+  protected JsonSchema schemaFor(T object) {
+    return getSchema(object);
+  }
+
+  protected JsonSchema getSchema(Object object) {
+    try {
+      return JsonSchemaUtils.getSchema(object, specVersion, oneofForNullables,
+          failUnknownProperties, objectMapper, schemaRegistry);
+    } catch (IOException e) {
+      throw new SerializationException(e);
+    }
+  }
+
+  private void checkConfigured() {
+    if (schemaRegistry == null) {
+      throw new InvalidConfigurationException(
+          "SchemaRegistryClient not found. You need to configure the serializer "
+              + "or use serializer constructor with SchemaRegistryClient.");
+    }
+  }
+
+  /**
+   * Looks up or registers the schema under the given subject, depending on the configuration.
+   */
+  private ResolvedSchema resolveSchema(String subject, JsonSchema schema) {
     String restClientErrorMsg = "";
     try {
       int id;
+      long lookupStart = startMetricsTimer();
       if (autoRegisterSchema) {
         restClientErrorMsg = "Error registering JSON schema: ";
         id = schemaRegistry.register(subject, schema, normalizeSchema);
@@ -121,28 +221,43 @@ public abstract class AbstractKafkaJsonSchemaSerializer<T> extends AbstractKafka
         restClientErrorMsg = "Error retrieving JSON schema: ";
         id = schemaRegistry.getId(subject, schema, normalizeSchema);
       }
-      if (validate) {
-        try {
-          JsonNode jsonNode = objectMapper.convertValue(object, JsonNode.class);
-          schema.validate(jsonNode);
-        } catch (JsonProcessingException | ValidationException e) {
-          throw new SerializationException("JSON "
-              + object
-              + " does not match schema "
-              + schema.canonicalString(), e);
-        }
-      }
-      ByteArrayOutputStream out = new ByteArrayOutputStream();
-      out.write(MAGIC_BYTE);
-      out.write(ByteBuffer.allocate(idSize).putInt(id).array());
-      out.write(objectMapper.writeValueAsBytes(object));
-      byte[] bytes = out.toByteArray();
-      out.close();
-      return bytes;
+      recordSchemaLookupMetrics(lookupStart);
+      return new ResolvedSchema(id, schema);
     } catch (IOException | RuntimeException e) {
       throw new SerializationException("Error serializing JSON message", e);
     } catch (RestClientException e) {
       throw toKafkaException(e, restClientErrorMsg + schema);
     }
   }
+
+  private void writeValue(OutputStream out, Object object, JsonSchema schema)
+      throws IOException {
+    Object value = object;
+    if (validate) {
+      // Convert the object to a tree once, and then validate and write that same tree
+      JsonNode jsonNode = object instanceof JsonNode
+          ? (JsonNode) object
+          : objectMapper.valueToTree(object);
+      try {
+        schema.validate(jsonNode);
+      } catch (JsonProcessingException | ValidationException e) {
+        throw new SerializationException("JSON "
+            + object
+            + " does not match schema "
+            + schema.canonicalString(), e);
+      }
+      value = jsonNode;
+    }
+    out.write(objectMapper.writeValueAsBytes(value));
+  }
+
+  private static class ResolvedSchema {
+    private final int id;
+    private final JsonSchema schema;
+
+    private ResolvedSchema(int id, JsonSchema schema) {
+      this.id = id;
+      this.schema = schema;
+    }
+  }
 }
@@ -16,11 +16,11 @@
 
 package io.confluent.kafka.serializers.json;
 
-import io.confluent.kafka.schemaregistry.utils.BoundedConcurrentHashMap;
-import org.apache.kafka.common.errors.SerializationException;
+import io.confluent.kafka.schemaregistry.utils.BoundedCache;
 import org.apache.kafka.common.serialization.Serializer;
 
-import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.Map;
 
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
@@ -39,12 +39,12 @@ public class KafkaJsonSchemaSerializer<T> extends AbstractKafkaJsonSchemaSeriali
    * Constructor used by Kafka producer.
    */
   public KafkaJsonSchemaSerializer() {
-    schemaCache = new BoundedConcurrentHashMap<>(DEFAULT_CACHE_CAPACITY);
+    schemaCache = BoundedCache.create(DEFAULT_CACHE_CAPACITY);
   }
 
   public KafkaJsonSchemaSerializer(SchemaRegistryClient client) {
     schemaRegistry = client;
-    schemaCache = new BoundedConcurrentHashMap<>(DEFAULT_CACHE_CAPACITY);
+    schemaCache = BoundedCache.create(DEFAULT_CACHE_CAPACITY);
   }
 
   public KafkaJsonSchemaSerializer(SchemaRegistryClient client, Map<String, ?> props) {
@@ -55,7 +55,7 @@ public class KafkaJsonSchemaSerializer<T> extends AbstractKafkaJsonSchemaSeriali
                                    int cacheCapacity) {
     schemaRegistry = client;
     configure(serializerConfig(props));
-    schemaCache = new BoundedConcurrentHashMap<>(cacheCapacity);
+    schemaCache = BoundedCache.create(cacheCapacity);
   }
 
   @Override
@@ -69,26 +69,34 @@ public class KafkaJsonSchemaSerializer<T> extends AbstractKafkaJsonSchemaSeriali
     if (record == null) {
       return null;
     }
-    JsonSchema schema;
-    if (JsonSchemaUtils.isEnvelope(record)) {
-      schema = getSchema(record);
-    } else {
-      schema = schemaCache.computeIfAbsent(record.getClass(), k -> getSchema(record));
-    }
+    long start = startMetricsTimer();
+    JsonSchema schema = schemaFor(record);
     Object value = JsonSchemaUtils.getValue(record);
-    return serializeImpl(getSubjectName(topic, isKey, value, schema), (T) value, schema);
+    byte[] bytes = serializeImpl(getSubjectName(topic, isKey, value, schema), (T) value, schema);
+    recordSerializeMetrics(topic, isKey, start, bytes);
+    return bytes;
   }
 
-  private JsonSchema getSchema(T record) {
-    try {
-      return JsonSchemaUtils.getSchema(record, specVersion, oneofForNullables,
-          failUnknownProperties, objectMapper, schemaRegistry);
-    } catch (IOException e) {
-      throw new SerializationException(e);
+  @Override
+  protected JsonSchema schemaFor(T record) {
+    if (JsonSchemaUtils.isEnvelope(record)) {
+      return getSchema(record);
     }
+    return schemaCache.computeIfAbsent(record.getClass(), k -> getSchema(record));
+  }
+
+  /**
+   * Serializes a batch of records for the given topic into a single shared buffer, resolving
+   * the subject and schema ID once per distinct schema.
+   *
+   * @return one slice of the shared buffer per record, in order, or null for a null record
+   */
+  public List<ByteBuffer> serializeBatch(String topic, List<? extends T> records) {
+    return serializeBatchImpl(topic, isKey, records);
   }
 
   @Override
   public void close() {
+    closeSerdeMetrics();
   }
 }
@@ -20,23 +20,39 @@ import com.kjetland.jackson.jsonSchema.annotations.JsonSchemaInject;
 import com.kjetland.jackson.jsonSchema.annotations.JsonSchemaString;
 import java.time.LocalDate;
 
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.errors.InvalidConfigurationException;
 import org.apache.kafka.common.errors.SerializationException;
 import org.junit.Test;
 
 import javax.validation.constraints.Min;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 
+import io.confluent.kafka.schemaregistry.ParsedSchema;
 import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
 
 public class KafkaJsonSchemaSerializerTest {
 
@@ -90,6 +106,75 @@ public class KafkaJsonSchemaSerializerTest {
     assertEquals("abc", deserializer.deserialize(topic, bytes));
   }
 
+  @Test
+  public void testKafkaJsonSchemaSerializeBatch() {
+    Map<String, Object> message = new HashMap<>();
+    message.put("foo", "bar");
+    List<Object> values = Arrays.asList("abc", null, 123, message, "def", 456);
+    // The second batch reuses the schemas that the serializer cached
+    for (int round = 0; round < 2; round++) {
+      List<ByteBuffer> batch = serializer.serializeBatch(topic, values);
+      assertEquals(values.size(), batch.size());
+      for (int i = 0; i < values.size(); i++) {
+        byte[] expected = serializer.serialize(topic, values.get(i));
+        if (expected == null) {
+          assertNull(batch.get(i));
+          continue;
+        }
+        byte[] actual = new byte[batch.get(i).remaining()];
+        batch.get(i).duplicate().get(actual);
+        assertArrayEquals(expected, actual);
+      }
+    }
+  }
+
+  @Test
+  public void testKafkaJsonSchemaDeserializeBatch() throws Exception {
+    Set<String> subjects = ConcurrentHashMap.newKeySet();
+    SchemaRegistryClient client = new MockSchemaRegistryClient() {
+      @Override
+      public ParsedSchema getSchemaBySubjectAndId(String subject, int id)
+          throws IOException, RestClientException {
+        subjects.add(String.valueOf(subject));
+        return super.getSchemaBySubjectAndId(subject, id);
+      }
+    };
+    KafkaJsonSchemaSerializer<Object> batchSerializer =
+        new KafkaJsonSchemaSerializer<>(client, new HashMap(config));
+    KafkaJsonSchemaDeserializer<Object> batchDeserializer =
+        new KafkaJsonSchemaDeserializer<>(client, new HashMap(config), Object.class);
+    List<Object> values = new ArrayList<>();
+    List<byte[]> payloads = new ArrayList<>();
+    List<ConsumerRecord<byte[], byte[]>> records = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      Object value = i % 2 == 0 ? "value" + i : i;
+      values.add(value);
+      payloads.add(batchSerializer.serialize(topic, value));
+      records.add(new ConsumerRecord<>(topic, 0, i, null, payloads.get(i)));
+    }
+    subjects.clear();
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      assertEquals(values, batchDeserializer.deserializeBatch(topic, payloads, pool));
+    } finally {
+      pool.shutdown();
+    }
+    // Schemas are prefetched under the subject that the records are deserialized with
+    assertEquals(Collections.singleton(topic + "-value"), subjects);
+
+    assertEquals(values, batchDeserializer.deserializeBatch(new ConsumerRecords<>(
+        Collections.singletonMap(new TopicPartition(topic, 0), records))));
+
+    payloads.set(50, new byte[]{1, 2, 3});
+    try {
+      batchDeserializer.deserializeBatch(topic, payloads);
+      fail("Should have thrown SerializationException");
+    } catch (SerializationException e) {
+      // expected
+    }
+  }
+
   @Test(expected = InvalidConfigurationException.class)
   public void testKafkaJsonSchemaSerializerWithoutConfigure() {
     KafkaJsonSchemaSerializer unconfiguredSerializer = new KafkaJsonSchemaSerializer();
@@ -24,6 +24,7 @@ import org.apache.maven.plugins.annotations.Parameter;
 import java.io.File;
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -35,41 +36,65 @@ public class TestCompatibilitySchemaRegistryMojo extends UploadSchemaRegistryMoj
 
   Map<String, Boolean> schemaCompatibility = new HashMap<>();
 
+  // The schemas to test together, with their files, by subject
+  Map<String, ParsedSchema> pendingSchemas = new LinkedHashMap<>();
+  Map<String, File> pendingSchemaPaths = new HashMap<>();
+
   @Override
   protected boolean processSchema(String subject,
                                   File schemaPath,
                                   ParsedSchema schema,
-                                  Map<String, Integer> schemaVersions)
-      throws IOException, RestClientException {
+                                  Map<String, Integer> schemaVersions) {
+    pendingSchemas.put(subject, schema);
+    pendingSchemaPaths.put(subject, schemaPath);
+    return true;
+  }
+
+  @Override
+  protected int processSchemas() throws IOException, RestClientException {
+    if (pendingSchemas.isEmpty()) {
+      return 0;
+    }
 
     if (getLog().isDebugEnabled()) {
       getLog().debug(
-          String.format("Calling testCompatibility('%s', '%s')", subject, schema)
+          String.format("Calling testCompatibility(%s)", pendingSchemas)
       );
     }
 
-    List<String> errorMessages = this.client().testCompatibilityVerbose(subject, schema);
-    boolean compatible = errorMessages.isEmpty();
+    // One request tests all the schemas
+    Map<String, List<String>> errorMessagesBySubject =
+        this.client().testCompatibilityVerbose(pendingSchemas);
+    int incompatible = 0;
+    for (Map.Entry<String, List<String>> entry : errorMessagesBySubject.entrySet()) {
+      String subject = entry.getKey();
+      List<String> errorMessages = entry.getValue();
+      File schemaPath = pendingSchemaPaths.get(subject);
+      boolean compatible = errorMessages.isEmpty();
 
-    if (compatible) {
-      getLog().info(
-          String.format(
-              "Schema %s is compatible with subject(%s)",
-              schemaPath,
-              subject
-          )
-      );
-    } else {
-      String errorLog = String.format(
-          "Schema %s is not compatible with subject(%s)", schemaPath, subject);
-      if (verbose) {
-        errorLog += " with error " + errorMessages.toString();
+      if (compatible) {
+        getLog().info(
+            String.format(
+                "Schema %s is compatible with subject(%s)",
+                schemaPath,
+                subject
+            )
+        );
+      } else {
+        String errorLog = String.format(
+            "Schema %s is not compatible with subject(%s)", schemaPath, subject);
+        if (verbose) {
+          errorLog += " with error " + errorMessages.toString();
+        }
+        getLog().error(errorLog);
+        incompatible++;
       }
-      getLog().error(errorLog);
-    }
 
-    this.schemaCompatibility.put(subject, compatible);
-    return compatible;
+      this.schemaCompatibility.put(subject, compatible);
+    }
+    pendingSchemas.clear();
+    pendingSchemaPaths.clear();
+    return incompatible;
   }
 
   @Override
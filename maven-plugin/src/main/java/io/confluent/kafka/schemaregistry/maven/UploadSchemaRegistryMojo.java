@@ -84,6 +84,12 @@ public abstract class UploadSchemaRegistryMojo extends SchemaRegistryMojo {
     for (String subject : subjects.keySet()) {
       processSubject(subject, false);
     }
+    try {
+      failures += processSchemas();
+    } catch (Exception ex) {
+      getLog().error("Exception thrown while processing schemas", ex);
+      errors++;
+    }
 
     Preconditions.checkState(errors == 0, "One or more exceptions were encountered.");
     Preconditions.checkState(failures == 0, failureMessage());
@@ -154,6 +160,16 @@ public abstract class UploadSchemaRegistryMojo extends SchemaRegistryMojo {
       throws IOException, RestClientException;
 
 
+  /**
+   * Processes the schemas that {@link #processSchema} left to be processed together, once every
+   * subject has been processed.
+   *
+   * @return the number of schemas that failed
+   */
+  protected int processSchemas() throws IOException, RestClientException {
+    return 0;
+  }
+
   protected String failureMessage() {
     return "Failed to process one or more schemas.";
   }
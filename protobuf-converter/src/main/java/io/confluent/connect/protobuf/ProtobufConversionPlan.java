@@ -0,0 +1,674 @@
+/*
+ * Copyright 2022 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.connect.protobuf;
+
+import com.google.protobuf.BoolValue;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.BytesValue;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.EnumDescriptor;
+import com.google.protobuf.Descriptors.EnumValueDescriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Descriptors.OneofDescriptor;
+import com.google.protobuf.DoubleValue;
+import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.FloatValue;
+import com.google.protobuf.Int32Value;
+import com.google.protobuf.Int64Value;
+import com.google.protobuf.Message;
+import com.google.protobuf.StringValue;
+import io.confluent.connect.protobuf.ProtobufData.LogicalTypeConverter;
+import io.confluent.connect.protobuf.ProtobufData.Pair;
+import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.errors.DataException;
+
+/**
+ * A conversion between Connect data and Protobuf messages that is compiled once per schema and
+ * message name.
+ *
+ * <p>{@link ProtobufData} converts values by walking the message descriptor and looking up
+ * fields, oneofs, map entries and enums by name for every record. A plan resolves all of these
+ * up front into a tree of converters with field descriptor arrays, so that converting a record
+ * costs time proportional to its data. A plan produces the same values and errors as the
+ * interpreted conversion. Messages whose descriptor is not the one the plan was compiled for,
+ * such as messages from another copy of the schema, are handed back to the interpreted
+ * conversion, and schemas that a plan does not handle, such as recursive messages, are not
+ * compiled at all.
+ */
+public final class ProtobufConversionPlan {
+
+  private final Schema connectSchema;
+  private final ProtobufSchema protobufSchema;
+  private final ValueConverter converter;
+
+  private ProtobufConversionPlan(
+      Schema connectSchema, ProtobufSchema protobufSchema, ValueConverter converter) {
+    this.connectSchema = connectSchema;
+    this.protobufSchema = protobufSchema;
+    this.converter = converter;
+  }
+
+  /**
+   * Compiles a plan that converts Connect data into Protobuf data, in the same way as
+   * {@link ProtobufData#fromConnectData(Schema, Object)}.
+   *
+   * @param descriptor the descriptor of the message that the Connect schema maps to
+   * @return the plan, or null if the schemas are not supported
+   */
+  static ProtobufConversionPlan fromConnect(
+      ProtobufData protobufData,
+      Schema connectSchema,
+      ProtobufSchema protobufSchema,
+      Descriptor descriptor) {
+    ValueConverter converter;
+    try {
+      converter = new FromConnectCompiler(protobufData, protobufSchema)
+          .compile(connectSchema, descriptor, "");
+    } catch (RuntimeException e) {
+      // The interpreted conversion reports the same problem for each value
+      return null;
+    }
+    if (converter == null) {
+      return null;
+    }
+    return new ProtobufConversionPlan(connectSchema, protobufSchema, converter);
+  }
+
+  /**
+   * Compiles a plan that converts Protobuf messages into Connect data, in the same way as
+   * {@link ProtobufData#toConnectData(ProtobufSchema, Message)}.
+   *
+   * @param connectSchema the Connect schema that {@link ProtobufData} derives from the message
+   * @return the plan, or null if the schemas are not supported
+   */
+  static ProtobufConversionPlan toConnect(
+      ProtobufData protobufData, ProtobufSchema protobufSchema, Schema connectSchema) {
+    ValueConverter converter;
+    try {
+      converter = new ToConnectCompiler(protobufData)
+          .compile(connectSchema, null, protobufSchema.toDescriptor());
+    } catch (RuntimeException e) {
+      return null;
+    }
+    if (converter == null) {
+      return null;
+    }
+    return new ProtobufConversionPlan(connectSchema, protobufSchema, converter);
+  }
+
+  public Schema connectSchema() {
+    return connectSchema;
+  }
+
+  ProtobufSchema protobufSchema() {
+    return protobufSchema;
+  }
+
+  public Object convert(Object value) {
+    return converter.convert(value);
+  }
+
+  private interface ValueConverter {
+    Object convert(Object value);
+  }
+
+  private static class FromConnectCompiler {
+    private final ProtobufData protobufData;
+    private final ProtobufSchema protobufSchema;
+    private final Set<Descriptor> messages = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private FromConnectCompiler(ProtobufData protobufData, ProtobufSchema protobufSchema) {
+      this.protobufData = protobufData;
+      this.protobufSchema = protobufSchema;
+    }
+
+    private ValueConverter compile(Schema schema, Object ctx, String scope) {
+      LogicalTypeConverter logicalConverter = schema.name() != null
+          ? ProtobufData.toProtobufLogicalConverter(schema.name())
+          : null;
+      if (logicalConverter != null) {
+        return value -> value != null ? logicalConverter.convert(schema, value) : null;
+      }
+      ValueConverter typed = compileValue(schema, ctx, scope);
+      if (typed == null) {
+        return null;
+      }
+      return value -> {
+        if (value == null) {
+          // Ignore missing values
+          return null;
+        }
+        try {
+          return typed.convert(value);
+        } catch (ClassCastException e) {
+          throw new DataException("Invalid type for " + schema.type() + ": " + value.getClass());
+        }
+      };
+    }
+
+    private ValueConverter compileValue(Schema schema, Object ctx, String scope) {
+      boolean isWrapper = protobufData.isWrapper(protobufSchema, schema);
+      Map<String, String> parameters = schema.parameters();
+      switch (schema.type()) {
+        case INT8:
+        case INT16:
+        case INT32: {
+          if (parameters != null && parameters.containsKey(ProtobufData.PROTOBUF_TYPE_ENUM)) {
+            String enumType = parameters.get(ProtobufData.PROTOBUF_TYPE_ENUM);
+            EnumDescriptor enumDescriptor = protobufSchema.getEnumDescriptor(scope + enumType);
+            return value -> {
+              int intValue = ((Number) value).intValue();
+              return enumDescriptor != null ? enumDescriptor.findValueByNumber(intValue) : null;
+            };
+          }
+          if (isWrapper) {
+            return value -> Int32Value.newBuilder().setValue(((Number) value).intValue()).build();
+          }
+          return value -> ((Number) value).intValue();
+        }
+        case INT64: {
+          String protobufType = parameters != null
+              ? parameters.get(ProtobufData.PROTOBUF_TYPE_PROP) : null;
+          if ("uint32".equals(protobufType) || "fixed32".equals(protobufType)) {
+            if (isWrapper) {
+              return value -> Int32Value.newBuilder()
+                  .setValue((int) ((Number) value).longValue()).build();
+            }
+            return value -> (int) ((Number) value).longValue();
+          }
+          if (isWrapper) {
+            return value -> Int64Value.newBuilder().setValue(((Number) value).longValue()).build();
+          }
+          return value -> ((Number) value).longValue();
+        }
+        case FLOAT32:
+          if (isWrapper) {
+            return value -> FloatValue.newBuilder()
+                .setValue(((Number) value).floatValue()).build();
+          }
+          return value -> ((Number) value).floatValue();
+        case FLOAT64:
+          if (isWrapper) {
+            return value -> DoubleValue.newBuilder()
+                .setValue(((Number) value).doubleValue()).build();
+          }
+          return value -> ((Number) value).doubleValue();
+        case BOOLEAN:
+          if (isWrapper) {
+            return value -> BoolValue.newBuilder().setValue((Boolean) value).build();
+          }
+          return value -> (Boolean) value;
+        case STRING:
+          return compileString(schema, scope, isWrapper);
+        case BYTES:
+          if (isWrapper) {
+            return value -> BytesValue.newBuilder().setValue(toByteString(value)).build();
+          }
+          return ProtobufConversionPlan::toByteString;
+        case ARRAY:
+          return compileArray(schema, ctx, scope);
+        case MAP:
+          return compileMap(schema, (Descriptor) ctx);
+        case STRUCT:
+          return ProtobufData.isUnionSchema(schema)
+              ? compileUnion(schema, ctx, scope)
+              : compileStruct(schema, (Descriptor) ctx);
+        default:
+          return null;
+      }
+    }
+
+    private ValueConverter compileString(Schema schema, String scope, boolean isWrapper) {
+      Map<String, String> parameters = schema.parameters();
+      if (parameters != null
+          && (parameters.containsKey(ProtobufData.GENERALIZED_TYPE_ENUM)
+              || parameters.containsKey(ProtobufData.PROTOBUF_TYPE_ENUM))) {
+        String paramName = protobufData.enumParameterName();
+        EnumDescriptor enumDescriptor =
+            protobufSchema.getEnumDescriptor(scope + parameters.get(paramName));
+        String tagPrefix = paramName + ".";
+        return value -> {
+          String stringValue = (String) value;
+          String tag = parameters.get(tagPrefix + stringValue);
+          if (tag != null) {
+            return enumDescriptor != null
+                ? enumDescriptor.findValueByNumber(Integer.parseInt(tag))
+                : null;
+          }
+          return isWrapper ? StringValue.newBuilder().setValue(stringValue).build() : stringValue;
+        };
+      }
+      if (isWrapper) {
+        return value -> StringValue.newBuilder().setValue((String) value).build();
+      }
+      return value -> (String) value;
+    }
+
+    private ValueConverter compileArray(Schema schema, Object ctx, String scope) {
+      ValueConverter element = compile(schema.valueSchema(), ctx, scope);
+      if (element == null) {
+        return null;
+      }
+      return value -> {
+        Collection<?> list = (Collection<?>) value;
+        if (list.isEmpty()) {
+          return null;
+        }
+        List<Object> converted = new ArrayList<>();
+        for (Object elem : list) {
+          converted.add(element.convert(elem));
+        }
+        return converted;
+      };
+    }
+
+    private ValueConverter compileMap(Schema schema, Descriptor ctx) {
+      String scopedMapName = ctx.getFullName();
+      Descriptor entryDescriptor = protobufSchema.toDescriptor(scopedMapName);
+      if (entryDescriptor == null) {
+        return null;
+      }
+      FieldDescriptor keyDescriptor = entryDescriptor.findFieldByName(ProtobufData.KEY_FIELD);
+      FieldDescriptor valueDescriptor =
+          entryDescriptor.findFieldByName(ProtobufData.VALUE_FIELD);
+      ValueConverter mapKey = compile(schema.keySchema(),
+          protobufData.getFieldType(keyDescriptor), scopedMapName + ".");
+      ValueConverter mapValue = compile(schema.valueSchema(),
+          protobufData.getFieldType(valueDescriptor), scopedMapName + ".");
+      if (mapKey == null || mapValue == null) {
+        return null;
+      }
+      return value -> {
+        Map<?, ?> map = (Map<?, ?>) value;
+        List<Message> converted = new ArrayList<>();
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+          DynamicMessage.Builder builder = DynamicMessage.newBuilder(entryDescriptor);
+          Object entryKey = mapKey.convert(entry.getKey());
+          Object entryValue = mapValue.convert(entry.getValue());
+          builder.setField(keyDescriptor, entryKey);
+          builder.setField(valueDescriptor, entryValue);
+          converted.add(builder.build());
+        }
+        return converted;
+      };
+    }
+
+    /**
+     * Compiles a Connect struct that holds a oneof. It converts to the name of the set field and
+     * its value, which the enclosing message then sets.
+     */
+    private ValueConverter compileUnion(Schema schema, Object ctx, String scope) {
+      List<Field> fields = schema.fields();
+      int size = fields.size();
+      Field[] connectFields = fields.toArray(new Field[size]);
+      String[] fieldNames = new String[size];
+      ValueConverter[] converters = new ValueConverter[size];
+      for (int i = 0; i < size; i++) {
+        fieldNames[i] = protobufData.scrubName(connectFields[i].name());
+        converters[i] = compile(connectFields[i].schema(),
+            protobufData.getFieldType(ctx, fieldNames[i]), scope);
+        if (converters[i] == null) {
+          return null;
+        }
+      }
+      return value -> {
+        Struct struct = checkStruct(schema, value);
+        for (int i = 0; i < size; i++) {
+          Object object = struct.get(connectFields[i]);
+          if (object != null) {
+            return new Pair<>(fieldNames[i], converters[i].convert(object));
+          }
+        }
+        throw new DataException("Cannot find non-null field");
+      };
+    }
+
+    private ValueConverter compileStruct(Schema schema, Descriptor ctx) {
+      String scopedStructName = ctx.getFullName();
+      Descriptor descriptor = protobufSchema.toDescriptor(scopedStructName);
+      if (descriptor == null || !messages.add(descriptor)) {
+        return null;
+      }
+      List<Field> fields = schema.fields();
+      int size = fields.size();
+      Field[] connectFields = fields.toArray(new Field[size]);
+      String[] fieldNames = new String[size];
+      FieldDescriptor[] fieldDescriptors = new FieldDescriptor[size];
+      ValueConverter[] converters = new ValueConverter[size];
+      for (int i = 0; i < size; i++) {
+        fieldNames[i] = protobufData.scrubName(connectFields[i].name());
+        fieldDescriptors[i] = descriptor.findFieldByName(fieldNames[i]);
+        converters[i] = compile(connectFields[i].schema(),
+            protobufData.getFieldType(ctx, fieldNames[i]), scopedStructName + ".");
+        if (converters[i] == null) {
+          return null;
+        }
+      }
+      messages.remove(descriptor);
+      return value -> {
+        Struct struct = checkStruct(schema, value);
+        DynamicMessage.Builder builder = DynamicMessage.newBuilder(descriptor);
+        for (int i = 0; i < size; i++) {
+          Object fieldValue = converters[i].convert(struct.get(connectFields[i]));
+          if (fieldValue != null) {
+            FieldDescriptor fieldDescriptor;
+            if (fieldValue instanceof Pair) {
+              Pair<?, ?> union = (Pair<?, ?>) fieldValue;
+              fieldDescriptor = descriptor.findFieldByName((String) union.getKey());
+              fieldValue = union.getValue();
+            } else {
+              fieldDescriptor = fieldDescriptors[i];
+            }
+            if (fieldDescriptor == null) {
+              throw new DataException("Cannot find field with name " + fieldNames[i]);
+            }
+            builder.setField(fieldDescriptor, fieldValue);
+          }
+        }
+        return builder.build();
+      };
+    }
+
+    private static Struct checkStruct(Schema schema, Object value) {
+      Struct struct = (Struct) value;
+      if (struct.schema() != schema && !struct.schema().equals(schema)) {
+        throw new DataException("Mismatching struct schema");
+      }
+      return struct;
+    }
+  }
+
+  private static class ToConnectCompiler {
+    private final ProtobufData protobufData;
+    private final Set<Descriptor> messages = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private ToConnectCompiler(ProtobufData protobufData) {
+      this.protobufData = protobufData;
+    }
+
+    /**
+     * Compiles a converter for values of the given Connect schema.
+     *
+     * @param fieldDescriptor the field the values are read from, or null for the top level
+     * @param descriptor the message type of the values, or null if they are not messages
+     */
+    private ValueConverter compile(
+        Schema schema, FieldDescriptor fieldDescriptor, Descriptor descriptor) {
+      LogicalTypeConverter logicalConverter = schema.name() != null
+          ? ProtobufData.toConnectLogicalConverter(schema.name())
+          : null;
+      ValueConverter typed = logicalConverter != null
+          ? value -> logicalConverter.convert(schema, value)
+          : compileValue(schema, fieldDescriptor, descriptor);
+      if (typed == null) {
+        return null;
+      }
+      return value -> {
+        if (value == null) {
+          return null;
+        }
+        try {
+          return typed.convert(value);
+        } catch (ClassCastException e) {
+          throw new DataException("Invalid type for " + schema.type() + ": " + value.getClass());
+        }
+      };
+    }
+
+    private ValueConverter compileValue(
+        Schema schema, FieldDescriptor fieldDescriptor, Descriptor descriptor) {
+      switch (schema.type()) {
+        case INT8:
+          return value -> value instanceof Message
+              ? protobufData.getWrappedValue((Message) value) : ((Number) value).byteValue();
+        case INT16:
+          return value -> value instanceof Message
+              ? protobufData.getWrappedValue((Message) value) : ((Number) value).shortValue();
+        case INT32:
+          return value -> {
+            if (value instanceof Message) {
+              return protobufData.getWrappedValue((Message) value);
+            } else if (value instanceof Number) {
+              return ((Number) value).intValue();
+            } else if (value instanceof Enum) {
+              return ((Enum<?>) value).ordinal();
+            } else if (value instanceof EnumValueDescriptor) {
+              return ((EnumValueDescriptor) value).getNumber();
+            }
+            return null;
+          };
+        case INT64:
+          return value -> {
+            if (value instanceof Message) {
+              return protobufData.getWrappedValue((Message) value);
+            } else if (value instanceof Long) {
+              return value;
+            }
+            return Integer.toUnsignedLong(((Number) value).intValue());
+          };
+        case FLOAT32:
+          return value -> value instanceof Message
+              ? protobufData.getWrappedValue((Message) value) : ((Number) value).floatValue();
+        case FLOAT64:
+          return value -> value instanceof Message
+              ? protobufData.getWrappedValue((Message) value) : ((Number) value).doubleValue();
+        case BOOLEAN:
+          return value -> value instanceof Message
+              ? protobufData.getWrappedValue((Message) value) : (Boolean) value;
+        case STRING:
+          return this::toConnectString;
+        case BYTES:
+          return this::toConnectBytes;
+        case ARRAY:
+          return compileArray(schema, fieldDescriptor, descriptor);
+        case MAP:
+          return compileMap(schema, descriptor);
+        case STRUCT:
+          return compileStruct(schema, descriptor);
+        default:
+          return null;
+      }
+    }
+
+    private Object toConnectString(Object value) {
+      if (value instanceof Message) {
+        return protobufData.getWrappedValue((Message) value);
+      } else if (value instanceof String) {
+        return value;
+      } else if (value instanceof CharSequence
+          || value instanceof Enum
+          || value instanceof EnumValueDescriptor) {
+        return value.toString();
+      }
+      throw new DataException("Invalid class for string type, expecting String or "
+          + "CharSequence but found "
+          + value.getClass());
+    }
+
+    private Object toConnectBytes(Object value) {
+      if (value instanceof Message) {
+        return ByteBuffer.wrap(
+            ((ByteString) protobufData.getWrappedValue((Message) value)).toByteArray());
+      } else if (value instanceof byte[]) {
+        return ByteBuffer.wrap((byte[]) value);
+      } else if (value instanceof ByteBuffer) {
+        return value;
+      } else if (value instanceof ByteString) {
+        return ByteBuffer.wrap(((ByteString) value).toByteArray());
+      }
+      throw new DataException("Invalid class for bytes type, expecting byte[], ByteBuffer, "
+          + "or ByteString but found "
+          + value.getClass());
+    }
+
+    private ValueConverter compileArray(
+        Schema schema, FieldDescriptor fieldDescriptor, Descriptor descriptor) {
+      ValueConverter element = compile(schema.valueSchema(), fieldDescriptor, descriptor);
+      if (element == null) {
+        return null;
+      }
+      return value -> {
+        Collection<?> array = (Collection<?>) value;
+        List<Object> converted = new ArrayList<>(array.size());
+        for (Object elem : array) {
+          converted.add(element.convert(elem));
+        }
+        return converted;
+      };
+    }
+
+    private ValueConverter compileMap(Schema schema, Descriptor entryDescriptor) {
+      if (entryDescriptor == null) {
+        return null;
+      }
+      FieldDescriptor keyDescriptor = entryDescriptor.findFieldByName(ProtobufData.KEY_FIELD);
+      FieldDescriptor valueDescriptor =
+          entryDescriptor.findFieldByName(ProtobufData.VALUE_FIELD);
+      ValueConverter mapKey = compile(schema.keySchema(), keyDescriptor,
+          messageType(keyDescriptor));
+      ValueConverter mapValue = compile(schema.valueSchema(), valueDescriptor,
+          messageType(valueDescriptor));
+      if (mapKey == null || mapValue == null) {
+        return null;
+      }
+      return value -> {
+        @SuppressWarnings("unchecked")
+        Collection<? extends Message> map = (Collection<? extends Message>) value;
+        Map<Object, Object> converted = new HashMap<>();
+        for (Message message : map) {
+          Descriptor descriptor = message.getDescriptorForType();
+          Object elemKey;
+          Object elemValue;
+          if (descriptor == entryDescriptor) {
+            elemKey = message.getField(keyDescriptor);
+            elemValue = message.getField(valueDescriptor);
+          } else {
+            elemKey = message.getField(descriptor.findFieldByName(ProtobufData.KEY_FIELD));
+            elemValue = message.getField(descriptor.findFieldByName(ProtobufData.VALUE_FIELD));
+          }
+          converted.put(mapKey.convert(elemKey), mapValue.convert(elemValue));
+        }
+        return converted;
+      };
+    }
+
+    private ValueConverter compileStruct(Schema schema, Descriptor descriptor) {
+      if (descriptor == null || !messages.add(descriptor)) {
+        return null;
+      }
+      Schema structSchema = schema.schema();
+
+      List<OneofDescriptor> oneofs = descriptor.getRealOneofs();
+      int numOneofs = oneofs.size();
+      OneofDescriptor[] oneofDescriptors = oneofs.toArray(new OneofDescriptor[numOneofs]);
+      Field[] unionFields = new Field[numOneofs];
+      int numFields = descriptor.getFields().size();
+      Field[] memberFields = new Field[numFields];
+      ValueConverter[] memberConverters = new ValueConverter[numFields];
+      for (int i = 0; i < numOneofs; i++) {
+        unionFields[i] = schema.field(protobufData.unionFieldName(oneofDescriptors[i]));
+        Schema unionSchema = unionFields[i].schema();
+        for (FieldDescriptor fieldDescriptor : oneofDescriptors[i].getFields()) {
+          Field field = unionSchema.field(fieldDescriptor.getName());
+          memberFields[fieldDescriptor.getIndex()] = field;
+          memberConverters[fieldDescriptor.getIndex()] =
+              compile(field.schema(), fieldDescriptor, messageType(fieldDescriptor));
+          if (memberConverters[fieldDescriptor.getIndex()] == null) {
+            return null;
+          }
+        }
+      }
+
+      List<FieldDescriptor> plainFields = new ArrayList<>();
+      for (FieldDescriptor fieldDescriptor : descriptor.getFields()) {
+        if (fieldDescriptor.getRealContainingOneof() == null) {
+          plainFields.add(fieldDescriptor);
+        }
+      }
+      int size = plainFields.size();
+      FieldDescriptor[] fieldDescriptors = plainFields.toArray(new FieldDescriptor[size]);
+      Field[] fields = new Field[size];
+      boolean[] alwaysSet = new boolean[size];
+      ValueConverter[] converters = new ValueConverter[size];
+      for (int i = 0; i < size; i++) {
+        FieldDescriptor fieldDescriptor = fieldDescriptors[i];
+        fields[i] = schema.field(fieldDescriptor.getName());
+        alwaysSet[i] = protobufData.isPrimitiveOrRepeated(fieldDescriptor)
+            && !protobufData.isProto3Optional(fieldDescriptor);
+        converters[i] =
+            compile(fields[i].schema(), fieldDescriptor, messageType(fieldDescriptor));
+        if (converters[i] == null) {
+          return null;
+        }
+      }
+      messages.remove(descriptor);
+
+      return value -> {
+        Message message = (Message) value;
+        if (message.getDescriptorForType() != descriptor) {
+          return protobufData.toConnectData(schema, message);
+        }
+        Struct struct = new Struct(structSchema);
+        for (int i = 0; i < numOneofs; i++) {
+          OneofDescriptor oneofDescriptor = oneofDescriptors[i];
+          if (message.hasOneof(oneofDescriptor)) {
+            FieldDescriptor fieldDescriptor = message.getOneofFieldDescriptor(oneofDescriptor);
+            Object obj = message.getField(fieldDescriptor);
+            if (obj != null) {
+              int index = fieldDescriptor.getIndex();
+              Struct union = new Struct(unionFields[i].schema());
+              union.put(memberFields[index], memberConverters[index].convert(obj));
+              struct.put(unionFields[i], union);
+              break;
+            }
+          }
+        }
+        for (int i = 0; i < size; i++) {
+          if (alwaysSet[i] || message.hasField(fieldDescriptors[i])) {
+            Object obj = message.getField(fieldDescriptors[i]);
+            struct.put(fields[i], converters[i].convert(obj));
+          }
+        }
+        return struct;
+      };
+    }
+
+    private static Descriptor messageType(FieldDescriptor fieldDescriptor) {
+      return fieldDescriptor.getJavaType() == FieldDescriptor.JavaType.MESSAGE
+          ? fieldDescriptor.getMessageType()
+          : null;
+    }
+  }
+
+  private static ByteString toByteString(Object value) {
+    ByteBuffer bytesValue = value instanceof byte[]
+        ? ByteBuffer.wrap((byte[]) value)
+        : (ByteBuffer) value;
+    return ByteString.copyFrom(bytesValue);
+  }
+}
@@ -28,10 +28,12 @@ import org.apache.kafka.connect.storage.Converter;
 
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
 import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchemaProvider;
+import io.confluent.kafka.serializers.SchemaTranslationCache;
 import io.confluent.kafka.serializers.protobuf.AbstractKafkaProtobufDeserializer;
 import io.confluent.kafka.serializers.protobuf.AbstractKafkaProtobufSerializer;
 import io.confluent.kafka.serializers.protobuf.KafkaProtobufDeserializerConfig;
@@ -50,6 +52,8 @@ public class ProtobufConverter implements Converter {
 
   private boolean isKey;
   private ProtobufData protobufData;
+  // The plans for each message of a schema, by message name
+  private SchemaTranslationCache<Map<String, ProtobufConversionPlan>> conversionPlans;
 
   public ProtobufConverter() {
   }
@@ -63,8 +67,9 @@ public class ProtobufConverter implements Converter {
   public void configure(Map<String, ?> configs, boolean isKey) {
     this.isKey = isKey;
     ProtobufConverterConfig protobufConverterConfig = new ProtobufConverterConfig(configs);
+    boolean createClient = schemaRegistry == null;
 
-    if (schemaRegistry == null) {
+    if (createClient) {
       schemaRegistry = SchemaRegistryClientFactory.newClient(
           protobufConverterConfig.getSchemaRegistryUrls(),
           protobufConverterConfig.getMaxSchemasPerSubject(),
@@ -76,7 +81,30 @@ public class ProtobufConverter implements Converter {
 
     serializer = new Serializer(configs, schemaRegistry);
     deserializer = new Deserializer(configs, schemaRegistry);
-    protobufData = new ProtobufData(new ProtobufDataConfig(configs));
+    ProtobufDataConfig protobufDataConfig = new ProtobufDataConfig(configs);
+    protobufData = new ProtobufData(protobufDataConfig);
+    releaseTranslationCaches();
+    if (deserializer.sharesSchemaIds()) {
+      // Only what the translations depend on, so that the scope holds no credentials
+      Object registryScope = SchemaTranslationCache.registryScope(
+          schemaRegistry, createClient, protobufConverterConfig.getSchemaRegistryUrls());
+      conversionPlans = SchemaTranslationCache.shared(
+          getClass(), isKey, protobufDataConfig.values(), registryScope);
+    }
+  }
+
+  /**
+   * Releases the translation caches that this converter shares with others.
+   */
+  public void close() {
+    releaseTranslationCaches();
+  }
+
+  private void releaseTranslationCaches() {
+    if (conversionPlans != null) {
+      conversionPlans.release();
+      conversionPlans = null;
+    }
   }
 
   @Override
@@ -118,6 +146,10 @@ public class ProtobufConverter implements Converter {
         Object object = deserialized.getValue();
         if (object instanceof Message) {
           Message message = (Message) object;
+          ProtobufConversionPlan plan = conversionPlan(value, deserialized.getSchema());
+          if (plan != null) {
+            return new SchemaAndValue(plan.connectSchema(), plan.convert(message));
+          }
           return protobufData.toConnectData(deserialized.getSchema(), message);
         }
         throw new DataException(String.format(
@@ -138,6 +170,31 @@ public class ProtobufConverter implements Converter {
     }
   }
 
+  /**
+   * Returns the compiled conversion for the message of the record, looked up by schema id,
+   * version and message name, or null if it must be converted by {@link ProtobufData}.
+   */
+  private ProtobufConversionPlan conversionPlan(byte[] payload, ProtobufSchema schema) {
+    if (conversionPlans == null || schema.version() == null) {
+      return null;
+    }
+    int id = SchemaTranslationCache.schemaId(payload);
+    int version = schema.version();
+    Map<String, ProtobufConversionPlan> plans = conversionPlans.get(id, version);
+    if (plans == null) {
+      plans = new ConcurrentHashMap<>();
+      conversionPlans.put(id, version, plans);
+    }
+    ProtobufConversionPlan plan = plans.get(schema.name());
+    if (plan == null) {
+      plan = protobufData.toConnectPlan(schema);
+      if (plan != null) {
+        plans.put(schema.name(), plan);
+      }
+    }
+    return plan;
+  }
+
   private static class Serializer extends AbstractKafkaProtobufSerializer {
 
     public Serializer(SchemaRegistryClient client, boolean autoRegisterSchema) {
@@ -173,5 +230,9 @@ public class ProtobufConverter implements Converter {
     public ProtobufSchemaAndValue deserialize(String topic, boolean isKey, byte[] payload) {
       return deserializeWithSchemaAndVersion(topic, isKey, payload);
     }
+
+    public boolean sharesSchemaIds() {
+      return schemaIdsSharedAcrossTopics();
+    }
   }
 }
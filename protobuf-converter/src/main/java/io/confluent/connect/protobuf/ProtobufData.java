@@ -35,7 +35,7 @@ import com.google.protobuf.StringValue;
 import com.google.protobuf.util.Timestamps;
 import io.confluent.connect.schema.ConnectEnum;
 import io.confluent.connect.schema.ConnectUnion;
-import io.confluent.kafka.schemaregistry.utils.BoundedConcurrentHashMap;
+import io.confluent.kafka.schemaregistry.utils.BoundedCache;
 import io.confluent.protobuf.MetaProto;
 import io.confluent.protobuf.MetaProto.Meta;
 import io.confluent.protobuf.type.utils.DecimalUtils;
@@ -68,6 +68,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 
 import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
 import io.confluent.kafka.schemaregistry.protobuf.dynamic.DynamicSchema;
@@ -294,6 +295,10 @@ public class ProtobufData {
 
   private final Map<Schema, ProtobufSchema> fromConnectSchemaCache;
   private final Map<Pair<String, ProtobufSchema>, Schema> toConnectSchemaCache;
+  private final Map<Schema, Optional<ProtobufConversionPlan>> fromConnectPlanCache;
+  private final Map<Pair<String, ProtobufSchema>, Optional<ProtobufConversionPlan>>
+      toConnectPlanCache;
+  private volatile ProtobufConversionPlan lastFromConnectPlan;
   private boolean generalizedSumTypeSupport;
   private boolean enhancedSchemaSupport;
   private boolean scrubInvalidNames;
@@ -314,8 +319,10 @@ public class ProtobufData {
   }
 
   public ProtobufData(ProtobufDataConfig protobufDataConfig) {
-    fromConnectSchemaCache = new BoundedConcurrentHashMap<>(protobufDataConfig.schemaCacheSize());
-    toConnectSchemaCache = new BoundedConcurrentHashMap<>(protobufDataConfig.schemaCacheSize());
+    fromConnectSchemaCache = BoundedCache.create(protobufDataConfig.schemaCacheSize());
+    toConnectSchemaCache = BoundedCache.create(protobufDataConfig.schemaCacheSize());
+    fromConnectPlanCache = BoundedCache.create(protobufDataConfig.schemaCacheSize());
+    toConnectPlanCache = BoundedCache.create(protobufDataConfig.schemaCacheSize());
     this.generalizedSumTypeSupport = protobufDataConfig.isGeneralizedSumTypeSupportDefault();
     this.enhancedSchemaSupport = protobufDataConfig.isEnhancedProtobufSchemaSupport();
     this.scrubInvalidNames = protobufDataConfig.isScrubInvalidNames();
@@ -329,17 +336,14 @@ public class ProtobufData {
    * Convert this object, in Connect data format, into an Protobuf object.
    */
   public ProtobufSchemaAndValue fromConnectData(Schema schema, Object value) {
+    ProtobufConversionPlan plan = fromConnectPlan(schema);
+    if (plan != null) {
+      return new ProtobufSchemaAndValue(plan.protobufSchema(), plan.convert(value));
+    }
     ProtobufSchema protobufSchema = fromConnectSchema(schema);
     Object ctx = null;
     if (schema != null) {
-      String fullName = schema.name();
-      if (fullName == null) {
-        fullName = DEFAULT_SCHEMA_NAME + "1";
-      }
-      String[] split = splitName(fullName);
-      String namespace = split[0];
-      String name = split[1];
-      ctx = protobufSchema.toDescriptor(namespace != null ? namespace + "." + name : name);
+      ctx = rootDescriptor(schema, protobufSchema);
     }
     return new ProtobufSchemaAndValue(
         protobufSchema,
@@ -347,6 +351,44 @@ public class ProtobufData {
     );
   }
 
+  private Descriptor rootDescriptor(Schema schema, ProtobufSchema protobufSchema) {
+    String fullName = schema.name();
+    if (fullName == null) {
+      fullName = DEFAULT_SCHEMA_NAME + "1";
+    }
+    String[] split = splitName(fullName);
+    String namespace = split[0];
+    String name = split[1];
+    return protobufSchema.toDescriptor(namespace != null ? namespace + "." + name : name);
+  }
+
+  /**
+   * Returns the compiled conversion for the given schema, or null if it must be interpreted.
+   * Plans are cached by Connect schema, next to the Protobuf schemas in the schema cache. The
+   * most recent plan is also kept by identity, since hashing a large Connect schema is not free
+   * and most callers convert many values with the same schema instance.
+   */
+  private ProtobufConversionPlan fromConnectPlan(Schema schema) {
+    if (schema == null) {
+      return null;
+    }
+    ProtobufConversionPlan last = lastFromConnectPlan;
+    if (last != null && last.connectSchema() == schema) {
+      return last;
+    }
+    Optional<ProtobufConversionPlan> plan = fromConnectPlanCache.get(schema);
+    if (plan == null) {
+      ProtobufSchema protobufSchema = fromConnectSchema(schema);
+      plan = Optional.ofNullable(ProtobufConversionPlan.fromConnect(
+          this, schema, protobufSchema, rootDescriptor(schema, protobufSchema)));
+      fromConnectPlanCache.put(schema, plan);
+    }
+    if (plan.isPresent()) {
+      lastFromConnectPlan = plan.get();
+    }
+    return plan.orElse(null);
+  }
+
   // Visible for testing
   protected ProtobufSchemaAndValue fromConnectData(SchemaAndValue schemaAndValue) {
     return fromConnectData(schemaAndValue.schema(), schemaAndValue.value());
@@ -371,8 +413,7 @@ public class ProtobufData {
       }
     }
 
-    boolean isWrapper = isWrapper(protobufSchema)
-        || (useWrapperForNullables && schema.isOptional());
+    boolean isWrapper = isWrapper(protobufSchema, schema);
     final Schema.Type schemaType = schema.type();
     try {
       switch (schemaType) {
@@ -419,8 +460,7 @@ public class ProtobufData {
           if (schema.parameters() != null
               && (schema.parameters().containsKey(GENERALIZED_TYPE_ENUM)
                   || schema.parameters().containsKey(PROTOBUF_TYPE_ENUM))) {
-            String paramName = generalizedSumTypeSupport
-                ? GENERALIZED_TYPE_ENUM : PROTOBUF_TYPE_ENUM;
+            String paramName = enumParameterName();
             String enumType = schema.parameters().get(paramName);
             String tag = schema.parameters().get(paramName + "." + stringValue);
             if (tag != null) {
@@ -542,6 +582,21 @@ public class ProtobufData {
     }
   }
 
+  /**
+   * Returns whether values of the given Connect schema are converted to Protobuf wrapper messages.
+   */
+  boolean isWrapper(ProtobufSchema protobufSchema, Schema schema) {
+    return isWrapper(protobufSchema) || (useWrapperForNullables && schema.isOptional());
+  }
+
+  /**
+   * Returns the Connect schema parameter that holds the Protobuf enum type and the tags of its
+   * symbols.
+   */
+  String enumParameterName() {
+    return generalizedSumTypeSupport ? GENERALIZED_TYPE_ENUM : PROTOBUF_TYPE_ENUM;
+  }
+
   private boolean isWrapper(ProtobufSchema protobufSchema) {
     String name = protobufSchema.name();
     switch (name) {
@@ -560,7 +615,7 @@ public class ProtobufData {
     }
   }
 
-  private Object getFieldType(Object ctx, String name) {
+  Object getFieldType(Object ctx, String name) {
     FieldDescriptor field = ((Descriptor) ctx).findFieldByName(name);
     if (field == null) {
       // Could not find a field with this name, which is the case with oneOfs.
@@ -571,7 +626,7 @@ public class ProtobufData {
     return getFieldType(field);
   }
 
-  private Object getFieldType(FieldDescriptor field) {
+  Object getFieldType(FieldDescriptor field) {
     switch (field.getJavaType()) {
       case MESSAGE:
         return field.getMessageType();
@@ -1142,7 +1197,15 @@ public class ProtobufData {
     return Timestamp.LOGICAL_NAME.equals(schema.name());
   }
 
-  private static boolean isUnionSchema(Schema schema) {
+  static LogicalTypeConverter toConnectLogicalConverter(String name) {
+    return TO_CONNECT_LOGICAL_CONVERTERS.get(name);
+  }
+
+  static LogicalTypeConverter toProtobufLogicalConverter(String name) {
+    return TO_PROTOBUF_LOGICAL_CONVERTERS.get(name);
+  }
+
+  static boolean isUnionSchema(Schema schema) {
     return (schema.name() != null && schema.name().startsWith(PROTOBUF_TYPE_UNION))
         || ConnectUnion.isUnion(schema);
   }
@@ -1152,10 +1215,37 @@ public class ProtobufData {
       return SchemaAndValue.NULL;
     }
 
+    ProtobufConversionPlan plan = toConnectPlan(protobufSchema);
+    if (plan != null) {
+      return new SchemaAndValue(plan.connectSchema(), plan.convert(message));
+    }
     Schema schema = toConnectSchema(protobufSchema);
     return new SchemaAndValue(schema, toConnectData(schema, message));
   }
 
+  /**
+   * Returns the compiled conversion for the given schema, or null if it must be interpreted.
+   * Plans are cached by schema and message name, like the Connect schemas they are built from.
+   *
+   * @param protobufSchema the Protobuf schema, named after the message to convert
+   * @return the plan, or null if the schema uses features the plan does not support
+   */
+  public ProtobufConversionPlan toConnectPlan(ProtobufSchema protobufSchema) {
+    if (protobufSchema == null) {
+      return null;
+    }
+    Pair<String, ProtobufSchema> cacheKey = new Pair<>(protobufSchema.name(), protobufSchema);
+    Optional<ProtobufConversionPlan> plan = toConnectPlanCache.get(cacheKey);
+    if (plan == null) {
+      Schema schema = toConnectSchema(protobufSchema);
+      plan = Optional.ofNullable(schema != null
+          ? ProtobufConversionPlan.toConnect(this, protobufSchema, schema)
+          : null);
+      toConnectPlanCache.put(cacheKey, plan);
+    }
+    return plan.orElse(null);
+  }
+
   // Visible for testing
   @SuppressWarnings("unchecked")
   protected Object toConnectData(Schema schema, Object value) {
@@ -1307,7 +1397,7 @@ public class ProtobufData {
     }
   }
 
-  private Object getWrappedValue(Message message) {
+  Object getWrappedValue(Message message) {
     Descriptor descriptor = message.getDescriptorForType();
     FieldDescriptor fieldDescriptor = descriptor.findFieldByName("value");
     return message.getField(fieldDescriptor);
@@ -1333,7 +1423,7 @@ public class ProtobufData {
     result.put(unionField, union);
   }
 
-  private String unionFieldName(OneofDescriptor oneofDescriptor) {
+  String unionFieldName(OneofDescriptor oneofDescriptor) {
     return oneofDescriptor.getName() + "_" + oneofDescriptor.getIndex();
   }
 
@@ -1352,12 +1442,12 @@ public class ProtobufData {
     }
   }
 
-  private boolean isPrimitiveOrRepeated(FieldDescriptor fieldDescriptor) {
+  boolean isPrimitiveOrRepeated(FieldDescriptor fieldDescriptor) {
     return fieldDescriptor.getType() != FieldDescriptor.Type.MESSAGE
         || fieldDescriptor.isRepeated();
   }
 
-  private boolean isProto3Optional(FieldDescriptor fieldDescriptor) {
+  boolean isProto3Optional(FieldDescriptor fieldDescriptor) {
     return fieldDescriptor.toProto().getProto3Optional();
   }
 
@@ -1684,7 +1774,7 @@ public class ProtobufData {
     return scrubName(result);
   }
 
-  private String scrubName(String name) {
+  String scrubName(String name) {
     return scrubInvalidNames ? doScrubName(name) : name;
   }
 
@@ -1854,7 +1944,7 @@ public class ProtobufData {
     }
   }
 
-  private interface LogicalTypeConverter {
+  interface LogicalTypeConverter {
     Object convert(Schema schema, Object value);
   }
 
@@ -694,6 +694,30 @@ public class ProtobufDataTest {
     assertEquals(new SchemaAndValue(schema, getExpectedComplexTypeProtoWithDefaultOneOf()), result);
   }
 
+  @Test
+  public void testToConnectDataMatchesInterpretedConversion() throws Exception {
+    ProtobufData protobufData = new ProtobufData();
+    List<Message> messages = Arrays.asList(
+        createNestedTestProtoStringUserId(),
+        createNestedTestProtoIntUserId(),
+        createEmptyNestedTestProto(),
+        createProtoDefaultOneOf(),
+        createProtoMultipleSetOneOf()
+    );
+    for (Message message : messages) {
+      ProtobufSchema protobufSchema = new ProtobufSchema(message.getDescriptorForType());
+      DynamicMessage dynamicMessage = DynamicMessage.parseFrom(
+          protobufSchema.toDescriptor(),
+          message.toByteArray()
+      );
+      Schema schema = protobufData.toConnectSchema(protobufSchema);
+      Object expected = protobufData.toConnectData(schema, dynamicMessage);
+      // Converting twice exercises the cached plan as well as the first compilation
+      assertEquals(expected, protobufData.toConnectData(protobufSchema, dynamicMessage).value());
+      assertEquals(expected, protobufData.toConnectData(protobufSchema, dynamicMessage).value());
+    }
+  }
+
   @Test
   public void testToConnectEnumUnionWithString() throws Exception {
     EnumUnion message = createEnumUnionWithString();
@@ -103,6 +103,7 @@ import java.util.stream.Collectors;
 
 import io.confluent.kafka.schemaregistry.ParsedSchema;
 import io.confluent.kafka.schemaregistry.client.rest.entities.SchemaReference;
+import io.confluent.kafka.schemaregistry.protobuf.diff.Context;
 import io.confluent.kafka.schemaregistry.protobuf.diff.Difference;
 import io.confluent.kafka.schemaregistry.protobuf.diff.SchemaDiff;
 import io.confluent.kafka.schemaregistry.protobuf.dynamic.DynamicSchema;
@@ -316,6 +317,12 @@ public class ProtobufSchema implements ParsedSchema {
 
   private transient Descriptor descriptor;
 
+  private transient Context.TypeIndex typeIndex;
+
+  private transient String serializedString;
+
+  private transient ProtobufSchema normalizedSchema;
+
   private transient int hashCode = NO_HASHCODE;
 
   private static final int NO_HASHCODE = Integer.MIN_VALUE;
@@ -1492,8 +1499,11 @@ public class ProtobufSchema implements ParsedSchema {
   @Override
   public String formattedString(String format) {
     if (SERIALIZED_FORMAT.equals(format)) {
-      FileDescriptorProto file = toDynamicSchema().getFileDescriptorProto();
-      return base64Encoder.encodeToString(file.toByteArray());
+      if (serializedString == null) {
+        FileDescriptorProto file = toDynamicSchema().getFileDescriptorProto();
+        serializedString = base64Encoder.encodeToString(file.toByteArray());
+      }
+      return serializedString;
     }
     throw new IllegalArgumentException("Unsupported format " + format);
   }
@@ -1518,6 +1528,17 @@ public class ProtobufSchema implements ParsedSchema {
     return dependencies;
   }
 
+  /**
+   * Returns the types of this schema and its dependencies by fully-qualified name, which is built
+   * once and shared by the compatibility checks against this schema.
+   */
+  public Context.TypeIndex typeIndex() {
+    if (typeIndex == null) {
+      typeIndex = Context.buildTypeIndex(this);
+    }
+    return typeIndex;
+  }
+
   public Map<String, ProtoFileElement> dependenciesWithLogicalTypes() {
     Map<String, ProtoFileElement> deps = new HashMap<>(dependencies);
     for (Map.Entry<String, ProtoFileElement> entry : KNOWN_DEPENDENCIES.entrySet()) {
@@ -1530,17 +1551,20 @@ public class ProtobufSchema implements ParsedSchema {
 
   @Override
   public ProtobufSchema normalize() {
-    String normalized = ProtobufSchemaUtils.toNormalizedString(this);
-    return new ProtobufSchema(
-        toProtoFile(normalized),
-        this.version,
-        this.name,
-        this.references.stream().sorted().distinct().collect(Collectors.toList()),
-        this.dependencies,
-        normalized,
-        null,
-        null
-    );
+    if (normalizedSchema == null) {
+      String normalized = ProtobufSchemaUtils.toNormalizedString(this);
+      normalizedSchema = new ProtobufSchema(
+          toProtoFile(normalized),
+          this.version,
+          this.name,
+          this.references.stream().sorted().distinct().collect(Collectors.toList()),
+          this.dependencies,
+          normalized,
+          null,
+          null
+      );
+    }
+    return normalizedSchema;
   }
 
   @Override
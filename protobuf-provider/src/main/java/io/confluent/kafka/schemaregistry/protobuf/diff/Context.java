@@ -40,8 +40,8 @@ import java.util.stream.Collectors;
 public class Context {
   private final Set<Difference.Type> compatibleChanges;
   private final Set<MessageElement> schemas;
-  private final Map<String, TypeElementInfo> originalTypes;
-  private final Map<String, TypeElementInfo> updateTypes;
+  private Map<String, TypeElementInfo> originalTypes;
+  private Map<String, TypeElementInfo> updateTypes;
   private String originalPackageName;
   private String updatePackageName;
   private final Deque<String> fullPath;
@@ -65,8 +65,9 @@ public class Context {
   public Context getSubcontext() {
     Context ctx = new Context(this.compatibleChanges);
     ctx.schemas.addAll(this.schemas);
-    ctx.originalTypes.putAll(this.originalTypes);
-    ctx.updateTypes.putAll(this.updateTypes);
+    // The types are not modified once collected, so they are shared
+    ctx.originalTypes = this.originalTypes;
+    ctx.updateTypes = this.updateTypes;
     ctx.originalPackageName = this.originalPackageName;
     ctx.updatePackageName = this.updatePackageName;
     ctx.fullPath.addAll(this.fullPath);
@@ -75,6 +76,25 @@ public class Context {
   }
 
   public void collectTypeInfo(ProtobufSchema schema, boolean isOriginal) {
+    TypeIndex typeIndex = schema.typeIndex();
+    setPackageName(typeIndex.packageName(), isOriginal);
+    if (isOriginal) {
+      originalTypes = typeIndex.types();
+    } else {
+      updateTypes = typeIndex.types();
+    }
+  }
+
+  /**
+   * Walks the types of the schema and its dependencies, and indexes them by fully-qualified name.
+   */
+  public static TypeIndex buildTypeIndex(ProtobufSchema schema) {
+    Context ctx = new Context();
+    ctx.collectAllTypeInfo(schema);
+    return new TypeIndex(ctx.originalPackageName, Collections.unmodifiableMap(ctx.originalTypes));
+  }
+
+  private void collectAllTypeInfo(ProtobufSchema schema) {
     Map<String, SchemaReference> references = schema.references().stream()
         .collect(Collectors.toMap(
             SchemaReference::getName,
@@ -85,10 +105,10 @@ public class Context {
       String refName = entry.getKey();
       ProtoFileElement protoFile = entry.getValue();
       SchemaReference ref = references.get(refName);
-      collectTypeInfo(ref, protoFile, isOriginal);
+      collectTypeInfo(ref, protoFile, true);
     }
     SchemaReference dummyRef = new SchemaReference("", "", -1);
-    collectTypeInfo(dummyRef, schema.rawSchema(), isOriginal);
+    collectTypeInfo(dummyRef, schema.rawSchema(), true);
   }
 
   private void collectTypeInfo(
@@ -293,6 +313,24 @@ public class Context {
     }
   }
 
+  public static class TypeIndex {
+    private final String packageName;
+    private final Map<String, TypeElementInfo> types;
+
+    public TypeIndex(String packageName, Map<String, TypeElementInfo> types) {
+      this.packageName = packageName;
+      this.types = types;
+    }
+
+    public String packageName() {
+      return packageName;
+    }
+
+    public Map<String, TypeElementInfo> types() {
+      return types;
+    }
+  }
+
   public static class TypeElementInfo {
     private final String packageName;
     private final SchemaReference ref;
@@ -48,6 +48,7 @@ import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 public class ProtobufSchemaTest {
@@ -677,6 +678,21 @@ public class ProtobufSchemaTest {
     assertEquals(schema2, schema3);
   }
 
+  @Test
+  public void testFormattedAndNormalizedSchemasAreMemoized() throws Exception {
+    ResourceLoader resourceLoader = new ResourceLoader(
+        "/io/confluent/kafka/schemaregistry/protobuf/diff/");
+
+    ProtoFileElement original = resourceLoader.readObj("TestProto.proto");
+    ProtobufSchema schema = new ProtobufSchema(original.toSchema());
+    String fileProto = schema.formattedString(ProtobufSchema.SERIALIZED_FORMAT);
+    assertSame(fileProto, schema.formattedString(ProtobufSchema.SERIALIZED_FORMAT));
+    ProtobufSchema normalizedSchema = schema.normalize();
+    assertSame(normalizedSchema, schema.normalize());
+    assertEquals(normalizedSchema.canonicalString(),
+        new ProtobufSchema(original.toSchema()).normalize().canonicalString());
+  }
+
   @Test
   public void testDefaultOmittedInProto3String() throws Exception {
     MessageDefinition.Builder message = MessageDefinition.newBuilder("msg1");
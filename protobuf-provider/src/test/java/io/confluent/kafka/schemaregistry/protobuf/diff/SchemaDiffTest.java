@@ -178,6 +178,22 @@ public class SchemaDiffTest {
     )));
   }
 
+  @Test
+  public void checkTypeIndexIsReused() throws Exception {
+    ResourceLoader resourceLoader = new ResourceLoader(
+        "/io/confluent/kafka/schemaregistry/protobuf/diff/");
+    ProtobufSchema original = new ProtobufSchema(resourceLoader.readObj("TestProto.proto"),
+        Collections.emptyList(), Collections.emptyMap());
+    ProtobufSchema update = new ProtobufSchema(resourceLoader.readObj("TestProto2.proto"),
+        Collections.emptyList(), Collections.emptyMap());
+
+    List<Difference> changes = SchemaDiff.compare(original, update);
+    Context.TypeIndex typeIndex = original.typeIndex();
+    assertTrue(typeIndex.types().containsKey("test1.TestMessage"));
+    assertEquals(changes, SchemaDiff.compare(original, update));
+    assertTrue(typeIndex == original.typeIndex());
+  }
+
   @Test
   public void checkCompatibilityUsingBadMessage() throws Exception {
     SchemaDiff.compare(badMessageSchema, badMessageSchema);
@@ -19,7 +19,7 @@ package io.confluent.kafka.serializers.protobuf;
 import com.google.protobuf.Descriptors.Descriptor;
 import com.google.protobuf.DynamicMessage;
 import com.google.protobuf.Message;
-import io.confluent.kafka.schemaregistry.utils.BoundedConcurrentHashMap;
+import io.confluent.kafka.schemaregistry.utils.BoundedCache;
 import java.util.Objects;
 import java.util.Properties;
 import org.apache.kafka.common.config.ConfigException;
@@ -39,6 +39,8 @@ import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
 import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchemaProvider;
 import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchemaUtils;
 import io.confluent.kafka.serializers.AbstractKafkaSchemaSerDe;
+import io.confluent.kafka.serializers.VersionedSchemaCache;
+import io.confluent.kafka.serializers.VersionedSchemaCache.VersionedSchema;
 
 public abstract class AbstractKafkaProtobufDeserializer<T extends Message>
     extends AbstractKafkaSchemaSerDe {
@@ -49,9 +51,11 @@ public abstract class AbstractKafkaProtobufDeserializer<T extends Message>
   protected Method parseMethod;
   protected boolean deriveType;
   private Map<Pair<String, ProtobufSchema>, ProtobufSchema> schemaCache;
+  private VersionedSchemaCache<ProtobufSchema> versionedSchemaCache;
 
   public AbstractKafkaProtobufDeserializer() {
-    schemaCache = new BoundedConcurrentHashMap<>(DEFAULT_CACHE_CAPACITY);
+    schemaCache = BoundedCache.create(DEFAULT_CACHE_CAPACITY);
+    versionedSchemaCache = new VersionedSchemaCache<>(DEFAULT_CACHE_CAPACITY);
   }
 
   /**
@@ -119,17 +123,28 @@ public abstract class AbstractKafkaProtobufDeserializer<T extends Message>
     try {
       ByteBuffer buffer = getByteBuffer(payload);
       id = buffer.getInt();
-      String subject = isKey == null || strategyUsesSchema(isKey)
-          ? getContextName(topic) : subjectName(topic, isKey, null);
-      ProtobufSchema schema = ((ProtobufSchema)
-              schemaRegistry.getSchemaBySubjectAndId(subject, id));
+      VersionedSchema<ProtobufSchema> cached = includeSchemaAndVersion
+          ? cachedSchemaVersion(topic, isKey, id)
+          : null;
+      String subject = null;
+      ProtobufSchema schema;
+      if (cached != null) {
+        schema = cached.schema();
+      } else {
+        subject = isKey == null || strategyUsesSchema(isKey)
+            ? getContextName(topic) : subjectName(topic, isKey, null);
+        long lookupStart = startMetricsTimer();
+        schema = ((ProtobufSchema) schemaRegistry.getSchemaBySubjectAndId(subject, id));
+        recordSchemaLookupMetrics(lookupStart);
+      }
       MessageIndexes indexes = MessageIndexes.readFrom(buffer);
       String name = schema.toMessageName(indexes);
+      ProtobufSchema subjectSchema = schema;
       schema = schemaWithName(schema, name);
-      if (includeSchemaAndVersion) {
+      if (includeSchemaAndVersion && cached == null) {
         subject = subjectName(topic, isKey, schema);
-        schema = schemaForDeserialize(id, schema, subject, isKey);
-        schema = schemaWithName(schema, name);
+        subjectSchema = schemaForDeserialize(id, schema, subject, isKey);
+        schema = schemaWithName(subjectSchema, name);
       }
 
       int length = buffer.limit() - 1 - idSize;
@@ -165,8 +180,19 @@ public abstract class AbstractKafkaProtobufDeserializer<T extends Message>
         // schema registry's ordering (which is implicit by auto-registration time rather than
         // explicit from the Connector).
 
+        if (cached != null) {
+          // The cached schema is already annotated with the version
+          return new ProtobufSchemaAndValue(schema, value);
+        }
         Integer version = schemaVersion(topic, isKey, id, subject, schema, value);
-        return new ProtobufSchemaAndValue(schema.copy(version), value);
+        if (isDeprecatedSubjectNameStrategy(isKey)) {
+          return new ProtobufSchemaAndValue(schema.copy(version), value);
+        }
+        // Cache the schema before it is named after the message, since each record may use a
+        // different message of the schema
+        cached = versionedSchemaCache.put(
+            topic, isKey, id, subjectSchema.copy(version), version);
+        return new ProtobufSchemaAndValue(schemaWithName(cached.schema(), name), value);
       }
 
       return value;
@@ -182,6 +208,17 @@ public abstract class AbstractKafkaProtobufDeserializer<T extends Message>
     return schemaCache.computeIfAbsent(cacheKey, k -> schema.copy(name));
   }
 
+  /**
+   * Returns the schema and version resolved earlier for the schema id, or null if the schema must
+   * be resolved again.
+   */
+  private VersionedSchema<ProtobufSchema> cachedSchemaVersion(
+      String topic, boolean isKey, int id) {
+    return isDeprecatedSubjectNameStrategy(isKey)
+           ? null
+           : versionedSchemaCache.get(topic, isKey, id);
+  }
+
   private Object deriveType(ByteBuffer buffer, ProtobufSchema schema) {
     String clsName = schema.fullName();
     if (clsName == null) {
@@ -16,6 +16,7 @@
 
 package io.confluent.kafka.serializers.protobuf;
 
+import com.google.protobuf.Descriptors.Descriptor;
 import com.google.protobuf.Message;
 import com.squareup.wire.schema.internal.parser.ProtoFileElement;
 import io.confluent.kafka.schemaregistry.ParsedSchema;
@@ -27,6 +28,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -37,12 +39,16 @@ import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientExcept
 import io.confluent.kafka.schemaregistry.protobuf.MessageIndexes;
 import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
 import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchemaProvider;
+import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchemaUtils;
 import io.confluent.kafka.serializers.AbstractKafkaSchemaSerDe;
+import io.confluent.kafka.serializers.BatchOutputStream;
 import io.confluent.kafka.serializers.subject.strategy.ReferenceSubjectNameStrategy;
 
 public abstract class AbstractKafkaProtobufSerializer<T extends Message>
     extends AbstractKafkaSchemaSerDe {
 
+  private static final int BATCH_BUFFER_SIZE = 4096;
+
   protected boolean normalizeSchema;
   protected boolean autoRegisterSchema;
   protected boolean onlyLookupReferencesBySchema;
@@ -77,11 +83,7 @@ public abstract class AbstractKafkaProtobufSerializer<T extends Message>
   protected byte[] serializeImpl(
       String subject, String topic, boolean isKey, T object, ProtobufSchema schema
   ) throws SerializationException, InvalidConfigurationException {
-    if (schemaRegistry == null) {
-      throw new InvalidConfigurationException(
-          "SchemaRegistryClient not found. You need to configure the serializer "
-              + "or use serializer constructor with SchemaRegistryClient.");
-    }
+    checkConfigured();
     // null needs to treated specially since the client most likely just wants to send
     // an individual null value instead of making the subject a null type. Also, null in
     // Kafka has a special meaning for deletion in a topic with the compact retention policy.
@@ -90,8 +92,98 @@ public abstract class AbstractKafkaProtobufSerializer<T extends Message>
     if (object == null) {
       return null;
     }
+    ResolvedSchema resolved = resolveSchema(subject, topic, isKey, schema);
+    try {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      out.write(MAGIC_BYTE);
+      out.write(ByteBuffer.allocate(idSize).putInt(resolved.id).array());
+      MessageIndexes indexes = resolved.schema.toMessageIndexes(
+          object.getDescriptorForType().getFullName());
+      out.write(indexes.toByteArray());
+      object.writeTo(out);
+      byte[] bytes = out.toByteArray();
+      out.close();
+      return bytes;
+    } catch (IOException | RuntimeException e) {
+      throw new SerializationException("Error serializing Protobuf message", e);
+    }
+  }
+
+  /**
+   * Serializes a batch of messages for one topic into a single shared buffer.
+   *
+   * <p>The schema, subject, schema ID and message indexes are resolved once per distinct
+   * message descriptor in the batch, rather than once per message, unless a deprecated subject
+   * name strategy is configured, since those derive the subject from the message itself.
+   *
+   * @return one slice of the shared buffer per message, in order, or null for a null message
+   */
+  protected List<ByteBuffer> serializeBatchImpl(
+      String topic, boolean isKey, List<? extends T> objects)
+      throws SerializationException, InvalidConfigurationException {
+    checkConfigured();
+    boolean subjectPerObject = isDeprecatedSubjectNameStrategy(isKey);
+    Map<Descriptor, ResolvedSchema> resolvedSchemas = new IdentityHashMap<>();
+    BatchOutputStream out = new BatchOutputStream(BATCH_BUFFER_SIZE);
+    for (T object : objects) {
+      if (object == null) {
+        out.nullRecord();
+        continue;
+      }
+      long start = startMetricsTimer();
+      Descriptor descriptor = object.getDescriptorForType();
+      ResolvedSchema resolved = subjectPerObject ? null : resolvedSchemas.get(descriptor);
+      if (resolved == null) {
+        ProtobufSchema schema = schemaFor(topic, isKey, object);
+        resolved = resolveSchema(
+            getSubjectName(topic, isKey, object, schema), topic, isKey, schema);
+        if (!subjectPerObject) {
+          resolvedSchemas.put(descriptor, resolved);
+        }
+      }
+      try {
+        if (resolved.indexes == null) {
+          resolved.indexes = resolved.schema.toMessageIndexes(descriptor.getFullName())
+              .toByteArray();
+        }
+        int offset = out.size();
+        out.startRecord(resolved.id);
+        out.write(resolved.indexes);
+        object.writeTo(out);
+        out.endRecord();
+        recordSerializeMetrics(topic, isKey, start, out.size() - offset);
+      } catch (IOException | RuntimeException e) {
+        throw new SerializationException("Error serializing Protobuf message", e);
+      }
+    }
+    return out.records();
+  }
+
+  /**
+   * Returns the schema of a message for the batch path. Serializers that cache schemas by
+   * message descriptor override this, so that batches reuse the schemas of single messages.
+   */
+  protected ProtobufSchema schemaFor(String topic, boolean isKey, T object) {
+    return ProtobufSchemaUtils.getSchema(object);
+  }
+
+  private void checkConfigured() {
+    if (schemaRegistry == null) {
+      throw new InvalidConfigurationException(
+          "SchemaRegistryClient not found. You need to configure the serializer "
+              + "or use serializer constructor with SchemaRegistryClient.");
+    }
+  }
+
+  /**
+   * Resolves the dependencies of the schema, and then looks up or registers the schema under
+   * the given subject, depending on the configuration.
+   */
+  private ResolvedSchema resolveSchema(
+      String subject, String topic, boolean isKey, ProtobufSchema schema) {
     String restClientErrorMsg = "";
     try {
+      long lookupStart = startMetricsTimer();
       boolean autoRegisterForDeps = autoRegisterSchema && !onlyLookupReferencesBySchema;
       boolean useLatestForDeps = useLatestVersion && !onlyLookupReferencesBySchema;
       schema = resolveDependencies(schemaRegistry, normalizeSchema, autoRegisterForDeps,
@@ -114,15 +206,8 @@ public abstract class AbstractKafkaProtobufSerializer<T extends Message>
         restClientErrorMsg = "Error retrieving Protobuf schema: ";
         id = schemaRegistry.getId(subject, schema, normalizeSchema);
       }
-      ByteArrayOutputStream out = new ByteArrayOutputStream();
-      out.write(MAGIC_BYTE);
-      out.write(ByteBuffer.allocate(idSize).putInt(id).array());
-      MessageIndexes indexes = schema.toMessageIndexes(object.getDescriptorForType().getFullName());
-      out.write(indexes.toByteArray());
-      object.writeTo(out);
-      byte[] bytes = out.toByteArray();
-      out.close();
-      return bytes;
+      recordSchemaLookupMetrics(lookupStart);
+      return new ResolvedSchema(id, schema);
     } catch (IOException | RuntimeException e) {
       throw new SerializationException("Error serializing Protobuf message", e);
     } catch (RestClientException e) {
@@ -130,6 +215,16 @@ public abstract class AbstractKafkaProtobufSerializer<T extends Message>
     }
   }
 
+  private static class ResolvedSchema {
+    private final int id;
+    private final ProtobufSchema schema;
+    private byte[] indexes;
+
+    private ResolvedSchema(int id, ProtobufSchema schema) {
+      this.id = id;
+      this.schema = schema;
+    }
+  }
 
   /**
    * Resolve schema dependencies recursively.
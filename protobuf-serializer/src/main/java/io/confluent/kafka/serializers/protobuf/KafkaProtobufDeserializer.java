@@ -18,15 +18,21 @@ package io.confluent.kafka.serializers.protobuf;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.protobuf.Message;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.common.serialization.Deserializer;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 
 public class KafkaProtobufDeserializer<T extends Message>
     extends AbstractKafkaProtobufDeserializer<T> implements Deserializer<T> {
 
+  private boolean isKey;
+
   /**
    * Constructor used by Kafka consumer.
    */
@@ -57,6 +63,7 @@ public class KafkaProtobufDeserializer<T extends Message>
 
   @SuppressWarnings("unchecked")
   protected void configure(KafkaProtobufDeserializerConfig config, boolean isKey) {
+    this.isKey = isKey;
     if (isKey) {
       configure(
           config,
@@ -72,11 +79,56 @@ public class KafkaProtobufDeserializer<T extends Message>
 
   @Override
   public T deserialize(String topic, byte[] bytes) {
-    return (T) deserialize(false, topic, null, bytes);
+    long start = startMetricsTimer();
+    T result = (T) deserialize(false, topic, null, bytes);
+    recordDeserializeMetrics(topic, isKey, start, bytes);
+    return result;
+  }
+
+  /**
+   * Deserializes a batch of payloads from the given topic in parallel, on the executor
+   * configured with {@code batch.deserialize.parallelism}.
+   *
+   * @return the deserialized objects, in the same order as the payloads
+   */
+  public List<T> deserializeBatch(String topic, List<byte[]> payloads) {
+    return deserializeBatch(topic, payloads, null);
+  }
+
+  /**
+   * Deserializes a batch of payloads from the given topic in parallel, on the given executor,
+   * such as a {@link java.util.concurrent.ForkJoinPool} or a virtual-thread executor.
+   *
+   * @return the deserialized objects, in the same order as the payloads
+   */
+  public List<T> deserializeBatch(String topic, List<byte[]> payloads, Executor executor) {
+    return deserializeBatch(
+        Collections.nCopies(payloads.size(), topic), payloads, isKey, this::deserialize,
+        executor);
+  }
+
+  /**
+   * Deserializes the keys or values of the given records in parallel, on the executor
+   * configured with {@code batch.deserialize.parallelism}.
+   *
+   * @return the deserialized objects, in the iteration order of the records
+   */
+  public List<T> deserializeBatch(ConsumerRecords<byte[], byte[]> records) {
+    return deserializeBatch(records, null);
+  }
+
+  /**
+   * Deserializes the keys or values of the given records in parallel, on the given executor.
+   *
+   * @return the deserialized objects, in the iteration order of the records
+   */
+  public List<T> deserializeBatch(ConsumerRecords<byte[], byte[]> records, Executor executor) {
+    return deserializeBatch(records, isKey, this::deserialize, executor);
   }
 
   @Override
   public void close() {
-
+    closeBatchExecutor();
+    closeSerdeMetrics();
   }
 }
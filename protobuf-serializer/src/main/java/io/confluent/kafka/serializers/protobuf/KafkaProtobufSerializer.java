@@ -19,12 +19,14 @@ package io.confluent.kafka.serializers.protobuf;
 import com.google.protobuf.Descriptors.Descriptor;
 import com.google.protobuf.Message;
 import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
-import io.confluent.kafka.schemaregistry.utils.BoundedConcurrentHashMap;
+import io.confluent.kafka.schemaregistry.utils.BoundedCache;
 import java.io.IOException;
 import org.apache.kafka.common.errors.InvalidConfigurationException;
 import org.apache.kafka.common.errors.SerializationException;
 import org.apache.kafka.common.serialization.Serializer;
 
+import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.Map;
 
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
@@ -43,12 +45,12 @@ public class KafkaProtobufSerializer<T extends Message>
    * Constructor used by Kafka producer.
    */
   public KafkaProtobufSerializer() {
-    schemaCache = new BoundedConcurrentHashMap<>(DEFAULT_CACHE_CAPACITY);
+    schemaCache = BoundedCache.create(DEFAULT_CACHE_CAPACITY);
   }
 
   public KafkaProtobufSerializer(SchemaRegistryClient client) {
     schemaRegistry = client;
-    schemaCache = new BoundedConcurrentHashMap<>(DEFAULT_CACHE_CAPACITY);
+    schemaCache = BoundedCache.create(DEFAULT_CACHE_CAPACITY);
   }
 
   public KafkaProtobufSerializer(SchemaRegistryClient client, Map<String, ?> props) {
@@ -59,7 +61,7 @@ public class KafkaProtobufSerializer<T extends Message>
                                  int cacheCapacity) {
     schemaRegistry = client;
     configure(serializerConfig(props));
-    schemaCache = new BoundedConcurrentHashMap<>(cacheCapacity);
+    schemaCache = BoundedCache.create(cacheCapacity);
   }
 
   @Override
@@ -78,6 +80,16 @@ public class KafkaProtobufSerializer<T extends Message>
     if (record == null) {
       return null;
     }
+    long start = startMetricsTimer();
+    ProtobufSchema schema = schemaFor(topic, isKey, record);
+    byte[] bytes = serializeImpl(getSubjectName(topic, isKey, record, schema),
+        topic, isKey, record, schema);
+    recordSerializeMetrics(topic, isKey, start, bytes);
+    return bytes;
+  }
+
+  @Override
+  protected ProtobufSchema schemaFor(String topic, boolean isKey, T record) {
     ProtobufSchema schema = schemaCache.get(record.getDescriptorForType());
     if (schema == null) {
       schema = ProtobufSchemaUtils.getSchema(record);
@@ -93,11 +105,21 @@ public class KafkaProtobufSerializer<T extends Message>
       }
       schemaCache.put(record.getDescriptorForType(), schema);
     }
-    return serializeImpl(getSubjectName(topic, isKey, record, schema),
-        topic, isKey, record, schema);
+    return schema;
+  }
+
+  /**
+   * Serializes a batch of messages for the given topic into a single shared buffer, resolving
+   * the subject and schema ID once per distinct message type.
+   *
+   * @return one slice of the shared buffer per message, in order, or null for a null message
+   */
+  public List<ByteBuffer> serializeBatch(String topic, List<? extends T> records) {
+    return serializeBatchImpl(topic, isKey, records);
   }
 
   @Override
   public void close() {
+    closeSerdeMetrics();
   }
 }
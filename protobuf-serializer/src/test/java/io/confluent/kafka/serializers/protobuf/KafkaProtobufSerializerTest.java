@@ -18,20 +18,41 @@ package io.confluent.kafka.serializers.protobuf;
 import com.google.protobuf.Descriptors;
 import com.google.protobuf.Descriptors.EnumValueDescriptor;
 import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.Message;
 import com.google.protobuf.Timestamp;
 import io.confluent.kafka.serializers.protobuf.test.TestMessageOptionalProtos.TestMessageOptional;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.errors.InvalidConfigurationException;
+import org.apache.kafka.common.errors.SerializationException;
 import io.confluent.kafka.serializers.protobuf.test.TestMessageProtos.TestMessage2;
 import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
 import io.confluent.kafka.serializers.protobuf.test.TestMessageOptionalProtos;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import io.confluent.kafka.schemaregistry.ParsedSchema;
 
 import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import io.confluent.kafka.serializers.SerdeMetrics;
 import io.confluent.kafka.serializers.protobuf.test.DependencyTestProto.DependencyMessage;
 import io.confluent.kafka.serializers.protobuf.test.EnumReferenceOuter.EnumReference;
 import io.confluent.kafka.serializers.protobuf.test.EnumRootOuter.EnumRoot;
@@ -41,7 +62,10 @@ import io.confluent.kafka.serializers.protobuf.test.NestedTestProto.Status;
 import io.confluent.kafka.serializers.protobuf.test.NestedTestProto.UserId;
 import io.confluent.kafka.serializers.protobuf.test.TestMessageProtos.TestMessage;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
 
 public class KafkaProtobufSerializerTest {
 
@@ -296,6 +320,94 @@ public class KafkaProtobufSerializerTest {
   }
 
 
+  @Test
+  public void testKafkaProtobufSerializeBatch() throws Exception {
+    Map<String, Object> config = new HashMap<>();
+    config.put(KafkaProtobufSerializerConfig.AUTO_REGISTER_SCHEMAS, true);
+    config.put(KafkaProtobufSerializerConfig.SCHEMA_REGISTRY_URL_CONFIG, "bogus");
+    config.put(KafkaProtobufSerializerConfig.SERDE_METRICS_ENABLED, true);
+    config.put(KafkaProtobufSerializerConfig.SERDE_METRICS_SAMPLE_RATE, 1.0);
+    config.put("client.id", "protobuf-batch-test");
+    KafkaProtobufSerializer<Message> batchSerializer =
+        new KafkaProtobufSerializer<>(schemaRegistry, config);
+    List<Message> messages = Arrays.asList(HELLO_WORLD_MESSAGE, null, NESTED_MESSAGE,
+        HELLO_WORLD_MESSAGE, DEPENDENCY_MESSAGE);
+    int maxSize = 0;
+    // The second batch reuses the schemas that the serializer cached
+    for (int round = 0; round < 2; round++) {
+      List<ByteBuffer> batch = batchSerializer.serializeBatch(topic, messages);
+      assertEquals(messages.size(), batch.size());
+      for (int i = 0; i < messages.size(); i++) {
+        byte[] expected = protobufSerializer.serialize(topic, messages.get(i));
+        if (expected == null) {
+          assertNull(batch.get(i));
+          continue;
+        }
+        byte[] actual = new byte[batch.get(i).remaining()];
+        batch.get(i).duplicate().get(actual);
+        assertArrayEquals(expected, actual);
+        maxSize = Math.max(maxSize, actual.length);
+      }
+    }
+
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    ObjectName name = new ObjectName(SerdeMetrics.JMX_PREFIX + ":type="
+        + SerdeMetrics.METRIC_GROUP + ",client-id=protobuf-batch-test,topic=" + topic
+        + ",is-key=false");
+    assertEquals(1.0 * maxSize, server.getAttribute(name, "serialize-size-max"));
+    batchSerializer.close();
+  }
+
+  @Test
+  public void testKafkaProtobufDeserializeBatch() throws Exception {
+    Set<String> subjects = ConcurrentHashMap.newKeySet();
+    SchemaRegistryClient client = new MockSchemaRegistryClient() {
+      @Override
+      public ParsedSchema getSchemaBySubjectAndId(String subject, int id)
+          throws IOException, RestClientException {
+        subjects.add(String.valueOf(subject));
+        return super.getSchemaBySubjectAndId(subject, id);
+      }
+    };
+    Map<String, Object> config = new HashMap<>();
+    config.put(KafkaProtobufSerializerConfig.AUTO_REGISTER_SCHEMAS, true);
+    config.put(KafkaProtobufSerializerConfig.SCHEMA_REGISTRY_URL_CONFIG, "bogus");
+    KafkaProtobufSerializer<TestMessage> batchSerializer =
+        new KafkaProtobufSerializer<>(client, config);
+    KafkaProtobufDeserializer<TestMessage> batchDeserializer =
+        new KafkaProtobufDeserializer<>(client, config, TestMessage.class);
+    List<TestMessage> messages = new ArrayList<>();
+    List<byte[]> payloads = new ArrayList<>();
+    List<ConsumerRecord<byte[], byte[]>> records = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      TestMessage message = HELLO_WORLD_MESSAGE.toBuilder().setTestInt32(i).build();
+      messages.add(message);
+      payloads.add(batchSerializer.serialize(topic, message));
+      records.add(new ConsumerRecord<>(topic, 0, i, null, payloads.get(i)));
+    }
+    subjects.clear();
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      assertEquals(messages, batchDeserializer.deserializeBatch(topic, payloads, pool));
+    } finally {
+      pool.shutdown();
+    }
+    // Schemas are prefetched under the subject that the records are deserialized with
+    assertEquals(Collections.singleton(topic + "-value"), subjects);
+
+    assertEquals(messages, batchDeserializer.deserializeBatch(new ConsumerRecords<>(
+        Collections.singletonMap(new TopicPartition(topic, 0), records))));
+
+    payloads.set(50, new byte[]{1, 2, 3});
+    try {
+      batchDeserializer.deserializeBatch(topic, payloads);
+      fail("Should have thrown SerializationException");
+    } catch (SerializationException e) {
+      // expected
+    }
+  }
+
   @Test(expected = InvalidConfigurationException.class)
   public void testKafkaJsonSchemaSerializerWithoutConfigure() {
     KafkaProtobufSerializer unconfiguredSerializer = new KafkaProtobufSerializer();
@@ -18,15 +18,27 @@ package io.confluent.kafka.serializers;
 
 import io.confluent.kafka.schemaregistry.client.SchemaMetadata;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClientFactory;
-import io.confluent.kafka.schemaregistry.utils.BoundedConcurrentHashMap;
+import io.confluent.kafka.schemaregistry.utils.BoundedCache;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
 
 import io.confluent.kafka.schemaregistry.utils.QualifiedSubject;
 import io.confluent.kafka.serializers.context.NullContextNameStrategy;
 import io.confluent.kafka.serializers.context.strategy.ContextNameStrategy;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericContainer;
+import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.common.KafkaException;
 import org.apache.kafka.common.errors.InvalidConfigurationException;
 import org.apache.kafka.common.errors.SerializationException;
@@ -52,15 +64,18 @@ public abstract class AbstractKafkaSchemaSerDe {
   protected static final byte MAGIC_BYTE = 0x0;
   protected static final int idSize = 4;
   private static int DEFAULT_CACHE_CAPACITY = 1000;
+  private static final int BATCH_CHUNKS_PER_THREAD = 4;
 
   protected SchemaRegistryClient schemaRegistry;
   protected ContextNameStrategy contextNameStrategy = new NullContextNameStrategy();
   protected Object keySubjectNameStrategy = new TopicNameStrategy();
   protected Object valueSubjectNameStrategy = new TopicNameStrategy();
   protected Map<SubjectSchema, ParsedSchema> latestVersions =
-      new BoundedConcurrentHashMap<>(DEFAULT_CACHE_CAPACITY);
+      BoundedCache.create(DEFAULT_CACHE_CAPACITY);
   protected boolean useSchemaReflection;
-
+  protected SerdeMetrics serdeMetrics;
+  protected int batchParallelism;
+  private ForkJoinPool batchPool;
 
   protected void configureClientProperties(
       AbstractKafkaSchemaSerDeConfig config,
@@ -82,6 +97,205 @@ public abstract class AbstractKafkaSchemaSerDe {
     keySubjectNameStrategy = config.keySubjectNameStrategy();
     valueSubjectNameStrategy = config.valueSubjectNameStrategy();
     useSchemaReflection = config.useSchemaReflection();
+    batchParallelism = config.batchDeserializeParallelism();
+    closeSerdeMetrics();
+    serdeMetrics = null;
+    if (config.serdeMetricsEnabled()) {
+      Object clientId = originals.get(CommonClientConfigs.CLIENT_ID_CONFIG);
+      serdeMetrics = new SerdeMetrics(
+          clientId != null ? clientId.toString() : null, config.serdeMetricsSampleRate());
+    }
+  }
+
+  /**
+   * Returns whether a schema id refers to the same schema for every topic, which holds unless
+   * topics are mapped to different contexts.
+   */
+  protected boolean schemaIdsSharedAcrossTopics() {
+    return contextNameStrategy instanceof NullContextNameStrategy;
+  }
+
+  /**
+   * Starts timing an operation for the serde metrics, if they are enabled and the current
+   * record is sampled.
+   */
+  protected long startMetricsTimer() {
+    return serdeMetrics != null ? serdeMetrics.startTimer() : SerdeMetrics.NOT_SAMPLED;
+  }
+
+  protected void recordSerializeMetrics(String topic, boolean isKey, long startNs, byte[] bytes) {
+    if (serdeMetrics != null) {
+      serdeMetrics.recordSerialize(topic, isKey, startNs, bytes);
+    }
+  }
+
+  /**
+   * Records the serialize metrics of a record that was written into a shared batch buffer.
+   */
+  protected void recordSerializeMetrics(String topic, boolean isKey, long startNs, int size) {
+    if (serdeMetrics != null) {
+      serdeMetrics.recordSerialize(topic, isKey, startNs, size);
+    }
+  }
+
+  protected void recordDeserializeMetrics(
+      String topic, boolean isKey, long startNs, byte[] bytes) {
+    if (serdeMetrics != null) {
+      serdeMetrics.recordDeserialize(topic, isKey, startNs, bytes);
+    }
+  }
+
+  protected void recordSchemaLookupMetrics(long startNs) {
+    if (serdeMetrics != null) {
+      serdeMetrics.recordSchemaLookup(startNs);
+    }
+  }
+
+  /**
+   * Releases the serde metrics, if they are enabled.
+   */
+  protected void closeSerdeMetrics() {
+    if (serdeMetrics != null) {
+      serdeMetrics.close();
+    }
+  }
+
+  /**
+   * Deserializes the key or value of each record using the given executor, returning the
+   * results in the same order as the records.
+   */
+  protected <T> List<T> deserializeBatch(
+      ConsumerRecords<byte[], byte[]> records,
+      boolean isKey,
+      BiFunction<String, byte[], T> deserializer,
+      Executor executor) {
+    List<String> topics = new ArrayList<>(records.count());
+    List<byte[]> payloads = new ArrayList<>(records.count());
+    for (ConsumerRecord<byte[], byte[]> record : records) {
+      topics.add(record.topic());
+      payloads.add(isKey ? record.key() : record.value());
+    }
+    return deserializeBatch(topics, payloads, isKey, deserializer, executor);
+  }
+
+  /**
+   * Deserializes a batch of payloads using the given executor, returning the results in the
+   * same order as the payloads.
+   *
+   * <p>Each distinct schema ID in the batch is resolved once, on the calling thread, before the
+   * payloads are decoded, so that concurrent decoders never race to fetch the same schema. The
+   * payloads are then split into contiguous chunks, and each chunk is decoded by the given
+   * deserializer as a single task. If any payload fails to deserialize, the exception for the
+   * first such payload is rethrown.
+   *
+   * @param topics the topic of each payload
+   * @param payloads the serialized payloads
+   * @param isKey whether the payloads are record keys
+   * @param deserializer the single-record deserializer
+   * @param executor the executor to decode on, or null to use the configured batch executor
+   */
+  @SuppressWarnings("unchecked")
+  protected <T> List<T> deserializeBatch(
+      List<String> topics,
+      List<byte[]> payloads,
+      boolean isKey,
+      BiFunction<String, byte[], T> deserializer,
+      Executor executor) {
+    int size = payloads.size();
+    if (size == 0) {
+      return Collections.emptyList();
+    }
+    if (executor == null) {
+      executor = batchExecutor();
+    }
+    resolveSchemas(topics, payloads, isKey);
+
+    Object[] results = new Object[size];
+    int chunks = Math.min(size, BATCH_CHUNKS_PER_THREAD * parallelism(executor));
+    if (chunks <= 1) {
+      for (int i = 0; i < size; i++) {
+        results[i] = deserializer.apply(topics.get(i), payloads.get(i));
+      }
+    } else {
+      List<CompletableFuture<Void>> futures = new ArrayList<>(chunks);
+      for (int chunk = 0; chunk < chunks; chunk++) {
+        int from = (int) ((long) size * chunk / chunks);
+        int to = (int) ((long) size * (chunk + 1) / chunks);
+        futures.add(CompletableFuture.runAsync(() -> {
+          for (int i = from; i < to; i++) {
+            results[i] = deserializer.apply(topics.get(i), payloads.get(i));
+          }
+        }, executor));
+      }
+      for (CompletableFuture<Void> future : futures) {
+        try {
+          future.join();
+        } catch (CompletionException e) {
+          if (e.getCause() instanceof RuntimeException) {
+            throw (RuntimeException) e.getCause();
+          }
+          throw new SerializationException("Error deserializing batch", e.getCause());
+        }
+      }
+    }
+    List<T> list = new ArrayList<>(size);
+    for (Object result : results) {
+      list.add((T) result);
+    }
+    return list;
+  }
+
+  /**
+   * Fetches the schema for each distinct schema ID in the batch, so that it is cached by the
+   * schema registry client under the subject that the per-record path looks it up by. Failures
+   * are ignored here and reported by the per-record path.
+   */
+  private void resolveSchemas(List<String> topics, List<byte[]> payloads, boolean isKey) {
+    Map<String, Set<Integer>> resolved = new HashMap<>();
+    for (int i = 0; i < payloads.size(); i++) {
+      byte[] payload = payloads.get(i);
+      if (payload == null || payload.length < 1 + idSize || payload[0] != MAGIC_BYTE) {
+        continue;
+      }
+      int id = ByteBuffer.wrap(payload, 1, idSize).getInt();
+      String subject = lookupSubjectName(topics.get(i), isKey);
+      if (resolved.computeIfAbsent(subject, k -> new HashSet<>()).add(id)) {
+        long start = startMetricsTimer();
+        try {
+          schemaRegistry.getSchemaBySubjectAndId(subject, id);
+        } catch (IOException | RestClientException | RuntimeException e) {
+          // ignore, the deserializer reports the error for each affected record
+        }
+        recordSchemaLookupMetrics(start);
+      }
+    }
+  }
+
+  private synchronized Executor batchExecutor() {
+    if (batchParallelism <= 0) {
+      return ForkJoinPool.commonPool();
+    }
+    if (batchPool == null) {
+      batchPool = new ForkJoinPool(batchParallelism);
+    }
+    return batchPool;
+  }
+
+  private static int parallelism(Executor executor) {
+    if (executor instanceof ForkJoinPool) {
+      return ((ForkJoinPool) executor).getParallelism();
+    }
+    return Runtime.getRuntime().availableProcessors();
+  }
+
+  /**
+   * Shuts down the fork-join pool created for the batch APIs, if any.
+   */
+  protected synchronized void closeBatchExecutor() {
+    if (batchPool != null) {
+      batchPool.shutdown();
+      batchPool = null;
+    }
   }
 
   /**
@@ -99,6 +313,20 @@ public abstract class AbstractKafkaSchemaSerDe {
     return getContextName(topic, subject);
   }
 
+  /**
+   * Returns the subject that deserializers look up a schema ID under, before they know the
+   * schema: the context of the topic if the subject name strategy needs the schema, otherwise
+   * the subject of the topic.
+   */
+  protected String lookupSubjectName(String topic, boolean isKey) {
+    if (strategyUsesSchema(isKey)) {
+      return getContextName(topic);
+    }
+    return isDeprecatedSubjectNameStrategy(isKey)
+        ? null
+        : getSubjectName(topic, isKey, null, null);
+  }
+
   protected String getContextName(String topic) {
     return getContextName(topic, null);
   }
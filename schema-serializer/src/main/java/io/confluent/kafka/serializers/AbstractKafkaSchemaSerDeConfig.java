@@ -162,6 +162,25 @@ public class AbstractKafkaSchemaSerDeConfig extends AbstractConfig {
       "The port number of the proxy server that will be used to connect to the schema registry "
           + "instances.";
 
+  public static final String SERDE_METRICS_ENABLED = "serde.metrics.enabled";
+  public static final boolean SERDE_METRICS_ENABLED_DEFAULT = false;
+  public static final String SERDE_METRICS_ENABLED_DOC =
+      "Whether to record per-topic serialization latency and size metrics, as well as the time "
+          + "spent retrieving schemas from schema registry, and report them over JMX.";
+
+  public static final String SERDE_METRICS_SAMPLE_RATE = "serde.metrics.sample.rate";
+  public static final double SERDE_METRICS_SAMPLE_RATE_DEFAULT = 0.01;
+  public static final String SERDE_METRICS_SAMPLE_RATE_DOC =
+      "The fraction of records, between 0 and 1, whose serialization is timed when "
+          + SERDE_METRICS_ENABLED + " is true.";
+
+  public static final String BATCH_DESERIALIZE_PARALLELISM = "batch.deserialize.parallelism";
+  public static final int BATCH_DESERIALIZE_PARALLELISM_DEFAULT = 0;
+  public static final String BATCH_DESERIALIZE_PARALLELISM_DOC =
+      "The number of threads used by the deserializer batch APIs when no executor is passed "
+          + "in. If 0, the common fork-join pool is used; otherwise the deserializer creates its "
+          + "own fork-join pool with this parallelism.";
+
   public static ConfigDef baseConfigDef() {
     ConfigDef configDef = new ConfigDef()
         .define(SCHEMA_REGISTRY_URL_CONFIG, Type.LIST,
@@ -201,7 +220,15 @@ public class AbstractKafkaSchemaSerDeConfig extends AbstractConfig {
         .define(PROXY_HOST, Type.STRING, PROXY_HOST_DEFAULT,
                 Importance.LOW, PROXY_HOST_DOC)
         .define(PROXY_PORT, Type.INT, PROXY_PORT_DEFAULT,
-                Importance.LOW, PROXY_PORT_DOC);
+                Importance.LOW, PROXY_PORT_DOC)
+        .define(SERDE_METRICS_ENABLED, Type.BOOLEAN, SERDE_METRICS_ENABLED_DEFAULT,
+                Importance.LOW, SERDE_METRICS_ENABLED_DOC)
+        .define(SERDE_METRICS_SAMPLE_RATE, Type.DOUBLE, SERDE_METRICS_SAMPLE_RATE_DEFAULT,
+                ConfigDef.Range.between(0.0, 1.0), Importance.LOW,
+                SERDE_METRICS_SAMPLE_RATE_DOC)
+        .define(BATCH_DESERIALIZE_PARALLELISM, Type.INT, BATCH_DESERIALIZE_PARALLELISM_DEFAULT,
+                ConfigDef.Range.atLeast(0), Importance.LOW,
+                BATCH_DESERIALIZE_PARALLELISM_DOC);
     SchemaRegistryClientConfig.withClientSslSupport(
         configDef, SchemaRegistryClientConfig.CLIENT_NAMESPACE);
     return configDef;
@@ -263,6 +290,18 @@ public class AbstractKafkaSchemaSerDeConfig extends AbstractConfig {
     return this.getBoolean(SCHEMA_REFLECTION_CONFIG);
   }
 
+  public boolean serdeMetricsEnabled() {
+    return this.getBoolean(SERDE_METRICS_ENABLED);
+  }
+
+  public double serdeMetricsSampleRate() {
+    return this.getDouble(SERDE_METRICS_SAMPLE_RATE);
+  }
+
+  public int batchDeserializeParallelism() {
+    return this.getInt(BATCH_DESERIALIZE_PARALLELISM);
+  }
+
   public Map<String, String> requestHeaders() {
     return originalsWithPrefix(REQUEST_HEADER_PREFIX).entrySet().stream()
         .collect(Collectors.toMap(Map.Entry::getKey, entry -> Objects.toString(entry.getValue())));
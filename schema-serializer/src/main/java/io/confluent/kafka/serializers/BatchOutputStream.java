@@ -0,0 +1,107 @@
+/*
+ * Copyright 2022 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.kafka.serializers;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A growable buffer into which a serializer writes a batch of records one after another, so
+ * that the whole batch shares a single backing array. Each record is framed by
+ * {@link #startRecord(int)} and {@link #endRecord()}, and {@link #records()} returns one
+ * slice of the buffer per record.
+ */
+public class BatchOutputStream extends ByteArrayOutputStream {
+
+  private static final int NULL_RECORD = -1;
+  private static final int INITIAL_RECORDS = 16;
+
+  private int[] starts = new int[INITIAL_RECORDS];
+  private int[] ends = new int[INITIAL_RECORDS];
+  private int numRecords;
+  private int recordStart = NULL_RECORD;
+
+  public BatchOutputStream(int size) {
+    super(size);
+  }
+
+  /**
+   * Starts a new record by writing the magic byte and the given schema ID.
+   */
+  public void startRecord(int id) {
+    if (recordStart != NULL_RECORD) {
+      throw new IllegalStateException("Previous record was not ended");
+    }
+    recordStart = count;
+    write(AbstractKafkaSchemaSerDe.MAGIC_BYTE);
+    write(id >>> 24);
+    write(id >>> 16);
+    write(id >>> 8);
+    write(id);
+  }
+
+  /**
+   * Ends the current record.
+   */
+  public void endRecord() {
+    if (recordStart == NULL_RECORD) {
+      throw new IllegalStateException("No record was started");
+    }
+    addRecord(recordStart, count);
+    recordStart = NULL_RECORD;
+  }
+
+  /**
+   * Adds a null record, which has no bytes in the buffer.
+   */
+  public void nullRecord() {
+    if (recordStart != NULL_RECORD) {
+      throw new IllegalStateException("Previous record was not ended");
+    }
+    addRecord(NULL_RECORD, NULL_RECORD);
+  }
+
+  private void addRecord(int start, int end) {
+    if (numRecords == starts.length) {
+      starts = Arrays.copyOf(starts, numRecords * 2);
+      ends = Arrays.copyOf(ends, numRecords * 2);
+    }
+    starts[numRecords] = start;
+    ends[numRecords] = end;
+    numRecords++;
+  }
+
+  /**
+   * Returns the records, in order, as slices of the shared buffer. This should be called once
+   * all records are written, since the buffer may be reallocated as it grows. A null record is
+   * returned as null.
+   */
+  public List<ByteBuffer> records() {
+    List<ByteBuffer> records = new ArrayList<>(numRecords);
+    for (int i = 0; i < numRecords; i++) {
+      if (starts[i] == NULL_RECORD) {
+        records.add(null);
+      } else {
+        records.add(ByteBuffer.wrap(buf, starts[i], ends[i] - starts[i]).slice());
+      }
+    }
+    return records;
+  }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2022 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.kafka.serializers;
+
+import io.confluent.kafka.schemaregistry.client.CachedSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.utils.BoundedConcurrentIntMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches what converters translate registry schemas into, such as Connect schemas and compiled
+ * conversions, by schema id and version.
+ *
+ * <p>A converter knows the schema id and version of every record, so looking up the translation
+ * by them costs one int lookup, instead of hashing or comparing the schema. Converters with the
+ * same configuration share a cache through {@link #shared(Object...)}, so the schemas of a worker
+ * are translated once rather than once per task, and release it when they are closed. The schema
+ * id must refer to the same schema for every topic, see
+ * {@link AbstractKafkaSchemaSerDe#schemaIdsSharedAcrossTopics()}.
+ */
+public final class SchemaTranslationCache<T> {
+
+  private static final int DEFAULT_CACHE_CAPACITY = 1000;
+  // The same schema may have different versions under different subjects
+  private static final int MAX_VERSIONS_PER_ID = 8;
+
+  private static final Map<List<Object>, SchemaTranslationCache<?>> sharedCaches =
+      new ConcurrentHashMap<>();
+
+  private final BoundedConcurrentIntMap<Translation<T>> translations;
+  // The scope of a shared cache, or null if it is not shared
+  private final List<Object> scope;
+  // The number of callers that have not released a shared cache, guarded by sharedCaches
+  private int references;
+
+  public SchemaTranslationCache() {
+    this(DEFAULT_CACHE_CAPACITY);
+  }
+
+  public SchemaTranslationCache(int capacity) {
+    this(capacity, null);
+  }
+
+  private SchemaTranslationCache(int capacity, List<Object> scope) {
+    this.translations = new BoundedConcurrentIntMap<>(capacity);
+    this.scope = scope;
+  }
+
+  /**
+   * Returns the cache shared by all callers that pass equal scopes, which must
+   * {@link #release()} it when they no longer use it. The scope must include everything that the
+   * translation depends on besides the schema id and version, such as the converter type,
+   * whether it converts keys, the registry and the data configuration. It is held for as long as
+   * the cache is used, so it must not include secrets, such as the credentials of the registry.
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> SchemaTranslationCache<T> shared(Object... scope) {
+    return (SchemaTranslationCache<T>) sharedCaches.compute(Arrays.asList(scope), (s, cache) -> {
+      if (cache == null) {
+        cache = new SchemaTranslationCache<>(DEFAULT_CACHE_CAPACITY, s);
+      }
+      cache.references++;
+      return cache;
+    });
+  }
+
+  /**
+   * Returns the part of a scope that identifies the schema registry, since schema ids only
+   * identify schemas within a registry. Clients created from the same URLs talk to the same
+   * registry, while other clients, such as provided or mock clients, are told apart by identity.
+   *
+   * @param client the schema registry client of the converter
+   * @param created whether the converter created the client from its configuration
+   * @param urls the schema registry URLs of the configuration
+   */
+  public static Object registryScope(
+      SchemaRegistryClient client, boolean created, List<String> urls) {
+    return created && client instanceof CachedSchemaRegistryClient ? urls : client;
+  }
+
+  /**
+   * Releases a cache returned by {@link #shared(Object...)}, which is dropped once every caller
+   * has released it. Does nothing if the cache is not shared.
+   */
+  public void release() {
+    if (scope == null) {
+      return;
+    }
+    sharedCaches.computeIfPresent(scope, (s, cache) ->
+        cache != this || --cache.references > 0 ? cache : null);
+  }
+
+  /**
+   * Returns the schema id of a payload in the wire format, whose magic byte has been checked.
+   */
+  public static int schemaId(byte[] payload) {
+    return ((payload[1] & 0xff) << 24)
+        | ((payload[2] & 0xff) << 16)
+        | ((payload[3] & 0xff) << 8)
+        | (payload[4] & 0xff);
+  }
+
+  /**
+   * Returns the cached translation of the schema, or null if there is none.
+   */
+  public T get(int id, int version) {
+    for (Translation<T> t = translations.get(id); t != null; t = t.next) {
+      if (t.version == version) {
+        return t.value;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Caches the translation of the schema.
+   */
+  public void put(int id, int version, T value) {
+    List<Translation<T>> others = new ArrayList<>();
+    for (Translation<T> t = translations.get(id);
+        t != null && others.size() < MAX_VERSIONS_PER_ID - 1; t = t.next) {
+      if (t.version != version) {
+        others.add(t);
+      }
+    }
+    Translation<T> next = null;
+    for (int i = others.size() - 1; i >= 0; i--) {
+      next = new Translation<>(others.get(i).version, others.get(i).value, next);
+    }
+    // Racing writers may drop each other's translations, which are then translated again
+    translations.put(id, new Translation<>(version, value, next));
+  }
+
+  public void clear() {
+    translations.clear();
+  }
+
+  private static final class Translation<T> {
+    private final int version;
+    private final T value;
+    private final Translation<T> next;
+
+    private Translation(int version, T value, Translation<T> next) {
+      this.version = version;
+      this.value = value;
+      this.next = next;
+    }
+  }
+}
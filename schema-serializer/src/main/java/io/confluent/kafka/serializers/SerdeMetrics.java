@@ -0,0 +1,271 @@
+/*
+ * Copyright 2022 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.kafka.serializers;
+
+import com.google.common.collect.MapMaker;
+import io.confluent.kafka.schemaregistry.utils.BoundedCache;
+import io.confluent.kafka.schemaregistry.utils.CacheStats;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.JmxReporter;
+import org.apache.kafka.common.metrics.KafkaMetricsContext;
+import org.apache.kafka.common.metrics.Measurable;
+import org.apache.kafka.common.metrics.MetricConfig;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.common.metrics.stats.Avg;
+import org.apache.kafka.common.metrics.stats.Max;
+import org.apache.kafka.common.metrics.stats.Percentile;
+import org.apache.kafka.common.metrics.stats.Percentiles;
+import org.apache.kafka.common.metrics.stats.Percentiles.BucketSizing;
+import org.apache.kafka.common.utils.Time;
+
+/**
+ * Optional, sampled metrics for serializers and deserializers.
+ *
+ * <p>Records per-topic encode and decode latency and payload size histograms, as well as the
+ * time spent waiting on the schema registry client. Only a configurable fraction of records is
+ * timed, so that the cost on the hot path stays negligible. The size, evictions and hit rate of
+ * the caches of the serdes are reported as well.
+ *
+ * <p>Kafka does not hand its client metrics to serializers and deserializers, so all serdes in
+ * the JVM share one Kafka {@link Metrics} registry, reported over JMX under
+ * {@value #JMX_PREFIX}. The registry is closed when the last serde that uses it is closed.
+ */
+public class SerdeMetrics {
+
+  public static final String JMX_PREFIX = "kafka.schema.registry.serde";
+  public static final String METRIC_GROUP = "schema-registry-serde-metrics";
+
+  /**
+   * Returned by {@link #startTimer()} when the current record is not sampled.
+   */
+  public static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+  private static final long INACTIVE_SENSOR_EXPIRATION_SECONDS = TimeUnit.HOURS.toSeconds(1);
+  // 1000 buckets of constant width, so 0.1 ms, 1 ms and 1 KB wide; larger values count as the max
+  private static final int HISTOGRAM_SIZE_BYTES = 4000;
+  private static final double MAX_LATENCY_MS = 100;
+  private static final double MAX_LOOKUP_MS = TimeUnit.SECONDS.toMillis(1);
+  private static final double MAX_SIZE_BYTES = 1024 * 1024;
+
+  private static volatile Metrics metrics;
+  private static int openInstances;
+  // The caches registered under each metric name, held weakly so that closed serdes go away
+  private static final Map<String, Set<BoundedCache<?, ?>>> caches = new HashMap<>();
+
+  private final String clientId;
+  private final double sampleRate;
+  private boolean closed;
+
+  public SerdeMetrics(String clientId, double sampleRate) {
+    this.clientId = clientId != null ? clientId : "";
+    this.sampleRate = sampleRate;
+    synchronized (SerdeMetrics.class) {
+      if (openInstances++ == 0) {
+        metrics = new Metrics(
+            new MetricConfig(),
+            Collections.singletonList(new JmxReporter()),
+            Time.SYSTEM,
+            true,
+            new KafkaMetricsContext(JMX_PREFIX)
+        );
+      }
+    }
+  }
+
+  /**
+   * Releases the shared metrics registry, which is closed with its sensors once no serde uses it.
+   */
+  public void close() {
+    synchronized (SerdeMetrics.class) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      if (--openInstances == 0) {
+        metrics.close();
+        metrics = null;
+        caches.clear();
+      }
+    }
+  }
+
+  /**
+   * Starts timing an operation, if the current record is sampled.
+   *
+   * @return the start time in nanoseconds, or {@link #NOT_SAMPLED}
+   */
+  public long startTimer() {
+    if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+      return NOT_SAMPLED;
+    }
+    return System.nanoTime();
+  }
+
+  public void recordSerialize(String topic, boolean isKey, long startNs, byte[] bytes) {
+    record("serialize", topic, isKey, startNs, bytes != null ? bytes.length : -1);
+  }
+
+  /**
+   * Records the serialization of a record that was written into a shared buffer.
+   *
+   * @param size the size of the serialized record, in bytes
+   */
+  public void recordSerialize(String topic, boolean isKey, long startNs, int size) {
+    record("serialize", topic, isKey, startNs, size);
+  }
+
+  public void recordDeserialize(String topic, boolean isKey, long startNs, byte[] bytes) {
+    record("deserialize", topic, isKey, startNs, bytes != null ? bytes.length : -1);
+  }
+
+  public void recordSchemaLookup(long startNs) {
+    if (startNs == NOT_SAMPLED) {
+      return;
+    }
+    double latencyMs = elapsedMs(startNs);
+    Map<String, String> tags = Collections.singletonMap("client-id", clientId);
+    Sensor sensor = sensor("schema-lookup-time", tags, MAX_LOOKUP_MS,
+        "time spent retrieving schemas and IDs from the schema registry client");
+    if (sensor != null) {
+      sensor.record(latencyMs);
+    }
+  }
+
+  /**
+   * Reports the size, evictions and hit rate of a cache. The caches that the serdes of a client
+   * register under the same name are reported together.
+   */
+  public void registerCache(String name, BoundedCache<?, ?> cache) {
+    Map<String, String> tags = Collections.singletonMap("client-id", clientId);
+    String cachesName = name + ":" + tags;
+    synchronized (SerdeMetrics.class) {
+      if (metrics == null) {
+        return;
+      }
+      Set<BoundedCache<?, ?>> registered = caches.get(cachesName);
+      if (registered == null) {
+        Set<BoundedCache<?, ?>> all =
+            Collections.newSetFromMap(new MapMaker().weakKeys().makeMap());
+        registered = all;
+        caches.put(cachesName, all);
+        addGauge(metrics.metricName(name + "-size", METRIC_GROUP,
+            "The number of entries in the " + name, tags),
+            (config, now) -> all.stream().mapToLong(BoundedCache::size).sum());
+        addGauge(metrics.metricName(name + "-eviction-total", METRIC_GROUP,
+            "The total number of entries evicted from the " + name, tags),
+            (config, now) -> all.stream().mapToLong(c -> c.stats().evictionCount()).sum());
+        addGauge(metrics.metricName(name + "-hit-rate", METRIC_GROUP,
+            "The ratio of lookups in the " + name + " that were hits", tags),
+            (config, now) -> hitRate(all));
+      }
+      registered.add(cache);
+    }
+  }
+
+  private static void addGauge(MetricName metricName, Measurable measurable) {
+    if (metrics.metric(metricName) == null) {
+      metrics.addMetric(metricName, measurable);
+    }
+  }
+
+  private static double hitRate(Set<BoundedCache<?, ?>> caches) {
+    long hits = 0;
+    long requests = 0;
+    for (BoundedCache<?, ?> cache : caches) {
+      CacheStats stats = cache.stats();
+      hits += stats.hitCount();
+      requests += stats.requestCount();
+    }
+    return requests == 0 ? 1.0 : (double) hits / requests;
+  }
+
+  private void record(String operation, String topic, boolean isKey, long startNs, int size) {
+    if (startNs == NOT_SAMPLED) {
+      return;
+    }
+    double latencyMs = elapsedMs(startNs);
+    Map<String, String> tags = new LinkedHashMap<>();
+    tags.put("client-id", clientId);
+    tags.put("topic", topic != null ? topic : "");
+    tags.put("is-key", String.valueOf(isKey));
+    Sensor latency = sensor(operation + "-latency", tags, MAX_LATENCY_MS,
+        "time to " + operation + " a record, in milliseconds");
+    if (latency != null) {
+      latency.record(latencyMs);
+    }
+    if (size >= 0) {
+      Sensor sizes = sensor(operation + "-size", tags, MAX_SIZE_BYTES,
+          "size of a " + operation + "d record, in bytes");
+      if (sizes != null) {
+        sizes.record(size);
+      }
+    }
+  }
+
+  private static double elapsedMs(long startNs) {
+    return (System.nanoTime() - startNs) / (double) TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+  /**
+   * Returns the sensor, or null if the metrics registry has been closed.
+   */
+  private static Sensor sensor(
+      String name, Map<String, String> tags, double max, String description) {
+    String sensorName = name + ":" + tags;
+    Metrics current = metrics;
+    if (current == null) {
+      return null;
+    }
+    Sensor sensor = current.getSensor(sensorName);
+    if (sensor != null) {
+      return sensor;
+    }
+    synchronized (SerdeMetrics.class) {
+      if (metrics == null) {
+        return null;
+      }
+      sensor = metrics.getSensor(sensorName);
+      if (sensor == null) {
+        sensor = metrics.sensor(sensorName, null, INACTIVE_SENSOR_EXPIRATION_SECONDS);
+        sensor.add(metrics.metricName(name + "-avg", METRIC_GROUP,
+            "The average " + description, tags), new Avg());
+        sensor.add(metrics.metricName(name + "-max", METRIC_GROUP,
+            "The maximum " + description, tags), new Max());
+        sensor.add(new Percentiles(HISTOGRAM_SIZE_BYTES, max, BucketSizing.CONSTANT,
+            percentile(name, 50, description, tags),
+            percentile(name, 95, description, tags),
+            percentile(name, 99, description, tags)));
+      }
+      return sensor;
+    }
+  }
+
+  private static Percentile percentile(
+      String name, int percentile, String description, Map<String, String> tags) {
+    return new Percentile(metrics.metricName(name + "-p" + percentile, METRIC_GROUP,
+        "The " + percentile + "th percentile " + description, tags), percentile);
+  }
+}
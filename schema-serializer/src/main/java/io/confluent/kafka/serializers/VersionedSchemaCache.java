@@ -0,0 +1,101 @@
+/*
+ * Copyright 2022 Confluent Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.confluent.kafka.serializers;
+
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.utils.BoundedConcurrentIntMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches the schema that a deserializer resolves for a schema id when deserializing with schema
+ * and version, together with the version of that schema under the subject.
+ *
+ * <p>Converters deserialize every record with its schema and version. Resolving them goes
+ * through several schema registry client lookups, some of which hash the whole schema, so the
+ * result is cached here by schema id, and then by topic, since the subject is derived from the
+ * topic. The cache must only be used with subject name strategies that derive the subject from
+ * the topic and schema, and not from the deserialized object.
+ */
+public class VersionedSchemaCache<S extends ParsedSchema> {
+
+  private static final int DEFAULT_CACHE_CAPACITY = 1000;
+
+  private final BoundedConcurrentIntMap<Map<String, VersionedSchema<S>>> keySchemas;
+  private final BoundedConcurrentIntMap<Map<String, VersionedSchema<S>>> valueSchemas;
+
+  public VersionedSchemaCache() {
+    this(DEFAULT_CACHE_CAPACITY);
+  }
+
+  public VersionedSchemaCache(int capacity) {
+    this.keySchemas = new BoundedConcurrentIntMap<>(capacity);
+    this.valueSchemas = new BoundedConcurrentIntMap<>(capacity);
+  }
+
+  /**
+   * Returns the cached schema and version for the given schema id, or null if there is none.
+   */
+  public VersionedSchema<S> get(String topic, boolean isKey, int id) {
+    if (topic == null) {
+      return null;
+    }
+    Map<String, VersionedSchema<S>> byTopic = (isKey ? keySchemas : valueSchemas).get(id);
+    return byTopic != null ? byTopic.get(topic) : null;
+  }
+
+  /**
+   * Caches the schema and version resolved for the given schema id.
+   *
+   * @return the cached schema and version
+   */
+  public VersionedSchema<S> put(String topic, boolean isKey, int id, S schema, Integer version) {
+    VersionedSchema<S> versionedSchema = new VersionedSchema<>(schema, version);
+    if (topic != null) {
+      BoundedConcurrentIntMap<Map<String, VersionedSchema<S>>> schemas =
+          isKey ? keySchemas : valueSchemas;
+      Map<String, VersionedSchema<S>> byTopic = schemas.get(id);
+      if (byTopic == null) {
+        byTopic = new ConcurrentHashMap<>();
+        Map<String, VersionedSchema<S>> existing = schemas.putIfAbsent(id, byTopic);
+        if (existing != null) {
+          byTopic = existing;
+        }
+      }
+      byTopic.put(topic, versionedSchema);
+    }
+    return versionedSchema;
+  }
+
+  public static class VersionedSchema<S extends ParsedSchema> {
+    private final S schema;
+    private final Integer version;
+
+    VersionedSchema(S schema, Integer version) {
+      this.schema = schema;
+      this.version = version;
+    }
+
+    public S schema() {
+      return schema;
+    }
+
+    public Integer version() {
+      return version;
+    }
+  }
+}